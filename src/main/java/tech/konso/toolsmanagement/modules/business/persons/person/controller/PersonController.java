@@ -8,23 +8,43 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.konso.toolsmanagement.modules.business.persons.person.controller.dto.*;
 import tech.konso.toolsmanagement.modules.business.persons.person.persistence.dao.Person;
 import tech.konso.toolsmanagement.modules.business.persons.person.service.PersonService;
+import tech.konso.toolsmanagement.modules.integration.facade.PhotoSize;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.FileStream;
+import tech.konso.toolsmanagement.modules.integration.upload.dto.PhotoUploadInfo;
+import tech.konso.toolsmanagement.modules.integration.upload.persistence.dao.enums.UploadStatus;
+import tech.konso.toolsmanagement.system.commons.http.HttpCaching;
+import tech.konso.toolsmanagement.system.commons.pagination.KeysetCursor;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
+import tech.konso.toolsmanagement.system.commons.suggest.SuggestResponse;
 
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 
 import static tech.konso.toolsmanagement.modules.business.persons.person.persistence.specification.PersonSpecification.*;
+import static tech.konso.toolsmanagement.system.commons.pagination.TwoPhasePagingEngine.countKey;
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.specBuilder;
 
 @Slf4j
@@ -38,37 +58,72 @@ public class PersonController {
     @Autowired
     private PersonService service;
 
-    @Operation(summary = "Get person by id")
+    @Operation(summary = "Get person by id, supports conditional request by ETag and Last-Modified")
     @Parameters({
             @Parameter(name = "id", description = "id of person to be searched", example = "7", required = true)
     })
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public PersonInfo find(@PathVariable("id") Long id) {
-        return service.findById(id);
+    public ResponseEntity<PersonInfo> find(@PathVariable("id") Long id,
+                                       @Parameter(hidden = true) @RequestHeader HttpHeaders requestHeaders) {
+        LocalDateTime updatedAt = service.findLastModified(id);
+        String eTag = HttpCaching.eTag(id, updatedAt);
+        long lastModified = HttpCaching.lastModified(updatedAt);
+        if (HttpCaching.isNotModified(requestHeaders, eTag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).lastModified(lastModified)
+                    .cacheControl(HttpCaching.REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).lastModified(lastModified)
+                .cacheControl(HttpCaching.REVALIDATE).body(service.findById(id));
     }
 
     @Operation(summary = "List persons by filter")
     @Parameters({
-            @Parameter(name = "page", description = "page number of result dataset, min value is 1", example = "1", required = true),
+            @Parameter(name = "page", description = "page number of result dataset, min value is 1, ignored with after cursor", example = "1"),
             @Parameter(name = "size", description = "size of result dataset page, min value is 1, max value is 50", example = "20", required = true),
             @Parameter(name = "name", description = "name of person, min length is 3", example = "Smith"),
             @Parameter(name = "isArchived", description = "Archived flag, false by default", example = "false"),
             @Parameter(name = "sort", description = "Sorting filter supports: name(person name), createdat(created date), updatedat(updated date)." +
                     " Every filter supports asc and desc order. By default sorts by create date in desc order. " +
-                    "To choose sorting order type filter name and, by comma separator, order (asd, desc)", example = "name,asc")
+                    "To choose sorting order type filter name and, by comma separator, order (asd, desc)", example = "name,asc"),
+            @Parameter(name = "after", description = "Cursor of the next page from nextCursor of the previous response. " +
+                    "Must be used with the same filters and sort, page is ignored and total items are not counted. " +
+                    "Empty cursor starts from the first page"),
+            @Parameter(name = "totals", description = "How total items are calculated: exact(count, may be cached for a few seconds), " +
+                    "estimate(approximate for large results), none(only hasNext flag), exact by default", example = "exact")
     })
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public PersonFilterResponse findAll(@RequestParam(value = "page") @Min(1) int page,
+    public PersonFilterResponse findAll(@RequestParam(value = "page", required = false, defaultValue = "1") @Min(1) int page,
                                         @RequestParam(value = "size") @Min(1) @Max(50) int size,
                                         @RequestParam(value = "name", required = false) String name,
                                         @RequestParam(value = "isArchived", required = false, defaultValue = "false") Boolean isArchived,
-                                        @RequestParam(value = "sort", required = false) String sort) {
-        // UI pages starts with 1
-        Page<PersonFilterInfo> persons = service.findAll(page - 1, size, specBuilder(isArchivedSpec(isArchived)
+                                        @RequestParam(value = "sort", required = false) String sort,
+                                        @RequestParam(value = "after", required = false) String after,
+                                        @RequestParam(value = "totals", required = false, defaultValue = "exact") String totals) {
+        Specification<Person> spec = specBuilder(isArchivedSpec(isArchived)
                 .and(likeSpec(name))
-                .and(sortSpec(sort)))
-                .build());
-        return new PersonFilterResponse(persons.getContent(), persons.getTotalElements());
+                .and(sortSpec(sort))
+                .and(afterSpec(sort, after)))
+                .build();
+        if (after != null) {
+            Slice<PersonFilterInfo> persons = service.findSlice(0, size, spec);
+            return new PersonFilterResponse(persons.getContent(), null, KeysetCursor.next(persons, sort), persons.hasNext(), TotalsMode.NONE);
+        }
+        TotalsMode totalsMode = TotalsMode.of(totals);
+        // UI pages starts with 1
+        Slice<PersonFilterInfo> persons = service.findAll(page - 1, size, spec, totalsMode, countKey(isArchived, name));
+        return new PersonFilterResponse(persons.getContent(), TotalsMode.totalItems(persons), KeysetCursor.next(persons, sort),
+                persons.hasNext(), totalsMode);
+    }
+
+    @Operation(summary = "Suggest full names of not archived persons, which surname starts with prefix, for autocomplete")
+    @Parameters({
+            @Parameter(name = "prefix", description = "beginning of person surname, case is ignored", example = "mor", required = true),
+            @Parameter(name = "size", description = "max number of suggestions, min value is 1, max value is 50, 10 by default", example = "10")
+    })
+    @GetMapping(value = "/suggest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public SuggestResponse suggest(@RequestParam(value = "prefix") @NotBlank String prefix,
+                                   @RequestParam(value = "size", required = false, defaultValue = "10") @Min(1) @Max(50) int size) {
+        return new SuggestResponse(service.suggest(prefix, size));
     }
 
     @Operation(summary = "Update existing person by id")
@@ -98,13 +153,55 @@ public class PersonController {
         return ResponseEntity.created(location).build();
     }
 
-    @Operation(summary = "Get person photo by person id")
+    @Operation(summary = "Get person photo by person id in requested size, streamed from file storage, supports Range header and conditional request by ETag")
     @Parameters({
-            @Parameter(name = "id", description = "id of person", example = "7", required = true)
+            @Parameter(name = "id", description = "id of person", example = "7", required = true),
+            @Parameter(name = "size", description = "size of photo: thumb, medium or full", example = "thumb")
     })
     @GetMapping(value = "/{id}/photo", produces = MediaType.IMAGE_JPEG_VALUE)
-    public InputStreamResource findPhoto(@PathVariable("id") Long id) {
-        return service.findPhoto(id);
+    public ResponseEntity<StreamingResponseBody> findPhoto(@PathVariable("id") Long id,
+                                                           @RequestParam(value = "size", required = false, defaultValue = "full") String size,
+                                                           @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                           @Parameter(hidden = true) @RequestHeader HttpHeaders requestHeaders) {
+        PhotoSize photoSize = PhotoSize.of(size);
+        UUID photoUuid = service.findPhotoUuid(id);
+        String eTag = photoSize == PhotoSize.FULL
+                ? HttpCaching.eTag(photoUuid)
+                : HttpCaching.eTag(photoUuid, photoSize.name().toLowerCase());
+        if (HttpCaching.isNotModified(requestHeaders, eTag, -1)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(HttpCaching.REVALIDATE).build();
+        }
+        FileStream photo = service.findPhoto(photoUuid, photoSize, range);
+        return ResponseEntity.status(photo.status()).headers(photo.headers()).eTag(eTag)
+                .cacheControl(HttpCaching.REVALIDATE).body(photo::writeTo);
+    }
+
+    @Operation(summary = "Get photo uuids of persons by ids with one query, persons without photo are skipped")
+    @Parameters({
+            @Parameter(name = "ids", description = "ids of persons, max 100 ids per request", example = "7,8,9", required = true)
+    })
+    @GetMapping(value = "/photos", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<PersonPhotoInfo> findPhotoUuids(@RequestParam(value = "ids") @NotEmpty @Size(max = 100) List<Long> ids) {
+        return service.findPhotoUuids(ids);
+    }
+
+    @Operation(summary = "Get photos of persons by ids in requested size as zip archive, photo of every person is named by person id, " +
+            "persons without photo are skipped")
+    @Parameters({
+            @Parameter(name = "ids", description = "ids of persons, max 100 ids per request", example = "7,8,9", required = true),
+            @Parameter(name = "size", description = "size of photos: thumb, medium or full, thumb by default", example = "thumb")
+    })
+    @GetMapping(value = "/photos/archive", produces = "application/zip")
+    public ResponseEntity<StreamingResponseBody> findPhotoArchive(@RequestParam(value = "ids") @NotEmpty @Size(max = 100) List<Long> ids,
+                                                                  @RequestParam(value = "size", required = false, defaultValue = "thumb") String size) {
+        PhotoSize photoSize = PhotoSize.of(size);
+        List<PersonPhotoInfo> photos = service.findPhotoUuids(ids);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("persons-photos.zip")
+                        .build()
+                        .toString())
+                .body(out -> service.writePhotoArchive(photos, photoSize, out));
     }
 
     @Operation(summary = "Upload person photo")
@@ -112,4 +209,25 @@ public class PersonController {
     public UploadPhotoResponse uploadPhoto(@RequestPart("attachment") MultipartFile multipartFile) {
         return service.uploadPhoto(multipartFile);
     }
+
+    @Operation(summary = "Upload person photo in background, returns upload id immediately, " +
+            "photo uuid is returned by upload state, when photo is stored")
+    @PostMapping(value = "/photo/async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PhotoUploadInfo> uploadPhotoAsync(@RequestPart("attachment") MultipartFile multipartFile) {
+        UUID uploadId = service.uploadPhotoAsync(multipartFile);
+        URI location = MvcUriComponentsBuilder
+                .fromMethodName(PersonController.class, "findPhotoUpload", uploadId)
+                .build()
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(new PhotoUploadInfo(uploadId, UploadStatus.PENDING, null, null));
+    }
+
+    @Operation(summary = "Get state of person photo upload: PENDING, STORED with photo uuid or FAILED with error")
+    @Parameters({
+            @Parameter(name = "uploadId", description = "id of upload", example = "3d965e4e-cf28-45e1-91c7-1225566e6817", required = true)
+    })
+    @GetMapping(value = "/photo/uploads/{uploadId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public PhotoUploadInfo findPhotoUpload(@PathVariable("uploadId") UUID uploadId) {
+        return service.findPhotoUpload(uploadId);
+    }
 }
@@ -2,6 +2,7 @@ package tech.konso.toolsmanagement.modules.business.persons.person.controller.dt
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
+import tech.konso.toolsmanagement.system.commons.pagination.KeysetItem;
 
 import java.time.LocalDateTime;
 import java.util.Set;
@@ -57,5 +58,5 @@ public record PersonFilterInfo(@Schema(description = "person id", example = "1")
                                @Schema(description = "create date", example = "2023-08-13T18:05:29.179615")
                                LocalDateTime createdAt,
                                @Schema(description = "update date", example = "2023-08-13T18:05:29.179615")
-                               LocalDateTime updatedAt) {
+                               LocalDateTime updatedAt) implements KeysetItem {
 }
@@ -1,6 +1,7 @@
 package tech.konso.toolsmanagement.modules.business.persons.person.controller.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
 
 import java.util.List;
 
@@ -8,13 +9,22 @@ import java.util.List;
  * DTO class for response to return result set of persons in pageable format.
  *
  * @param persons    list of found persons. List size limited by page size
- * @param totalItems total number of persons found
+ * @param totalItems total number of persons found, not counted for keyset pages
+ * @param nextCursor cursor of the next page, null if there is no next page
+ * @param hasNext    flag, is there a next page
+ * @param totals     mode used to calculate total items
  */
 
 @Schema(description = "Response for return result set of persons in pageable format")
 public record PersonFilterResponse(@Schema(description = "list of found persons, list size limited by page size")
                                    List<PersonFilterInfo> persons,
-                                   @Schema(description = "total number of persons found", example = "20")
-                                   Long totalItems) {
+                                   @Schema(description = "total number of persons found, not counted for keyset pages", example = "20", nullable = true)
+                                   Long totalItems,
+                                   @Schema(description = "cursor of the next page, pass it as after parameter to get the next page", nullable = true)
+                                   String nextCursor,
+                                   @Schema(description = "is there a next page", example = "true")
+                                   Boolean hasNext,
+                                   @Schema(description = "mode used to calculate total items: exact, estimate or none", example = "exact")
+                                   TotalsMode totals) {
 }
 
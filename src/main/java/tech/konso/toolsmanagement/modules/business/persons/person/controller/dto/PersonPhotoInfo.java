@@ -0,0 +1,19 @@
+package tech.konso.toolsmanagement.modules.business.persons.person.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+/**
+ * DTO class for response to return photo uuid of person.
+ *
+ * @param id        person id
+ * @param photoUuid Person photo UUID in file storage
+ */
+@Schema(description = "Response for return person photo UUID in file storage")
+public record PersonPhotoInfo(
+        @Schema(description = "person id", example = "7")
+        Long id,
+        @Schema(description = "Person photo UUID in file storage", example = "3d965e4e-cf28-45e1-91c7-1225566e6817")
+        UUID photoUuid) {
+}
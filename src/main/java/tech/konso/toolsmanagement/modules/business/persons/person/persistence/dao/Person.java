@@ -29,10 +29,11 @@ public class Person implements Serializable {
     private static final long serialVersionUID = 1L;
 
     /**
-     * Primary key
+     * Primary key. Generated by pooled sequence, so inserts of persons can be batched
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "persons_person_id_generator")
+    @SequenceGenerator(name = "persons_person_id_generator", sequenceName = "persons_person_person_id_seq", allocationSize = 50)
     @Column(name = "person_id")
     private Long id;
 
@@ -1,19 +1,20 @@
 package tech.konso.toolsmanagement.modules.business.persons.person.persistence.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
-import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import tech.konso.toolsmanagement.modules.business.persons.person.persistence.dao.Person;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository for person entity.
@@ -28,11 +29,82 @@ public interface PersonRepository extends CrudRepository<Person, Long>, JpaSpeci
             type = EntityGraph.EntityGraphType.FETCH)
     Optional<Person> findById(Long id);
 
-    @Override
-    @EntityGraph(attributePaths = {"roles", "labels"},
-            type = EntityGraph.EntityGraphType.FETCH)
-    Page<Person> findAll(@Nullable Specification<Person> spec, Pageable pageable);
-
     @Query("SELECT p.photoUuid FROM Person p WHERE p.id = :id")
     Optional<UUID> findPhotoUuidByPersonId(Long id);
+
+    @Query("SELECT p.id AS id, p.photoUuid AS photoUuid FROM Person p WHERE p.id IN :ids AND p.photoUuid IS NOT NULL")
+    List<PhotoLink> findPhotoLinks(Collection<Long> ids);
+
+    @Query("SELECT p.updatedAt AS updatedAt, MAX(r.updatedAt) AS rolesUpdatedAt, MAX(l.updatedAt) AS labelsUpdatedAt " +
+            "FROM Person p LEFT JOIN p.roles r LEFT JOIN p.labels l WHERE p.id = :id GROUP BY p.id")
+    Optional<Versions> findVersionsById(Long id);
+
+    @Query("SELECT p.id AS personId, r.id AS referenceId FROM Person p JOIN p.roles r WHERE p.id IN :personIds")
+    List<ReferenceLink> findRoleLinks(Collection<Long> personIds);
+
+    @Query("SELECT p.id AS personId, l.id AS referenceId FROM Person p JOIN p.labels l WHERE p.id IN :personIds")
+    List<ReferenceLink> findLabelLinks(Collection<Long> personIds);
+
+    @Query("SELECT p.id AS id, p.surname AS surname, p.name AS name, p.patronymic AS patronymic FROM Person p WHERE p.isArchived = false")
+    List<SuggestRow> findSuggestRows();
+
+    /**
+     * Full name of not archived person suggested for autocomplete, selected without loading entities
+     */
+    interface SuggestRow {
+        Long getId();
+
+        String getSurname();
+
+        String getName();
+
+        String getPatronymic();
+    }
+
+    /**
+     * Link between person and its role or label, selected from join table only
+     */
+    interface ReferenceLink {
+        Long getPersonId();
+
+        Long getReferenceId();
+    }
+
+    /**
+     * Columns of person shown in list of persons, selected without loading entities
+     */
+    record ListRow(Long id, UUID uuid, String phoneNumber, UUID companyUuid, String surname, String name,
+                   String patronymic, String jobTitle, Boolean isArchived, Boolean isUnregistered,
+                   LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    /**
+     * Person id and its photo uuid, selected without loading entities
+     */
+    interface PhotoLink {
+        Long getId();
+
+        UUID getPhotoUuid();
+    }
+
+    /**
+     * Update dates of person and of references, which names are shown in person info, selected without loading entities
+     */
+    interface Versions {
+        LocalDateTime getUpdatedAt();
+
+        LocalDateTime getRolesUpdatedAt();
+
+        LocalDateTime getLabelsUpdatedAt();
+
+        /**
+         * @return the latest update date of person and its references
+         */
+        default LocalDateTime lastModified() {
+            return Stream.of(getUpdatedAt(), getRolesUpdatedAt(), getLabelsUpdatedAt())
+                    .filter(Objects::nonNull)
+                    .max(LocalDateTime::compareTo)
+                    .orElseThrow();
+        }
+    }
 }
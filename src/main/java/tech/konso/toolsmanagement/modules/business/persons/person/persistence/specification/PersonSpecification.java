@@ -4,10 +4,15 @@ import jakarta.persistence.criteria.Order;
 import org.springframework.data.jpa.domain.Specification;
 import tech.konso.toolsmanagement.modules.business.persons.person.persistence.dao.Person;
 import tech.konso.toolsmanagement.modules.business.persons.person.persistence.dao.Person_;
+import tech.konso.toolsmanagement.modules.business.persons.person.persistence.repository.PersonRepository.ListRow;
+import tech.konso.toolsmanagement.system.commons.pagination.KeysetCursor;
+import tech.konso.toolsmanagement.system.commons.pagination.Projection;
 import tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification;
+import tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.SortField;
 
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.FILTER_SEPARATOR;
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.LIKE_NAME_MIN_LENGTH;
+import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.seekPredicate;
 
 /**
  * Class with specifications for {@link Person}
@@ -32,6 +37,27 @@ public final class PersonSpecification {
                 criteriaBuilder.like(criteriaBuilder.lower(root.get(Person_.NAME)), likePattern);
     }
 
+    /**
+     * Projection of person columns shown in list of persons.
+     *
+     * @return created projection
+     */
+    public static Projection<Person, ListRow> listRowProjection() {
+        return (root, criteriaBuilder) -> criteriaBuilder.construct(ListRow.class,
+                root.get(Person_.id),
+                root.get(Person_.uuid),
+                root.get(Person_.phoneNumber),
+                root.get(Person_.companyUuid),
+                root.get(Person_.surname),
+                root.get(Person_.name),
+                root.get(Person_.patronymic),
+                root.get(Person_.jobTitle),
+                root.get(Person_.isArchived),
+                root.get(Person_.isUnregistered),
+                root.get(Person_.createdAt),
+                root.get(Person_.updatedAt));
+    }
+
     /**
      * Specification for archive flag.
      *
@@ -96,5 +122,28 @@ public final class PersonSpecification {
             return null;
         };
     }
-}
 
+    /**
+     * Specification for keyset pagination.
+     * Selects persons, that follow the last person of the previous page in the order of {@link #sortSpec(String)},
+     * id is used as tie-breaker for equal sort values.
+     * Must be used together with sort specification for the same sort filter.
+     *
+     * @param sort  sort filter, same as for {@link #sortSpec(String)}
+     * @param after cursor of the previous page, see {@link KeysetCursor}
+     * @return created specification
+     */
+    public static Specification<Person> afterSpec(String sort, String after) {
+        if (after == null || after.isBlank()) return null;
+
+        KeysetCursor cursor = KeysetCursor.decode(after, SortField.of(sort));
+        return (root, criteriaQuery, criteriaBuilder) -> switch (cursor.field()) {
+            case "name" -> seekPredicate(criteriaBuilder, root.get(Person_.name), cursor.value(),
+                    root.get(Person_.id), cursor.id(), cursor.asc());
+            case "updatedat" -> seekPredicate(criteriaBuilder, root.get(Person_.updatedAt), cursor.dateTimeValue(),
+                    root.get(Person_.id), cursor.id(), cursor.asc());
+            default -> seekPredicate(criteriaBuilder, root.get(Person_.createdAt), cursor.dateTimeValue(),
+                    root.get(Person_.id), cursor.id(), cursor.asc());
+        };
+    }
+}
@@ -1,31 +1,58 @@
 package tech.konso.toolsmanagement.modules.business.persons.person.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import tech.konso.toolsmanagement.modules.business.persons.label.service.LabelService;
 import tech.konso.toolsmanagement.modules.business.persons.person.controller.dto.*;
 import tech.konso.toolsmanagement.modules.business.persons.person.persistence.dao.Person;
 import tech.konso.toolsmanagement.modules.business.persons.person.persistence.repository.PersonRepository;
+import tech.konso.toolsmanagement.modules.business.persons.person.persistence.repository.PersonRepository.ListRow;
+import tech.konso.toolsmanagement.modules.business.persons.person.persistence.repository.PersonRepository.PhotoLink;
+import tech.konso.toolsmanagement.modules.business.persons.person.persistence.repository.PersonRepository.ReferenceLink;
 import tech.konso.toolsmanagement.modules.business.persons.person.persistence.specification.PersonSpecification;
 import tech.konso.toolsmanagement.modules.business.persons.person.service.mappers.PersonsDtoMapper;
 import tech.konso.toolsmanagement.modules.business.persons.person.service.mappers.PersonsEntityMapper;
+import tech.konso.toolsmanagement.modules.business.persons.role.service.RoleService;
 import tech.konso.toolsmanagement.modules.integration.facade.FileStorageFacade;
 import tech.konso.toolsmanagement.modules.integration.facade.FileType;
-import tech.konso.toolsmanagement.modules.integration.facade.dto.UploadResponse;
+import tech.konso.toolsmanagement.modules.integration.facade.PhotoSize;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.FileStream;
+import tech.konso.toolsmanagement.modules.integration.thumbnail.service.ThumbnailService;
+import tech.konso.toolsmanagement.modules.integration.upload.dto.PhotoUploadInfo;
+import tech.konso.toolsmanagement.modules.integration.upload.service.PhotoUploadService;
+import tech.konso.toolsmanagement.system.commons.configs.SuggestConfig;
 import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
+import tech.konso.toolsmanagement.system.commons.pagination.TwoPhasePagingEngine;
 import tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification;
+import tech.konso.toolsmanagement.system.commons.suggest.SuggestIndex;
+import tech.konso.toolsmanagement.system.commons.suggest.Suggestion;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static tech.konso.toolsmanagement.modules.business.persons.person.persistence.specification.PersonSpecification.listRowProjection;
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.specBuilder;
 
 /**
@@ -41,14 +68,34 @@ public class PersonService {
     private PersonsEntityMapper entityMapper;
 
     @Autowired
-    @Qualifier("file-storage-facade-impl")
     private FileStorageFacade fileStorageFacade;
 
+    @Autowired
+    private PhotoUploadService photoUploadService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private TwoPhasePagingEngine pagingEngine;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private LabelService labelService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private PersonsDtoMapper personsDtoMapper;
 
+    private SuggestIndex suggestIndex;
+
     @PostConstruct
     public void init() {
         personsDtoMapper = new PersonsDtoMapper();
+        suggestIndex = new SuggestIndex("persons", meterRegistry);
     }
 
     /**
@@ -68,9 +115,30 @@ public class PersonService {
                 new BPException.NotFound("Person not found id: " + id));
     }
 
+    /**
+     * Find last modification date of person and of references, which names are shown in person info.
+     * Loads only update dates, so it is used to validate cached person info without loading person.
+     * <p>
+     * Example:
+     * <pre>
+     *     LocalDateTime lastModified = findLastModified(2L);
+     * </pre>
+     *
+     * @param id of person, must exist in database
+     * @return the latest update date of person and its references
+     * @throws BPException if person not exists in database
+     */
+    public LocalDateTime findLastModified(Long id) {
+        return repository.findVersionsById(id)
+                .map(PersonRepository.Versions::lastModified)
+                .orElseThrow(() -> new BPException.NotFound("Person not found id: " + id));
+    }
+
     /**
      * Finds persons by person specification and returns it in pageable format.
      * By default, result set sorts by create date from newer to older and without archived persons.
+     * Only listed columns of persons are selected without joins into rows, which are not managed by persistence context,
+     * role and label names are filled from reference caches.
      * <p>
      * Example:
      * <pre>
@@ -87,11 +155,125 @@ public class PersonService {
     public Page<PersonFilterInfo> findAll(int page, int size, Specification<Person> spec) {
         AbstractSpecification.SpecBuilder<Person> builder = specBuilder(Person.class);
         Pageable pageable = PageRequest.of(page, size);
-        return repository.findAll(builder.and(spec).build(), pageable).map(personsDtoMapper::mapToPersonFilterInfo);
+        Page<ListRow> persons = pagingEngine.findAll(Person.class, builder.and(spec).build(), pageable, listRowProjection());
+        return persons.map(filterInfoMapper(persons.getContent()));
+    }
+
+    /**
+     * Finds persons by person specification with totals calculated according to totals mode.
+     * Totals are cached for a short time by count key, see {@link TwoPhasePagingEngine}.
+     * <p>
+     * Example:
+     * <pre>
+     *     Specification&lt;Person> spec = specBuilder(sortSpec("name,desc")).build();
+     *     Slice&lt;PersonFilterInfo> founded = service.findAll(0, 100, spec, TotalsMode.NONE, null);
+     * </pre>
+     *
+     * @param page     number of returned result set
+     * @param size     of the returned page
+     * @param spec     set of person specification
+     * @param totals   how totals are calculated
+     * @param countKey key of cached totals, must identify filters of specification, may be null
+     * @return {@link Page} for exact and estimated totals, {@link Slice} for none mode
+     * @see PersonSpecification person specifications
+     */
+    public Slice<PersonFilterInfo> findAll(int page, int size, Specification<Person> spec, TotalsMode totals, String countKey) {
+        AbstractSpecification.SpecBuilder<Person> builder = specBuilder(Person.class);
+        Pageable pageable = PageRequest.of(page, size);
+        Slice<ListRow> persons = pagingEngine.findAll(Person.class, builder.and(spec).build(), pageable, totals, countKey,
+                listRowProjection());
+        return persons.map(filterInfoMapper(persons.getContent()));
+    }
+
+    /**
+     * Finds slice of persons by person specification without counting total number of persons.
+     * Used for keyset pagination: with {@link PersonSpecification#afterSpec(String, String)} every slice
+     * costs the same as the first one.
+     * <p>
+     * Example:
+     * <pre>
+     *     Specification&lt;Person> spec = specBuilder(sortSpec("name,asc")).and(afterSpec("name,asc", cursor)).build();
+     *     Slice&lt;PersonFilterInfo> foundedPersons = service.findSlice(0, 100, spec);
+     * </pre>
+     *
+     * @param page number of returned slice
+     * @param size of the returned slice
+     * @param spec set of person specification
+     * @return slice of persons, which knows if there is a next slice
+     * @see PersonSpecification person specifications
+     */
+    public Slice<PersonFilterInfo> findSlice(int page, int size, Specification<Person> spec) {
+        AbstractSpecification.SpecBuilder<Person> builder = specBuilder(Person.class);
+        Pageable pageable = PageRequest.of(page, size);
+        Slice<ListRow> persons = pagingEngine.findSlice(Person.class, builder.and(spec).build(), pageable, listRowProjection());
+        return persons.map(filterInfoMapper(persons.getContent()));
+    }
+
+    /**
+     * Creates mapper of person rows to {@link PersonFilterInfo}.
+     * Role and label ids of all persons are selected from join tables with one query per table,
+     * names of roles and labels are taken from reference caches instead of joining their tables.
+     *
+     * @param persons rows of persons of the page
+     * @return mapper of person row to {@link PersonFilterInfo}
+     */
+    private Function<ListRow, PersonFilterInfo> filterInfoMapper(List<ListRow> persons) {
+        if (persons.isEmpty()) {
+            return person -> personsDtoMapper.mapToPersonFilterInfo(person, Set.of(), Set.of());
+        }
+        List<Long> ids = persons.stream().map(ListRow::id).toList();
+        Map<Long, Set<String>> roles = names(repository.findRoleLinks(ids), roleService::findNameById);
+        Map<Long, Set<String>> labels = names(repository.findLabelLinks(ids), labelService::findNameById);
+        return person -> personsDtoMapper.mapToPersonFilterInfo(person,
+                roles.getOrDefault(person.id(), Set.of()),
+                labels.getOrDefault(person.id(), Set.of()));
+    }
+
+    private Map<Long, Set<String>> names(List<ReferenceLink> links, Function<Long, String> nameById) {
+        return links.stream()
+                .collect(Collectors.groupingBy(ReferenceLink::getPersonId,
+                        Collectors.mapping(link -> nameById.apply(link.getReferenceId()), Collectors.toSet())));
+    }
+
+    /**
+     * Suggests full names of not archived persons, which surname starts with prefix ignoring case.
+     * Suggestions are found in memory by {@link SuggestIndex} without database round trip.
+     * <p>
+     * Example:
+     * <pre>
+     *     List&lt;Suggestion> suggestions = service.suggest("mor", 10);
+     * </pre>
+     *
+     * @param prefix beginning of person surname
+     * @param size   max number of suggestions
+     * @return suggestions in alphabetical order
+     */
+    public List<Suggestion> suggest(String prefix, int size) {
+        return suggestIndex.suggest(prefix, size);
+    }
+
+    /**
+     * Rebuilds index of person suggestions from full names of not archived persons.
+     * Runs on start and every {@link SuggestConfig#REBUILD_INTERVAL}, saves of persons update index without rebuild.
+     */
+    @Scheduled(fixedDelayString = SuggestConfig.REBUILD_INTERVAL)
+    public void rebuildSuggestIndex() {
+        suggestIndex.rebuild(() -> repository.findSuggestRows().stream()
+                .map(row -> new SuggestIndex.Entry(row.getId(), fullName(row.getSurname(), row.getName(), row.getPatronymic()))));
+    }
+
+    /**
+     * Full name of person starts with surname, so it is suggested by prefix of surname
+     */
+    private static String fullName(String surname, String name, String patronymic) {
+        return Stream.of(surname, name, patronymic)
+                .filter(part -> part != null && !part.isBlank())
+                .collect(Collectors.joining(" "));
     }
 
     /**
      * Save new person to database or update existing.
+     * Index of person suggestions is updated after commit, archived persons are removed from it.
      * Run under transaction.
      * <p>
      * Example:
@@ -102,16 +284,38 @@ public class PersonService {
      *
      * @param rq {@link PersonRequest} object for creating person
      * @return {@link Person} saved object
+     * @throws BPException if person not exists or new photo is not stored in file storage
      */
     @Transactional
     public Person save(PersonRequest rq) {
-        return Optional.ofNullable(rq.id())
+        Person saved = Optional.ofNullable(rq.id())
                 .map(id -> repository.findById(rq.id())
                         .orElseThrow(() -> new BPException.NotFound("Person not found id: " + id))
-                ).map(person -> entityMapper.toEntity(person, rq))
-                .orElseGet(() ->
-                        repository.save(entityMapper.toEntity(new Person(), rq))
-                );
+                ).map(person -> {
+                    checkPhotoStored(person.getPhotoUuid(), rq.photoUuid());
+                    // role and label links don't make entity dirty, update date is set explicitly to change its version
+                    person.setUpdatedAt(LocalDateTime.now());
+                    return entityMapper.toEntity(person, rq);
+                })
+                .orElseGet(() -> {
+                    checkPhotoStored(null, rq.photoUuid());
+                    return repository.save(entityMapper.toEntity(new Person(), rq));
+                });
+        if (saved.getIsArchived()) {
+            suggestIndex.removeAfterCommit(saved.getId());
+        } else {
+            suggestIndex.putAfterCommit(saved.getId(), List.of(fullName(saved.getSurname(), saved.getName(), saved.getPatronymic())));
+        }
+        return saved;
+    }
+
+    /**
+     * Checks, that new photo of person is stored in file storage. Photo, which person already references, isn't checked
+     */
+    private void checkPhotoStored(UUID currentPhotoUuid, UUID photoUuid) {
+        if (photoUuid != null && !photoUuid.equals(currentPhotoUuid)) {
+            photoUploadService.checkStored(Set.of(photoUuid), FileType.PHOTO_PERSON);
+        }
     }
 
     /**
@@ -126,11 +330,96 @@ public class PersonService {
      * @return {@link UploadPhotoResponse} object with file id
      */
     public UploadPhotoResponse uploadPhoto(MultipartFile multipartFile) {
-        UploadResponse rs = fileStorageFacade.upload(multipartFile, FileType.PHOTO_PERSON);
-        if (rs.error() != null) {
-            throw new BPException.ServiceUnavailable("Upload photo error: " + rs.error());
-        }
-        return new UploadPhotoResponse(rs.uuid());
+        return new UploadPhotoResponse(photoUploadService.upload(multipartFile, FileType.PHOTO_PERSON));
+    }
+
+    /**
+     * Spool {@link MultipartFile} photo to local disk and upload it to file storage service in background.
+     * Photo uuid is returned by {@link #findPhotoUpload(UUID)}, when photo is stored.
+     * <p>
+     * Example:
+     * <pre>
+     *     UUID uploadId = uploadPhotoAsync(multipartFile);
+     * </pre>
+     *
+     * @param multipartFile {@link MultipartFile} photo for save to file storage
+     * @return upload id
+     */
+    public UUID uploadPhotoAsync(MultipartFile multipartFile) {
+        return photoUploadService.uploadAsync(multipartFile, FileType.PHOTO_PERSON);
+    }
+
+    /**
+     * Find state of person photo upload.
+     * <p>
+     * Example:
+     * <pre>
+     *     PhotoUploadInfo upload = findPhotoUpload(uploadId);
+     * </pre>
+     *
+     * @param uploadId upload id returned by {@link #uploadPhotoAsync(MultipartFile)}
+     * @return {@link PhotoUploadInfo} with upload status and photo uuid, when photo is stored
+     * @throws BPException if upload not exists
+     */
+    public PhotoUploadInfo findPhotoUpload(UUID uploadId) {
+        return photoUploadService.find(uploadId, FileType.PHOTO_PERSON);
+    }
+
+    /**
+     * Find photo uuid by person id. Photo is immutable by its uuid, so uuid is used as photo version.
+     * <p>
+     * Example:
+     * <pre>
+     *     UUID photoUuid = findPhotoUuid(3);
+     * </pre>
+     *
+     * @param personId {@link Long} person id
+     * @return photo uuid
+     * @throws BPException if person not exists or has no photo
+     */
+    public UUID findPhotoUuid(Long personId) {
+        return repository.findPhotoUuidByPersonId(personId)
+                .orElseThrow(() -> new BPException.NotFound("Photo uuid not found in person id: " + personId));
+    }
+
+    /**
+     * Find photo uuids of persons with one query. Persons without photo and not existing persons are skipped.
+     * <p>
+     * Example:
+     * <pre>
+     *     List&lt;PersonPhotoInfo&gt; photos = findPhotoUuids(List.of(3L, 7L));
+     * </pre>
+     *
+     * @param personIds person ids
+     * @return list of {@link PersonPhotoInfo} with person id and photo uuid in the order of ids
+     */
+    public List<PersonPhotoInfo> findPhotoUuids(Collection<Long> personIds) {
+        Map<Long, UUID> photos = repository.findPhotoLinks(personIds).stream()
+                .collect(Collectors.toMap(PhotoLink::getId, PhotoLink::getPhotoUuid));
+        return personIds.stream()
+                .distinct()
+                .filter(photos::containsKey)
+                .map(id -> new PersonPhotoInfo(id, photos.get(id)))
+                .toList();
+    }
+
+    /**
+     * Write photos of persons in requested size to zip archive, photo of every person is named by person id.
+     * Photos are fetched from file storage in parallel with bounded concurrency.
+     * <p>
+     * Example:
+     * <pre>
+     *     writePhotoArchive(findPhotoUuids(List.of(3L, 7L)), PhotoSize.THUMB, out);
+     * </pre>
+     *
+     * @param photos {@link PersonPhotoInfo} photos of persons
+     * @param size   {@link PhotoSize} size of photos
+     * @param out    output stream to write archive to
+     */
+    public void writePhotoArchive(List<PersonPhotoInfo> photos, PhotoSize size, OutputStream out) throws IOException {
+        Map<String, UUID> entries = new LinkedHashMap<>();
+        photos.forEach(photo -> entries.put(photo.id() + ".jpeg", photo.photoUuid()));
+        thumbnailService.writeArchive(entries, FileType.PHOTO_PERSON, size, out);
     }
 
     /**
@@ -138,15 +427,47 @@ public class PersonService {
      * <p>
      * Example:
      * <pre>
-     *     findPhoto(3);
+     *     findPhoto(3, "bytes=0-1023");
      * </pre>
      *
      * @param personId {@link Long} person id
-     * @return InputStreamResource with searching file
+     * @param range    value of Range header, may be null for whole photo
+     * @return {@link FileStream} with photo content, which is read from file storage while it is written to client
+     */
+    public FileStream findPhoto(Long personId, String range) {
+        return findPhoto(findPhotoUuid(personId), range);
+    }
+
+    /**
+     * Find photo by photo uuid in file storage.
+     * <p>
+     * Example:
+     * <pre>
+     *     findPhoto(findPhotoUuid(3), "bytes=0-1023");
+     * </pre>
+     *
+     * @param photoUuid {@link UUID} photo uuid
+     * @param range     value of Range header, may be null for whole photo
+     * @return {@link FileStream} with photo content, which is read from file storage while it is written to client
+     */
+    public FileStream findPhoto(UUID photoUuid, String range) {
+        return findPhoto(photoUuid, PhotoSize.FULL, range);
+    }
+
+    /**
+     * Find photo by photo uuid in requested size. Resized photo is generated once and then served from local disk.
+     * <p>
+     * Example:
+     * <pre>
+     *     findPhoto(findPhotoUuid(3), PhotoSize.THUMB, null);
+     * </pre>
+     *
+     * @param photoUuid {@link UUID} photo uuid
+     * @param size      {@link PhotoSize} size of photo
+     * @param range     value of Range header, may be null for whole photo
+     * @return {@link FileStream} with photo content in requested size
      */
-    public InputStreamResource findPhoto(Long personId) {
-        UUID uuid = repository.findPhotoUuidByPersonId(personId).orElseThrow(() ->
-                new BPException.NotFound("Photo uuid not found in person id: " + personId));
-        return fileStorageFacade.download(uuid, FileType.PHOTO_PERSON);
+    public FileStream findPhoto(UUID photoUuid, PhotoSize size, String range) {
+        return thumbnailService.stream(photoUuid, FileType.PHOTO_PERSON, size, range);
     }
 }
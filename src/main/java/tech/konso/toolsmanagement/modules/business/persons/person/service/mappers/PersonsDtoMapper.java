@@ -6,12 +6,20 @@ import tech.konso.toolsmanagement.modules.business.persons.person.controller.dto
 import tech.konso.toolsmanagement.modules.business.persons.person.controller.dto.PersonInfo;
 import tech.konso.toolsmanagement.modules.business.persons.person.controller.dto.RoleShort;
 import tech.konso.toolsmanagement.modules.business.persons.person.persistence.dao.Person;
+import tech.konso.toolsmanagement.modules.business.persons.person.persistence.repository.PersonRepository.ListRow;
 import tech.konso.toolsmanagement.modules.business.persons.label.persistence.dao.Label;
 
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class PersonsDtoMapper {
     public PersonFilterInfo mapToPersonFilterInfo(Person person) {
+        return mapToPersonFilterInfo(person,
+                person.getRoles().stream().map(Role::getName).collect(Collectors.toSet()),
+                person.getLabels().stream().map(Label::getName).collect(Collectors.toSet()));
+    }
+
+    public PersonFilterInfo mapToPersonFilterInfo(Person person, Set<String> roles, Set<String> labels) {
         return PersonFilterInfo.builder()
                 .id(person.getId())
                 .uuid(person.getUuid())
@@ -25,8 +33,27 @@ public class PersonsDtoMapper {
                 .isUnregistered(person.getIsUnregistered())
                 .createdAt(person.getCreatedAt())
                 .updatedAt(person.getUpdatedAt())
-                .roles(person.getRoles().stream().map(Role::getName).collect(Collectors.toSet()))
-                .labels(person.getLabels().stream().map(Label::getName).collect(Collectors.toSet()))
+                .roles(roles)
+                .labels(labels)
+                .build();
+    }
+
+    public PersonFilterInfo mapToPersonFilterInfo(ListRow row, Set<String> roles, Set<String> labels) {
+        return PersonFilterInfo.builder()
+                .id(row.id())
+                .uuid(row.uuid())
+                .phoneNumber(row.phoneNumber())
+                .companyUuid(row.companyUuid())
+                .surname(row.surname())
+                .name(row.name())
+                .patronymic(row.patronymic())
+                .jobTitle(row.jobTitle())
+                .isArchived(row.isArchived())
+                .isUnregistered(row.isUnregistered())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .roles(roles)
+                .labels(labels)
                 .build();
     }
 
@@ -48,10 +48,10 @@ public class PersonsEntityMapper {
         person.setPhotoUuid(rq.photoUuid());
 
         person.removeLabels();
-        rq.labels().stream().map(labelId -> labelService.getReference(labelId)).forEach(person::addLabel);
+        labelService.findAllById(rq.labels()).forEach(person::addLabel);
 
         person.removeRoles();
-        rq.roles().stream().map(roleId -> roleService.getReference(roleId)).forEach(person::addRole);
+        roleService.findAllById(rq.roles()).forEach(person::addRole);
 
         return person;
     }
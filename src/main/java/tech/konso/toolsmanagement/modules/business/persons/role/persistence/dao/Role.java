@@ -9,6 +9,8 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.io.Serial;
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
 
 /**
  * Role entity class.
@@ -24,13 +26,20 @@ public class Role implements Serializable {
     private static final long serialVersionUID = 1L;
 
     /**
-     * Primary key
+     * Primary key. Generated by pooled sequence, so inserts of roles can be batched
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "persons_role_id_generator")
+    @SequenceGenerator(name = "persons_role_id_generator", sequenceName = "persons_role_role_id_seq", allocationSize = 50)
     @Column(name = "role_id")
     private Long id;
 
+    /**
+     * Business key. Generated on object creation, so equality and hash code of role don't change when it is persisted
+     */
+    @Column(nullable = false, updatable = false, unique = true)
+    private UUID uuid = UUID.randomUUID();
+
     /**
      * Role name. Must be unique and not nullable
      */
@@ -58,22 +67,23 @@ public class Role implements Serializable {
     private LocalDateTime updatedAt;
 
 
+    /**
+     * Roles are equal, if they have the same business key.
+     * Getters are used, so uninitialized hibernate proxies are compared correctly too.
+     */
     @Override
     public boolean equals(Object obj) {
-        if (obj == null) {
-            return false;
-        }
         if (this == obj) {
             return true;
         }
-        if (getClass() != obj.getClass()) {
+        if (!(obj instanceof Role other)) {
             return false;
         }
-        return id != null && id.equals(((Role) obj).id);
+        return getUuid() != null && getUuid().equals(other.getUuid());
     }
 
     @Override
     public int hashCode() {
-        return 2023;
+        return Objects.hashCode(getUuid());
     }
 }
@@ -2,10 +2,13 @@ package tech.konso.toolsmanagement.modules.business.persons.role.persistence.rep
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import tech.konso.toolsmanagement.modules.business.persons.role.persistence.dao.Role;
 
+import java.util.Optional;
+
 /**
  * Repository for role entity.
  * <p>Supports CRUD operations, searching by specification and pageable format.
@@ -14,4 +17,6 @@ import tech.konso.toolsmanagement.modules.business.persons.role.persistence.dao.
 @Repository("PersonsRoleRepository")
 @Transactional(readOnly = true)
 public interface RoleRepository extends JpaRepository<Role, Long>, JpaSpecificationExecutor<Role> {
+    @Query("SELECT r.name FROM Role r WHERE r.id = :id")
+    Optional<String> findNameById(Long id);
 }
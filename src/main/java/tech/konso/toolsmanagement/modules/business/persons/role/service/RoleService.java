@@ -2,6 +2,8 @@ package tech.konso.toolsmanagement.modules.business.persons.role.service;
 
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -13,10 +15,15 @@ import tech.konso.toolsmanagement.modules.business.persons.role.persistence.dao.
 import tech.konso.toolsmanagement.modules.business.persons.role.persistence.repository.RoleRepository;
 import tech.konso.toolsmanagement.modules.business.persons.role.persistence.specification.RoleSpecification;
 import tech.konso.toolsmanagement.modules.business.persons.role.service.mappers.RoleEntityMapper;
+import tech.konso.toolsmanagement.system.commons.configs.CacheConfig;
 import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
 import tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.specBuilder;
 
@@ -68,6 +75,50 @@ public class RoleService {
         return repository.getReferenceById(id);
     }
 
+    /**
+     * Find role name by unique id. Names are cached, cache entry is evicted when role is saved.
+     * Used to fill role names of lists without joining role table.
+     * <p>
+     * Example:
+     * <pre>
+     *     String name = findNameById(2L);
+     * </pre>
+     *
+     * @param id of role, must exist in database
+     * @return role name
+     * @throws BPException if role not exists in database
+     */
+    @Cacheable(cacheNames = CacheConfig.PERSONS_ROLE, key = "#id")
+    public String findNameById(Long id) {
+        return repository.findNameById(id).orElseThrow(() -> new BPException.NotFound("Role not found id: " + id));
+    }
+
+    /**
+     * Find roles in database by unique ids with one query. All roles must exist in database.
+     * Used instead of references, when roles are put to hash based collections,
+     * because hash code of role reference requires loading of role by separate query.
+     * <p>
+     * Example:
+     * <pre>
+     *     List&lt;Role> roles = findAllById(Set.of(2L, 3L));
+     * </pre>
+     *
+     * @param ids of roles, must exist in database
+     * @return roles from database
+     * @throws BPException if any of roles not exists in database
+     */
+    public List<Role> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Role> roles = repository.findAllById(ids);
+        if (roles.size() != ids.size()) {
+            Set<Long> found = roles.stream().map(Role::getId).collect(Collectors.toSet());
+            throw new BPException.NotFound("Role not found ids: " + ids.stream().filter(id -> !found.contains(id)).toList());
+        }
+        return roles;
+    }
+
     /**
      * Finds roles by role specification and returns it in pageable format.
      * By default, result set sorts by create date from newer to older and without archived roles.
@@ -104,6 +155,7 @@ public class RoleService {
      * @return {@link Role} saved object
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PERSONS_ROLE, key = "#rq.id", condition = "#rq.id != null")
     public Role save(RoleRequest rq) {
         return Optional.ofNullable(rq.id())
                 .map(id -> repository.findById(rq.id())
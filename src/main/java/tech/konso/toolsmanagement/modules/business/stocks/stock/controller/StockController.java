@@ -10,7 +10,8 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -22,10 +23,13 @@ import tech.konso.toolsmanagement.modules.business.stocks.stock.controller.dto.S
 import tech.konso.toolsmanagement.modules.business.stocks.stock.controller.dto.StockRequest;
 import tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.dao.Stock;
 import tech.konso.toolsmanagement.modules.business.stocks.stock.service.StockService;
+import tech.konso.toolsmanagement.system.commons.pagination.KeysetCursor;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
 
 import java.net.URI;
 
 import static tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.specification.StockSpecification.*;
+import static tech.konso.toolsmanagement.system.commons.pagination.TwoPhasePagingEngine.countKey;
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.specBuilder;
 
 @Slf4j
@@ -51,26 +55,41 @@ public class StockController {
 
     @Operation(summary = "List stocks by filter")
     @Parameters({
-            @Parameter(name = "page", description = "page number of result dataset, min value is 1", example = "1", required = true),
+            @Parameter(name = "page", description = "page number of result dataset, min value is 1, ignored with after cursor", example = "1"),
             @Parameter(name = "size", description = "size of result dataset page, min value is 1, max value is 50", example = "20", required = true),
             @Parameter(name = "name", description = "name of stock, min length is 3", example = "Tool stock"),
             @Parameter(name = "isArchived", description = "Archived flag, false by default", example = "false"),
             @Parameter(name = "sort", description = "Sorting filter supports: name(stock name), createdat(created date), updatedat(updated date)." +
                     " Every filter supports asc and desc order. By default sorts by create date in desc order. " +
-                    "To choose sorting order type filter name and, by comma separator, order (asd, desc)", example = "name,asc")
+                    "To choose sorting order type filter name and, by comma separator, order (asd, desc)", example = "name,asc"),
+            @Parameter(name = "after", description = "Cursor of the next page from nextCursor of the previous response. " +
+                    "Must be used with the same filters and sort, page is ignored and total items are not counted. " +
+                    "Empty cursor starts from the first page"),
+            @Parameter(name = "totals", description = "How total items are calculated: exact(count, may be cached for a few seconds), " +
+                    "estimate(approximate for large results), none(only hasNext flag), exact by default", example = "exact")
     })
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public StockFilterResponse findAll(@RequestParam(value = "page") @Min(1) int page,
+    public StockFilterResponse findAll(@RequestParam(value = "page", required = false, defaultValue = "1") @Min(1) int page,
                                        @RequestParam(value = "size") @Min(1) @Max(50) int size,
                                        @RequestParam(value = "name", required = false) String name,
                                        @RequestParam(value = "isArchived", required = false, defaultValue = "false") Boolean isArchived,
-                                       @RequestParam(value = "sort", required = false) String sort) {
-        // UI pages starts with 1
-        Page<StockFilterInfo> stocks = service.findAll(page - 1, size, specBuilder(isArchivedSpec(isArchived)
+                                       @RequestParam(value = "sort", required = false) String sort,
+                                       @RequestParam(value = "after", required = false) String after,
+                                       @RequestParam(value = "totals", required = false, defaultValue = "exact") String totals) {
+        Specification<Stock> spec = specBuilder(isArchivedSpec(isArchived)
                 .and(likeSpec(name))
-                .and(sortSpec(sort)))
-                .build());
-        return new StockFilterResponse(stocks.getContent(), stocks.getTotalElements());
+                .and(sortSpec(sort))
+                .and(afterSpec(sort, after)))
+                .build();
+        if (after != null) {
+            Slice<StockFilterInfo> stocks = service.findSlice(0, size, spec);
+            return new StockFilterResponse(stocks.getContent(), null, KeysetCursor.next(stocks, sort), stocks.hasNext(), TotalsMode.NONE);
+        }
+        TotalsMode totalsMode = TotalsMode.of(totals);
+        // UI pages starts with 1
+        Slice<StockFilterInfo> stocks = service.findAll(page - 1, size, spec, totalsMode, countKey(isArchived, name));
+        return new StockFilterResponse(stocks.getContent(), TotalsMode.totalItems(stocks), KeysetCursor.next(stocks, sort),
+                stocks.hasNext(), totalsMode);
     }
 
     @Operation(summary = "Update existing stock by id")
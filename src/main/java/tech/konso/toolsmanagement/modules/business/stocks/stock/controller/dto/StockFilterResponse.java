@@ -1,6 +1,7 @@
 package tech.konso.toolsmanagement.modules.business.stocks.stock.controller.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
 
 import java.util.List;
 
@@ -8,12 +9,21 @@ import java.util.List;
  * DTO class for response to return result set of stocks in pageable format.
  *
  * @param stocks    list of found stocks. List size limited by page size
- * @param totalItems total number of stocks found
+ * @param totalItems total number of stocks found, not counted for keyset pages
+ * @param nextCursor cursor of the next page, null if there is no next page
+ * @param hasNext    flag, is there a next page
+ * @param totals     mode used to calculate total items
  */
 
 @Schema(description = "Response for return result set of stocks in pageable format")
 public record StockFilterResponse(@Schema(description = "list of found stocks, list size limited by page size")
                                    List<StockFilterInfo> stocks,
-                                   @Schema(description = "total number of stocks found", example = "20")
-                                   Long totalItems) {
+                                   @Schema(description = "total number of stocks found, not counted for keyset pages", example = "20", nullable = true)
+                                   Long totalItems,
+                                   @Schema(description = "cursor of the next page, pass it as after parameter to get the next page", nullable = true)
+                                   String nextCursor,
+                                   @Schema(description = "is there a next page", example = "true")
+                                   Boolean hasNext,
+                                   @Schema(description = "mode used to calculate total items: exact, estimate or none", example = "exact")
+                                   TotalsMode totals) {
 }
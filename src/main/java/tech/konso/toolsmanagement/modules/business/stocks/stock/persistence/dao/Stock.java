@@ -24,10 +24,11 @@ public class Stock {
     private static final long serialVersionUID = 1L;
 
     /**
-     * Primary key
+     * Primary key. Generated by pooled sequence, so inserts of stocks can be batched
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stocks_stock_id_generator")
+    @SequenceGenerator(name = "stocks_stock_id_generator", sequenceName = "stocks_stock_stock_id_seq", allocationSize = 50)
     @Column(name = "stock_id")
     private Long id;
 
@@ -6,6 +6,9 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.dao.Stock;
 
+import java.time.LocalDateTime;
+import java.util.UUID;
+
 /**
  * Repository for stock entity.
  * <p>Supports CRUD operations, searching by specification and pageable format.
@@ -14,4 +17,11 @@ import tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.dao.
 @Repository
 @Transactional(readOnly = true)
 public interface StockRepository extends CrudRepository<Stock, Long>, JpaSpecificationExecutor<Stock> {
+
+    /**
+     * Columns of stock shown in list of stocks, selected without loading entities
+     */
+    record ListRow(Long id, UUID uuid, String name, String address, UUID companyUuid, UUID responsibleCompanyUuid,
+                   UUID responsiblePersonUuid, Boolean isArchived, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
 }
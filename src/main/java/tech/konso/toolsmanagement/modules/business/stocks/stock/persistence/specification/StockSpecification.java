@@ -5,10 +5,15 @@ import jakarta.persistence.criteria.Order;
 import org.springframework.data.jpa.domain.Specification;
 import tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.dao.Stock;
 import tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.dao.Stock_;
+import tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.repository.StockRepository.ListRow;
+import tech.konso.toolsmanagement.system.commons.pagination.KeysetCursor;
+import tech.konso.toolsmanagement.system.commons.pagination.Projection;
 import tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification;
+import tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.SortField;
 
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.FILTER_SEPARATOR;
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.LIKE_NAME_MIN_LENGTH;
+import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.seekPredicate;
 
 /**
  * Class with specifications for {@link Stock}
@@ -33,6 +38,25 @@ public final class StockSpecification {
                 criteriaBuilder.like(criteriaBuilder.lower(root.get(Stock_.NAME)), likePattern);
     }
 
+    /**
+     * Projection of stock columns shown in list of stocks.
+     *
+     * @return created projection
+     */
+    public static Projection<Stock, ListRow> listRowProjection() {
+        return (root, criteriaBuilder) -> criteriaBuilder.construct(ListRow.class,
+                root.get(Stock_.id),
+                root.get(Stock_.uuid),
+                root.get(Stock_.name),
+                root.get(Stock_.address),
+                root.get(Stock_.companyUuid),
+                root.get(Stock_.responsibleCompanyUuid),
+                root.get(Stock_.responsiblePersonUuid),
+                root.get(Stock_.isArchived),
+                root.get(Stock_.createdAt),
+                root.get(Stock_.updatedAt));
+    }
+
     /**
      * Specification for archive flag.
      *
@@ -97,6 +121,28 @@ public final class StockSpecification {
             return null;
         };
     }
-}
 
+    /**
+     * Specification for keyset pagination.
+     * Selects stocks, that follow the last stock of the previous page in the order of {@link #sortSpec(String)},
+     * id is used as tie-breaker for equal sort values.
+     * Must be used together with sort specification for the same sort filter.
+     *
+     * @param sort  sort filter, same as for {@link #sortSpec(String)}
+     * @param after cursor of the previous page, see {@link KeysetCursor}
+     * @return created specification
+     */
+    public static Specification<Stock> afterSpec(String sort, String after) {
+        if (after == null || after.isBlank()) return null;
 
+        KeysetCursor cursor = KeysetCursor.decode(after, SortField.of(sort));
+        return (root, criteriaQuery, criteriaBuilder) -> switch (cursor.field()) {
+            case "name" -> seekPredicate(criteriaBuilder, root.get(Stock_.name), cursor.value(),
+                    root.get(Stock_.id), cursor.id(), cursor.asc());
+            case "updatedat" -> seekPredicate(criteriaBuilder, root.get(Stock_.updatedAt), cursor.dateTimeValue(),
+                    root.get(Stock_.id), cursor.id(), cursor.asc());
+            default -> seekPredicate(criteriaBuilder, root.get(Stock_.createdAt), cursor.dateTimeValue(),
+                    root.get(Stock_.id), cursor.id(), cursor.asc());
+        };
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,10 +19,13 @@ import tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.spec
 import tech.konso.toolsmanagement.modules.business.stocks.stock.service.mappers.StocksDtoMapper;
 import tech.konso.toolsmanagement.modules.business.stocks.stock.service.mappers.StocksEntityMapper;
 import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
+import tech.konso.toolsmanagement.system.commons.pagination.TwoPhasePagingEngine;
 import tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification;
 
 import java.util.Optional;
 
+import static tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.specification.StockSpecification.listRowProjection;
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.specBuilder;
 
 /**
@@ -36,6 +40,9 @@ public class StockService {
     @Autowired
     private StocksEntityMapper entityMapper;
 
+    @Autowired
+    private TwoPhasePagingEngine pagingEngine;
+
     private StocksDtoMapper stocksDtoMapper;
 
     @PostConstruct
@@ -63,6 +70,7 @@ public class StockService {
     /**
      * Finds stocks by stock specification and returns it in pageable format.
      * By default, result set sorts by create date from newer to older and without archived stocks.
+     * Only listed columns of stocks are selected into rows, which are not managed by persistence context.
      * <p>
      * Example:
      * <pre>
@@ -79,7 +87,57 @@ public class StockService {
     public Page<StockFilterInfo> findAll(int page, int size, Specification<Stock> spec) {
         AbstractSpecification.SpecBuilder<Stock> builder = specBuilder(Stock.class);
         Pageable pageable = PageRequest.of(page, size);
-        return repository.findAll(builder.and(spec).build(), pageable).map(stocksDtoMapper::mapToStockFilterInfo);
+        return pagingEngine.findAll(Stock.class, builder.and(spec).build(), pageable, listRowProjection())
+                .map(stocksDtoMapper::mapToStockFilterInfo);
+    }
+
+    /**
+     * Finds stocks by stock specification with totals calculated according to totals mode.
+     * Totals are cached for a short time by count key, see {@link TwoPhasePagingEngine}.
+     * <p>
+     * Example:
+     * <pre>
+     *     Specification&lt;Stock> spec = specBuilder(sortSpec("name,desc")).build();
+     *     Slice&lt;StockFilterInfo> founded = service.findAll(0, 100, spec, TotalsMode.NONE, null);
+     * </pre>
+     *
+     * @param page     number of returned result set
+     * @param size     of the returned page
+     * @param spec     set of stock specification
+     * @param totals   how totals are calculated
+     * @param countKey key of cached totals, must identify filters of specification, may be null
+     * @return {@link Page} for exact and estimated totals, {@link Slice} for none mode
+     * @see StockSpecification stock specifications
+     */
+    public Slice<StockFilterInfo> findAll(int page, int size, Specification<Stock> spec, TotalsMode totals, String countKey) {
+        AbstractSpecification.SpecBuilder<Stock> builder = specBuilder(Stock.class);
+        Pageable pageable = PageRequest.of(page, size);
+        return pagingEngine.findAll(Stock.class, builder.and(spec).build(), pageable, totals, countKey, listRowProjection())
+                .map(stocksDtoMapper::mapToStockFilterInfo);
+    }
+
+    /**
+     * Finds slice of stocks by stock specification without counting total number of stocks.
+     * Used for keyset pagination: with {@link StockSpecification#afterSpec(String, String)} every slice
+     * costs the same as the first one.
+     * <p>
+     * Example:
+     * <pre>
+     *     Specification&lt;Stock> spec = specBuilder(sortSpec("name,asc")).and(afterSpec("name,asc", cursor)).build();
+     *     Slice&lt;StockFilterInfo> foundedStocks = service.findSlice(0, 100, spec);
+     * </pre>
+     *
+     * @param page number of returned slice
+     * @param size of the returned slice
+     * @param spec set of stock specification
+     * @return slice of stocks, which knows if there is a next slice
+     * @see StockSpecification stock specifications
+     */
+    public Slice<StockFilterInfo> findSlice(int page, int size, Specification<Stock> spec) {
+        AbstractSpecification.SpecBuilder<Stock> builder = specBuilder(Stock.class);
+        Pageable pageable = PageRequest.of(page, size);
+        return pagingEngine.findSlice(Stock.class, builder.and(spec).build(), pageable, listRowProjection())
+                .map(stocksDtoMapper::mapToStockFilterInfo);
     }
 
     /**
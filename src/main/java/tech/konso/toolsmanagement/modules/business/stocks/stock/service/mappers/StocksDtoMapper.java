@@ -3,6 +3,7 @@ package tech.konso.toolsmanagement.modules.business.stocks.stock.service.mappers
 import tech.konso.toolsmanagement.modules.business.stocks.stock.controller.dto.StockFilterInfo;
 import tech.konso.toolsmanagement.modules.business.stocks.stock.controller.dto.StockInfo;
 import tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.dao.Stock;
+import tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.repository.StockRepository.ListRow;
 
 public class StocksDtoMapper {
 
@@ -20,7 +21,22 @@ public class StocksDtoMapper {
                 .updatedAt(stock.getUpdatedAt())
                 .build();
     }
-    
+
+    public StockFilterInfo mapToStockFilterInfo(ListRow row) {
+        return StockFilterInfo.builder()
+                .id(row.id())
+                .uuid(row.uuid())
+                .name(row.name())
+                .address(row.address())
+                .companyUuid(row.companyUuid())
+                .responsibleCompanyUuid(row.responsibleCompanyUuid())
+                .responsiblePersonUuid(row.responsiblePersonUuid())
+                .isArchived(row.isArchived())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .build();
+    }
+
     public StockInfo mapToStockInfo(Stock stock) {
         return StockInfo.builder()
                 .id(stock.getId())
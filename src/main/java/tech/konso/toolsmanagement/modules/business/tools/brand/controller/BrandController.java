@@ -8,6 +8,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.MediaType;
@@ -19,6 +20,7 @@ import tech.konso.toolsmanagement.modules.business.tools.brand.controller.dto.Br
 import tech.konso.toolsmanagement.modules.business.tools.brand.controller.dto.BrandRequest;
 import tech.konso.toolsmanagement.modules.business.tools.brand.persistence.dao.Brand;
 import tech.konso.toolsmanagement.modules.business.tools.brand.service.BrandService;
+import tech.konso.toolsmanagement.system.commons.suggest.SuggestResponse;
 
 import java.net.URI;
 
@@ -69,6 +71,17 @@ public class BrandController {
         return new BrandFilterResponse(brands.getContent(), brands.getTotalElements());
     }
 
+    @Operation(summary = "Suggest names of not archived brands, which start with prefix, for autocomplete")
+    @Parameters({
+            @Parameter(name = "prefix", description = "beginning of brand name, case is ignored", example = "mak", required = true),
+            @Parameter(name = "size", description = "max number of suggestions, min value is 1, max value is 50, 10 by default", example = "10")
+    })
+    @GetMapping(value = "/suggest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public SuggestResponse suggest(@RequestParam(value = "prefix") @NotBlank String prefix,
+                                   @RequestParam(value = "size", required = false, defaultValue = "10") @Min(1) @Max(50) int size) {
+        return new SuggestResponse(service.suggest(prefix, size));
+    }
+
     @Operation(summary = "Update existing brand by id")
     @Parameters({
             @Parameter(name = "rq", description = "Request body for update brand", required = true,
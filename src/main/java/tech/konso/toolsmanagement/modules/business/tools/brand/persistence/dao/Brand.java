@@ -26,10 +26,11 @@ public class Brand implements Serializable {
     private static final long serialVersionUID = 1L;
 
     /**
-     * Primary key
+     * Primary key. Generated by pooled sequence, so inserts of brands can be batched
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tools_brand_id_generator")
+    @SequenceGenerator(name = "tools_brand_id_generator", sequenceName = "tools_brand_brand_id_seq", allocationSize = 50)
     @Column(name = "brand_id")
     private Long id;
 
@@ -4,11 +4,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import tech.konso.toolsmanagement.modules.business.tools.brand.persistence.dao.Brand;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository for brand entity.
  * <p>Supports CRUD operations, searching by specification and pageable format.
@@ -18,4 +22,19 @@ import tech.konso.toolsmanagement.modules.business.tools.brand.persistence.dao.B
 @Transactional(readOnly = true)
 public interface BrandRepository extends JpaRepository<Brand, Long> {
     Page<Brand> findAll(@Nullable Specification<Brand> spec, Pageable pageable);
+
+    @Query("SELECT b.name FROM Brand b WHERE b.id = :id")
+    Optional<String> findNameById(Long id);
+
+    @Query("SELECT b.id AS id, b.name AS name FROM Brand b WHERE b.isArchived = false")
+    List<SuggestRow> findSuggestRows();
+
+    /**
+     * Name of not archived brand suggested for autocomplete, selected without loading entities
+     */
+    interface SuggestRow {
+        Long getId();
+
+        String getName();
+    }
 }
\ No newline at end of file
@@ -1,11 +1,15 @@
 package tech.konso.toolsmanagement.modules.business.tools.brand.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.konso.toolsmanagement.modules.business.tools.brand.controller.dto.BrandRequest;
@@ -13,9 +17,14 @@ import tech.konso.toolsmanagement.modules.business.tools.brand.persistence.dao.B
 import tech.konso.toolsmanagement.modules.business.tools.brand.persistence.repository.BrandRepository;
 import tech.konso.toolsmanagement.modules.business.tools.brand.persistence.specification.BrandSpecification;
 import tech.konso.toolsmanagement.modules.business.tools.brand.service.mappers.BrandEntityMapper;
+import tech.konso.toolsmanagement.system.commons.configs.CacheConfig;
+import tech.konso.toolsmanagement.system.commons.configs.SuggestConfig;
 import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
 import tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification;
+import tech.konso.toolsmanagement.system.commons.suggest.SuggestIndex;
+import tech.konso.toolsmanagement.system.commons.suggest.Suggestion;
 
+import java.util.List;
 import java.util.Optional;
 
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.specBuilder;
@@ -29,11 +38,17 @@ public class BrandService {
     @Autowired
     private BrandRepository repository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private BrandEntityMapper entityMapper;
 
+    private SuggestIndex suggestIndex;
+
     @PostConstruct
     public void init() {
         entityMapper = new BrandEntityMapper();
+        suggestIndex = new SuggestIndex("brands", meterRegistry);
     }
 
     /**
@@ -68,6 +83,24 @@ public class BrandService {
         return repository.getReferenceById(id);
     }
 
+    /**
+     * Find brand name by unique id. Names are cached, cache entry is evicted when brand is saved.
+     * Used to fill brand names of lists without joining brand table.
+     * <p>
+     * Example:
+     * <pre>
+     *     String name = findNameById(2L);
+     * </pre>
+     *
+     * @param id of brand, must exist in database
+     * @return brand name
+     * @throws BPException if brand not exists in database
+     */
+    @Cacheable(cacheNames = CacheConfig.TOOLS_BRAND, key = "#id")
+    public String findNameById(Long id) {
+        return repository.findNameById(id).orElseThrow(() -> new BPException.NotFound("Brand not found id: " + id));
+    }
+
     /**
      * Find brands by brand specification and returns it in pageable format.
      * By default, result set sorts by create date from newer to older and without archived brands.
@@ -90,9 +123,37 @@ public class BrandService {
         return repository.findAll(builder.and(spec).build(), pageable);
     }
 
+    /**
+     * Suggests names of not archived brands, which start with prefix ignoring case.
+     * Suggestions are found in memory by {@link SuggestIndex} without database round trip.
+     * <p>
+     * Example:
+     * <pre>
+     *     List&lt;Suggestion> suggestions = service.suggest("mak", 10);
+     * </pre>
+     *
+     * @param prefix beginning of brand name
+     * @param size   max number of suggestions
+     * @return suggestions in alphabetical order
+     */
+    public List<Suggestion> suggest(String prefix, int size) {
+        return suggestIndex.suggest(prefix, size);
+    }
+
+    /**
+     * Rebuilds index of brand suggestions from names of not archived brands.
+     * Runs on start and every {@link SuggestConfig#REBUILD_INTERVAL}, saves of brands update index without rebuild.
+     */
+    @Scheduled(fixedDelayString = SuggestConfig.REBUILD_INTERVAL)
+    public void rebuildSuggestIndex() {
+        suggestIndex.rebuild(() -> repository.findSuggestRows().stream()
+                .map(row -> new SuggestIndex.Entry(row.getId(), row.getName())));
+    }
+
     /**
      * Save new brand to database or update existing.
      * Brand name must be unique and not exists in database.
+     * Index of brand suggestions is updated after commit, archived brands are removed from it.
      * <p>
      * Example:
      * <pre>
@@ -104,13 +165,20 @@ public class BrandService {
      * @return {@link Brand} saved object
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TOOLS_BRAND, key = "#rq.id", condition = "#rq.id != null")
     public Brand save(BrandRequest rq) {
-        return Optional.ofNullable(rq.id())
+        Brand saved = Optional.ofNullable(rq.id())
                 .map(id -> repository.findById(rq.id())
                         .orElseThrow(() -> new BPException.NotFound("Brand not found id: " + id))
                 ).map(brand -> entityMapper.toEntity(brand, rq))
                 .orElseGet(() ->
                         repository.save(entityMapper.toEntity(new Brand(), rq))
                 );
+        if (saved.getIsArchived()) {
+            suggestIndex.removeAfterCommit(saved.getId());
+        } else {
+            suggestIndex.putAfterCommit(saved.getId(), List.of(saved.getName()));
+        }
+        return saved;
     }
 }
\ No newline at end of file
@@ -9,21 +9,26 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryArchiveResponse;
 import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryFilterResponse;
 import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryInfo;
 import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryRequest;
+import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryTree;
 import tech.konso.toolsmanagement.modules.business.tools.category.persistence.dao.Category;
 import tech.konso.toolsmanagement.modules.business.tools.category.service.CategoryService;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
 
 import java.net.URI;
+import java.util.List;
 
 import static tech.konso.toolsmanagement.modules.business.tools.category.persistence.specification.CategorySpecification.*;
+import static tech.konso.toolsmanagement.system.commons.pagination.TwoPhasePagingEngine.countKey;
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.specBuilder;
 
 @Validated
@@ -47,6 +52,12 @@ public class CategoryController {
         return service.findById(id);
     }
 
+    @Operation(summary = "Get tree of all categories, including archived ones")
+    @GetMapping(value = "/tree", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<CategoryTree> findTree() {
+        return service.findTree();
+    }
+
     @Operation(summary = "List categories by filter")
     @Parameters({
             @Parameter(name = "page", description = "page number of result dataset, min value is 1", example = "1", required = true),
@@ -55,21 +66,25 @@ public class CategoryController {
             @Parameter(name = "isArchived", description = "Archived flag, false by default", example = "false"),
             @Parameter(name = "sort", description = "Sorting filter supports: name(category name), createdat(created date), updatedat(updated date)." +
                     " Every filter supports asc and desc order. By default sorts by create date in desc order. " +
-                    "To choose sorting order type filter name and, by comma separator, order (asd, desc)", example = "name,asc")
+                    "To choose sorting order type filter name and, by comma separator, order (asd, desc)", example = "name,asc"),
+            @Parameter(name = "totals", description = "How total items are calculated: exact(count, may be cached for a few seconds), " +
+                    "estimate(approximate for large results), none(only hasNext flag), exact by default", example = "exact")
     })
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     public CategoryFilterResponse findAll(@RequestParam(value = "page") @Min(1) int page,
                                        @RequestParam(value = "size") @Min(1) @Max(50) int size,
                                        @RequestParam(value = "name", required = false) String name,
                                        @RequestParam(value = "isArchived", required = false, defaultValue = "false") Boolean isArchived,
-                                       @RequestParam(value = "sort", required = false) String sort) {
+                                       @RequestParam(value = "sort", required = false) String sort,
+                                       @RequestParam(value = "totals", required = false, defaultValue = "exact") String totals) {
+        TotalsMode totalsMode = TotalsMode.of(totals);
         // UI pages starts with 1
-        Page<CategoryInfo> categories = service.findAll(page - 1, size, specBuilder(isArchivedSpec(isArchived)
+        Slice<CategoryInfo> categories = service.findAll(page - 1, size, specBuilder(isArchivedSpec(isArchived)
                 .and(likeSpec(name))
                 .and(sortSpec(sort)))
                 .and(isParentSpec(true))
-                .build());
-        return new CategoryFilterResponse(categories.getContent(), categories.getTotalElements());
+                .build(), totalsMode, countKey(isArchived, name));
+        return new CategoryFilterResponse(categories.getContent(), TotalsMode.totalItems(categories), categories.hasNext(), totalsMode);
     }
 
     @Operation(summary = "Update existing category by id")
@@ -83,6 +98,19 @@ public class CategoryController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Archive or unarchive category with all its descendant categories")
+    @Parameters({
+            @Parameter(name = "id", description = "id of root category of subtree", example = "7", required = true),
+            @Parameter(name = "isArchived", description = "Archived flag to set, true by default", example = "true"),
+            @Parameter(name = "withTools", description = "Archive or unarchive tools of subtree categories too, false by default", example = "false")
+    })
+    @PutMapping(value = "/{id}/archive", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CategoryArchiveResponse archive(@PathVariable("id") Long id,
+                                           @RequestParam(value = "isArchived", required = false, defaultValue = "true") Boolean isArchived,
+                                           @RequestParam(value = "withTools", required = false, defaultValue = "false") Boolean withTools) {
+        return service.archive(id, isArchived, withTools);
+    }
+
     @Parameters({
             @Parameter(name = "rq", description = "Request body for save new category", required = true,
                     schema = @Schema(implementation = CategoryRequest.class))
@@ -0,0 +1,17 @@
+package tech.konso.toolsmanagement.modules.business.tools.category.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO class for response to return result of archiving category subtree.
+ *
+ * @param categories number of categories, which archived flag was changed
+ * @param tools      number of tools, which archived flag was changed
+ */
+
+@Schema(description = "Response for return number of categories and tools changed by archiving category subtree")
+public record CategoryArchiveResponse(@Schema(description = "number of categories, which archived flag was changed", example = "4")
+                                      Integer categories,
+                                      @Schema(description = "number of tools, which archived flag was changed, 0 if tools are not archived", example = "20")
+                                      Integer tools) {
+}
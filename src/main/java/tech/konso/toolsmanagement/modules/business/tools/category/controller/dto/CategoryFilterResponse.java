@@ -1,6 +1,7 @@
 package tech.konso.toolsmanagement.modules.business.tools.category.controller.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
 
 import java.util.List;
 
@@ -9,11 +10,17 @@ import java.util.List;
  *
  * @param categories    list of found categories. List size limited by page size
  * @param totalItems    total number of categories found
+ * @param hasNext    flag, is there a next page
+ * @param totals     mode used to calculate total items
  */
 
 @Schema(description = "Response for return result set of categories in pageable format")
 public record CategoryFilterResponse(@Schema(description = "list of found categories, list size limited by page size")
                                      List<CategoryInfo> categories,
-                                     @Schema(description = "total number of categories found", example = "20")
-                                     Long totalItems) {
+                                     @Schema(description = "total number of categories found, null if totals are not counted", example = "20", nullable = true)
+                                     Long totalItems,
+                                     @Schema(description = "is there a next page", example = "true")
+                                     Boolean hasNext,
+                                     @Schema(description = "mode used to calculate total items: exact, estimate or none", example = "exact")
+                                     TotalsMode totals) {
 }
@@ -0,0 +1,27 @@
+package tech.konso.toolsmanagement.modules.business.tools.category.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * Category tree DTO class, describes category with all its descendant categories.
+ *
+ * @param id            category id
+ * @param name          category name
+ * @param isArchived    archived category flag
+ * @param subcategories subtrees of sub categories sorted by name
+ */
+
+@Builder
+@Schema(description = "Category with all its descendant categories")
+public record CategoryTree(@Schema(description = "category id", example = "1")
+                           Long id,
+                           @Schema(description = "category name", example = "Hand tool")
+                           String name,
+                           @Schema(description = "archived flag", example = "false")
+                           Boolean isArchived,
+                           @Schema(description = "subtrees of sub categories sorted by name")
+                           List<CategoryTree> subcategories) {
+}
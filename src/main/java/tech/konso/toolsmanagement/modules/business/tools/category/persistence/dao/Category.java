@@ -24,10 +24,11 @@ public class Category implements Serializable {
     private static final long serialVersionUID = 1L;
 
     /**
-     * Primary key
+     * Primary key. Generated by pooled sequence, so inserts of categorys can be batched
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tools_category_id_generator")
+    @SequenceGenerator(name = "tools_category_id_generator", sequenceName = "tools_category_category_id_seq", allocationSize = 50)
     @Column(name = "category_id")
     private Long id;
 
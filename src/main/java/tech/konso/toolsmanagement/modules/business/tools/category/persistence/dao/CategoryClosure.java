@@ -0,0 +1,63 @@
+package tech.konso.toolsmanagement.modules.business.tools.category.persistence.dao;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Link of category with its ancestor in category tree.
+ * Relies on "tools_category_closure" table in database.
+ * <p>Every category is linked with itself and with all its ancestors, so subtree of category
+ * is selected by one index lookup instead of recursive walk through parent categories.
+ * Links are maintained by database triggers, when category is inserted or its parent category is changed,
+ * entity is read only.
+ */
+@Getter
+@Entity
+@Immutable
+@IdClass(CategoryClosure.Key.class)
+@Table(name = "tools_category_closure")
+public class CategoryClosure implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Ancestor category id, part of primary key
+     */
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    /**
+     * Descendant category id, part of primary key
+     */
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    /**
+     * Distance from ancestor to descendant, 0 for link of category with itself
+     */
+    @Column(nullable = false)
+    private Integer depth;
+
+    /**
+     * Primary key of link
+     */
+    @Getter
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private Long ancestorId;
+
+        private Long descendantId;
+    }
+}
@@ -1,16 +1,15 @@
 package tech.konso.toolsmanagement.modules.business.tools.category.persistence.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.lang.Nullable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import tech.konso.toolsmanagement.modules.business.tools.category.persistence.dao.Category;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -26,8 +25,52 @@ public interface CategoryRepository extends JpaRepository<Category, Long>, JpaSp
             type = EntityGraph.EntityGraphType.FETCH)
     Optional<Category> findById(Long id);
 
-    @Override
-    @EntityGraph(attributePaths = {"subcategories"},
-            type = EntityGraph.EntityGraphType.FETCH)
-    Page<Category> findAll(@Nullable Specification<Category> spec, Pageable pageable);
+    @Query("SELECT c.name FROM Category c WHERE c.id = :id")
+    Optional<String> findNameById(Long id);
+
+    @Query("SELECT CASE WHEN COUNT(cc) > 0 THEN true ELSE false END FROM CategoryClosure cc WHERE cc.ancestorId = :ancestorId AND cc.descendantId = :descendantId")
+    boolean isInSubtree(Long ancestorId, Long descendantId);
+
+    /**
+     * Sets archived flag of category and all its descendant categories by one statement.
+     * Categories, which already have the flag, are not updated.
+     *
+     * @return number of updated categories
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE tools_category SET is_archived = :isArchived, updated_at = NOW() " +
+            "WHERE category_id IN (SELECT descendant_id FROM tools_category_closure WHERE ancestor_id = :id) " +
+            "AND is_archived <> :isArchived", nativeQuery = true)
+    int archiveSubtree(Long id, boolean isArchived);
+
+    /**
+     * Sets archived flag of tools of category and all its descendant categories by one statement.
+     * Tools, which already have the flag, are not updated.
+     *
+     * @return number of updated tools
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE tools_tool SET is_archived = :isArchived, updated_at = NOW() " +
+            "WHERE category_id IN (SELECT descendant_id FROM tools_category_closure WHERE ancestor_id = :id) " +
+            "AND is_archived <> :isArchived", nativeQuery = true)
+    int archiveSubtreeTools(Long id, boolean isArchived);
+
+    @Query("SELECT c.id AS id, c.name AS name, p.id AS parentCategoryId, c.isArchived AS isArchived " +
+            "FROM Category c LEFT JOIN c.parentCategory p ORDER BY c.name")
+    List<TreeNode> findTreeNodes();
+
+    /**
+     * Category as node of category tree, selected without loading entities
+     */
+    interface TreeNode {
+        Long getId();
+
+        String getName();
+
+        Long getParentCategoryId();
+
+        Boolean getIsArchived();
+    }
 }
\ No newline at end of file
@@ -3,22 +3,37 @@ package tech.konso.toolsmanagement.modules.business.tools.category.service;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryArchiveResponse;
 import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryInfo;
 import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryRequest;
+import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryTree;
 import tech.konso.toolsmanagement.modules.business.tools.category.persistence.dao.Category;
+import tech.konso.toolsmanagement.modules.business.tools.category.persistence.dao.Category_;
 import tech.konso.toolsmanagement.modules.business.tools.category.persistence.repository.CategoryRepository;
+import tech.konso.toolsmanagement.modules.business.tools.category.persistence.repository.CategoryRepository.TreeNode;
 import tech.konso.toolsmanagement.modules.business.tools.category.persistence.specification.CategorySpecification;
 import tech.konso.toolsmanagement.modules.business.tools.category.service.mappers.CategoryDtoMapper;
+import tech.konso.toolsmanagement.system.commons.configs.CacheConfig;
 import tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification;
 import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
+import tech.konso.toolsmanagement.system.commons.pagination.TwoPhasePagingEngine;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.specBuilder;
 
@@ -32,6 +47,12 @@ public class CategoryService {
     @Autowired
     private CategoryRepository repository;
 
+    @Autowired
+    private TwoPhasePagingEngine pagingEngine;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     private CategoryDtoMapper mapper;
 
     @PostConstruct
@@ -73,6 +94,24 @@ public class CategoryService {
         return repository.getReferenceById(id);
     }
 
+    /**
+     * Find category name by unique id. Names are cached, cache entry is evicted when category is saved.
+     * Used to fill category names of lists without joining category table.
+     * <p>
+     * Example:
+     * <pre>
+     *     String name = findNameById(2L);
+     * </pre>
+     *
+     * @param id of category, must exist in database
+     * @return category name
+     * @throws BPException if category not exists in database
+     */
+    @Cacheable(cacheNames = CacheConfig.TOOLS_CATEGORY, key = "#id")
+    public String findNameById(Long id) {
+        return repository.findNameById(id).orElseThrow(() -> new BPException.NotFound("Category not found id: " + id));
+    }
+
     /**
      * Finds categories by category specification and returns it in pageable format.
      * By default, result set sorts by create date from newer to older and without archived categories.
@@ -92,16 +131,65 @@ public class CategoryService {
     public Page<CategoryInfo> findAll(int page, int size, Specification<Category> spec) {
         AbstractSpecification.SpecBuilder<Category> builder = specBuilder(Category.class);
         Pageable pageable = PageRequest.of(page, size);
-        return repository.findAll(builder.and(spec).build(), pageable)
+        return pagingEngine.findAll(Category.class, builder.and(spec).build(), pageable, Category_.SUBCATEGORIES)
+                .map(category -> mapper.mapToCategoryInfo(category));
+    }
+
+    /**
+     * Finds categories by category specification with totals calculated according to totals mode.
+     * Totals are cached for a short time by count key, see {@link TwoPhasePagingEngine}.
+     * <p>
+     * Example:
+     * <pre>
+     *     Specification&lt;Category> spec = specBuilder(sortSpec("name,desc")).build();
+     *     Slice&lt;CategoryInfo> founded = service.findAll(0, 100, spec, TotalsMode.NONE, null);
+     * </pre>
+     *
+     * @param page     number of returned result set
+     * @param size     of the returned page
+     * @param spec     set of category specification
+     * @param totals   how totals are calculated
+     * @param countKey key of cached totals, must identify filters of specification, may be null
+     * @return {@link Page} for exact and estimated totals, {@link Slice} for none mode
+     * @see CategorySpecification category specifications
+     */
+    public Slice<CategoryInfo> findAll(int page, int size, Specification<Category> spec, TotalsMode totals, String countKey) {
+        AbstractSpecification.SpecBuilder<Category> builder = specBuilder(Category.class);
+        Pageable pageable = PageRequest.of(page, size);
+        return pagingEngine.findAll(Category.class, builder.and(spec).build(), pageable, totals, countKey, Category_.SUBCATEGORIES)
                 .map(category -> mapper.mapToCategoryInfo(category));
     }
 
+    /**
+     * Finds all categories as tree. Categories are selected by one query without loading entities
+     * and are linked to their parent categories in memory. Sub categories are sorted by name.
+     * <p>
+     * Example:
+     * <pre>
+     *     List&lt;CategoryTree> roots = service.findTree();
+     * </pre>
+     *
+     * @return trees of root categories sorted by name
+     */
+    public List<CategoryTree> findTree() {
+        List<TreeNode> nodes = repository.findTreeNodes();
+        Map<Long, List<TreeNode>> children = nodes.stream()
+                .filter(node -> node.getParentCategoryId() != null)
+                .collect(Collectors.groupingBy(TreeNode::getParentCategoryId));
+        return nodes.stream()
+                .filter(node -> node.getParentCategoryId() == null)
+                .map(node -> mapper.mapToCategoryTree(node, children))
+                .toList();
+    }
+
     /**
      * Save new category to database or update existing.
      * Category name must be unique and not exists in database.
-     * If category to update become archived then it's subcategories become archived too.
+     * If category to update become archived then all its descendant categories become archived too,
+     * see {@link #archive(Long, boolean, boolean)}.
      * Category to update must exist in database.
-     * Category id and parent category id must not be the same.
+     * Category id and parent category id must not be the same, parent category must not be in subtree of category.
+     * Closure of category tree is updated by database triggers, when category is inserted or moved.
      * Run under transaction.
      * <p>
      * Example:
@@ -114,6 +202,11 @@ public class CategoryService {
      * @return {@link Category} saved object
      */
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TOOLS_CATEGORY, key = "#rq.id", condition = "#rq.id != null"),
+            @CacheEvict(cacheNames = CacheConfig.TOOLS_CATEGORY, allEntries = true, condition = "#rq.id != null && #rq.isArchived() == true"),
+            @CacheEvict(cacheNames = CacheConfig.PAGING_COUNTS, allEntries = true, condition = "#rq.id != null && #rq.isArchived() == true")
+    })
     public Category save(CategoryRequest rq) {
         return Optional.ofNullable(rq.id())
                 .map(id -> repository.findById(rq.id())
@@ -123,13 +216,60 @@ public class CategoryService {
                         throw new BPException.BadRequest("Category id and parent category id must not be the same, id: "
                                 + rq.parentCategoryId());
                     }
-                    return toEntity(category, rq);
+                    if (rq.parentCategoryId() != null && repository.isInSubtree(category.getId(), rq.parentCategoryId())) {
+                        throw new BPException.BadRequest("Parent category must not be in subtree of category, id: "
+                                + rq.parentCategoryId());
+                    }
+                    boolean archive = Boolean.TRUE.equals(rq.isArchived()) && !category.getIsArchived();
+                    toEntity(category, rq);
+                    if (archive) {
+                        repository.archiveSubtree(category.getId(), true);
+                        // archive of subtree clears persistence context, category is loaded again
+                        return repository.findById(category.getId()).orElseThrow();
+                    }
+                    return category;
                 })
                 .orElseGet(() ->
                         repository.save(toEntity(new Category(), rq))
                 );
     }
 
+    /**
+     * Sets archived flag of category and all its descendant categories, optionally of their tools too.
+     * Subtree is taken from closure of category tree, so every table is updated by one statement
+     * without loading entities. Cached category names and cached totals of lists are evicted.
+     * Changed tools are announced by {@link CategoryToolsArchivedEvent}.
+     * Run under transaction.
+     * <p>
+     * Example:
+     * <pre>
+     *     CategoryArchiveResponse rs = service.archive(2L, true, true);
+     * </pre>
+     *
+     * @param id         of root category of subtree, must exist in database
+     * @param isArchived archived flag to set
+     * @param withTools  if true, tools of subtree categories are archived or unarchived too
+     * @return {@link CategoryArchiveResponse} with number of changed categories and tools
+     * @throws BPException if category not exists in database
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TOOLS_CATEGORY, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.PAGING_COUNTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TOOLS_FACETS, allEntries = true)
+    })
+    public CategoryArchiveResponse archive(Long id, boolean isArchived, boolean withTools) {
+        if (!repository.existsById(id)) {
+            throw new BPException.NotFound("Category not found id: " + id);
+        }
+        int categories = repository.archiveSubtree(id, isArchived);
+        int tools = withTools ? repository.archiveSubtreeTools(id, isArchived) : 0;
+        if (tools > 0) {
+            eventPublisher.publishEvent(new CategoryToolsArchivedEvent(id, isArchived));
+        }
+        return new CategoryArchiveResponse(categories, tools);
+    }
+
     /**
      * Converts {@link CategoryRequest} to {@link Category} object.
      * <p>
@@ -147,9 +287,6 @@ public class CategoryService {
         category.setParentCategory(
                 rq.parentCategoryId() == null ? null : repository.getReferenceById(rq.parentCategoryId())
         );
-        if (rq.isArchived() && !category.getIsArchived()) {
-            category.getSubcategories().forEach(child -> child.setIsArchived(true));
-        }
         category.setIsArchived(rq.isArchived());
         return category;
     }
@@ -0,0 +1,11 @@
+package tech.konso.toolsmanagement.modules.business.tools.category.service;
+
+/**
+ * Published, when tools of category subtree are archived or unarchived by one statement without loading entities,
+ * so listeners can update their state of these tools.
+ *
+ * @param categoryId id of root category of subtree
+ * @param isArchived archived flag set to tools
+ */
+public record CategoryToolsArchivedEvent(Long categoryId, boolean isArchived) {
+}
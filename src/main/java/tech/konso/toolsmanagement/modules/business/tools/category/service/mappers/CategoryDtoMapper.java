@@ -2,8 +2,12 @@ package tech.konso.toolsmanagement.modules.business.tools.category.service.mappe
 
 import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryInfo;
 import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryShort;
+import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryTree;
 import tech.konso.toolsmanagement.modules.business.tools.category.persistence.dao.Category;
+import tech.konso.toolsmanagement.modules.business.tools.category.persistence.repository.CategoryRepository.TreeNode;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -47,4 +51,22 @@ public class CategoryDtoMapper {
                 .isArchived(category.getIsArchived())
                 .build();
     }
+
+    /**
+     * Map category tree node with all its descendants to DTO
+     *
+     * @param node     tree node to map
+     * @param children sub category nodes grouped by parent category id
+     * @return created dto object
+     */
+    public CategoryTree mapToCategoryTree(TreeNode node, Map<Long, List<TreeNode>> children) {
+        return CategoryTree.builder()
+                .id(node.getId())
+                .name(node.getName())
+                .isArchived(node.getIsArchived())
+                .subcategories(children.getOrDefault(node.getId(), List.of()).stream()
+                        .map(child -> mapToCategoryTree(child, children))
+                        .collect(Collectors.toList()))
+                .build();
+    }
 }
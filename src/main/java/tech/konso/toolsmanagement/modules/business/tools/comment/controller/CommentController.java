@@ -8,9 +8,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -21,13 +23,18 @@ import tech.konso.toolsmanagement.modules.business.tools.brand.controller.dto.Br
 import tech.konso.toolsmanagement.modules.business.tools.comment.controller.dto.CommentFilterInfo;
 import tech.konso.toolsmanagement.modules.business.tools.comment.controller.dto.CommentFilterResponse;
 import tech.konso.toolsmanagement.modules.business.tools.comment.controller.dto.CommentRequest;
+import tech.konso.toolsmanagement.modules.business.tools.comment.controller.dto.CommentSearchResponse;
 import tech.konso.toolsmanagement.modules.business.tools.comment.persistence.dao.Comment;
 import tech.konso.toolsmanagement.modules.business.tools.comment.service.CommentService;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
 
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.UUID;
 
 import static tech.konso.toolsmanagement.modules.business.tools.comment.persistence.specification.CommentSpecification.sortSpec;
 import static tech.konso.toolsmanagement.modules.business.tools.comment.persistence.specification.CommentSpecification.toolSpec;
+import static tech.konso.toolsmanagement.system.commons.pagination.TwoPhasePagingEngine.countKey;
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.specBuilder;
 
 @Validated
@@ -48,18 +55,44 @@ public class CommentController {
             @Parameter(name = "toolId", description = "comments tool id", example = "1"),
             @Parameter(name = "sort", description = "Sorting filter supports: createdat(created date), updatedat(updated date)." +
                     " Every filter supports asc and desc order. By default sorts by create date in desc order. " +
-                    "To choose sorting order type filter name and, by comma separator, order (asd, desc)", example = "createdat,asc")
+                    "To choose sorting order type filter name and, by comma separator, order (asd, desc)", example = "createdat,asc"),
+            @Parameter(name = "totals", description = "How total items are calculated: exact(count, may be cached for a few seconds), " +
+                    "estimate(approximate for large results), none(only hasNext flag), exact by default", example = "exact")
     })
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     public CommentFilterResponse findAll(@RequestParam(value = "page") @Min(1) int page,
                                          @RequestParam(value = "size") @Min(1) @Max(50) int size,
                                          @RequestParam(value = "toolId") long toolId,
-                                         @RequestParam(value = "sort", required = false) String sort) {
+                                         @RequestParam(value = "sort", required = false) String sort,
+                                         @RequestParam(value = "totals", required = false, defaultValue = "exact") String totals) {
+        TotalsMode totalsMode = TotalsMode.of(totals);
         // UI pages starts with 1
-        Page<CommentFilterInfo> comments = service.findAll(page - 1, size, specBuilder(toolSpec(toolId)
+        Slice<CommentFilterInfo> comments = service.findAll(page - 1, size, specBuilder(toolSpec(toolId)
                 .and(sortSpec(sort)))
-                .build());
-        return new CommentFilterResponse(comments.getContent(), comments.getTotalElements());
+                .build(), totalsMode, countKey(toolId));
+        return new CommentFilterResponse(comments.getContent(), TotalsMode.totalItems(comments), comments.hasNext(), totalsMode);
+    }
+
+    @Operation(summary = "Search comments by words of content with filters by tool, author and create date, ordered by relevance")
+    @Parameters({
+            @Parameter(name = "q", description = "search string, words are matched by stems, supports quoted phrases, " +
+                    "or and - for excluded words", example = "broken battery", required = true),
+            @Parameter(name = "size", description = "max number of found comments, min value is 1, max value is 50", example = "20", required = true),
+            @Parameter(name = "toolId", description = "comments tool id", example = "1"),
+            @Parameter(name = "personUuid", description = "uuid of comment author", example = "935921a7-692e-4ee4-a089-2695b68e9802"),
+            @Parameter(name = "createdFrom", description = "min create date inclusive", example = "2023-08-01T00:00:00"),
+            @Parameter(name = "createdTo", description = "max create date exclusive", example = "2023-09-01T00:00:00")
+    })
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CommentSearchResponse search(@RequestParam(value = "q") @NotBlank String q,
+                                        @RequestParam(value = "size") @Min(1) @Max(50) int size,
+                                        @RequestParam(value = "toolId", required = false) Long toolId,
+                                        @RequestParam(value = "personUuid", required = false) UUID personUuid,
+                                        @RequestParam(value = "createdFrom", required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                                        @RequestParam(value = "createdTo", required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        return new CommentSearchResponse(service.search(q, toolId, personUuid, createdFrom, createdTo, size));
     }
 
 
@@ -1,6 +1,7 @@
 package tech.konso.toolsmanagement.modules.business.tools.comment.controller.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
 
 import java.util.List;
 
@@ -8,12 +9,18 @@ import java.util.List;
  * DTO class for response to return result set of comments in pageable format.
  *
  * @param comments   list of found comments. List size limited by page size
- * @param totalItems total number of comments found
+ * @param totalItems total number of comments found, null if totals are not counted
+ * @param hasNext    flag, is there a next page
+ * @param totals     mode used to calculate total items
  */
 
 @Schema(description = "Response for return result set of comments in pageable format")
 public record CommentFilterResponse(@Schema(description = "list of found comments, list size limited by page size")
                                     List<CommentFilterInfo> comments,
-                                    @Schema(description = "total number of comments found", example = "20")
-                                    Long totalItems) {
+                                    @Schema(description = "total number of comments found, null if totals are not counted", example = "20", nullable = true)
+                                    Long totalItems,
+                                    @Schema(description = "is there a next page", example = "true")
+                                    Boolean hasNext,
+                                    @Schema(description = "mode used to calculate total items: exact, estimate or none", example = "exact")
+                                    TotalsMode totals) {
 }
@@ -0,0 +1,24 @@
+package tech.konso.toolsmanagement.modules.business.tools.comment.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Found comment DTO class for {@link CommentSearchResponse}
+ *
+ * @param comment found comment
+ * @param toolId  id of commented tool
+ * @param rank    relevance of comment to search string, from 0 to 1
+ * @param snippet html escaped fragments of comment content with matched words
+ */
+@Schema(description = "Comment found by search with its relevance and snippet of content")
+public record CommentSearchInfo(
+        @Schema(description = "found comment")
+        CommentFilterInfo comment,
+        @Schema(description = "id of commented tool", example = "1")
+        Long toolId,
+        @Schema(description = "relevance of comment to search string, from 0 to 1", example = "0.09")
+        Double rank,
+        @Schema(description = "html escaped fragments of comment content, matched words are highlighted by <b> tag",
+                example = "<b>drill</b> was repaired")
+        String snippet) {
+}
@@ -0,0 +1,16 @@
+package tech.konso.toolsmanagement.modules.business.tools.comment.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO class for response to return comments found by search.
+ *
+ * @param comments found comments, the most relevant first. List size limited by requested size
+ */
+@Schema(description = "Response for return comments found by search ordered by relevance")
+public record CommentSearchResponse(
+        @Schema(description = "found comments, the most relevant first, list size limited by requested size")
+        List<CommentSearchInfo> comments) {
+}
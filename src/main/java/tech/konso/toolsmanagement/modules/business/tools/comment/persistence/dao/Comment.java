@@ -27,10 +27,11 @@ public class Comment implements Serializable {
     private static final long serialVersionUID = 1L;
 
     /**
-     * Primary key
+     * Primary key. Generated by pooled sequence, so inserts of comments can be batched
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tools_comment_id_generator")
+    @SequenceGenerator(name = "tools_comment_id_generator", sequenceName = "tools_comment_comment_id_seq", allocationSize = 50)
     @Column(name = "comment_id")
     private Long id;
 
@@ -11,11 +11,12 @@ import tech.konso.toolsmanagement.modules.business.tools.comment.persistence.dao
 
 /**
  * Repository for comment entity.
- * <p>Supports CRUD operations, searching by specification and pageable format.
+ * <p>Supports CRUD operations, searching by specification and pageable format,
+ * full text search by {@link CommentSearchRepository}.
  * <p>By default, uses read only transactions, if you want another mode, you must directly specify it on your method.
  */
 @Repository
 @Transactional(readOnly = true)
-public interface CommentRepository extends JpaRepository<Comment, Long> {
+public interface CommentRepository extends JpaRepository<Comment, Long>, CommentSearchRepository {
     Page<Comment> findAll(@Nullable Specification<Comment> spec, Pageable pageable);
 }
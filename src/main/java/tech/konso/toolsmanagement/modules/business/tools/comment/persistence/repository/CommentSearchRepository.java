@@ -0,0 +1,39 @@
+package tech.konso.toolsmanagement.modules.business.tools.comment.persistence.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Full text search of comments, fragment of {@link CommentRepository}.
+ * <p>Comments are matched by generated tsvector column of content, which is indexed by GIN index,
+ * filters are added to the query only when they are set.
+ */
+public interface CommentSearchRepository {
+
+    /**
+     * Searches comments, which content matches search string, and orders them by relevance.
+     * Search string supports web search syntax: quoted phrases, {@code or} and {@code -} for excluded words.
+     * Snippets of content are built only for found comments.
+     *
+     * @param query       search string
+     * @param toolId      id of commented tool, may be null
+     * @param personUuid  uuid of comment author, may be null
+     * @param createdFrom min create date inclusive, may be null
+     * @param createdTo   max create date exclusive, may be null
+     * @param limit       max number of found comments
+     * @return found comments, the most relevant first, newer first for equal relevance
+     */
+    List<SearchHit> search(String query, Long toolId, UUID personUuid, LocalDateTime createdFrom, LocalDateTime createdTo, int limit);
+
+    /**
+     * Comment found by search
+     *
+     * @param id      comment id
+     * @param toolId  id of commented tool
+     * @param rank    relevance of comment from 0 to 1
+     * @param snippet html escaped fragments of content with matched words highlighted by {@code <b>} tag
+     */
+    record SearchHit(Long id, Long toolId, Double rank, String snippet) {
+    }
+}
@@ -0,0 +1,88 @@
+package tech.konso.toolsmanagement.modules.business.tools.comment.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Implementation of {@link CommentSearchRepository} by native query.
+ * <p>Query is built from set filters only, so the planner sees no {@code :param IS NULL} conditions
+ * and null parameters are never bound without type.
+ * Found comments are ranked and limited in subquery, {@code ts_headline} is called for the limited rows only,
+ * because it parses the whole content again.
+ * <p>Matched words are marked by control characters, which are replaced by {@code <b>} tags after the snippet
+ * is escaped, so html of comment content is never returned unescaped.
+ */
+@Transactional(readOnly = true)
+public class CommentSearchRepositoryImpl implements CommentSearchRepository {
+
+    private static final String START_SEL = "\u0002";
+
+    private static final String STOP_SEL = "\u0003";
+
+    private static final String HEADLINE_OPTIONS = "StartSel=" + START_SEL + ", StopSel=" + STOP_SEL +
+            ", MaxFragments=2, MaxWords=20, MinWords=5, FragmentDelimiter=\" ... \"";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SearchHit> search(String query, Long toolId, UUID personUuid, LocalDateTime createdFrom, LocalDateTime createdTo, int limit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("query", query);
+        parameters.put("limit", limit);
+        StringBuilder where = new StringBuilder("c.content_tsv @@ q.query");
+        if (toolId != null) {
+            where.append(" AND c.tool_id = :toolId");
+            parameters.put("toolId", toolId);
+        }
+        if (personUuid != null) {
+            where.append(" AND c.person_uuid = :personUuid");
+            parameters.put("personUuid", personUuid);
+        }
+        if (createdFrom != null) {
+            where.append(" AND c.created_at >= :createdFrom");
+            parameters.put("createdFrom", createdFrom);
+        }
+        if (createdTo != null) {
+            where.append(" AND c.created_at < :createdTo");
+            parameters.put("createdTo", createdTo);
+        }
+
+        Query select = entityManager.createNativeQuery("SELECT f.comment_id, f.tool_id, f.rank, " +
+                "ts_headline('russian', f.content, f.query, '" + HEADLINE_OPTIONS + "') " +
+                "FROM (SELECT c.comment_id, c.tool_id, c.content, c.created_at, q.query, " +
+                "CAST(ts_rank_cd(c.content_tsv, q.query, 32) AS double precision) AS rank " +
+                "FROM tools_comment c, websearch_to_tsquery('russian', :query) AS q(query) " +
+                "WHERE " + where + " " +
+                "ORDER BY rank DESC, c.created_at DESC, c.comment_id DESC " +
+                "LIMIT :limit) f " +
+                "ORDER BY f.rank DESC, f.created_at DESC, f.comment_id DESC");
+        parameters.forEach(select::setParameter);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = select.getResultList();
+        return rows.stream()
+                .map(row -> new SearchHit(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                        ((Number) row[2]).doubleValue(), snippet((String) row[3])))
+                .toList();
+    }
+
+    /**
+     * Escapes html of headline and replaces marks of matched words by {@code <b>} tags
+     */
+    private static String snippet(String headline) {
+        return HtmlUtils.htmlEscape(headline, StandardCharsets.UTF_8.name())
+                .replace(START_SEL, "<b>")
+                .replace(STOP_SEL, "</b>");
+    }
+}
@@ -5,20 +5,32 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.konso.toolsmanagement.modules.business.tools.comment.controller.dto.CommentFilterInfo;
 import tech.konso.toolsmanagement.modules.business.tools.comment.controller.dto.CommentRequest;
+import tech.konso.toolsmanagement.modules.business.tools.comment.controller.dto.CommentSearchInfo;
 import tech.konso.toolsmanagement.modules.business.tools.comment.persistence.dao.Comment;
 import tech.konso.toolsmanagement.modules.business.tools.comment.persistence.repository.CommentRepository;
+import tech.konso.toolsmanagement.modules.business.tools.comment.persistence.repository.CommentSearchRepository;
+import tech.konso.toolsmanagement.modules.business.tools.comment.persistence.repository.CommentSearchRepository.SearchHit;
 import tech.konso.toolsmanagement.modules.business.tools.comment.persistence.specification.CommentSpecification;
 import tech.konso.toolsmanagement.modules.business.tools.comment.service.mappers.CommentDtoMapper;
 import tech.konso.toolsmanagement.modules.business.tools.comment.service.mappers.CommentEntityMapper;
 import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
+import tech.konso.toolsmanagement.system.commons.pagination.TwoPhasePagingEngine;
 import tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.specBuilder;
 
@@ -34,6 +46,9 @@ public class CommentService {
     @Autowired
     private CommentEntityMapper entityMapper;
 
+    @Autowired
+    private TwoPhasePagingEngine pagingEngine;
+
     private CommentDtoMapper dtoMapper;
 
     @PostConstruct
@@ -100,4 +115,64 @@ public class CommentService {
         Pageable pageable = PageRequest.of(page, size);
         return repository.findAll(builder.and(spec).build(), pageable).map(dtoMapper::toCommentFilterInfo);
     }
+
+    /**
+     * Finds comments by comment specification with totals calculated according to totals mode.
+     * Totals are cached for a short time by count key, see {@link TwoPhasePagingEngine}.
+     * <p>
+     * Example:
+     * <pre>
+     *     Specification&lt;Comment> spec = specBuilder(sortSpec("name,desc")).build();
+     *     Slice&lt;CommentFilterInfo> founded = service.findAll(0, 100, spec, TotalsMode.NONE, null);
+     * </pre>
+     *
+     * @param page     number of returned result set
+     * @param size     of the returned page
+     * @param spec     set of comment specification
+     * @param totals   how totals are calculated
+     * @param countKey key of cached totals, must identify filters of specification, may be null
+     * @return {@link Page} for exact and estimated totals, {@link Slice} for none mode
+     * @see CommentSpecification comment specifications
+     */
+    public Slice<CommentFilterInfo> findAll(int page, int size, Specification<Comment> spec, TotalsMode totals, String countKey) {
+        AbstractSpecification.SpecBuilder<Comment> builder = specBuilder(Comment.class);
+        Pageable pageable = PageRequest.of(page, size);
+        return pagingEngine.findAll(Comment.class, builder.and(spec).build(), pageable, totals, countKey)
+                .map(dtoMapper::toCommentFilterInfo);
+    }
+
+    /**
+     * Searches comments, which content matches search string by full text search, and orders them by relevance.
+     * Comments may be filtered by tool, author and create date range.
+     * Found comments are selected by ids with one query and mapped like comments of list.
+     * <p>
+     * Example:
+     * <pre>
+     *     List&lt;CommentSearchInfo> found = service.search("broken battery", toolId, null, null, null, 20);
+     * </pre>
+     *
+     * @param query       search string
+     * @param toolId      id of commented tool, may be null
+     * @param personUuid  uuid of comment author, may be null
+     * @param createdFrom min create date inclusive, may be null
+     * @param createdTo   max create date exclusive, may be null
+     * @param size        max number of found comments
+     * @return list of {@link CommentSearchInfo}, the most relevant first
+     * @see CommentSearchRepository#search(String, Long, UUID, LocalDateTime, LocalDateTime, int)
+     */
+    @Transactional(readOnly = true)
+    public List<CommentSearchInfo> search(String query, Long toolId, UUID personUuid, LocalDateTime createdFrom,
+                                          LocalDateTime createdTo, int size) {
+        List<SearchHit> hits = repository.search(query, toolId, personUuid, createdFrom, createdTo, size);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Comment> found = repository.findAllById(hits.stream().map(SearchHit::id).toList()).stream()
+                .collect(Collectors.toMap(Comment::getId, Function.identity()));
+        return hits.stream()
+                .filter(hit -> found.containsKey(hit.id()))
+                .map(hit -> new CommentSearchInfo(dtoMapper.toCommentFilterInfo(found.get(hit.id())), hit.toolId(),
+                        hit.rank(), hit.snippet()))
+                .toList();
+    }
 }
@@ -2,10 +2,13 @@ package tech.konso.toolsmanagement.modules.business.tools.label.persistence.repo
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import tech.konso.toolsmanagement.modules.business.tools.label.persistence.dao.Label;
 
+import java.util.Optional;
+
 /**
  * Repository for label entity.
  * <p>Supports CRUD operations, searching by specification and pageable format.
@@ -14,4 +17,6 @@ import tech.konso.toolsmanagement.modules.business.tools.label.persistence.dao.L
 @Repository("ToolsLabelRepository")
 @Transactional(readOnly = true)
 public interface LabelRepository extends JpaRepository<Label, Long>, JpaSpecificationExecutor<Label> {
+    @Query("SELECT l.name FROM Label l WHERE l.id = :id")
+    Optional<String> findNameById(Long id);
 }
\ No newline at end of file
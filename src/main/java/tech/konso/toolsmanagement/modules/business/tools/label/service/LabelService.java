@@ -2,6 +2,8 @@ package tech.konso.toolsmanagement.modules.business.tools.label.service;
 
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -13,10 +15,15 @@ import tech.konso.toolsmanagement.modules.business.tools.label.persistence.repos
 import tech.konso.toolsmanagement.modules.business.tools.label.controller.dto.LabelRequest;
 import tech.konso.toolsmanagement.modules.business.tools.label.persistence.specification.LabelSpecification;
 import tech.konso.toolsmanagement.modules.business.tools.label.service.mappers.LabelEntityMapper;
+import tech.konso.toolsmanagement.system.commons.configs.CacheConfig;
 import tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification;
 import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.specBuilder;
 
@@ -68,6 +75,50 @@ public class LabelService {
         return repository.getReferenceById(id);
     }
 
+    /**
+     * Find label name by unique id. Names are cached, cache entry is evicted when label is saved.
+     * Used to fill label names of lists without joining label table.
+     * <p>
+     * Example:
+     * <pre>
+     *     String name = findNameById(2L);
+     * </pre>
+     *
+     * @param id of label, must exist in database
+     * @return label name
+     * @throws BPException if label not exists in database
+     */
+    @Cacheable(cacheNames = CacheConfig.TOOLS_LABEL, key = "#id")
+    public String findNameById(Long id) {
+        return repository.findNameById(id).orElseThrow(() -> new BPException.NotFound("Label not found id: " + id));
+    }
+
+    /**
+     * Find labels in database by unique ids with one query. All labels must exist in database.
+     * Used instead of references, when labels are put to hash based collections,
+     * because hash code of label reference requires loading of label by separate query.
+     * <p>
+     * Example:
+     * <pre>
+     *     List&lt;Label> labels = findAllById(Set.of(2L, 3L));
+     * </pre>
+     *
+     * @param ids of labels, must exist in database
+     * @return labels from database
+     * @throws BPException if any of labels not exists in database
+     */
+    public List<Label> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Label> labels = repository.findAllById(ids);
+        if (labels.size() != ids.size()) {
+            Set<Long> found = labels.stream().map(Label::getId).collect(Collectors.toSet());
+            throw new BPException.NotFound("Label not found ids: " + ids.stream().filter(id -> !found.contains(id)).toList());
+        }
+        return labels;
+    }
+
     /**
      * Finds labels by label specification and returns it in pageable format.
      * By default, result set sorts by create date from newer to older and without archived labels.
@@ -104,6 +155,7 @@ public class LabelService {
      * @return {@link Label} saved object
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TOOLS_LABEL, key = "#rq.id", condition = "#rq.id != null")
     public Label save(LabelRequest rq) {
         return Optional.ofNullable(rq.id())
                 .map(id -> repository.findById(rq.id())
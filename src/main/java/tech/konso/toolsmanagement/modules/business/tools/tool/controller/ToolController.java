@@ -5,25 +5,56 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Parameters;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.*;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.Tool;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.enums.OwnershipType;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.specification.ToolFilter;
 import tech.konso.toolsmanagement.modules.business.tools.tool.service.ToolService;
+import tech.konso.toolsmanagement.system.commons.configs.properties.PagingProperties;
+import tech.konso.toolsmanagement.system.commons.export.ExportFormat;
+import tech.konso.toolsmanagement.modules.integration.facade.PhotoSize;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.FileStream;
+import tech.konso.toolsmanagement.modules.integration.upload.dto.PhotoUploadInfo;
+import tech.konso.toolsmanagement.modules.integration.upload.persistence.dao.enums.UploadStatus;
+import tech.konso.toolsmanagement.system.commons.http.HttpCaching;
+import tech.konso.toolsmanagement.system.commons.pagination.KeysetCursor;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
+import tech.konso.toolsmanagement.system.commons.suggest.SuggestResponse;
 
+import java.math.BigDecimal;
 import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 
 import static tech.konso.toolsmanagement.modules.business.tools.tool.persistence.specification.ToolSpecification.*;
+import static tech.konso.toolsmanagement.system.commons.pagination.TwoPhasePagingEngine.countKey;
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.specBuilder;
 
 @Validated
@@ -37,38 +68,211 @@ public class ToolController {
     @Autowired
     private ToolService service;
 
+    @Autowired
+    private PagingProperties pagingProperties;
+
 
-    @Operation(summary = "Get tool by id")
+    @Operation(summary = "Get tool by id, supports conditional request by ETag and Last-Modified")
     @Parameters({
             @Parameter(name = "id", description = "id of tool to be searched", example = "7", required = true)
     })
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ToolInfo find(@PathVariable("id") Long id) {
-        return service.findById(id);
+    public ResponseEntity<ToolInfo> find(@PathVariable("id") Long id,
+                                       @Parameter(hidden = true) @RequestHeader HttpHeaders requestHeaders) {
+        LocalDateTime updatedAt = service.findLastModified(id);
+        String eTag = HttpCaching.eTag(id, updatedAt);
+        long lastModified = HttpCaching.lastModified(updatedAt);
+        if (HttpCaching.isNotModified(requestHeaders, eTag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).lastModified(lastModified)
+                    .cacheControl(HttpCaching.REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).lastModified(lastModified)
+                .cacheControl(HttpCaching.REVALIDATE).body(service.findById(id));
     }
 
     @Operation(summary = "List tools by filter")
     @Parameters({
-            @Parameter(name = "page", description = "page number of result dataset, min value is 1", example = "1", required = true),
+            @Parameter(name = "page", description = "page number of result dataset, min value is 1, ignored with after cursor", example = "1"),
             @Parameter(name = "size", description = "size of result dataset page, min value is 1, max value is 50", example = "20", required = true),
             @Parameter(name = "name", description = "name of tool, min length is 3", example = "Makita MTK24"),
             @Parameter(name = "isArchived", description = "Archived flag, false by default", example = "false"),
+            @Parameter(name = "categoryId", description = "id of category, tools of its subcategories are found too", example = "3"),
+            @Parameter(name = "brandIds", description = "ids of brands, tools of any of them are found", example = "1,2"),
+            @Parameter(name = "labelIds", description = "ids of labels, tools with any of them are found", example = "4,5"),
+            @Parameter(name = "ownershipType", description = "ownership type: OWN or RENT", example = "RENT"),
+            @Parameter(name = "isConsumable", description = "consumable flag", example = "false"),
+            @Parameter(name = "isKit", description = "kit flag", example = "false"),
+            @Parameter(name = "responsibleUuid", description = "uuid of responsible person", example = "935921a7-692e-4ee4-a089-2695b68e9801"),
+            @Parameter(name = "projectUuid", description = "uuid of project", example = "935921a7-692e-4ee4-a089-2695b68e9801"),
+            @Parameter(name = "priceFrom", description = "min price inclusive", example = "100.00"),
+            @Parameter(name = "priceTo", description = "max price inclusive", example = "1000.00"),
+            @Parameter(name = "rentTillFrom", description = "min rent end date inclusive", example = "2023-08-01"),
+            @Parameter(name = "rentTillTo", description = "max rent end date inclusive", example = "2023-08-31"),
             @Parameter(name = "sort", description = "Sorting filter supports: name(tool name), createdat(created date), updatedat(updated date)." +
                     " Every filter supports asc and desc order. By default sorts by create date in desc order. " +
-                    "To choose sorting order type filter name and, by comma separator, order (asd, desc)", example = "name,asc")
+                    "To choose sorting order type filter name and, by comma separator, order (asd, desc)", example = "name,asc"),
+            @Parameter(name = "after", description = "Cursor of the next page from nextCursor of the previous response. " +
+                    "Must be used with the same filters and sort, page is ignored and total items are not counted. " +
+                    "Empty cursor starts from the first page"),
+            @Parameter(name = "totals", description = "How total items are calculated: exact(count, may be cached for a few seconds), " +
+                    "estimate(approximate for large results), none(only hasNext flag), exact by default", example = "exact"),
+            @Parameter(name = "facets", description = "Count found tools by brands, categories, labels, ownership types, consumable " +
+                    "and kit flags, may be cached for a few seconds, false by default", example = "true")
     })
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ToolFilterResponse findAll(@RequestParam(value = "page") @Min(1) int page,
+    public ToolFilterResponse findAll(@RequestParam(value = "page", required = false, defaultValue = "1") @Min(1) int page,
                                       @RequestParam(value = "size") @Min(1) @Max(50) int size,
                                       @RequestParam(value = "name", required = false) String name,
                                       @RequestParam(value = "isArchived", required = false, defaultValue = "false") Boolean isArchived,
-                                      @RequestParam(value = "sort", required = false) String sort) {
+                                      @RequestParam(value = "categoryId", required = false) Long categoryId,
+                                      @RequestParam(value = "brandIds", required = false) List<Long> brandIds,
+                                      @RequestParam(value = "labelIds", required = false) List<Long> labelIds,
+                                      @RequestParam(value = "ownershipType", required = false) OwnershipType ownershipType,
+                                      @RequestParam(value = "isConsumable", required = false) Boolean isConsumable,
+                                      @RequestParam(value = "isKit", required = false) Boolean isKit,
+                                      @RequestParam(value = "responsibleUuid", required = false) UUID responsibleUuid,
+                                      @RequestParam(value = "projectUuid", required = false) UUID projectUuid,
+                                      @RequestParam(value = "priceFrom", required = false) @DecimalMin("0") BigDecimal priceFrom,
+                                      @RequestParam(value = "priceTo", required = false) @DecimalMin("0") BigDecimal priceTo,
+                                      @RequestParam(value = "rentTillFrom", required = false)
+                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate rentTillFrom,
+                                      @RequestParam(value = "rentTillTo", required = false)
+                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate rentTillTo,
+                                      @RequestParam(value = "sort", required = false) String sort,
+                                      @RequestParam(value = "after", required = false) String after,
+                                      @RequestParam(value = "totals", required = false, defaultValue = "exact") String totals,
+                                      @RequestParam(value = "facets", required = false, defaultValue = "false") boolean facets) {
+        ToolFilter filter = ToolFilter.builder()
+                .isArchived(isArchived)
+                .name(name)
+                .categoryId(categoryId)
+                .brandIds(brandIds)
+                .labelIds(labelIds)
+                .ownershipType(ownershipType)
+                .isConsumable(isConsumable)
+                .isKit(isKit)
+                .responsibleUuid(responsibleUuid)
+                .projectUuid(projectUuid)
+                .priceFrom(priceFrom)
+                .priceTo(priceTo)
+                .rentTillFrom(rentTillFrom)
+                .rentTillTo(rentTillTo)
+                .build();
+        Specification<Tool> spec = specBuilder(filterSpec(filter)
+                .and(sortSpec(sort))
+                .and(afterSpec(sort, after)))
+                .build();
+        ToolFacets toolFacets = facets ? service.findFacets(filter) : null;
+        if (after != null) {
+            Slice<ToolFilterInfo> tools = service.findSlice(0, size, spec);
+            return new ToolFilterResponse(tools.getContent(), null, KeysetCursor.next(tools, sort), tools.hasNext(),
+                    TotalsMode.NONE, toolFacets);
+        }
+        TotalsMode totalsMode = TotalsMode.of(totals);
         // UI pages starts with 1
-        Page<ToolFilterInfo> tools = service.findAll(page - 1, size, specBuilder(isArchivedSpec(isArchived)
-                .and(likeSpec(name))
+        Slice<ToolFilterInfo> tools = service.findAll(page - 1, size, spec, totalsMode, countKey(filter));
+        return new ToolFilterResponse(tools.getContent(), TotalsMode.totalItems(tools), KeysetCursor.next(tools, sort),
+                tools.hasNext(), totalsMode, toolFacets);
+    }
+
+    @Operation(summary = "Search tools by similarity of name, inventory number, brand or category name, ordered by relevance")
+    @Parameters({
+            @Parameter(name = "q", description = "search string, min length is 3", example = "makita drill", required = true),
+            @Parameter(name = "size", description = "max number of found tools, min value is 1, max value is 50", example = "20", required = true),
+            @Parameter(name = "threshold", description = "min word similarity of search string to tool field, from 0 to 1, 0.6 by default. " +
+                    "Lower threshold finds more tools with typos", example = "0.5"),
+            @Parameter(name = "isArchived", description = "Archived flag, false by default", example = "false")
+    })
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ToolSearchResponse search(@RequestParam(value = "q") @NotBlank @Size(min = 3) String q,
+                                     @RequestParam(value = "size") @Min(1) @Max(50) int size,
+                                     @RequestParam(value = "threshold", required = false, defaultValue = "0.6") @DecimalMin("0") @DecimalMax("1") double threshold,
+                                     @RequestParam(value = "isArchived", required = false, defaultValue = "false") Boolean isArchived) {
+        return new ToolSearchResponse(service.search(q, threshold, isArchived, size));
+    }
+
+    @Operation(summary = "Suggest names and inventory numbers of not archived tools, which start with prefix, for autocomplete")
+    @Parameters({
+            @Parameter(name = "prefix", description = "beginning of tool name or inventory number, case is ignored", example = "mak", required = true),
+            @Parameter(name = "size", description = "max number of suggestions, min value is 1, max value is 50, 10 by default", example = "10")
+    })
+    @GetMapping(value = "/suggest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public SuggestResponse suggest(@RequestParam(value = "prefix") @NotBlank String prefix,
+                                   @RequestParam(value = "size", required = false, defaultValue = "10") @Min(1) @Max(50) int size) {
+        return new SuggestResponse(service.suggest(prefix, size));
+    }
+
+    @Operation(summary = "Export all tools by filter as stream of ndjson or csv lines")
+    @Parameters({
+            @Parameter(name = "name", description = "name of tool, min length is 3", example = "Makita MTK24"),
+            @Parameter(name = "isArchived", description = "Archived flag, false by default", example = "false"),
+            @Parameter(name = "categoryId", description = "id of category, tools of its subcategories are found too", example = "3"),
+            @Parameter(name = "brandIds", description = "ids of brands, tools of any of them are found", example = "1,2"),
+            @Parameter(name = "labelIds", description = "ids of labels, tools with any of them are found", example = "4,5"),
+            @Parameter(name = "ownershipType", description = "ownership type: OWN or RENT", example = "RENT"),
+            @Parameter(name = "isConsumable", description = "consumable flag", example = "false"),
+            @Parameter(name = "isKit", description = "kit flag", example = "false"),
+            @Parameter(name = "responsibleUuid", description = "uuid of responsible person", example = "935921a7-692e-4ee4-a089-2695b68e9801"),
+            @Parameter(name = "projectUuid", description = "uuid of project", example = "935921a7-692e-4ee4-a089-2695b68e9801"),
+            @Parameter(name = "priceFrom", description = "min price inclusive", example = "100.00"),
+            @Parameter(name = "priceTo", description = "max price inclusive", example = "1000.00"),
+            @Parameter(name = "rentTillFrom", description = "min rent end date inclusive", example = "2023-08-01"),
+            @Parameter(name = "rentTillTo", description = "max rent end date inclusive", example = "2023-08-31"),
+            @Parameter(name = "sort", description = "Sorting filter supports: name(tool name), createdat(created date), updatedat(updated date)." +
+                    " Every filter supports asc and desc order. By default sorts by create date in desc order. " +
+                    "To choose sorting order type filter name and, by comma separator, order (asd, desc)", example = "name,asc"),
+            @Parameter(name = "format", description = "Export format: ndjson(one json object per line) or csv, ndjson by default", example = "csv")
+    })
+    @GetMapping(value = "/export")
+    public WebAsyncTask<Void> export(@RequestParam(value = "name", required = false) String name,
+                                     @RequestParam(value = "isArchived", required = false, defaultValue = "false") Boolean isArchived,
+                                     @RequestParam(value = "categoryId", required = false) Long categoryId,
+                                     @RequestParam(value = "brandIds", required = false) List<Long> brandIds,
+                                     @RequestParam(value = "labelIds", required = false) List<Long> labelIds,
+                                     @RequestParam(value = "ownershipType", required = false) OwnershipType ownershipType,
+                                     @RequestParam(value = "isConsumable", required = false) Boolean isConsumable,
+                                     @RequestParam(value = "isKit", required = false) Boolean isKit,
+                                     @RequestParam(value = "responsibleUuid", required = false) UUID responsibleUuid,
+                                     @RequestParam(value = "projectUuid", required = false) UUID projectUuid,
+                                     @RequestParam(value = "priceFrom", required = false) @DecimalMin("0") BigDecimal priceFrom,
+                                     @RequestParam(value = "priceTo", required = false) @DecimalMin("0") BigDecimal priceTo,
+                                     @RequestParam(value = "rentTillFrom", required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate rentTillFrom,
+                                     @RequestParam(value = "rentTillTo", required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate rentTillTo,
+                                     @RequestParam(value = "sort", required = false) String sort,
+                                     @RequestParam(value = "format", required = false, defaultValue = "ndjson") String format,
+                                     HttpServletResponse response) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        ToolFilter filter = ToolFilter.builder()
+                .isArchived(isArchived)
+                .name(name)
+                .categoryId(categoryId)
+                .brandIds(brandIds)
+                .labelIds(labelIds)
+                .ownershipType(ownershipType)
+                .isConsumable(isConsumable)
+                .isKit(isKit)
+                .responsibleUuid(responsibleUuid)
+                .projectUuid(projectUuid)
+                .priceFrom(priceFrom)
+                .priceTo(priceTo)
+                .rentTillFrom(rentTillFrom)
+                .rentTillTo(rentTillTo)
+                .build();
+        Specification<Tool> spec = specBuilder(filterSpec(filter)
                 .and(sortSpec(sort)))
-                .build());
-        return new ToolFilterResponse(tools.getContent(), tools.getTotalElements());
+                .build();
+        response.setContentType(exportFormat.mediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(exportFormat.fileName("tools"))
+                .build()
+                .toString());
+        // export of the whole catalogue outlives default async timeout of other requests
+        return new WebAsyncTask<>(pagingProperties.getExportTimeout().toMillis(), () -> {
+            service.export(spec, exportFormat, response.getOutputStream());
+            return null;
+        });
     }
 
     @Operation(summary = "Update existing tool by id")
@@ -98,13 +302,61 @@ public class ToolController {
         return ResponseEntity.created(location).build();
     }
 
-    @Operation(summary = "Get tool photo by tool id")
+    @Operation(summary = "Create batch of tools in one transaction, returns ids in the order of requests")
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ToolBatchResponse> saveAll(@Valid @RequestBody ToolBatchRequest rq) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(new ToolBatchResponse(service.saveAll(rq.tools())));
+    }
+
+    @Operation(summary = "Get tool photo by tool id in requested size, streamed from file storage, supports Range header and conditional request by ETag")
     @Parameters({
-            @Parameter(name = "id", description = "id of tool", example = "7", required = true)
+            @Parameter(name = "id", description = "id of tool", example = "7", required = true),
+            @Parameter(name = "size", description = "size of photo: thumb, medium or full", example = "thumb")
     })
     @GetMapping(value = "/{id}/photo", produces = MediaType.IMAGE_JPEG_VALUE)
-    public InputStreamResource findPhoto(@PathVariable("id") Long id) {
-        return service.findPhoto(id);
+    public ResponseEntity<StreamingResponseBody> findPhoto(@PathVariable("id") Long id,
+                                                           @RequestParam(value = "size", required = false, defaultValue = "full") String size,
+                                                           @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                           @Parameter(hidden = true) @RequestHeader HttpHeaders requestHeaders) {
+        PhotoSize photoSize = PhotoSize.of(size);
+        UUID photoUuid = service.findPhotoUuid(id);
+        String eTag = photoSize == PhotoSize.FULL
+                ? HttpCaching.eTag(photoUuid)
+                : HttpCaching.eTag(photoUuid, photoSize.name().toLowerCase());
+        if (HttpCaching.isNotModified(requestHeaders, eTag, -1)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(HttpCaching.REVALIDATE).build();
+        }
+        FileStream photo = service.findPhoto(photoUuid, photoSize, range);
+        return ResponseEntity.status(photo.status()).headers(photo.headers()).eTag(eTag)
+                .cacheControl(HttpCaching.REVALIDATE).body(photo::writeTo);
+    }
+
+    @Operation(summary = "Get photo uuids of tools by ids with one query, tools without photo are skipped")
+    @Parameters({
+            @Parameter(name = "ids", description = "ids of tools, max 100 ids per request", example = "7,8,9", required = true)
+    })
+    @GetMapping(value = "/photos", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<ToolPhotoInfo> findPhotoUuids(@RequestParam(value = "ids") @NotEmpty @Size(max = 100) List<Long> ids) {
+        return service.findPhotoUuids(ids);
+    }
+
+    @Operation(summary = "Get photos of tools by ids in requested size as zip archive, photo of every tool is named by tool id, " +
+            "tools without photo are skipped")
+    @Parameters({
+            @Parameter(name = "ids", description = "ids of tools, max 100 ids per request", example = "7,8,9", required = true),
+            @Parameter(name = "size", description = "size of photos: thumb, medium or full, thumb by default", example = "thumb")
+    })
+    @GetMapping(value = "/photos/archive", produces = "application/zip")
+    public ResponseEntity<StreamingResponseBody> findPhotoArchive(@RequestParam(value = "ids") @NotEmpty @Size(max = 100) List<Long> ids,
+                                                                  @RequestParam(value = "size", required = false, defaultValue = "thumb") String size) {
+        PhotoSize photoSize = PhotoSize.of(size);
+        List<ToolPhotoInfo> photos = service.findPhotoUuids(ids);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("tools-photos.zip")
+                        .build()
+                        .toString())
+                .body(out -> service.writePhotoArchive(photos, photoSize, out));
     }
 
     @Operation(summary = "Upload tool photo")
@@ -112,4 +364,25 @@ public class ToolController {
     public UploadPhotoResponse uploadPhoto(@RequestPart("attachment") MultipartFile multipartFile) {
         return service.uploadPhoto(multipartFile);
     }
+
+    @Operation(summary = "Upload tool photo in background, returns upload id immediately, " +
+            "photo uuid is returned by upload state, when photo is stored")
+    @PostMapping(value = "/photo/async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PhotoUploadInfo> uploadPhotoAsync(@RequestPart("attachment") MultipartFile multipartFile) {
+        UUID uploadId = service.uploadPhotoAsync(multipartFile);
+        URI location = MvcUriComponentsBuilder
+                .fromMethodName(ToolController.class, "findPhotoUpload", uploadId)
+                .build()
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(new PhotoUploadInfo(uploadId, UploadStatus.PENDING, null, null));
+    }
+
+    @Operation(summary = "Get state of tool photo upload: PENDING, STORED with photo uuid or FAILED with error")
+    @Parameters({
+            @Parameter(name = "uploadId", description = "id of upload", example = "3d965e4e-cf28-45e1-91c7-1225566e6817", required = true)
+    })
+    @GetMapping(value = "/photo/uploads/{uploadId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public PhotoUploadInfo findPhotoUpload(@PathVariable("uploadId") UUID uploadId) {
+        return service.findPhotoUpload(uploadId);
+    }
 }
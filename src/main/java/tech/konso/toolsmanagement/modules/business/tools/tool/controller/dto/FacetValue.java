@@ -0,0 +1,17 @@
+package tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Value of facet with number of tools DTO class for {@link ToolFacets}
+ *
+ * @param value value of facet, null for tools without value
+ * @param count number of tools with value
+ */
+@Schema(description = "Value of facet with number of found tools")
+public record FacetValue(@Schema(description = "value of facet: id of brand, category or label, ownership type or flag, " +
+                                 "null for tools without brand, category or labels", example = "3", nullable = true)
+                         String value,
+                         @Schema(description = "number of found tools with value", example = "12")
+                         Long count) {
+}
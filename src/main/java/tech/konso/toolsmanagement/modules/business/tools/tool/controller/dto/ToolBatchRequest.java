@@ -0,0 +1,21 @@
+package tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO class for request to save batch of new tools.
+ *
+ * @param tools requests of new tools, must not be empty, max size is 1000. Every tool is validated as single tool request
+ */
+@Schema(description = "Request to save batch of new tools")
+public record ToolBatchRequest(
+        @Schema(description = "new tools, max 1000 tools per request")
+        @NotEmpty
+        @Size(max = 1000)
+        List<@Valid ToolRequest> tools) {
+}
@@ -0,0 +1,16 @@
+package tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO class for response to return ids of tools saved by batch.
+ *
+ * @param ids ids of saved tools, id at every index belongs to tool request at the same index
+ */
+@Schema(description = "Response for return ids of tools saved by batch")
+public record ToolBatchResponse(
+        @Schema(description = "ids of saved tools in the order of tool requests", example = "[101, 102, 103]")
+        List<Long> ids) {
+}
@@ -0,0 +1,31 @@
+package tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Facets of found tools DTO class for {@link ToolFilterResponse}, used to draw counts of filter values.
+ * Every list is ordered from the most frequent value.
+ *
+ * @param brands         counts by brand id
+ * @param categories     counts by category id
+ * @param labels         counts by label id, tool with several labels is counted for each of them
+ * @param ownershipTypes counts by ownership type
+ * @param isConsumable   counts by consumable flag
+ * @param isKit          counts by kit flag
+ */
+@Schema(description = "Counts of found tools by values of filters")
+public record ToolFacets(@Schema(description = "counts by brand id")
+                         List<FacetValue> brands,
+                         @Schema(description = "counts by category id")
+                         List<FacetValue> categories,
+                         @Schema(description = "counts by label id, tool with several labels is counted for each of them")
+                         List<FacetValue> labels,
+                         @Schema(description = "counts by ownership type")
+                         List<FacetValue> ownershipTypes,
+                         @Schema(description = "counts by consumable flag")
+                         List<FacetValue> isConsumable,
+                         @Schema(description = "counts by kit flag")
+                         List<FacetValue> isKit) {
+}
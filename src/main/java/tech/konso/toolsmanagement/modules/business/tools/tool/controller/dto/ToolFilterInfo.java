@@ -2,6 +2,7 @@ package tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
+import tech.konso.toolsmanagement.system.commons.pagination.KeysetItem;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.enums.OwnershipType;
 
 import java.math.BigDecimal;
@@ -72,5 +73,5 @@ public record ToolFilterInfo(@Schema(description = "tool id", example = "1")
                              @Schema(description = "create date", example = "2023-08-13T18:05:29.179615")
                              LocalDateTime createdAt,
                              @Schema(description = "update date", example = "2023-08-13T18:05:29.179615")
-                             LocalDateTime updatedAt) {
+                             LocalDateTime updatedAt) implements KeysetItem {
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
 
 import java.util.List;
 
@@ -8,12 +9,24 @@ import java.util.List;
  * DTO class for response to return result set of tools in pageable format.
  *
  * @param tools      list of found tools. List size limited by page size
- * @param totalItems total number of tools found
+ * @param totalItems total number of tools found, not counted for keyset pages
+ * @param nextCursor cursor of the next page, null if there is no next page
+ * @param hasNext    flag, is there a next page
+ * @param totals     mode used to calculate total items
+ * @param facets     counts of found tools by values of filters, null if facets are not requested
  */
 
 @Schema(description = "Response for return result set of tools in pageable format")
 public record ToolFilterResponse(@Schema(description = "list of found tools, list size limited by page size")
                                  List<ToolFilterInfo> tools,
-                                 @Schema(description = "total number of tools found", example = "20")
-                                 Long totalItems) {
+                                 @Schema(description = "total number of tools found, not counted for keyset pages", example = "20", nullable = true)
+                                 Long totalItems,
+                                 @Schema(description = "cursor of the next page, pass it as after parameter to get the next page", nullable = true)
+                                 String nextCursor,
+                                 @Schema(description = "is there a next page", example = "true")
+                                 Boolean hasNext,
+                                 @Schema(description = "mode used to calculate total items: exact, estimate or none", example = "exact")
+                                 TotalsMode totals,
+                                 @Schema(description = "counts of found tools by values of filters, null if facets are not requested", nullable = true)
+                                 ToolFacets facets) {
 }
@@ -0,0 +1,19 @@
+package tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+/**
+ * DTO class for response to return photo uuid of tool.
+ *
+ * @param id        tool id
+ * @param photoUuid Tool photo UUID in file storage
+ */
+@Schema(description = "Response for return tool photo UUID in file storage")
+public record ToolPhotoInfo(
+        @Schema(description = "tool id", example = "7")
+        Long id,
+        @Schema(description = "Tool photo UUID in file storage", example = "3d965e4e-cf28-45e1-91c7-1225566e6817")
+        UUID photoUuid) {
+}
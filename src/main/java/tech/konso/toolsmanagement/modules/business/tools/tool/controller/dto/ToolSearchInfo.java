@@ -0,0 +1,18 @@
+package tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Found tool DTO class for {@link ToolSearchResponse}
+ *
+ * @param tool  found tool
+ * @param score similarity of search string to the best matched field of tool, from 0 to 1
+ */
+@Schema(description = "Tool found by search with its similarity score")
+public record ToolSearchInfo(
+        @Schema(description = "found tool")
+        ToolFilterInfo tool,
+        @Schema(description = "similarity of search string to the best matched field of tool: name, inventory number, " +
+                "brand or category name, from 0 to 1", example = "0.75")
+        Double score) {
+}
@@ -0,0 +1,16 @@
+package tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO class for response to return tools found by search.
+ *
+ * @param tools found tools, the most similar first. List size limited by requested size
+ */
+@Schema(description = "Response for return tools found by search ordered by relevance")
+public record ToolSearchResponse(
+        @Schema(description = "found tools, the most similar first, list size limited by requested size")
+        List<ToolSearchInfo> tools) {
+}
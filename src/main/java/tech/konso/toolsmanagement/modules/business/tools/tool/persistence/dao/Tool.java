@@ -33,10 +33,11 @@ public class Tool implements Serializable {
     private static final long serialVersionUID = 1L;
 
     /**
-     * Primary key
+     * Primary key. Generated by pooled sequence, so inserts of tools can be batched
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tools_tool_id_generator")
+    @SequenceGenerator(name = "tools_tool_id_generator", sequenceName = "tools_tool_tool_id_seq", allocationSize = 50)
     @Column(name = "tool_id")
     private Long id;
 
@@ -0,0 +1,40 @@
+package tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository;
+
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.specification.ToolFilter;
+
+import java.util.List;
+
+/**
+ * Facet counts of tools, fragment of {@link ToolRepository}.
+ * <p>Counts of tools by brand, category, label, ownership type, consumable and kit flags
+ * are calculated by one grouped query over tools selected by filter.
+ */
+public interface ToolFacetRepository {
+
+    String BRAND = "brand";
+    String CATEGORY = "category";
+    String LABEL = "label";
+    String OWNERSHIP_TYPE = "ownershipType";
+    String IS_CONSUMABLE = "isConsumable";
+    String IS_KIT = "isKit";
+
+    /**
+     * Counts tools selected by filter for every value of every facet.
+     * Filters are applied the same way as by {@link tech.konso.toolsmanagement.modules.business.tools.tool.persistence.specification.ToolSpecification#filterSpec(ToolFilter)}.
+     *
+     * @param filter values of filters
+     * @return counts ordered by facet, the most frequent values first
+     */
+    List<FacetCount> countFacets(ToolFilter filter);
+
+    /**
+     * Number of tools with value of facet
+     *
+     * @param facet name of facet, one of constants of {@link ToolFacetRepository}
+     * @param value value of facet as text: id of brand, category or label, name of ownership type or flag,
+     *              null for tools without brand, category or labels
+     * @param count number of tools
+     */
+    record FacetCount(String facet, String value, Long count) {
+    }
+}
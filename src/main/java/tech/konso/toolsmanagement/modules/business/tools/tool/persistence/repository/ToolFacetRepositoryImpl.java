@@ -0,0 +1,109 @@
+package tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.specification.ToolFilter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.LIKE_NAME_MIN_LENGTH;
+
+/**
+ * Implementation of {@link ToolFacetRepository} by native query with {@code GROUPING SETS}.
+ * <p>Filtered tools are read once and grouped by every facet in the same pass.
+ * Tools are joined with their labels for label facet, so tools are counted distinct in every facet.
+ * Query is built from set filters only, so null parameters are never bound without type.
+ */
+@Transactional(readOnly = true)
+public class ToolFacetRepositoryImpl implements ToolFacetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<FacetCount> countFacets(ToolFilter filter) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("isArchived", filter.isArchived());
+        StringBuilder where = new StringBuilder("t.is_archived = :isArchived");
+        if (filter.name() != null && !filter.name().isBlank() && filter.name().length() >= LIKE_NAME_MIN_LENGTH) {
+            where.append(" AND t.name ILIKE :name");
+            parameters.put("name", '%' + filter.name() + '%');
+        }
+        if (filter.categoryId() != null) {
+            where.append(" AND t.category_id IN (SELECT descendant_id FROM tools_category_closure WHERE ancestor_id = :categoryId)");
+            parameters.put("categoryId", filter.categoryId());
+        }
+        if (filter.brandIds() != null) {
+            where.append(" AND t.brand_id IN (:brandIds)");
+            parameters.put("brandIds", filter.brandIds());
+        }
+        if (filter.labelIds() != null) {
+            where.append(" AND EXISTS (SELECT 1 FROM tools_tool_label fl WHERE fl.tool_id = t.tool_id AND fl.label_id IN (:labelIds))");
+            parameters.put("labelIds", filter.labelIds());
+        }
+        if (filter.ownershipType() != null) {
+            where.append(" AND t.ownership_type = :ownershipType");
+            parameters.put("ownershipType", filter.ownershipType().name());
+        }
+        if (filter.isConsumable() != null) {
+            where.append(" AND t.is_consumable = :isConsumable");
+            parameters.put("isConsumable", filter.isConsumable());
+        }
+        if (filter.isKit() != null) {
+            where.append(" AND t.is_kit = :isKit");
+            parameters.put("isKit", filter.isKit());
+        }
+        if (filter.responsibleUuid() != null) {
+            where.append(" AND t.responsible_uuid = :responsibleUuid");
+            parameters.put("responsibleUuid", filter.responsibleUuid());
+        }
+        if (filter.projectUuid() != null) {
+            where.append(" AND t.project_uuid = :projectUuid");
+            parameters.put("projectUuid", filter.projectUuid());
+        }
+        if (filter.priceFrom() != null) {
+            where.append(" AND t.price >= :priceFrom");
+            parameters.put("priceFrom", filter.priceFrom());
+        }
+        if (filter.priceTo() != null) {
+            where.append(" AND t.price <= :priceTo");
+            parameters.put("priceTo", filter.priceTo());
+        }
+        if (filter.rentTillFrom() != null) {
+            where.append(" AND t.rent_till >= :rentTillFrom");
+            parameters.put("rentTillFrom", filter.rentTillFrom());
+        }
+        if (filter.rentTillTo() != null) {
+            // rent_till is timestamp, same bound as ToolSpecification#rentTillSpec
+            where.append(" AND t.rent_till < :rentTillBefore");
+            parameters.put("rentTillBefore", filter.rentTillTo().plusDays(1));
+        }
+
+        Query select = entityManager.createNativeQuery("SELECT " +
+                "CASE WHEN GROUPING(t.brand_id) = 0 THEN '" + BRAND + "' " +
+                "WHEN GROUPING(t.category_id) = 0 THEN '" + CATEGORY + "' " +
+                "WHEN GROUPING(l.label_id) = 0 THEN '" + LABEL + "' " +
+                "WHEN GROUPING(t.ownership_type) = 0 THEN '" + OWNERSHIP_TYPE + "' " +
+                "WHEN GROUPING(t.is_consumable) = 0 THEN '" + IS_CONSUMABLE + "' " +
+                "ELSE '" + IS_KIT + "' END AS facet, " +
+                "COALESCE(CAST(t.brand_id AS text), CAST(t.category_id AS text), CAST(l.label_id AS text), " +
+                "t.ownership_type, CAST(t.is_consumable AS text), CAST(t.is_kit AS text)) AS value, " +
+                "count(DISTINCT t.tool_id) AS tool_count " +
+                "FROM tools_tool t " +
+                "LEFT JOIN tools_tool_label l ON l.tool_id = t.tool_id " +
+                "WHERE " + where + " " +
+                "GROUP BY GROUPING SETS ((t.brand_id), (t.category_id), (l.label_id), (t.ownership_type), (t.is_consumable), (t.is_kit)) " +
+                "ORDER BY facet, tool_count DESC, value");
+        parameters.forEach(select::setParameter);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = select.getResultList();
+        return rows.stream()
+                .map(row -> new FacetCount((String) row[0], (String) row[1], ((Number) row[2]).longValue()))
+                .toList();
+    }
+}
@@ -1,39 +1,158 @@
 package tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.Tool;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.enums.OwnershipType;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository for tool entity.
- * <p>Supports CRUD operations, searching by specification and pageable format.
+ * <p>Supports CRUD operations, searching by specification and pageable format,
+ * facet counts by {@link ToolFacetRepository}.
  * <p>By default, uses read only transactions, if you want another mode, you must directly specify it on your method.
  */
 @Repository
 @Transactional(readOnly = true)
-public interface ToolRepository extends JpaRepository<Tool, Long>, JpaSpecificationExecutor<Tool> {
+public interface ToolRepository extends JpaRepository<Tool, Long>, JpaSpecificationExecutor<Tool>, ToolFacetRepository {
 
     @Override
     @EntityGraph(attributePaths = {"labels", "brand", "category"},
             type = EntityGraph.EntityGraphType.FETCH)
     Optional<Tool> findById(Long id);
 
-    @Override
-    @EntityGraph(attributePaths = {"labels", "brand", "category"},
-            type = EntityGraph.EntityGraphType.FETCH)
-    Page<Tool> findAll(@Nullable Specification<Tool> spec, Pageable pageable);
-
     @Query("SELECT t.photoUuid FROM Tool t WHERE t.id = :id")
     Optional<UUID> findPhotoUuidByToolId(Long id);
-}
\ No newline at end of file
+
+    @Query("SELECT t.id AS id, t.photoUuid AS photoUuid FROM Tool t WHERE t.id IN :ids AND t.photoUuid IS NOT NULL")
+    List<PhotoLink> findPhotoLinks(Collection<Long> ids);
+
+    @Query("SELECT t.updatedAt AS updatedAt, b.updatedAt AS brandUpdatedAt, c.updatedAt AS categoryUpdatedAt, MAX(l.updatedAt) AS labelsUpdatedAt " +
+            "FROM Tool t LEFT JOIN t.brand b LEFT JOIN t.category c LEFT JOIN t.labels l WHERE t.id = :id GROUP BY t.id, b.id, c.id")
+    Optional<Versions> findVersionsById(Long id);
+
+    @Query("SELECT t.id AS toolId, l.id AS labelId FROM Tool t JOIN t.labels l WHERE t.id IN :toolIds")
+    List<LabelLink> findLabelLinks(Collection<Long> toolIds);
+
+    @Query("SELECT t.id AS id, t.name AS name, t.inventoryNumber AS inventoryNumber FROM Tool t WHERE t.isArchived = false")
+    List<SuggestRow> findSuggestRows();
+
+    /**
+     * Texts of not archived tool suggested for autocomplete, selected without loading entities
+     */
+    interface SuggestRow {
+        Long getId();
+
+        String getName();
+
+        String getInventoryNumber();
+    }
+
+    /**
+     * Sets threshold of trigram word similarity for the current transaction.
+     * Must be called in the same transaction as {@link #search(String, boolean, int)}.
+     *
+     * @param threshold word similarity threshold from 0 to 1
+     * @return threshold set
+     */
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', CAST(:threshold AS text), true)", nativeQuery = true)
+    String setWordSimilarityThreshold(double threshold);
+
+    /**
+     * Searches tools, which name, inventory number, brand name or category name is similar to query by trigrams.
+     * Every field is matched by word similarity operator {@code <%}, so trigram indexes of tool name,
+     * inventory number, brand name and category name are used. Tools are ordered by the best similarity of fields.
+     *
+     * @param query      search string
+     * @param isArchived archived flag of tools
+     * @param limit      max number of found tools
+     * @return ids of found tools with similarity scores, the most similar first
+     */
+    @Query(value = "SELECT t.tool_id AS id, CAST(GREATEST(word_similarity(:query, t.name), " +
+            "word_similarity(:query, COALESCE(t.inventory_number, '')), " +
+            "word_similarity(:query, COALESCE(b.name, '')), " +
+            "word_similarity(:query, COALESCE(c.name, ''))) AS DOUBLE PRECISION) AS score " +
+            "FROM tools_tool t " +
+            "LEFT JOIN tools_brand b ON b.brand_id = t.brand_id " +
+            "LEFT JOIN tools_category c ON c.category_id = t.category_id " +
+            "WHERE t.is_archived = :isArchived " +
+            "AND (:query <% t.name " +
+            "OR :query <% t.inventory_number " +
+            "OR t.brand_id IN (SELECT brand_id FROM tools_brand WHERE :query <% name) " +
+            "OR t.category_id IN (SELECT category_id FROM tools_category WHERE :query <% name)) " +
+            "ORDER BY score DESC, t.tool_id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<SearchHit> search(String query, boolean isArchived, int limit);
+
+    /**
+     * Id of tool found by search with its similarity score
+     */
+    interface SearchHit {
+        Long getId();
+
+        Double getScore();
+    }
+
+    /**
+     * Link between tool and its label, selected from join table only
+     */
+    interface LabelLink {
+        Long getToolId();
+
+        Long getLabelId();
+    }
+
+    /**
+     * Columns of tool shown in list of tools, selected without loading entities.
+     * Brand and category are selected as foreign keys, their names are taken from reference caches.
+     */
+    record ListRow(Long id, UUID uuid, String name, Boolean isConsumable, String inventoryNumber, BigDecimal price,
+                   OwnershipType ownershipType, LocalDate rentTill, Boolean isKit, UUID kitUuid, Long brandId,
+                   Long categoryId, Boolean isArchived, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    /**
+     * Tool id and its photo uuid, selected without loading entities
+     */
+    interface PhotoLink {
+        Long getId();
+
+        UUID getPhotoUuid();
+    }
+
+    /**
+     * Update dates of tool and of references, which names are shown in tool info, selected without loading entities
+     */
+    interface Versions {
+        LocalDateTime getUpdatedAt();
+
+        LocalDateTime getBrandUpdatedAt();
+
+        LocalDateTime getCategoryUpdatedAt();
+
+        LocalDateTime getLabelsUpdatedAt();
+
+        /**
+         * @return the latest update date of tool and its references
+         */
+        default LocalDateTime lastModified() {
+            return Stream.of(getUpdatedAt(), getBrandUpdatedAt(), getCategoryUpdatedAt(), getLabelsUpdatedAt())
+                    .filter(Objects::nonNull)
+                    .max(LocalDateTime::compareTo)
+                    .orElseThrow();
+        }
+    }
+}
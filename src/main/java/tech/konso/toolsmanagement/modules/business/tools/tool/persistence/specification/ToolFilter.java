@@ -0,0 +1,67 @@
+package tech.konso.toolsmanagement.modules.business.tools.tool.persistence.specification;
+
+import lombok.Builder;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.enums.OwnershipType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Values of filters of tool list, null filters are not applied.
+ * <p>Filter is used as fingerprint of cached totals and facets: ids are sorted without duplicates
+ * and prices are stripped of trailing zeros, so the same filters give equal objects regardless of
+ * order and format of request parameters.
+ * <p>
+ * Example:
+ * <pre>
+ *     ToolFilter filter = ToolFilter.builder().isArchived(false).brandIds(List.of(2L, 1L)).isKit(true).build();
+ *     Specification&lt;Tool> spec = ToolSpecification.filterSpec(filter);
+ * </pre>
+ *
+ * @param isArchived      archived flag
+ * @param name            part of tool name, applied if its length is not less than 3
+ * @param categoryId      id of category, tools of its subcategories are found too
+ * @param brandIds        ids of brands, tools of any of them are found
+ * @param labelIds        ids of labels, tools with any of them are found
+ * @param ownershipType   ownership type
+ * @param isConsumable    consumable flag
+ * @param isKit           kit flag
+ * @param responsibleUuid uuid of responsible person
+ * @param projectUuid     uuid of project
+ * @param priceFrom       min price inclusive
+ * @param priceTo         max price inclusive
+ * @param rentTillFrom    min rent end date inclusive
+ * @param rentTillTo      max rent end date inclusive
+ */
+@Builder
+public record ToolFilter(boolean isArchived,
+                         String name,
+                         Long categoryId,
+                         List<Long> brandIds,
+                         List<Long> labelIds,
+                         OwnershipType ownershipType,
+                         Boolean isConsumable,
+                         Boolean isKit,
+                         UUID responsibleUuid,
+                         UUID projectUuid,
+                         BigDecimal priceFrom,
+                         BigDecimal priceTo,
+                         LocalDate rentTillFrom,
+                         LocalDate rentTillTo) {
+
+    public ToolFilter {
+        brandIds = sortedIds(brandIds);
+        labelIds = sortedIds(labelIds);
+        priceFrom = priceFrom == null ? null : priceFrom.stripTrailingZeros();
+        priceTo = priceTo == null ? null : priceTo.stripTrailingZeros();
+    }
+
+    private static List<Long> sortedIds(Collection<Long> ids) {
+        List<Long> sorted = ids == null ? List.of() : ids.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        return sorted.isEmpty() ? null : sorted;
+    }
+}
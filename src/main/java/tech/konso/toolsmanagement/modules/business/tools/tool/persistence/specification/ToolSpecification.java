@@ -1,13 +1,35 @@
 package tech.konso.toolsmanagement.modules.business.tools.tool.persistence.specification;
 
+import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
+import tech.konso.toolsmanagement.modules.business.tools.brand.persistence.dao.Brand_;
+import tech.konso.toolsmanagement.modules.business.tools.category.persistence.dao.CategoryClosure;
+import tech.konso.toolsmanagement.modules.business.tools.category.persistence.dao.CategoryClosure_;
+import tech.konso.toolsmanagement.modules.business.tools.category.persistence.dao.Category_;
+import tech.konso.toolsmanagement.modules.business.tools.label.persistence.dao.Label;
+import tech.konso.toolsmanagement.modules.business.tools.label.persistence.dao.Label_;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.Tool;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.Tool_;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.enums.OwnershipType;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository.ToolFacetRepository;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository.ToolRepository.ListRow;
+import tech.konso.toolsmanagement.system.commons.pagination.KeysetCursor;
+import tech.konso.toolsmanagement.system.commons.pagination.Projection;
 import tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification;
+import tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.SortField;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.UUID;
 
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.FILTER_SEPARATOR;
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.LIKE_NAME_MIN_LENGTH;
+import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.seekPredicate;
 
 /**
  * Class with specifications for {@link Tool}
@@ -16,8 +38,8 @@ public final class ToolSpecification {
 
     /**
      * Specification for name.
-     * Uses like pattern %name%.
-     * Before searching transform string to lower case.
+     * Uses case-insensitive like pattern %name%.
+     * Name column is compared by ilike without lower function, so trigram index of tool name is used.
      * Working only with string greater or equals {@link AbstractSpecification#LIKE_NAME_MIN_LENGTH
      *
      * @param likeName searching string
@@ -27,9 +49,44 @@ public final class ToolSpecification {
         if (likeName == null || likeName.isBlank()) return null;
         if (likeName.length() < LIKE_NAME_MIN_LENGTH) return null;
 
-        String likePattern = '%' + likeName.toLowerCase() + '%';
+        String likePattern = '%' + likeName + '%';
         return (root, criteriaQuery, criteriaBuilder) ->
-                criteriaBuilder.like(criteriaBuilder.lower(root.get(Tool_.NAME)), likePattern);
+                ((HibernateCriteriaBuilder) criteriaBuilder).ilike(root.get(Tool_.name), likePattern);
+    }
+
+    /**
+     * Specification for ids of tools.
+     *
+     * @param ids of tools
+     * @return created specification
+     */
+    public static Specification<Tool> idsSpec(Collection<Long> ids) {
+        return (root, criteriaQuery, criteriaBuilder) -> root.get(Tool_.id).in(ids);
+    }
+
+    /**
+     * Projection of tool columns shown in list of tools.
+     * Ids of brand and category are read from foreign keys of tool table without joins.
+     *
+     * @return created projection
+     */
+    public static Projection<Tool, ListRow> listRowProjection() {
+        return (root, criteriaBuilder) -> criteriaBuilder.construct(ListRow.class,
+                root.get(Tool_.id),
+                root.get(Tool_.uuid),
+                root.get(Tool_.name),
+                root.get(Tool_.isConsumable),
+                root.get(Tool_.inventoryNumber),
+                root.get(Tool_.price),
+                root.get(Tool_.ownershipType),
+                root.get(Tool_.rentTill),
+                root.get(Tool_.isKit),
+                root.get(Tool_.kitUuid),
+                root.get(Tool_.brand).get(Brand_.id),
+                root.get(Tool_.category).get(Category_.id),
+                root.get(Tool_.isArchived),
+                root.get(Tool_.createdAt),
+                root.get(Tool_.updatedAt));
     }
 
     /**
@@ -43,6 +100,182 @@ public final class ToolSpecification {
                 criteriaBuilder.equal(root.get(Tool_.IS_ARCHIVED), isArchived);
     }
 
+    /**
+     * Specification for category subtree.
+     * Selects tools of category and of all its descendant categories.
+     * Descendants are taken from closure of category tree by one index lookup, see {@link CategoryClosure}.
+     *
+     * @param categoryId id of root category of subtree
+     * @return created specification
+     */
+    public static Specification<Tool> categorySubtreeSpec(Long categoryId) {
+        if (categoryId == null) return null;
+
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            Subquery<Long> subtree = criteriaQuery.subquery(Long.class);
+            Root<CategoryClosure> closure = subtree.from(CategoryClosure.class);
+            subtree.select(closure.get(CategoryClosure_.descendantId))
+                    .where(criteriaBuilder.equal(closure.get(CategoryClosure_.ancestorId), categoryId));
+            return root.get(Tool_.category).get(Category_.id).in(subtree);
+        };
+    }
+
+    /**
+     * Specification for brands.
+     *
+     * @param brandIds ids of brands, tools of any of them are selected
+     * @return created specification, null for empty ids
+     */
+    public static Specification<Tool> brandSpec(Collection<Long> brandIds) {
+        if (brandIds == null || brandIds.isEmpty()) return null;
+
+        return (root, criteriaQuery, criteriaBuilder) -> root.get(Tool_.brand).get(Brand_.id).in(brandIds);
+    }
+
+    /**
+     * Specification for labels.
+     * Selects tools, which have any of labels, by correlated subquery of tool labels,
+     * so tools are not duplicated for every matched label.
+     *
+     * @param labelIds ids of labels
+     * @return created specification, null for empty ids
+     */
+    public static Specification<Tool> labelsSpec(Collection<Long> labelIds) {
+        if (labelIds == null || labelIds.isEmpty()) return null;
+
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            Subquery<Long> labeled = criteriaQuery.subquery(Long.class);
+            Join<Tool, Label> label = labeled.correlate(root).join(Tool_.labels);
+            labeled.select(label.get(Label_.id)).where(label.get(Label_.id).in(labelIds));
+            return criteriaBuilder.exists(labeled);
+        };
+    }
+
+    /**
+     * Specification for ownership type.
+     *
+     * @param ownershipType ownership type
+     * @return created specification, null for null type
+     */
+    public static Specification<Tool> ownershipTypeSpec(OwnershipType ownershipType) {
+        if (ownershipType == null) return null;
+
+        return (root, criteriaQuery, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get(Tool_.ownershipType), ownershipType);
+    }
+
+    /**
+     * Specification for consumable flag.
+     *
+     * @param isConsumable flag
+     * @return created specification, null for null flag
+     */
+    public static Specification<Tool> isConsumableSpec(Boolean isConsumable) {
+        if (isConsumable == null) return null;
+
+        return (root, criteriaQuery, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get(Tool_.isConsumable), isConsumable);
+    }
+
+    /**
+     * Specification for kit flag.
+     *
+     * @param isKit flag
+     * @return created specification, null for null flag
+     */
+    public static Specification<Tool> isKitSpec(Boolean isKit) {
+        if (isKit == null) return null;
+
+        return (root, criteriaQuery, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get(Tool_.isKit), isKit);
+    }
+
+    /**
+     * Specification for responsible person.
+     *
+     * @param responsibleUuid uuid of responsible person
+     * @return created specification, null for null uuid
+     */
+    public static Specification<Tool> responsibleSpec(UUID responsibleUuid) {
+        if (responsibleUuid == null) return null;
+
+        return (root, criteriaQuery, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get(Tool_.responsibleUuid), responsibleUuid);
+    }
+
+    /**
+     * Specification for project.
+     *
+     * @param projectUuid uuid of project
+     * @return created specification, null for null uuid
+     */
+    public static Specification<Tool> projectSpec(UUID projectUuid) {
+        if (projectUuid == null) return null;
+
+        return (root, criteriaQuery, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get(Tool_.projectUuid), projectUuid);
+    }
+
+    /**
+     * Specification for price range. Tools without price are not selected.
+     *
+     * @param from min price inclusive, may be null
+     * @param to   max price inclusive, may be null
+     * @return created specification, null if both bounds are null
+     */
+    public static Specification<Tool> priceSpec(BigDecimal from, BigDecimal to) {
+        if (from == null && to == null) return null;
+
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            if (from == null) return criteriaBuilder.lessThanOrEqualTo(root.get(Tool_.price), to);
+            if (to == null) return criteriaBuilder.greaterThanOrEqualTo(root.get(Tool_.price), from);
+            return criteriaBuilder.between(root.get(Tool_.price), from, to);
+        };
+    }
+
+    /**
+     * Specification for range of rent end date. Tools without rent end date are not selected.
+     * Entity maps rent end date as {@link LocalDate}, but column rent_till is timestamp and rows written
+     * outside of the application may have time, so the upper bound is compared with the start of the next day.
+     * Facet counts use the same bounds, see {@code ToolFacetRepositoryImpl}.
+     *
+     * @param from min rent end date inclusive, may be null
+     * @param to   max rent end date inclusive, may be null
+     * @return created specification, null if both bounds are null
+     */
+    public static Specification<Tool> rentTillSpec(LocalDate from, LocalDate to) {
+        if (from == null && to == null) return null;
+
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            if (from == null) return criteriaBuilder.lessThan(root.get(Tool_.rentTill), to.plusDays(1));
+            if (to == null) return criteriaBuilder.greaterThanOrEqualTo(root.get(Tool_.rentTill), from);
+            return criteriaBuilder.and(criteriaBuilder.greaterThanOrEqualTo(root.get(Tool_.rentTill), from),
+                    criteriaBuilder.lessThan(root.get(Tool_.rentTill), to.plusDays(1)));
+        };
+    }
+
+    /**
+     * Specification for all filters of tool list, null filters are not applied.
+     * Facets of tools are counted by the same filters, see {@link ToolFacetRepository}.
+     *
+     * @param filter values of filters
+     * @return created specification
+     */
+    public static Specification<Tool> filterSpec(ToolFilter filter) {
+        return isArchivedSpec(filter.isArchived())
+                .and(likeSpec(filter.name()))
+                .and(categorySubtreeSpec(filter.categoryId()))
+                .and(brandSpec(filter.brandIds()))
+                .and(labelsSpec(filter.labelIds()))
+                .and(ownershipTypeSpec(filter.ownershipType()))
+                .and(isConsumableSpec(filter.isConsumable()))
+                .and(isKitSpec(filter.isKit()))
+                .and(responsibleSpec(filter.responsibleUuid()))
+                .and(projectSpec(filter.projectUuid()))
+                .and(priceSpec(filter.priceFrom(), filter.priceTo()))
+                .and(rentTillSpec(filter.rentTillFrom(), filter.rentTillTo()));
+    }
+
     /**
      * Specification for sorting tools.
      * Support sorting by name, create date, update date.
@@ -96,4 +329,28 @@ public final class ToolSpecification {
             return null;
         };
     }
+
+    /**
+     * Specification for keyset pagination.
+     * Selects tools, that follow the last tool of the previous page in the order of {@link #sortSpec(String)},
+     * id is used as tie-breaker for equal sort values.
+     * Must be used together with sort specification for the same sort filter.
+     *
+     * @param sort  sort filter, same as for {@link #sortSpec(String)}
+     * @param after cursor of the previous page, see {@link KeysetCursor}
+     * @return created specification
+     */
+    public static Specification<Tool> afterSpec(String sort, String after) {
+        if (after == null || after.isBlank()) return null;
+
+        KeysetCursor cursor = KeysetCursor.decode(after, SortField.of(sort));
+        return (root, criteriaQuery, criteriaBuilder) -> switch (cursor.field()) {
+            case "name" -> seekPredicate(criteriaBuilder, root.get(Tool_.name), cursor.value(),
+                    root.get(Tool_.id), cursor.id(), cursor.asc());
+            case "updatedat" -> seekPredicate(criteriaBuilder, root.get(Tool_.updatedAt), cursor.dateTimeValue(),
+                    root.get(Tool_.id), cursor.id(), cursor.asc());
+            default -> seekPredicate(criteriaBuilder, root.get(Tool_.createdAt), cursor.dateTimeValue(),
+                    root.get(Tool_.id), cursor.id(), cursor.asc());
+        };
+    }
 }
@@ -1,30 +1,77 @@
 package tech.konso.toolsmanagement.modules.business.tools.tool.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.multipart.MultipartFile;
+import tech.konso.toolsmanagement.modules.business.tools.brand.service.BrandService;
+import tech.konso.toolsmanagement.modules.business.tools.category.service.CategoryService;
+import tech.konso.toolsmanagement.modules.business.tools.category.service.CategoryToolsArchivedEvent;
+import tech.konso.toolsmanagement.modules.business.tools.label.persistence.dao.Label;
+import tech.konso.toolsmanagement.modules.business.tools.label.service.LabelService;
 import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.*;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.Tool;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository.ToolFacetRepository;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository.ToolFacetRepository.FacetCount;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository.ToolRepository;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository.ToolRepository.LabelLink;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository.ToolRepository.ListRow;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository.ToolRepository.PhotoLink;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository.ToolRepository.SearchHit;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.specification.ToolFilter;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.specification.ToolSpecification;
 import tech.konso.toolsmanagement.modules.business.tools.tool.service.mappers.ToolsDtoMapper;
 import tech.konso.toolsmanagement.modules.business.tools.tool.service.mappers.ToolsEntityMapper;
+import tech.konso.toolsmanagement.modules.business.tools.tool.service.mappers.ToolsExportWriter;
 import tech.konso.toolsmanagement.modules.integration.facade.FileStorageFacade;
 import tech.konso.toolsmanagement.modules.integration.facade.FileType;
-import tech.konso.toolsmanagement.modules.integration.facade.dto.UploadResponse;
+import tech.konso.toolsmanagement.modules.integration.facade.PhotoSize;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.FileStream;
+import tech.konso.toolsmanagement.modules.integration.thumbnail.service.ThumbnailService;
+import tech.konso.toolsmanagement.modules.integration.upload.dto.PhotoUploadInfo;
+import tech.konso.toolsmanagement.modules.integration.upload.service.PhotoUploadService;
+import tech.konso.toolsmanagement.system.commons.configs.CacheConfig;
+import tech.konso.toolsmanagement.system.commons.configs.SuggestConfig;
 import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+import tech.konso.toolsmanagement.system.commons.export.ExportFormat;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
+import tech.konso.toolsmanagement.system.commons.pagination.TwoPhasePagingEngine;
 import tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification;
+import tech.konso.toolsmanagement.system.commons.suggest.SuggestIndex;
+import tech.konso.toolsmanagement.system.commons.suggest.Suggestion;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static tech.konso.toolsmanagement.modules.business.tools.tool.persistence.specification.ToolSpecification.idsSpec;
+import static tech.konso.toolsmanagement.modules.business.tools.tool.persistence.specification.ToolSpecification.listRowProjection;
 import static tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.specBuilder;
 
 /**
@@ -33,6 +80,19 @@ import static tech.konso.toolsmanagement.system.commons.specification.AbstractSp
 @Service
 public class ToolService {
 
+    /**
+     * Number of tools inserted per jdbc batch, same as hibernate.jdbc.batch_size and tool id allocation size
+     */
+    private static final int BATCH_SIZE = 50;
+
+    /**
+     * Number of tools fetched from database cursor by one round trip and written per chunk by export
+     */
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private ToolRepository repository;
 
@@ -42,11 +102,38 @@ public class ToolService {
     @Autowired
     private FileStorageFacade fileStorageFacade;
 
+    @Autowired
+    private PhotoUploadService photoUploadService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private TwoPhasePagingEngine pagingEngine;
+
+    @Autowired
+    private BrandService brandService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private LabelService labelService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private ToolsDtoMapper toolsDtoMapper;
 
+    private SuggestIndex suggestIndex;
+
     @PostConstruct
     public void init() {
         toolsDtoMapper = new ToolsDtoMapper();
+        suggestIndex = new SuggestIndex("tools", meterRegistry);
     }
 
     /**
@@ -65,6 +152,25 @@ public class ToolService {
         return repository.findById(id).map(toolsDtoMapper::mapToToolInfo).orElseThrow(() -> new BPException.NotFound("Tool not found id: " + id));
     }
 
+    /**
+     * Find last modification date of tool and of references, which names are shown in tool info.
+     * Loads only update dates, so it is used to validate cached tool info without loading tool.
+     * <p>
+     * Example:
+     * <pre>
+     *     LocalDateTime lastModified = findLastModified(2L);
+     * </pre>
+     *
+     * @param id of tool, must exist in database
+     * @return the latest update date of tool and its references
+     * @throws BPException if tool not exists in database
+     */
+    public LocalDateTime findLastModified(Long id) {
+        return repository.findVersionsById(id)
+                .map(ToolRepository.Versions::lastModified)
+                .orElseThrow(() -> new BPException.NotFound("Tool not found id: " + id));
+    }
+
 
     /**
      * Get tool reference by unique id. Used to link the tool entity with other entities,
@@ -85,6 +191,8 @@ public class ToolService {
     /**
      * Finds tools by tool specification and returns it in pageable format.
      * By default, result set sorts by create date from newer to older and without archived tools.
+     * Only listed columns of tools are selected without joins into rows, which are not managed by persistence context,
+     * brand, category and label names are filled from reference caches.
      * <p>
      * Example:
      * <pre>
@@ -101,11 +209,229 @@ public class ToolService {
     public Page<ToolFilterInfo> findAll(int page, int size, Specification<Tool> spec) {
         AbstractSpecification.SpecBuilder<Tool> builder = specBuilder(Tool.class);
         Pageable pageable = PageRequest.of(page, size);
-        return repository.findAll(builder.and(spec).build(), pageable).map(toolsDtoMapper::mapToToolFilterInfo);
+        Page<ListRow> tools = pagingEngine.findAll(Tool.class, builder.and(spec).build(), pageable, listRowProjection());
+        return tools.map(filterInfoMapper(tools.getContent()));
+    }
+
+    /**
+     * Finds tools by tool specification with totals calculated according to totals mode.
+     * Totals are cached for a short time by count key, see {@link TwoPhasePagingEngine}.
+     * <p>
+     * Example:
+     * <pre>
+     *     Specification&lt;Tool> spec = specBuilder(sortSpec("name,desc")).build();
+     *     Slice&lt;ToolFilterInfo> founded = service.findAll(0, 100, spec, TotalsMode.NONE, null);
+     * </pre>
+     *
+     * @param page     number of returned result set
+     * @param size     of the returned page
+     * @param spec     set of tool specification
+     * @param totals   how totals are calculated
+     * @param countKey key of cached totals, must identify filters of specification, may be null
+     * @return {@link Page} for exact and estimated totals, {@link Slice} for none mode
+     * @see ToolSpecification tool specifications
+     */
+    public Slice<ToolFilterInfo> findAll(int page, int size, Specification<Tool> spec, TotalsMode totals, String countKey) {
+        AbstractSpecification.SpecBuilder<Tool> builder = specBuilder(Tool.class);
+        Pageable pageable = PageRequest.of(page, size);
+        Slice<ListRow> tools = pagingEngine.findAll(Tool.class, builder.and(spec).build(), pageable, totals, countKey,
+                listRowProjection());
+        return tools.map(filterInfoMapper(tools.getContent()));
+    }
+
+    /**
+     * Counts tools selected by filter for every value of brand, category, label, ownership type,
+     * consumable and kit flags with one grouped query.
+     * Facets are cached for a short time by filter, see {@link CacheConfig#TOOLS_FACETS}.
+     * <p>
+     * Example:
+     * <pre>
+     *     ToolFacets facets = service.findFacets(ToolFilter.builder().isArchived(false).brandIds(List.of(1L)).build());
+     * </pre>
+     *
+     * @param filter values of filters, same as for list of tools
+     * @return {@link ToolFacets} with values of every facet, the most frequent first
+     * @see ToolFacetRepository#countFacets(ToolFilter)
+     */
+    @Cacheable(cacheNames = CacheConfig.TOOLS_FACETS, key = "#filter")
+    public ToolFacets findFacets(ToolFilter filter) {
+        Map<String, List<FacetValue>> facets = repository.countFacets(filter).stream()
+                .collect(Collectors.groupingBy(FacetCount::facet,
+                        Collectors.mapping(count -> new FacetValue(count.value(), count.count()), Collectors.toList())));
+        return new ToolFacets(
+                facets.getOrDefault(ToolFacetRepository.BRAND, List.of()),
+                facets.getOrDefault(ToolFacetRepository.CATEGORY, List.of()),
+                facets.getOrDefault(ToolFacetRepository.LABEL, List.of()),
+                facets.getOrDefault(ToolFacetRepository.OWNERSHIP_TYPE, List.of()),
+                facets.getOrDefault(ToolFacetRepository.IS_CONSUMABLE, List.of()),
+                facets.getOrDefault(ToolFacetRepository.IS_KIT, List.of()));
+    }
+
+    /**
+     * Finds slice of tools by tool specification without counting total number of tools.
+     * Used for keyset pagination: with {@link ToolSpecification#afterSpec(String, String)} every slice
+     * costs the same as the first one.
+     * <p>
+     * Example:
+     * <pre>
+     *     Specification&lt;Tool> spec = specBuilder(sortSpec("name,asc")).and(afterSpec("name,asc", cursor)).build();
+     *     Slice&lt;ToolFilterInfo> foundedTools = service.findSlice(0, 100, spec);
+     * </pre>
+     *
+     * @param page number of returned slice
+     * @param size of the returned slice
+     * @param spec set of tool specification
+     * @return slice of tools, which knows if there is a next slice
+     * @see ToolSpecification tool specifications
+     */
+    public Slice<ToolFilterInfo> findSlice(int page, int size, Specification<Tool> spec) {
+        AbstractSpecification.SpecBuilder<Tool> builder = specBuilder(Tool.class);
+        Pageable pageable = PageRequest.of(page, size);
+        Slice<ListRow> tools = pagingEngine.findSlice(Tool.class, builder.and(spec).build(), pageable, listRowProjection());
+        return tools.map(filterInfoMapper(tools.getContent()));
+    }
+
+    /**
+     * Writes all tools matching tool specification to output stream in export format.
+     * Rows of tools are read by database cursor and written by chunks of {@value #EXPORT_FETCH_SIZE}:
+     * labels of chunk are resolved with one query, names of labels, brands and categories are taken from reference caches.
+     * Rows are not managed by persistence context, so memory doesn't depend on number of exported tools.
+     * <p>
+     * Example:
+     * <pre>
+     *     Specification&lt;Tool> spec = specBuilder(sortSpec("name,asc")).build();
+     *     service.export(spec, ExportFormat.CSV, outputStream);
+     * </pre>
+     *
+     * @param spec   set of tool specification
+     * @param format export format
+     * @param out    output stream, isn't closed by export
+     * @throws IOException if output stream can't be written
+     * @see ToolSpecification tool specifications
+     */
+    @Transactional(readOnly = true)
+    public void export(Specification<Tool> spec, ExportFormat format, OutputStream out) throws IOException {
+        AbstractSpecification.SpecBuilder<Tool> builder = specBuilder(Tool.class);
+        ToolsExportWriter writer = new ToolsExportWriter(format, out, objectMapper);
+        writer.writeHeader();
+        try (Stream<ListRow> tools = pagingEngine.stream(Tool.class, builder.and(spec).build(), EXPORT_FETCH_SIZE,
+                listRowProjection())) {
+            Iterator<ListRow> iterator = tools.iterator();
+            List<ListRow> chunk = new ArrayList<>(EXPORT_FETCH_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_FETCH_SIZE || !iterator.hasNext()) {
+                    Function<ListRow, ToolFilterInfo> mapper = filterInfoMapper(chunk);
+                    for (ListRow tool : chunk) {
+                        writer.write(mapper.apply(tool));
+                    }
+                    writer.flush();
+                    chunk.clear();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Searches tools, which name, inventory number, brand name or category name is similar to search string,
+     * and orders them by relevance. Fields are matched by trigram word similarity using trigram indexes,
+     * threshold of similarity is set for the current transaction only.
+     * Rows of found tools are selected by ids with one query and mapped like tools of list.
+     * <p>
+     * Example:
+     * <pre>
+     *     List&lt;ToolSearchInfo> found = service.search("makita drill", 0.5, false, 20);
+     * </pre>
+     *
+     * @param query      search string
+     * @param threshold  word similarity threshold from 0 to 1, tools with lower similarity are not found
+     * @param isArchived archived flag of tools
+     * @param size       max number of found tools
+     * @return list of {@link ToolSearchInfo}, the most similar first
+     * @see ToolRepository#search(String, boolean, int)
+     */
+    @Transactional(readOnly = true)
+    public List<ToolSearchInfo> search(String query, double threshold, boolean isArchived, int size) {
+        repository.setWordSimilarityThreshold(threshold);
+        List<SearchHit> hits = repository.search(query, isArchived, size);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        // slice of all hits, page of full size would be counted
+        List<ListRow> tools = pagingEngine.findSlice(Tool.class, idsSpec(hits.stream().map(SearchHit::getId).toList()),
+                PageRequest.of(0, hits.size()), listRowProjection()).getContent();
+        Function<ListRow, ToolFilterInfo> mapper = filterInfoMapper(tools);
+        Map<Long, ToolFilterInfo> found = tools.stream().collect(Collectors.toMap(ListRow::id, mapper));
+        return hits.stream()
+                .filter(hit -> found.containsKey(hit.getId()))
+                .map(hit -> new ToolSearchInfo(found.get(hit.getId()), hit.getScore()))
+                .toList();
+    }
+
+    /**
+     * Suggests names and inventory numbers of not archived tools, which start with prefix ignoring case.
+     * Suggestions are found in memory by {@link SuggestIndex} without database round trip.
+     * <p>
+     * Example:
+     * <pre>
+     *     List&lt;Suggestion> suggestions = service.suggest("mak", 10);
+     * </pre>
+     *
+     * @param prefix beginning of tool name or inventory number
+     * @param size   max number of suggestions
+     * @return suggestions in alphabetical order
+     */
+    public List<Suggestion> suggest(String prefix, int size) {
+        return suggestIndex.suggest(prefix, size);
+    }
+
+    /**
+     * Rebuilds index of tool suggestions from names and inventory numbers of not archived tools.
+     * Runs on start and every {@link SuggestConfig#REBUILD_INTERVAL}, saves of tools update index without rebuild.
+     */
+    @Scheduled(fixedDelayString = SuggestConfig.REBUILD_INTERVAL)
+    public void rebuildSuggestIndex() {
+        suggestIndex.rebuild(() -> repository.findSuggestRows().stream()
+                .flatMap(row -> suggestTexts(row.getName(), row.getInventoryNumber()).stream()
+                        .map(text -> new SuggestIndex.Entry(row.getId(), text))));
+    }
+
+    /**
+     * Rebuilds index of tool suggestions after commit of archived or unarchived tools of category subtree,
+     * they are updated by one statement and are not known one by one.
+     */
+    @TransactionalEventListener
+    public void onCategoryToolsArchived(CategoryToolsArchivedEvent event) {
+        rebuildSuggestIndex();
+    }
+
+    private static List<String> suggestTexts(String name, String inventoryNumber) {
+        return Stream.of(name, inventoryNumber).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Creates mapper of tool rows to {@link ToolFilterInfo}.
+     * Label ids of all tools are selected from join table with one query, names of labels,
+     * brands and categories are taken from reference caches instead of joining their tables.
+     *
+     * @param tools rows of tools of the page
+     * @return mapper of tool row to {@link ToolFilterInfo}
+     */
+    private Function<ListRow, ToolFilterInfo> filterInfoMapper(List<ListRow> tools) {
+        Map<Long, Set<String>> labels = tools.isEmpty() ? Map.of() : repository.findLabelLinks(tools.stream().map(ListRow::id).toList())
+                .stream()
+                .collect(Collectors.groupingBy(LabelLink::getToolId,
+                        Collectors.mapping(link -> labelService.findNameById(link.getLabelId()), Collectors.toSet())));
+        return tool -> toolsDtoMapper.mapToToolFilterInfo(tool,
+                Optional.ofNullable(tool.brandId()).map(brandService::findNameById).orElse(null),
+                Optional.ofNullable(tool.categoryId()).map(categoryService::findNameById).orElse(null),
+                labels.getOrDefault(tool.id(), Set.of()));
     }
 
     /**
      * Save new tool to database or update existing.
+     * Index of tool suggestions is updated after commit, archived tools are removed from it.
      * Run under transaction.
      * <p>
      * Example:
@@ -116,16 +442,86 @@ public class ToolService {
      *
      * @param rq {@link ToolRequest} object for creating tool
      * @return {@link Tool} saved object
+     * @throws BPException if tool not exists or new photo is not stored in file storage
      */
     @Transactional
     public Tool save(ToolRequest rq) {
-        return Optional.ofNullable(rq.id())
+        Tool saved = Optional.ofNullable(rq.id())
                 .map(id -> repository.findById(rq.id())
                         .orElseThrow(() -> new BPException.NotFound("Tool not found id: " + id))
-                ).map(tool -> entityMapper.toEntity(tool, rq))
-                .orElseGet(() ->
-                        repository.save(entityMapper.toEntity(new Tool(), rq))
-                );
+                ).map(tool -> {
+                    checkPhotoStored(tool.getPhotoUuid(), rq.photoUuid());
+                    // label links don't make entity dirty, update date is set explicitly to change its version
+                    tool.setUpdatedAt(LocalDateTime.now());
+                    return entityMapper.toEntity(tool, rq);
+                })
+                .orElseGet(() -> {
+                    checkPhotoStored(null, rq.photoUuid());
+                    return repository.save(entityMapper.toEntity(new Tool(), rq));
+                });
+        if (saved.getIsArchived()) {
+            suggestIndex.removeAfterCommit(saved.getId());
+        } else {
+            suggestIndex.putAfterCommit(saved.getId(), suggestTexts(saved.getName(), saved.getInventoryNumber()));
+        }
+        return saved;
+    }
+
+    /**
+     * Checks, that new photo of tool is stored in file storage. Photo, which tool already references, isn't checked
+     */
+    private void checkPhotoStored(UUID currentPhotoUuid, UUID photoUuid) {
+        if (photoUuid != null && !photoUuid.equals(currentPhotoUuid)) {
+            photoUploadService.checkStored(Set.of(photoUuid), FileType.PHOTO_TOOL);
+        }
+    }
+
+    /**
+     * Save batch of new tools to database in one transaction.
+     * Tools are saved by chunks of {@value #BATCH_SIZE}: labels of chunk are loaded with one query,
+     * tools and their labels are inserted with jdbc batches, then persistence context is cleared,
+     * so memory doesn't grow with batch size. If any tool can't be saved, none of tools is saved.
+     * <p>
+     * Example:
+     * <pre>
+     *     List&lt;Long> ids = service.saveAll(List.of(rq1, rq2));
+     * </pre>
+     *
+     * @param rqs {@link ToolRequest} objects for creating tools, ids must be null
+     * @return ids of saved tools, id at every index belongs to request at the same index
+     * @throws BPException if any request has id, refers to not existing label or to not stored photo
+     */
+    @Transactional
+    public List<Long> saveAll(List<ToolRequest> rqs) {
+        rqs.stream().map(ToolRequest::id).filter(Objects::nonNull).findFirst().ifPresent(id -> {
+            throw new BPException.BadRequest("Batch must contain only new tools, found tool id: " + id);
+        });
+        photoUploadService.checkStored(rqs.stream()
+                .map(ToolRequest::photoUuid)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()), FileType.PHOTO_TOOL);
+        List<Long> ids = new ArrayList<>(rqs.size());
+        Map<Long, List<String>> suggestTexts = new LinkedHashMap<>();
+        for (int from = 0; from < rqs.size(); from += BATCH_SIZE) {
+            List<ToolRequest> chunk = rqs.subList(from, Math.min(from + BATCH_SIZE, rqs.size()));
+            Map<Long, Label> labels = labelService.findAllById(chunk.stream()
+                            .flatMap(rq -> rq.labels().stream())
+                            .collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(Label::getId, Function.identity()));
+            for (ToolRequest rq : chunk) {
+                Tool tool = entityMapper.toEntity(new Tool(), rq, rq.labels().stream().map(labels::get).toList());
+                entityManager.persist(tool);
+                ids.add(tool.getId());
+                if (!tool.getIsArchived()) {
+                    suggestTexts.put(tool.getId(), suggestTexts(tool.getName(), tool.getInventoryNumber()));
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+        suggestIndex.putAllAfterCommit(suggestTexts);
+        return ids;
     }
 
     /**
@@ -140,27 +536,144 @@ public class ToolService {
      * @return {@link UploadPhotoResponse} object with file id
      */
     public UploadPhotoResponse uploadPhoto(MultipartFile multipartFile) {
-        UploadResponse rs = fileStorageFacade.upload(multipartFile, FileType.PHOTO_TOOL);
-        if (rs.error() != null) {
-            throw new BPException.ServiceUnavailable("Upload photo error: " + rs.error());
-        }
-        return new UploadPhotoResponse(rs.uuid());
+        return new UploadPhotoResponse(photoUploadService.upload(multipartFile, FileType.PHOTO_TOOL));
     }
 
     /**
-     * Find photo by tool id in file storage.
+     * Spool {@link MultipartFile} photo to local disk and upload it to file storage service in background.
+     * Photo uuid is returned by {@link #findPhotoUpload(UUID)}, when photo is stored.
+     * <p>
+     * Example:
+     * <pre>
+     *     UUID uploadId = uploadPhotoAsync(multipartFile);
+     * </pre>
+     *
+     * @param multipartFile {@link MultipartFile} photo for save to file storage
+     * @return upload id
+     */
+    public UUID uploadPhotoAsync(MultipartFile multipartFile) {
+        return photoUploadService.uploadAsync(multipartFile, FileType.PHOTO_TOOL);
+    }
+
+    /**
+     * Find state of tool photo upload.
+     * <p>
+     * Example:
+     * <pre>
+     *     PhotoUploadInfo upload = findPhotoUpload(uploadId);
+     * </pre>
+     *
+     * @param uploadId upload id returned by {@link #uploadPhotoAsync(MultipartFile)}
+     * @return {@link PhotoUploadInfo} with upload status and photo uuid, when photo is stored
+     * @throws BPException if upload not exists
+     */
+    public PhotoUploadInfo findPhotoUpload(UUID uploadId) {
+        return photoUploadService.find(uploadId, FileType.PHOTO_TOOL);
+    }
+
+    /**
+     * Find photo uuid by tool id. Photo is immutable by its uuid, so uuid is used as photo version.
      * <p>
      * Example:
      * <pre>
-     *     findPhoto(3);
+     *     UUID photoUuid = findPhotoUuid(3);
      * </pre>
      *
      * @param toolId {@link Long} tool id
-     * @return InputStreamResource with searching file
+     * @return photo uuid
+     * @throws BPException if tool not exists or has no photo
      */
-    public InputStreamResource findPhoto(Long toolId) {
-        UUID uuid = repository.findPhotoUuidByToolId(toolId)
+    public UUID findPhotoUuid(Long toolId) {
+        return repository.findPhotoUuidByToolId(toolId)
                 .orElseThrow(() -> new BPException.NotFound("Photo uuid not found in tool id: " + toolId));
-        return fileStorageFacade.download(uuid, FileType.PHOTO_TOOL);
     }
-}
\ No newline at end of file
+
+    /**
+     * Find photo uuids of tools with one query. Tools without photo and not existing tools are skipped.
+     * <p>
+     * Example:
+     * <pre>
+     *     List&lt;ToolPhotoInfo&gt; photos = findPhotoUuids(List.of(3L, 7L));
+     * </pre>
+     *
+     * @param toolIds tool ids
+     * @return list of {@link ToolPhotoInfo} with tool id and photo uuid in the order of ids
+     */
+    public List<ToolPhotoInfo> findPhotoUuids(Collection<Long> toolIds) {
+        Map<Long, UUID> photos = repository.findPhotoLinks(toolIds).stream()
+                .collect(Collectors.toMap(PhotoLink::getId, PhotoLink::getPhotoUuid));
+        return toolIds.stream()
+                .distinct()
+                .filter(photos::containsKey)
+                .map(id -> new ToolPhotoInfo(id, photos.get(id)))
+                .toList();
+    }
+
+    /**
+     * Write photos of tools in requested size to zip archive, photo of every tool is named by tool id.
+     * Photos are fetched from file storage in parallel with bounded concurrency.
+     * <p>
+     * Example:
+     * <pre>
+     *     writePhotoArchive(findPhotoUuids(List.of(3L, 7L)), PhotoSize.THUMB, out);
+     * </pre>
+     *
+     * @param photos {@link ToolPhotoInfo} photos of tools
+     * @param size   {@link PhotoSize} size of photos
+     * @param out    output stream to write archive to
+     */
+    public void writePhotoArchive(List<ToolPhotoInfo> photos, PhotoSize size, OutputStream out) throws IOException {
+        Map<String, UUID> entries = new LinkedHashMap<>();
+        photos.forEach(photo -> entries.put(photo.id() + ".jpeg", photo.photoUuid()));
+        thumbnailService.writeArchive(entries, FileType.PHOTO_TOOL, size, out);
+    }
+
+    /**
+     * Find photo by tool id in file storage.
+     * <p>
+     * Example:
+     * <pre>
+     *     findPhoto(3, "bytes=0-1023");
+     * </pre>
+     *
+     * @param toolId {@link Long} tool id
+     * @param range  value of Range header, may be null for whole photo
+     * @return {@link FileStream} with photo content, which is read from file storage while it is written to client
+     */
+    public FileStream findPhoto(Long toolId, String range) {
+        return findPhoto(findPhotoUuid(toolId), range);
+    }
+
+    /**
+     * Find photo by photo uuid in file storage.
+     * <p>
+     * Example:
+     * <pre>
+     *     findPhoto(findPhotoUuid(3), "bytes=0-1023");
+     * </pre>
+     *
+     * @param photoUuid {@link UUID} photo uuid
+     * @param range     value of Range header, may be null for whole photo
+     * @return {@link FileStream} with photo content, which is read from file storage while it is written to client
+     */
+    public FileStream findPhoto(UUID photoUuid, String range) {
+        return findPhoto(photoUuid, PhotoSize.FULL, range);
+    }
+
+    /**
+     * Find photo by photo uuid in requested size. Resized photo is generated once and then served from local disk.
+     * <p>
+     * Example:
+     * <pre>
+     *     findPhoto(findPhotoUuid(3), PhotoSize.THUMB, null);
+     * </pre>
+     *
+     * @param photoUuid {@link UUID} photo uuid
+     * @param size      {@link PhotoSize} size of photo
+     * @param range     value of Range header, may be null for whole photo
+     * @return {@link FileStream} with photo content in requested size
+     */
+    public FileStream findPhoto(UUID photoUuid, PhotoSize size, String range) {
+        return thumbnailService.stream(photoUuid, FileType.PHOTO_TOOL, size, range);
+    }
+}
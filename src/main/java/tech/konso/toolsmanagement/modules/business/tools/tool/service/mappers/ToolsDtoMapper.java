@@ -5,33 +5,35 @@ import tech.konso.toolsmanagement.modules.business.tools.category.persistence.da
 import tech.konso.toolsmanagement.modules.business.tools.label.persistence.dao.Label;
 import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.*;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.Tool;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository.ToolRepository.ListRow;
 
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class ToolsDtoMapper {
-    public ToolFilterInfo mapToToolFilterInfo(Tool tool) {
+    public ToolFilterInfo mapToToolFilterInfo(ListRow row, String brand, String category, Set<String> labels) {
         return ToolFilterInfo.builder()
-                .id(tool.getId())
-                .uuid(tool.getUuid())
-                .name(tool.getName())
-                .isConsumable(tool.getIsConsumable())
-                .brand(Optional.ofNullable(tool.getBrand()).map(Brand::getName).orElse(null))
-                .inventoryNumber(tool.getInventoryNumber())
+                .id(row.id())
+                .uuid(row.uuid())
+                .name(row.name())
+                .isConsumable(row.isConsumable())
+                .brand(brand)
+                .inventoryNumber(row.inventoryNumber())
                 //TODO: change after adding persons module
                 .responsible(null)
-                .category(Optional.ofNullable(tool.getCategory()).map(Category::getName).orElse(null))
+                .category(category)
                 //TODO: change after adding projects module
                 .project(null)
-                .price(tool.getPrice())
-                .ownershipType(tool.getOwnershipType())
-                .rentTill(tool.getRentTill())
-                .isKit(tool.getIsKit())
-                .kitUuid(tool.getKitUuid())
-                .labels(tool.getLabels().stream().map(Label::getName).collect(Collectors.toSet()))
-                .isArchived(tool.getIsArchived())
-                .createdAt(tool.getCreatedAt())
-                .updatedAt(tool.getUpdatedAt())
+                .price(row.price())
+                .ownershipType(row.ownershipType())
+                .rentTill(row.rentTill())
+                .isKit(row.isKit())
+                .kitUuid(row.kitUuid())
+                .labels(labels)
+                .isArchived(row.isArchived())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
                 .build();
     }
 
@@ -4,11 +4,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import tech.konso.toolsmanagement.modules.business.tools.brand.service.BrandService;
 import tech.konso.toolsmanagement.modules.business.tools.category.service.CategoryService;
+import tech.konso.toolsmanagement.modules.business.tools.label.persistence.dao.Label;
 import tech.konso.toolsmanagement.modules.business.tools.label.service.LabelService;
 import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.ToolRequest;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.Tool;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.enums.OwnershipType;
 
+import java.util.Collection;
 import java.util.UUID;
 
 /**
@@ -39,6 +41,24 @@ public class ToolsEntityMapper {
      * @return {@link Tool} saved object
      */
     public Tool toEntity(Tool tool, ToolRequest rq) {
+        return toEntity(tool, rq, labelService.findAllById(rq.labels()));
+    }
+
+    /**
+     * Converts {@link ToolRequest} to {@link Tool} object with already loaded labels.
+     * Used for batches of tools, when labels of all tools are loaded with one query.
+     * <p>
+     * Example:
+     * <pre>
+     *     toEntity(new Tool(), rq, labels);
+     * </pre>
+     *
+     * @param tool   {@link Tool} object for save to database or update existing
+     * @param rq     {@link ToolRequest} object for converting to {@link Tool}
+     * @param labels labels of request, loaded from database
+     * @return {@link Tool} saved object
+     */
+    public Tool toEntity(Tool tool, ToolRequest rq, Collection<Label> labels) {
         if (tool.getId() == null) {
             tool.setUuid(UUID.randomUUID());
         }
@@ -57,7 +77,7 @@ public class ToolsEntityMapper {
         tool.setCategory(rq.categoryId() == null ? null : categoryService.getReference(rq.categoryId()));
 
         tool.removeLabels();
-        rq.labels().stream().map(labelId -> labelService.getReference(labelId)).forEach(tool::addLabel);
+        labels.forEach(tool::addLabel);
 
         tool.setIsArchived(rq.isArchived());
         return tool;
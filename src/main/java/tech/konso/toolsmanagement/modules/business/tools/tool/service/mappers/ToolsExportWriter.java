@@ -0,0 +1,101 @@
+package tech.konso.toolsmanagement.modules.business.tools.tool.service.mappers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.ToolFilterInfo;
+import tech.konso.toolsmanagement.system.commons.export.ExportFormat;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes tools to output stream in export format, one line per tool.
+ * Writer is buffered and doesn't close output stream.
+ * <p>
+ * Example:
+ * <pre>
+ *     ToolsExportWriter writer = new ToolsExportWriter(ExportFormat.CSV, out, objectMapper);
+ *     writer.writeHeader();
+ *     for (ToolFilterInfo tool : tools) {
+ *         writer.write(tool);
+ *     }
+ *     writer.flush();
+ * </pre>
+ */
+public class ToolsExportWriter {
+
+    private static final List<String> CSV_HEADER = List.of("id", "uuid", "name", "isConsumable", "brand", "inventoryNumber",
+            "category", "price", "ownershipType", "rentTill", "isKit", "kitUuid", "labels", "isArchived", "createdAt", "updatedAt");
+    private static final String CSV_SEPARATOR = ",";
+    private static final String LABELS_SEPARATOR = ";";
+    /**
+     * First characters, which make spreadsheet applications evaluate value as formula
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final ExportFormat format;
+    private final Writer writer;
+    private final ObjectMapper objectMapper;
+
+    public ToolsExportWriter(ExportFormat format, OutputStream out, ObjectMapper objectMapper) {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes header line, if format has one.
+     */
+    public void writeHeader() throws IOException {
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(CSV_SEPARATOR, CSV_HEADER));
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Writes tool line.
+     *
+     * @param tool tool to write
+     */
+    public void write(ToolFilterInfo tool) throws IOException {
+        switch (format) {
+            case NDJSON -> writer.write(objectMapper.writeValueAsString(tool));
+            case CSV -> writer.write(toCsv(tool));
+        }
+        writer.write('\n');
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private String toCsv(ToolFilterInfo tool) {
+        return Stream.of(tool.id(), tool.uuid(), tool.name(), tool.isConsumable(), tool.brand(),
+                        tool.inventoryNumber(), tool.category(), tool.price(), tool.ownershipType(), tool.rentTill(),
+                        tool.isKit(), tool.kitUuid(), labels(tool), tool.isArchived(), tool.createdAt(), tool.updatedAt())
+                .map(value -> escape(Objects.toString(value, "")))
+                .collect(Collectors.joining(CSV_SEPARATOR));
+    }
+
+    private String labels(ToolFilterInfo tool) {
+        return tool.labels() == null ? null : tool.labels().stream().sorted().collect(Collectors.joining(LABELS_SEPARATOR));
+    }
+
+    /**
+     * Prefixes value, which starts as formula, with apostrophe, so spreadsheet shows it as text (CSV injection).
+     * Then quotes value by RFC 4180, if it contains separator, quote or line break.
+     */
+    private String escape(String value) {
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.contains(CSV_SEPARATOR) || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
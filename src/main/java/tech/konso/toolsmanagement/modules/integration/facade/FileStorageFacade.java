@@ -1,7 +1,7 @@
 package tech.konso.toolsmanagement.modules.integration.facade;
 
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.core.io.Resource;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.FileStream;
 import tech.konso.toolsmanagement.modules.integration.facade.dto.UploadResponse;
 
 import java.util.UUID;
@@ -11,20 +11,21 @@ import java.util.UUID;
  */
 public interface FileStorageFacade {
     /**
-     * Download file by id and type
+     * Stream file by id and type. Waits only for response headers, file content is read while it is written.
      *
      * @param id       file in file storage
      * @param fileType file type for choosing bucket in file storage
-     * @return InputStreamResource with searching file
+     * @param range    value of Range header to pass to file storage, may be null for whole file
+     * @return {@link FileStream} with not read file content
      */
-    InputStreamResource download(UUID id, FileType fileType);
+    FileStream stream(UUID id, FileType fileType, String range);
 
     /**
      * Upload file to file storage service
      *
-     * @param multipartFile to upload to file storage service
-     * @param fileType      file type for choosing bucket in file storage
+     * @param file     to upload to file storage service, multipart file resource or spooled local file
+     * @param fileType file type for choosing bucket in file storage
      * @return {@link UploadResponse} object response for uploading file with id and errors
      */
-    UploadResponse upload(MultipartFile multipartFile, FileType fileType);
+    UploadResponse upload(Resource file, FileType fileType);
 }
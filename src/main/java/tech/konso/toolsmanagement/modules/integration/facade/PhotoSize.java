@@ -0,0 +1,45 @@
+package tech.konso.toolsmanagement.modules.integration.facade;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+
+/**
+ * Size of served photo.
+ * <ul>
+ *     <li>thumb - fits 64x64 square, for avatars in lists;</li>
+ *     <li>medium - fits 512x512 square, for cards;</li>
+ *     <li>full - photo as it is stored in file storage.</li>
+ * </ul>
+ */
+@AllArgsConstructor
+@Getter
+public enum PhotoSize {
+    THUMB(64),
+    MEDIUM(512),
+    FULL(0);
+
+    /**
+     * Max width and height of resized photo, 0 for not resized photo
+     */
+    private final int maxDimension;
+
+    /**
+     * Parses size ignoring case, null is parsed as full size.
+     *
+     * @param value size name
+     * @return parsed size
+     * @throws BPException if size is not supported
+     */
+    public static PhotoSize of(String value) {
+        if (value == null) {
+            return FULL;
+        }
+        for (PhotoSize size : values()) {
+            if (size.name().equalsIgnoreCase(value)) {
+                return size;
+            }
+        }
+        throw new BPException.BadRequest("Unsupported photo size: " + value);
+    }
+}
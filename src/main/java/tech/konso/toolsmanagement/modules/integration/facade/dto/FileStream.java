@@ -0,0 +1,167 @@
+package tech.konso.toolsmanagement.modules.integration.facade.dto;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import reactor.core.publisher.Flux;
+import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+/**
+ * File from file storage service or from local cache, which content is not read yet.
+ * Content is read chunk by chunk only while it is written to output stream, so file is never buffered in memory.
+ * <p>
+ * Example:
+ * <pre>
+ *     FileStream photo = fileStorageFacade.stream(uuid, FileType.PHOTO_TOOL, range);
+ *     ResponseEntity.status(photo.status()).headers(photo.headers()).body(photo::writeTo);
+ * </pre>
+ *
+ * @param status  response status, 200 for whole file and 206 for range
+ * @param headers content type, content length, content range and accept ranges headers of file
+ * @param content not read file content
+ */
+public record FileStream(HttpStatusCode status, HttpHeaders headers, Content content) {
+
+    private static final int PREFETCH_BUFFERS = 4;
+
+    /**
+     * File content, which is read while it is written to output stream.
+     */
+    @FunctionalInterface
+    public interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Creates file stream with content from data buffers. Buffers are written on the thread, which writes
+     * the content, not on the http client event loop, so slow client blocks only its own (virtual) thread.
+     * Only {@value #PREFETCH_BUFFERS} buffers are requested ahead, so slow client slows down reading from file storage.
+     * If writing fails, reading is cancelled and prefetched buffers are released.
+     *
+     * @param status  response status
+     * @param headers file headers
+     * @param body    not subscribed file content
+     * @return file stream
+     */
+    public static FileStream of(HttpStatusCode status, HttpHeaders headers, Flux<DataBuffer> body) {
+        return new FileStream(status, headers, out -> {
+            Queue<DataBuffer> prefetched = new ConcurrentLinkedQueue<>();
+            WritableByteChannel target = Channels.newChannel(out);
+            try (Stream<DataBuffer> buffers = body.doOnNext(prefetched::add).toStream(PREFETCH_BUFFERS)) {
+                Iterator<DataBuffer> it = buffers.iterator();
+                while (it.hasNext()) {
+                    DataBuffer buffer = it.next();
+                    prefetched.poll();
+                    try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                        while (chunks.hasNext()) {
+                            target.write(chunks.next());
+                        }
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                }
+            } finally {
+                prefetched.forEach(DataBufferUtils::release);
+            }
+        });
+    }
+
+    /**
+     * Creates file stream with content from region of local file. Region is transferred by
+     * {@link FileChannel#transferTo(long, long, WritableByteChannel)}, without copying to heap buffers.
+     * Channel is closed after content is written.
+     *
+     * @param status   response status
+     * @param headers  file headers
+     * @param channel  opened channel of local file
+     * @param position first byte of region
+     * @param count    number of bytes in region
+     * @return file stream
+     */
+    public static FileStream of(HttpStatusCode status, HttpHeaders headers, FileChannel channel, long position, long count) {
+        return new FileStream(status, headers, out -> {
+            try (channel) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long written = 0;
+                while (written < count) {
+                    long transferred = channel.transferTo(position + written, count - written, target);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    written += transferred;
+                }
+            }
+        });
+    }
+
+    /**
+     * Creates file stream with whole local file or with its single byte range as partial content.
+     * Malformed or multiple ranges are ignored and whole file is returned. Channel is closed after content is written
+     * or if range is not satisfiable.
+     *
+     * @param channel     opened channel of local file
+     * @param contentType content type of file
+     * @param range       value of Range header, may be null for whole file
+     * @return file stream with content type, content length, accept ranges and content range headers
+     * @throws IOException if size of file can't be read
+     * @throws BPException if range is not satisfiable
+     */
+    public static FileStream of(FileChannel channel, String contentType, String range) throws IOException {
+        long length = channel.size();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, contentType);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        HttpRange httpRange = parseRange(range);
+        if (httpRange == null) {
+            headers.setContentLength(length);
+            return of(HttpStatus.OK, headers, channel, 0, length);
+        }
+        long start;
+        long end;
+        try {
+            start = httpRange.getRangeStart(length);
+            end = httpRange.getRangeEnd(length);
+        } catch (IllegalArgumentException e) {
+            channel.close();
+            throw new BPException("Requested range not satisfiable: " + range, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+        headers.setContentLength(end - start + 1);
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        return of(HttpStatus.PARTIAL_CONTENT, headers, channel, start, end - start + 1);
+    }
+
+    private static HttpRange parseRange(String range) {
+        if (range == null) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes file content to output stream.
+     *
+     * @param out output stream to write file to, stream is not closed
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        content.writeTo(out);
+    }
+}
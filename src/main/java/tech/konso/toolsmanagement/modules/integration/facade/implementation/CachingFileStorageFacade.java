@@ -0,0 +1,91 @@
+package tech.konso.toolsmanagement.modules.integration.facade.implementation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import tech.konso.toolsmanagement.modules.integration.facade.FileStorageFacade;
+import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.FileStream;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.UploadResponse;
+import tech.konso.toolsmanagement.system.commons.configs.properties.FileStorageProperties;
+import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.UUID;
+
+/**
+ * File storage facade, which caches downloaded files on local disk.
+ * Files in file storage are immutable per uuid, so cached files are served without requests to file storage.
+ * Whole file is loaded to cache on miss, ranges are served from cached file.
+ * <p>Calls to file storage go through {@link ResilientFileStorageFacade}, so cached files are served,
+ * even if file storage is unavailable. If cache is disabled, all calls are passed to file storage.
+ */
+@Slf4j
+@Primary
+@Service(value = "file-storage-facade-caching")
+public class CachingFileStorageFacade implements FileStorageFacade {
+
+    @Autowired
+    @Qualifier("file-storage-facade-resilient")
+    private FileStorageFacade delegate;
+
+    @Autowired
+    private FileStorageProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private DiskFileCache cache;
+
+    @PostConstruct
+    public void init() {
+        FileStorageProperties.Cache cacheProperties = properties.getCache();
+        if (!cacheProperties.isEnabled()) {
+            log.info("Local cache of files from file storage is disabled");
+            return;
+        }
+        cache = new DiskFileCache(cacheProperties.getDirectory(), cacheProperties.getMaxSize().toBytes(), meterRegistry);
+    }
+
+    /**
+     * Upload file to file storage service, uploaded file is not cached
+     *
+     * @param file     to upload to file storage service, multipart file resource or spooled local file
+     * @param fileType file type for choosing bucket in file storage
+     * @return {@link UploadResponse} object response for uploading file with id and errors
+     */
+    @Override
+    public UploadResponse upload(Resource file, FileType fileType) {
+        return delegate.upload(file, fileType);
+    }
+
+    /**
+     * Stream file by id and type from local cache, file is loaded from file storage on miss.
+     * If cache is disabled, file is streamed from file storage.
+     * Single byte range is served as partial content, malformed or multiple ranges are ignored.
+     *
+     * @param id       file in file storage
+     * @param fileType file type for choosing bucket in file storage
+     * @param range    value of Range header, may be null for whole file
+     * @return {@link FileStream} with content of cached file
+     */
+    @Override
+    public FileStream stream(UUID id, FileType fileType, String range) {
+        if (cache == null) {
+            return delegate.stream(id, fileType, range);
+        }
+        try {
+            FileChannel channel = cache.get(fileType, id, out -> delegate.stream(id, fileType, null).writeTo(out));
+            return FileStream.of(channel, fileType.getContentType(), range);
+        } catch (IOException e) {
+            log.error("Error reading file {} from local cache", id, e);
+            throw new BPException.ServiceUnavailable("Error reading file from local cache: " + id);
+        }
+    }
+}
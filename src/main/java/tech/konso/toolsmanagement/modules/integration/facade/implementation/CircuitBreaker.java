@@ -0,0 +1,223 @@
+package tech.konso.toolsmanagement.modules.integration.facade.implementation;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Count based circuit breaker.
+ * <ul>
+ *     <li>closed - calls are permitted, results of the last calls are kept in sliding window.
+ *     Breaker is opened, when failure rate in sliding window reaches threshold;</li>
+ *     <li>open - calls are rejected without waiting for failing service, until open duration passes;</li>
+ *     <li>half open - limited number of trial calls is permitted. Breaker is closed, when all trial calls succeed,
+ *     and is opened again on the first failed trial call.</li>
+ * </ul>
+ * Every permitted call must be finished by {@link #onSuccess(long)}, {@link #onFailure(long)} or {@link #releasePermission(long)}.
+ * Permit is the generation of breaker state, which it was issued in. Results of calls, which were permitted
+ * before the last change of state, are ignored, e.g. slow call permitted while closed doesn't count as trial call.
+ * <p>
+ * Example:
+ * <pre>
+ *     long permit = circuitBreaker.tryAcquirePermission();
+ *     if (permit == CircuitBreaker.NOT_PERMITTED) {
+ *         throw new BPException.ServiceUnavailable("Circuit breaker is open");
+ *     }
+ *     try {
+ *         call();
+ *         circuitBreaker.onSuccess(permit);
+ *     } catch (RuntimeException e) {
+ *         circuitBreaker.onFailure(permit);
+ *         throw e;
+ *     }
+ * </pre>
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Returned by {@link #tryAcquirePermission()}, when call is rejected
+     */
+    public static final long NOT_PERMITTED = -1;
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * Ring buffer of results of the last calls, true for failed call
+     */
+    private final boolean[] window;
+    private int windowIndex;
+    private int calls;
+    private int failures;
+
+    private State state = State.CLOSED;
+    /**
+     * Incremented on every change of state, permits of previous generations are stale
+     */
+    private long generation;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    /**
+     * @param failureRateThreshold percent of failed calls in sliding window, which opens breaker
+     * @param slidingWindowSize    number of the last calls, which failure rate is calculated for
+     * @param minimumCalls         min number of calls in sliding window before failure rate is calculated
+     * @param openDuration         time, while opened breaker rejects calls
+     * @param halfOpenCalls        number of trial calls, which must succeed to close breaker
+     */
+    public CircuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumCalls,
+                          Duration openDuration, int halfOpenCalls) {
+        this(failureRateThreshold, slidingWindowSize, minimumCalls, openDuration, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumCalls,
+                   Duration openDuration, int halfOpenCalls, LongSupplier nanoClock) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[slidingWindowSize];
+        this.minimumCalls = Math.min(minimumCalls, slidingWindowSize);
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Permits call, if breaker is closed, or if breaker is half open and trial calls are left.
+     * Opened breaker becomes half open, when open duration passes.
+     *
+     * @return permit of call, which must be passed with its result, or {@link #NOT_PERMITTED}
+     */
+    public long tryAcquirePermission() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (nanoClock.getAsLong() - openedAt < openDurationNanos) {
+                    return NOT_PERMITTED;
+                }
+                state = State.HALF_OPEN;
+                generation++;
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenPermits == 0) {
+                    return NOT_PERMITTED;
+                }
+                halfOpenPermits--;
+            }
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns permission of call, which was not made, e.g. rejected by bulkhead
+     *
+     * @param permit permit of call
+     */
+    public void releasePermission(long permit) {
+        lock.lock();
+        try {
+            if (permit == generation && state == State.HALF_OPEN) {
+                halfOpenPermits++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param permit permit of succeeded call
+     */
+    public void onSuccess(long permit) {
+        lock.lock();
+        try {
+            if (permit != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                if (++halfOpenSuccesses >= halfOpenCalls) {
+                    close();
+                }
+            } else if (state == State.CLOSED) {
+                record(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param permit permit of failed call
+     */
+    public void onFailure(long permit) {
+        lock.lock();
+        try {
+            if (permit != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                open();
+            } else if (state == State.CLOSED) {
+                record(true);
+                if (calls >= minimumCalls && failures * 100 >= failureRateThreshold * calls) {
+                    open();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records result of call in sliding window. Must be called under the lock.
+     */
+    private void record(boolean failed) {
+        if (calls == window.length) {
+            if (window[windowIndex]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        window[windowIndex] = failed;
+        if (failed) {
+            failures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        generation++;
+        openedAt = nanoClock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        generation++;
+        calls = 0;
+        failures = 0;
+        windowIndex = 0;
+    }
+}
@@ -0,0 +1,313 @@
+package tech.konso.toolsmanagement.modules.integration.facade.implementation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Local disk cache of immutable files, keyed by file type, uuid and optional variant of file, e.g. size of resized photo.
+ * Total size of cached files is limited, least recently used files are evicted above the limit.
+ * Concurrent misses of the same file are loaded once, other callers wait for the first load.
+ * <p>Index of cached files is kept in memory and is rebuilt from directory on start,
+ * in order of last modification time of files.
+ * <p>
+ * Example:
+ * <pre>
+ *     DiskFileCache cache = new DiskFileCache(directory, maxBytes, meterRegistry);
+ *     try (FileChannel channel = cache.get(FileType.PHOTO_TOOL, uuid, out -> download(uuid, out))) {
+ *         channel.transferTo(0, channel.size(), target);
+ *     }
+ * </pre>
+ */
+@Slf4j
+public class DiskFileCache {
+
+    /**
+     * Writes missing file content to output stream of cache file.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        void load(OutputStream out) throws IOException;
+    }
+
+    private record Key(FileType type, UUID id, String variant) {
+    }
+
+    private static final String TMP_DIRECTORY = ".tmp";
+    private static final String VARIANT_SEPARATOR = ".";
+
+    private final Path directory;
+    private final Path tmpDirectory;
+    private final long maxBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Key, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Key, CompletableFuture<Void>> loading = new ConcurrentHashMap<>();
+    private long totalBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public DiskFileCache(Path directory, long maxBytes, MeterRegistry meterRegistry) {
+        this("files", directory, maxBytes, meterRegistry);
+    }
+
+    /**
+     * @param name          name of cache, metrics of cache are tagged by it
+     * @param directory     directory for cached files, must not be shared with other caches
+     * @param maxBytes      max total size of cached files
+     * @param meterRegistry registry for metrics of cache
+     */
+    public DiskFileCache(String name, Path directory, long maxBytes, MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.tmpDirectory = directory.resolve(TMP_DIRECTORY);
+        this.maxBytes = maxBytes;
+        this.hits = Counter.builder("file.storage.cache.requests").tags("cache", name, "result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("file.storage.cache.requests").tags("cache", name, "result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("file.storage.cache.evictions").tag("cache", name).register(meterRegistry);
+        Gauge.builder("file.storage.cache.size", this, DiskFileCache::totalBytes).tag("cache", name).baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("file.storage.cache.entries", this, DiskFileCache::entries).tag("cache", name).register(meterRegistry);
+        init();
+    }
+
+    /**
+     * Opens cached file, loads it with loader on miss.
+     *
+     * @param type   file type
+     * @param id     file uuid
+     * @param loader writes file content on miss
+     * @return opened channel of cached file, caller must close it
+     * @throws IOException if file can't be loaded or opened
+     */
+    public FileChannel get(FileType type, UUID id, Loader loader) throws IOException {
+        return get(type, id, null, loader);
+    }
+
+    /**
+     * Opens cached variant of file, loads it with loader on miss.
+     *
+     * @param type    file type
+     * @param id      file uuid
+     * @param variant variant of file, must not contain {@value #VARIANT_SEPARATOR}, null for file itself
+     * @param loader  writes content of file variant on miss
+     * @return opened channel of cached file, caller must close it
+     * @throws IOException if file can't be loaded or opened
+     */
+    public FileChannel get(FileType type, UUID id, String variant, Loader loader) throws IOException {
+        Key key = new Key(type, id, variant);
+        FileChannel channel = open(key);
+        if (channel != null) {
+            hits.increment();
+            return channel;
+        }
+        misses.increment();
+        load(key, loader);
+        channel = open(key);
+        if (channel == null) {
+            throw new NoSuchFileException(path(key).toString(), null, "Cached file evicted before it was opened");
+        }
+        return channel;
+    }
+
+    public long totalBytes() {
+        lock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int entries() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens file under the lock, so it can't be evicted between index lookup and open.
+     * Evicted file, which is already opened, stays readable until its channel is closed.
+     */
+    private FileChannel open(Key key) throws IOException {
+        lock.lock();
+        try {
+            if (index.get(key) == null) {
+                return null;
+            }
+            try {
+                return FileChannel.open(path(key), StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                totalBytes -= index.remove(key);
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Loads file once for all concurrent callers. The first caller loads the file to temporary file
+     * and moves it to cache, other callers wait for it and get the same error, if load fails.
+     * File is not loaded again, if it was cached by the caller, that finished just before.
+     */
+    private void load(Key key, Loader loader) throws IOException {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> inProgress = loading.putIfAbsent(key, future);
+        if (inProgress != null) {
+            await(inProgress);
+            return;
+        }
+        try {
+            if (!contains(key)) {
+                put(key, download(key, loader));
+            }
+            future.complete(null);
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key);
+        }
+    }
+
+    private boolean contains(Key key) {
+        lock.lock();
+        try {
+            return index.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Path download(Key key, Loader loader) throws IOException {
+        Path tmp = Files.createTempFile(tmpDirectory, key.id().toString(), null);
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                loader.load(out);
+            }
+            Path target = path(key);
+            Files.createDirectories(target.getParent());
+            return Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    private void await(CompletableFuture<Void> future) throws IOException {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void put(Key key, Path path) throws IOException {
+        long size = Files.size(path);
+        lock.lock();
+        try {
+            Long previous = index.put(key, size);
+            totalBytes += size - (previous == null ? 0 : previous);
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes least recently used files, until total size fits the limit. Must be called under the lock.
+     * The most recently used file is kept, even if it alone exceeds the limit, so it can be opened after load.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Key, Long>> it = index.entrySet().iterator();
+        while (totalBytes > maxBytes && index.size() > 1) {
+            Map.Entry<Key, Long> eldest = it.next();
+            it.remove();
+            totalBytes -= eldest.getValue();
+            evictions.increment();
+            try {
+                Files.deleteIfExists(path(eldest.getKey()));
+            } catch (IOException e) {
+                log.warn("Can't delete evicted file {} from cache", path(eldest.getKey()), e);
+            }
+        }
+    }
+
+    private Path path(Key key) {
+        String fileName = key.variant() == null ? key.id().toString() : key.id() + VARIANT_SEPARATOR + key.variant();
+        return directory.resolve(key.type().name().toLowerCase()).resolve(fileName);
+    }
+
+    /**
+     * Creates cache directory, removes unfinished downloads and rebuilds index of cached files.
+     */
+    private void init() {
+        try {
+            Files.createDirectories(tmpDirectory);
+            try (Stream<Path> files = Files.list(tmpDirectory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            List<Map.Entry<Key, BasicFileAttributes>> cached = new ArrayList<>();
+            for (FileType type : FileType.values()) {
+                Path typeDirectory = directory.resolve(type.name().toLowerCase());
+                if (!Files.isDirectory(typeDirectory)) {
+                    continue;
+                }
+                try (Stream<Path> files = Files.list(typeDirectory)) {
+                    for (Path file : files.toList()) {
+                        try {
+                            String fileName = file.getFileName().toString();
+                            int separator = fileName.indexOf(VARIANT_SEPARATOR);
+                            UUID id = UUID.fromString(separator < 0 ? fileName : fileName.substring(0, separator));
+                            String variant = separator < 0 ? null : fileName.substring(separator + 1);
+                            cached.add(Map.entry(new Key(type, id, variant), Files.readAttributes(file, BasicFileAttributes.class)));
+                        } catch (IllegalArgumentException e) {
+                            log.warn("Skip unknown file {} in cache directory", file);
+                        }
+                    }
+                }
+            }
+            cached.sort(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()));
+            lock.lock();
+            try {
+                cached.forEach(entry -> {
+                    index.put(entry.getKey(), entry.getValue().size());
+                    totalBytes += entry.getValue().size();
+                });
+                evict();
+            } finally {
+                lock.unlock();
+            }
+            log.info("File storage cache in {}: {} files, {} bytes", directory, index.size(), totalBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't initialize file storage cache in " + directory, e);
+        }
+    }
+}
@@ -3,20 +3,27 @@ package tech.konso.toolsmanagement.modules.integration.facade.implementation;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
 import tech.konso.toolsmanagement.modules.integration.facade.FileStorageFacade;
 import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.FileStream;
 import tech.konso.toolsmanagement.modules.integration.facade.dto.UploadResponse;
+import tech.konso.toolsmanagement.system.commons.configs.properties.FileStorageProperties;
 import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -30,20 +37,25 @@ public class FileStorageFacadeImpl implements FileStorageFacade {
     @Qualifier("integration-file-storage-api")
     private WebClient client;
 
+    @Autowired
+    private FileStorageProperties properties;
+
     private static final String BASE_PATH = "/v1";
     private static final String FILE_BY_UUID_URL = BASE_PATH + "/{uuid}";
+    private static final List<String> FILE_HEADERS = List.of(HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_RANGE,
+            HttpHeaders.ACCEPT_RANGES);
 
     /**
-     * Upload file to file storage service
+     * Upload file to file storage service, upload fails after upload timeout
      *
-     * @param multipartFile to upload to file storage service
-     * @param fileType      file type for choosing bucket in file storage
+     * @param file     to upload to file storage service, multipart file resource or spooled local file
+     * @param fileType file type for choosing bucket in file storage
      * @return {@link UploadResponse} object response for uploading file with id and errors
      */
     @Override
-    public UploadResponse upload(MultipartFile multipartFile, FileType fileType) {
+    public UploadResponse upload(Resource file, FileType fileType) {
         MultipartBodyBuilder bodyBuilder = new MultipartBodyBuilder();
-        bodyBuilder.part("attachment", multipartFile.getResource());
+        bodyBuilder.part("attachment", file);
 
         return client.post()
                 .uri(uriBuilder -> uriBuilder.path(BASE_PATH)
@@ -51,9 +63,16 @@ public class FileStorageFacadeImpl implements FileStorageFacade {
                         .build())
                 .contentType(MediaType.MULTIPART_FORM_DATA)
                 .accept(MediaType.APPLICATION_JSON)
-                .body(BodyInserters.fromMultipartData("attachment", multipartFile.getResource()))
+                .body(BodyInserters.fromMultipartData("attachment", file))
+                .httpRequest(rq -> {
+                    // file storage may store file longer than read timeout of connection
+                    if (rq.getNativeRequest() instanceof HttpClientRequest nativeRq) {
+                        nativeRq.responseTimeout(properties.getResilience().getUploadTimeout());
+                    }
+                })
                 .retrieve()
                 .bodyToMono(UploadResponse.class)
+                .timeout(properties.getResilience().getUploadTimeout())
                 .doOnError(e -> {
                     log.error("Error upload photo to file storage", e);
                     throw new BPException.ServiceUnavailable("Error upload photo to file storage");
@@ -62,27 +81,53 @@ public class FileStorageFacadeImpl implements FileStorageFacade {
     }
 
     /**
-     * Download file by id and type
+     * Stream file by id and type.
+     * Blocks only until file storage responds with headers, file content is passed as not subscribed flux
+     * of data buffers, so it is never buffered in memory as a whole.
+     * Download fails, if headers are not received in response timeout, or if the next chunk of content
+     * is not received in read timeout.
      *
      * @param id       file in file storage
      * @param fileType file type for choosing bucket in file storage
-     * @return InputStreamResource with searching file
+     * @param range    value of Range header to pass to file storage, may be null for whole file
+     * @return {@link FileStream} with not read file content
      */
     @Override
-    public InputStreamResource download(UUID id, FileType fileType) {
-        return client.get()
+    public FileStream stream(UUID id, FileType fileType, String range) {
+        ResponseEntity<Flux<DataBuffer>> rs = client.get()
                 .uri(uriBuilder -> uriBuilder.path(FILE_BY_UUID_URL)
                         .queryParam("fileType", fileType.name())
                         .build(id))
                 .accept(MediaType.APPLICATION_OCTET_STREAM)
+                .headers(headers -> {
+                    if (range != null) {
+                        headers.set(HttpHeaders.RANGE, range);
+                    }
+                })
                 .retrieve()
-                .onStatus(HttpStatus.NOT_FOUND::equals, rs -> Mono.error(new BPException.NotFound("File not found " + id)))
-                .onStatus(HttpStatus.BAD_REQUEST::equals, rs -> Mono.error(new BPException.BadRequest("Error retrieving file from storage " + id)))
-                .bodyToMono(InputStreamResource.class)
-                .doOnError(e -> {
-                    log.error("File storage service unavailable. Try to et photo by id {}", id, e);
-                    throw new BPException.ServiceUnavailable("File storage service unavailable. Try to et photo by id: " + id);
+                .onStatus(HttpStatus.NOT_FOUND::equals, r -> Mono.error(new BPException.NotFound("File not found " + id)))
+                .onStatus(HttpStatus.BAD_REQUEST::equals, r -> Mono.error(new BPException.BadRequest("Error retrieving file from storage " + id)))
+                .onStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE::equals, r -> Mono.error(
+                        new BPException("Requested range not satisfiable: " + range, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)))
+                .toEntityFlux(DataBuffer.class)
+                .timeout(properties.getResilience().getResponseTimeout())
+                .onErrorMap(e -> !(e instanceof BPException), e -> {
+                    log.error("File storage service unavailable. Try to get photo by id {}", id, e);
+                    return new BPException.ServiceUnavailable("File storage service unavailable. Try to get photo by id: " + id);
                 })
                 .block();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, fileType.getContentType());
+        FILE_HEADERS.forEach(name -> {
+            String value = rs.getHeaders().getFirst(name);
+            if (value != null) {
+                headers.set(name, value);
+            }
+        });
+        Flux<DataBuffer> body = rs.getBody() == null ? Flux.empty() : rs.getBody()
+                .timeout(properties.getResilience().getReadTimeout())
+                .doOnError(e -> log.error("Error reading file {} from file storage", id, e));
+        return FileStream.of(rs.getStatusCode(), headers, body);
     }
 }
@@ -0,0 +1,241 @@
+package tech.konso.toolsmanagement.modules.integration.facade.implementation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import tech.konso.toolsmanagement.modules.integration.facade.FileStorageFacade;
+import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.FileStream;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.UploadResponse;
+import tech.konso.toolsmanagement.system.commons.configs.properties.FileStorageProperties;
+import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * File storage facade, which protects application from slow or failing file storage.
+ * <ul>
+ *     <li>bulkhead - limits number of concurrent calls, which wait for file storage response,
+ *     calls above the limit are rejected, so request threads don't pile up;</li>
+ *     <li>circuit breaker - rejects calls without waiting, while file storage fails most of calls;</li>
+ *     <li>hedged reads - optionally sends the second download request, if the first one is slow,
+ *     and returns the first response.</li>
+ * </ul>
+ * Timeouts of calls are set by delegate. Calls, which fail with client errors (not found, bad request),
+ * are successful calls for circuit breaker, as file storage is responsive.
+ * <p>Rejected calls fail with {@link BPException.ServiceUnavailable}. State of breaker, free calls of bulkhead
+ * and latency of calls are published as metrics.
+ */
+@Slf4j
+@Service(value = "file-storage-facade-resilient")
+public class ResilientFileStorageFacade implements FileStorageFacade {
+
+    private static final OutputStream DISCARDING_STREAM = new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {
+            throw new IOException("Response is discarded");
+        }
+    };
+
+    @Autowired
+    @Qualifier("file-storage-facade-impl")
+    private FileStorageFacade delegate;
+
+    @Autowired
+    private FileStorageProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private FileStorageProperties.Resilience resilience;
+
+    private Semaphore bulkhead;
+
+    private CircuitBreaker circuitBreaker;
+
+    private ExecutorService hedgeExecutor;
+
+    private Counter hedges;
+
+    @PostConstruct
+    public void init() {
+        resilience = properties.getResilience();
+        bulkhead = new Semaphore(resilience.getMaxConcurrentCalls());
+        circuitBreaker = new CircuitBreaker(resilience.getFailureRateThreshold(), resilience.getSlidingWindowSize(),
+                resilience.getMinimumCalls(), resilience.getOpenDuration(), resilience.getHalfOpenCalls());
+        hedgeExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("file-storage-hedge-", 0).factory());
+        hedges = Counter.builder("file.storage.hedges")
+                .description("Second download requests, sent as the first one was slow")
+                .register(meterRegistry);
+        Gauge.builder("file.storage.circuit.state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .description("State of file storage circuit breaker: 0 - closed, 1 - open, 2 - half open")
+                .register(meterRegistry);
+        Gauge.builder("file.storage.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Free concurrent calls to file storage")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    /**
+     * Upload file to file storage service, if circuit breaker and bulkhead permit the call
+     *
+     * @param file     to upload to file storage service, multipart file resource or spooled local file
+     * @param fileType file type for choosing bucket in file storage
+     * @return {@link UploadResponse} object response for uploading file with id and errors
+     * @throws BPException if call is rejected or fails
+     */
+    @Override
+    public UploadResponse upload(Resource file, FileType fileType) {
+        return call("upload", () -> delegate.upload(file, fileType));
+    }
+
+    /**
+     * Stream file by id and type, if circuit breaker and bulkhead permit the call.
+     * Whole file download is hedged, if hedged reads are enabled.
+     * Bulkhead is held until response headers are received, file content is limited by read timeout of delegate.
+     *
+     * @param id       file in file storage
+     * @param fileType file type for choosing bucket in file storage
+     * @param range    value of Range header to pass to file storage, may be null for whole file
+     * @return {@link FileStream} with not read file content
+     * @throws BPException if call is rejected or fails
+     */
+    @Override
+    public FileStream stream(UUID id, FileType fileType, String range) {
+        if (resilience.isHedgeEnabled() && range == null) {
+            return hedged(() -> call("stream", () -> delegate.stream(id, fileType, null)));
+        }
+        return call("stream", () -> delegate.stream(id, fileType, range));
+    }
+
+    private <T> T call(String operation, Supplier<T> call) {
+        long permit = circuitBreaker.tryAcquirePermission();
+        if (permit == CircuitBreaker.NOT_PERMITTED) {
+            record(operation, "rejected", 0);
+            throw new BPException.ServiceUnavailable("File storage service unavailable, circuit breaker is open");
+        }
+        if (!acquireBulkhead()) {
+            circuitBreaker.releasePermission(permit);
+            record(operation, "rejected", 0);
+            throw new BPException.ServiceUnavailable("File storage service unavailable, too many concurrent calls");
+        }
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            circuitBreaker.onSuccess(permit);
+            record(operation, "success", System.nanoTime() - start);
+            return result;
+        } catch (BPException e) {
+            if (e.getStatus().is5xxServerError()) {
+                circuitBreaker.onFailure(permit);
+                record(operation, "failure", System.nanoTime() - start);
+            } else {
+                circuitBreaker.onSuccess(permit);
+                record(operation, "success", System.nanoTime() - start);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure(permit);
+            record(operation, "failure", System.nanoTime() - start);
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(resilience.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void record(String operation, String outcome, long nanos) {
+        Timer.builder("file.storage.calls")
+                .description("Calls to file storage")
+                .tags("operation", operation, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sends the second request, if the first one has no response after hedge delay, and returns the first
+     * successful response. Response, which comes the second, is discarded, so its connection is released.
+     * Call fails, only if both requests fail.
+     */
+    private FileStream hedged(Supplier<FileStream> call) {
+        CompletableFuture<FileStream> first = CompletableFuture.supplyAsync(call, hedgeExecutor);
+        try {
+            return first.get(resilience.getHedgeDelay().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            hedges.increment();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BPException.ServiceUnavailable("Interrupted while waiting for file storage");
+        }
+        CompletableFuture<FileStream> second = CompletableFuture.supplyAsync(call, hedgeExecutor);
+        CompletableFuture<FileStream> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<FileStream> attempt : List.of(first, second)) {
+            attempt.whenComplete((rs, e) -> {
+                if (e == null) {
+                    if (!winner.complete(rs)) {
+                        discard(rs);
+                    }
+                } else if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(e);
+                }
+            });
+        }
+        try {
+            return winner.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable e) {
+        if (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e instanceof RuntimeException runtime ? runtime : new BPException.ServiceUnavailable(e.getMessage());
+    }
+
+    /**
+     * Cancels reading of not used response, writing of the first chunk fails and content is released
+     */
+    private static void discard(FileStream rs) {
+        try {
+            rs.writeTo(DISCARDING_STREAM);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Hedged response is discarded", e);
+        }
+    }
+}
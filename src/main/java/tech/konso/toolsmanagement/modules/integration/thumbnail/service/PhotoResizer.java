@@ -0,0 +1,119 @@
+package tech.konso.toolsmanagement.modules.integration.thumbnail.service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Resizes photos with javax.imageio, resized photos are encoded as jpeg.
+ * Photo size is read from its header before decoding, photos above {@link #MAX_PIXELS} are rejected.
+ * Large photo is decoded with subsampling to about twice of target size, then it is scaled down by halves
+ * and to target size, so it is not aliased in small thumbnails.
+ * <p>
+ * Example:
+ * <pre>
+ *     byte[] thumbnail = PhotoResizer.resize(photo, 64);
+ * </pre>
+ */
+public final class PhotoResizer {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    /**
+     * Max number of pixels of photo, decoded photo takes 4 bytes per pixel
+     */
+    public static final long MAX_PIXELS = 50_000_000L;
+
+    static {
+        // decoded images are small enough to be kept in memory, so temporary files are not used
+        ImageIO.setUseCache(false);
+    }
+
+    private PhotoResizer() {
+    }
+
+    /**
+     * Scales photo down to fit square, proportions are kept. Photo, which already fits, is returned as it is.
+     *
+     * @param photo        encoded photo
+     * @param maxDimension max width and height of resized photo
+     * @return encoded jpeg of resized photo
+     * @throws IOException if photo format is not supported or photo has more than {@link #MAX_PIXELS}
+     */
+    public static byte[] resize(byte[] photo, int maxDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(photo))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported photo format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                if ((long) sourceWidth * sourceHeight > MAX_PIXELS) {
+                    throw new IOException("Photo is too large: " + sourceWidth + "x" + sourceHeight);
+                }
+                double scale = (double) maxDimension / Math.max(sourceWidth, sourceHeight);
+                if (scale >= 1) {
+                    return photo;
+                }
+                int width = Math.max(1, (int) Math.round(sourceWidth * scale));
+                int height = Math.max(1, (int) Math.round(sourceHeight * scale));
+                // rows and columns, which are skipped by subsampling, are not decoded at all
+                int subsampling = Math.max(1, Math.min(sourceWidth / (2 * width), sourceHeight / (2 * height)));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage image = reader.read(0, param);
+                while (image.getWidth() / 2 >= width && image.getHeight() / 2 >= height) {
+                    image = scale(image, image.getWidth() / 2, image.getHeight() / 2);
+                }
+                return encode(scale(image, width, height));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Draws image in new size on white background, as jpeg has no transparency
+     */
+    private static BufferedImage scale(BufferedImage image, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
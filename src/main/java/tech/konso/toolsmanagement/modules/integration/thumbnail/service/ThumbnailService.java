@@ -0,0 +1,200 @@
+package tech.konso.toolsmanagement.modules.integration.thumbnail.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tech.konso.toolsmanagement.modules.integration.facade.FileStorageFacade;
+import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.modules.integration.facade.PhotoSize;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.FileStream;
+import tech.konso.toolsmanagement.modules.integration.facade.implementation.DiskFileCache;
+import tech.konso.toolsmanagement.system.commons.configs.properties.FileStorageProperties;
+import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Service layer for serving photos in requested size.
+ * <p>Resized photo is generated once from the full photo and is kept in its own local disk cache,
+ * so repeated requests are served from local disk without requests to file storage.
+ * Photos are resized by bounded pool of workers, resizes above its queue are rejected,
+ * so burst of requests for new photos can't exhaust memory and cpu.
+ * <p>Many photos are served as one zip archive, photos of archive are fetched in parallel with bounded concurrency.
+ */
+@Slf4j
+@Service
+public class ThumbnailService {
+
+    @Autowired
+    private FileStorageFacade fileStorageFacade;
+
+    @Autowired
+    private FileStorageProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private DiskFileCache cache;
+
+    private ThreadPoolExecutor resizers;
+
+    @PostConstruct
+    public void init() {
+        FileStorageProperties.Thumbnails thumbnailsProperties = properties.getThumbnails();
+        cache = new DiskFileCache("thumbnails", thumbnailsProperties.getDirectory(),
+                thumbnailsProperties.getMaxSize().toBytes(), meterRegistry);
+        resizers = new ThreadPoolExecutor(thumbnailsProperties.getWorkers(), thumbnailsProperties.getWorkers(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(thumbnailsProperties.getQueueCapacity()),
+                Thread.ofPlatform().name("photo-resize-", 0).daemon().factory());
+        new ExecutorServiceMetrics(resizers, "photo.resize", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        resizers.shutdownNow();
+    }
+
+    /**
+     * Stream photo in requested size. Full photo is streamed from file storage facade as it is.
+     * Single byte range is served as partial content, malformed or multiple ranges are ignored.
+     * <p>
+     * Example:
+     * <pre>
+     *     FileStream thumbnail = stream(photoUuid, FileType.PHOTO_TOOL, PhotoSize.THUMB, null);
+     * </pre>
+     *
+     * @param id       photo uuid in file storage
+     * @param fileType file type for choosing bucket in file storage
+     * @param size     size of photo
+     * @param range    value of Range header, may be null for whole photo
+     * @return {@link FileStream} with content of photo in requested size
+     * @throws BPException if photo can't be resized or there are too many photos waiting for resize
+     */
+    public FileStream stream(UUID id, FileType fileType, PhotoSize size, String range) {
+        if (size == PhotoSize.FULL) {
+            return fileStorageFacade.stream(id, fileType, range);
+        }
+        try {
+            FileChannel channel = cache.get(fileType, id, size.name().toLowerCase(), out -> out.write(resize(id, fileType, size)));
+            return FileStream.of(channel, fileType.getContentType(), range);
+        } catch (IOException e) {
+            log.error("Error resizing photo {} to {}", id, size, e);
+            throw new BPException.ServiceUnavailable("Error resizing photo: " + id);
+        }
+    }
+
+    /**
+     * Writes photos in requested size to zip archive in the order of entries. Photos are fetched in parallel on virtual
+     * threads, but no more than fetch concurrency photos are fetched or wait for writing at once, so memory is bounded
+     * for any number of photos. Photos are already compressed, so they are stored in archive without compression.
+     * Photo, which can't be fetched, is skipped, as response status is already sent.
+     * <p>
+     * Example:
+     * <pre>
+     *     writeArchive(Map.of("7.jpeg", photoUuid), FileType.PHOTO_TOOL, PhotoSize.THUMB, out);
+     * </pre>
+     *
+     * @param photos   photo uuids by names of archive entries
+     * @param fileType file type for choosing bucket in file storage
+     * @param size     size of photos
+     * @param out      output stream to write archive to, stream is not closed
+     */
+    public void writeArchive(Map<String, UUID> photos, FileType fileType, PhotoSize size, OutputStream out) throws IOException {
+        int concurrency = properties.getThumbnails().getFetchConcurrency();
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.setMethod(ZipOutputStream.STORED);
+        Iterator<Map.Entry<String, UUID>> it = photos.entrySet().iterator();
+        Deque<Map.Entry<String, Future<byte[]>>> fetching = new ArrayDeque<>();
+        ExecutorService fetchers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("photo-fetch-", 0).factory());
+        try {
+            while (it.hasNext() || !fetching.isEmpty()) {
+                while (it.hasNext() && fetching.size() < concurrency) {
+                    Map.Entry<String, UUID> photo = it.next();
+                    fetching.add(Map.entry(photo.getKey(), fetchers.submit(() -> fetch(photo.getValue(), fileType, size))));
+                }
+                Map.Entry<String, Future<byte[]>> next = fetching.poll();
+                byte[] photo = await(next.getKey(), next.getValue());
+                if (photo != null) {
+                    writeEntry(zip, next.getKey(), photo);
+                }
+            }
+            zip.finish();
+        } finally {
+            fetchers.shutdownNow();
+        }
+    }
+
+    private byte[] fetch(UUID id, FileType fileType, PhotoSize size) throws IOException {
+        ByteArrayOutputStream photo = new ByteArrayOutputStream();
+        stream(id, fileType, size, null).writeTo(photo);
+        return photo.toByteArray();
+    }
+
+    private byte[] await(String name, Future<byte[]> photo) throws IOException {
+        try {
+            return photo.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching photo: " + name);
+        } catch (ExecutionException e) {
+            log.warn("Skip photo {} in archive", name, e.getCause());
+            return null;
+        }
+    }
+
+    private void writeEntry(ZipOutputStream zip, String name, byte[] photo) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(photo);
+        ZipEntry entry = new ZipEntry(name);
+        entry.setSize(photo.length);
+        entry.setCompressedSize(photo.length);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        zip.write(photo);
+        zip.closeEntry();
+    }
+
+    /**
+     * Downloads full photo on the caller thread and resizes it on resize workers
+     */
+    private byte[] resize(UUID id, FileType fileType, PhotoSize size) throws IOException {
+        ByteArrayOutputStream photo = new ByteArrayOutputStream();
+        fileStorageFacade.stream(id, fileType, null).writeTo(photo);
+        Future<byte[]> resized;
+        try {
+            resized = resizers.submit(() -> PhotoResizer.resize(photo.toByteArray(), size.getMaxDimension()));
+        } catch (RejectedExecutionException e) {
+            throw new BPException.ServiceUnavailable("Too many photos are being resized, try again later");
+        }
+        try {
+            return resized.get();
+        } catch (InterruptedException e) {
+            resized.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while resizing photo: " + id);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("Error resizing photo: " + id, e.getCause());
+        }
+    }
+}
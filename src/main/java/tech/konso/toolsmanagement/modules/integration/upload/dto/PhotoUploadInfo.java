@@ -0,0 +1,27 @@
+package tech.konso.toolsmanagement.modules.integration.upload.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import tech.konso.toolsmanagement.modules.integration.upload.persistence.dao.enums.UploadStatus;
+
+import java.util.UUID;
+
+/**
+ * DTO class for response with state of photo upload.
+ *
+ * @param uploadId  upload id, returned by asynchronous upload
+ * @param status    upload status
+ * @param photoUuid photo uuid in file storage, not null only for stored photo
+ * @param error     error of the last failed attempt
+ */
+@Schema(description = "State of photo upload to file storage")
+public record PhotoUploadInfo(
+        @Schema(description = "Upload id, returned by asynchronous upload", example = "3d965e4e-cf28-45e1-91c7-1225566e6817")
+        UUID uploadId,
+        @Schema(description = "Upload status: PENDING, STORED or FAILED", example = "STORED")
+        UploadStatus status,
+        @Schema(description = "Photo UUID in file storage, set when photo is stored, use it as photoUuid of entity",
+                example = "1f3cbd4b-1f86-4b4c-9a0b-3b9e5f5b7a51")
+        UUID photoUuid,
+        @Schema(description = "Error of the last failed attempt")
+        String error) {
+}
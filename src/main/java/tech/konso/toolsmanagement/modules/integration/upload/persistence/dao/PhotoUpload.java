@@ -0,0 +1,93 @@
+package tech.konso.toolsmanagement.modules.integration.upload.persistence.dao;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.modules.integration.upload.persistence.dao.enums.UploadStatus;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Photo upload entity class.
+ * Relies on "integration_photo_upload" table in database
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "integration_photo_upload")
+public class PhotoUpload implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Primary key. Generated by service and returned to client before photo is stored
+     */
+    @Id
+    @Column(name = "upload_id")
+    private UUID id;
+
+    /**
+     * File type for choosing bucket in file storage
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "file_type", nullable = false, updatable = false)
+    private FileType fileType;
+
+    /**
+     * Original file name
+     */
+    @Column(name = "file_name", updatable = false)
+    private String fileName;
+
+    /**
+     * Id of instance, which spooled photo on its local disk. Set only for asynchronous uploads
+     */
+    @Column(name = "instance_id", updatable = false)
+    private String instanceId;
+
+    /**
+     * Upload status
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private UploadStatus status;
+
+    /**
+     * Photo uuid in file storage, set when photo is stored
+     */
+    @Column(name = "file_uuid", unique = true)
+    private UUID fileUuid;
+
+    /**
+     * Number of attempts to store photo
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /**
+     * Error of the last failed attempt
+     */
+    @Column(name = "error")
+    private String error;
+
+    /**
+     * Creation record date with time. By default, sets to current
+     */
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    /**
+     * Update record date. By default, sets to current
+     */
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
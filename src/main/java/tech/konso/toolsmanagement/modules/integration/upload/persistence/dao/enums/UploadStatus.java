@@ -0,0 +1,19 @@
+package tech.konso.toolsmanagement.modules.integration.upload.persistence.dao.enums;
+
+/**
+ * Status of photo upload to file storage
+ */
+public enum UploadStatus {
+    /**
+     * Photo is spooled to local disk and waits to be stored
+     */
+    PENDING,
+    /**
+     * Photo is stored in file storage
+     */
+    STORED,
+    /**
+     * Photo can't be stored, all attempts failed
+     */
+    FAILED
+}
@@ -0,0 +1,30 @@
+package tech.konso.toolsmanagement.modules.integration.upload.persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.modules.integration.upload.persistence.dao.PhotoUpload;
+import tech.konso.toolsmanagement.modules.integration.upload.persistence.dao.enums.UploadStatus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Repository for photo upload entity.
+ * <p>By default, uses read only transactions, if you want another mode, you must directly specify it on your method.
+ */
+@Repository
+@Transactional(readOnly = true)
+public interface PhotoUploadRepository extends JpaRepository<PhotoUpload, UUID> {
+
+    List<PhotoUpload> findAllByInstanceIdAndStatusOrderByCreatedAt(String instanceId, UploadStatus status);
+
+    List<PhotoUpload> findAllByInstanceIdIsNullAndStatusOrderByCreatedAt(UploadStatus status);
+
+    @Query("SELECT u.fileUuid FROM PhotoUpload u WHERE u.fileUuid IN :fileUuids AND u.fileType = :fileType AND u.status = :status")
+    Set<UUID> findFileUuids(Collection<UUID> fileUuids, FileType fileType, UploadStatus status);
+}
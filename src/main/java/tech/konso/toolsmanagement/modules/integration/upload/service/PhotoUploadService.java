@@ -0,0 +1,316 @@
+package tech.konso.toolsmanagement.modules.integration.upload.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import tech.konso.toolsmanagement.modules.integration.facade.FileStorageFacade;
+import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.UploadResponse;
+import tech.konso.toolsmanagement.modules.integration.upload.dto.PhotoUploadInfo;
+import tech.konso.toolsmanagement.modules.integration.upload.persistence.dao.PhotoUpload;
+import tech.konso.toolsmanagement.modules.integration.upload.persistence.dao.enums.UploadStatus;
+import tech.konso.toolsmanagement.modules.integration.upload.persistence.repository.PhotoUploadRepository;
+import tech.konso.toolsmanagement.system.commons.configs.properties.FileStorageProperties;
+import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service layer for uploading photos to file storage.
+ * <p>Every upload is recorded, so entities can reference only stored photos.
+ * Synchronous upload waits for file storage. Asynchronous upload spools photo to local disk, returns upload id
+ * immediately and stores photo by bounded pool of background workers with retries.
+ * Spooled photos, which are not stored before shutdown, are stored after the next start.
+ * Spool directory is local to instance, so every instance resumes only uploads, which it spooled itself.
+ */
+@Slf4j
+@Service
+public class PhotoUploadService {
+
+    private static final String INSTANCE_ID_FILE = "instance-id";
+
+    @Autowired
+    private PhotoUploadRepository repository;
+
+    @Autowired
+    private FileStorageFacade fileStorageFacade;
+
+    @Autowired
+    private FileStorageProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private FileStorageProperties.Upload uploadProperties;
+
+    private ScheduledExecutorService workers;
+
+    /**
+     * Id of this instance, which is recorded in spooled uploads
+     */
+    private String instanceId;
+
+    /**
+     * Number of spooled photos, which are not stored or failed yet
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    @PostConstruct
+    public void init() throws IOException {
+        uploadProperties = properties.getUpload();
+        Files.createDirectories(uploadProperties.getSpoolDirectory());
+        instanceId = StringUtils.hasText(uploadProperties.getInstanceId()) ? uploadProperties.getInstanceId() : spooledInstanceId();
+        workers = Executors.newScheduledThreadPool(uploadProperties.getWorkers(),
+                Thread.ofPlatform().name("photo-upload-", 0).daemon().factory());
+        Gauge.builder("file.storage.uploads.pending", pending, AtomicInteger::get)
+                .description("Spooled photos, which are not stored in file storage yet")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Resumes uploads, which were spooled by this instance before the last shutdown.
+     * Uploads, which spooled file is lost, are failed. Uploads of other instances are not changed.
+     * Uploads spooled before instance id was recorded are taken by the instance, which has their spooled file.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        for (PhotoUpload upload : repository.findAllByInstanceIdIsNullAndStatusOrderByCreatedAt(UploadStatus.PENDING)) {
+            if (Files.exists(spooled(upload.getId()))) {
+                upload.setInstanceId(instanceId);
+                repository.save(upload);
+            }
+        }
+        for (PhotoUpload upload : repository.findAllByInstanceIdAndStatusOrderByCreatedAt(instanceId, UploadStatus.PENDING)) {
+            if (Files.exists(spooled(upload.getId()))) {
+                pending.incrementAndGet();
+                workers.execute(() -> store(upload.getId()));
+            } else {
+                upload.setStatus(UploadStatus.FAILED);
+                upload.setError("Spooled photo is lost");
+                repository.save(upload);
+            }
+        }
+    }
+
+    /**
+     * Upload photo to file storage and wait until it is stored.
+     * <p>
+     * Example:
+     * <pre>
+     *     UUID photoUuid = upload(multipartFile, FileType.PHOTO_TOOL);
+     * </pre>
+     *
+     * @param multipartFile photo to upload
+     * @param fileType      file type for choosing bucket in file storage
+     * @return photo uuid in file storage
+     * @throws BPException if file storage returns error
+     */
+    public UUID upload(MultipartFile multipartFile, FileType fileType) {
+        UploadResponse rs = fileStorageFacade.upload(multipartFile.getResource(), fileType);
+        if (rs.error() != null) {
+            throw new BPException.ServiceUnavailable("Upload photo error: " + rs.error());
+        }
+        PhotoUpload upload = newUpload(fileType, multipartFile.getOriginalFilename());
+        upload.setStatus(UploadStatus.STORED);
+        upload.setFileUuid(rs.uuid());
+        upload.setAttempts(1);
+        repository.save(upload);
+        return rs.uuid();
+    }
+
+    /**
+     * Spool photo to local disk and store it to file storage in background.
+     * Returned upload id is used to get upload state and photo uuid, when photo is stored.
+     * <p>
+     * Example:
+     * <pre>
+     *     UUID uploadId = uploadAsync(multipartFile, FileType.PHOTO_TOOL);
+     * </pre>
+     *
+     * @param multipartFile photo to upload
+     * @param fileType      file type for choosing bucket in file storage
+     * @return upload id
+     * @throws BPException if there are too many pending uploads or photo can't be spooled
+     */
+    public UUID uploadAsync(MultipartFile multipartFile, FileType fileType) {
+        if (pending.incrementAndGet() > uploadProperties.getMaxPending()) {
+            pending.decrementAndGet();
+            throw new BPException.ServiceUnavailable("Too many pending photo uploads, try again later");
+        }
+        PhotoUpload upload = newUpload(fileType, multipartFile.getOriginalFilename());
+        upload.setStatus(UploadStatus.PENDING);
+        upload.setInstanceId(instanceId);
+        Path spooled = spooled(upload.getId());
+        try {
+            // multipart file is already on disk, so it is moved to spool directory without copying if possible
+            multipartFile.transferTo(spooled.toFile());
+            repository.save(upload);
+        } catch (IOException | RuntimeException e) {
+            pending.decrementAndGet();
+            delete(spooled);
+            log.error("Error spooling photo {}", upload.getId(), e);
+            throw new BPException.ServiceUnavailable("Error spooling photo: " + upload.getId());
+        }
+        workers.execute(() -> store(upload.getId()));
+        return upload.getId();
+    }
+
+    /**
+     * Find state of photo upload.
+     * <p>
+     * Example:
+     * <pre>
+     *     PhotoUploadInfo info = find(uploadId, FileType.PHOTO_TOOL);
+     * </pre>
+     *
+     * @param uploadId upload id
+     * @param fileType file type of upload
+     * @return {@link PhotoUploadInfo} with upload status and photo uuid
+     * @throws BPException if upload of file type not exists
+     */
+    public PhotoUploadInfo find(UUID uploadId, FileType fileType) {
+        return repository.findById(uploadId)
+                .filter(upload -> upload.getFileType() == fileType)
+                .map(upload -> new PhotoUploadInfo(upload.getId(), upload.getStatus(), upload.getFileUuid(), upload.getError()))
+                .orElseThrow(() -> new BPException.NotFound("Photo upload not found id: " + uploadId));
+    }
+
+    /**
+     * Checks, that photos are stored in file storage, so entities can reference them. Photos are checked with one query.
+     * <p>
+     * Example:
+     * <pre>
+     *     checkStored(Set.of(photoUuid), FileType.PHOTO_TOOL);
+     * </pre>
+     *
+     * @param fileUuids photo uuids in file storage
+     * @param fileType  file type of photos
+     * @throws BPException if any photo is not stored
+     */
+    public void checkStored(Collection<UUID> fileUuids, FileType fileType) {
+        if (fileUuids.isEmpty()) {
+            return;
+        }
+        Set<UUID> stored = repository.findFileUuids(fileUuids, fileType, UploadStatus.STORED);
+        fileUuids.stream().filter(uuid -> !stored.contains(uuid)).findFirst().ifPresent(uuid -> {
+            throw new BPException.BadRequest("Photo is not stored in file storage: " + uuid);
+        });
+    }
+
+    /**
+     * Stores spooled photo in background. Attempt, which failed to read or save upload state,
+     * is not counted and retried after retry delay, so upload stays pending until database is available.
+     */
+    private void store(UUID uploadId) {
+        try {
+            attempt(uploadId);
+        } catch (RuntimeException e) {
+            log.error("Error saving state of photo upload {}, retry is scheduled", uploadId, e);
+            workers.schedule(() -> store(uploadId), uploadProperties.getRetryDelay().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Makes one attempt to store spooled photo. Failed attempt is retried with exponential delay
+     * until max attempts, spooled photo is deleted, when upload is stored or failed.
+     */
+    private void attempt(UUID uploadId) {
+        PhotoUpload upload = repository.findById(uploadId).orElse(null);
+        if (upload == null || upload.getStatus() != UploadStatus.PENDING) {
+            pending.decrementAndGet();
+            return;
+        }
+        Path spooled = spooled(uploadId);
+        upload.setAttempts(upload.getAttempts() + 1);
+        try {
+            UploadResponse rs = fileStorageFacade.upload(resource(spooled, upload.getFileName()), upload.getFileType());
+            if (rs.error() != null) {
+                throw new BPException.ServiceUnavailable("Upload photo error: " + rs.error());
+            }
+            upload.setStatus(UploadStatus.STORED);
+            upload.setFileUuid(rs.uuid());
+            upload.setError(null);
+        } catch (RuntimeException e) {
+            log.warn("Attempt {} to store photo {} failed", upload.getAttempts(), uploadId, e);
+            upload.setError(e.getMessage());
+            if (upload.getAttempts() >= uploadProperties.getMaxAttempts()) {
+                upload.setStatus(UploadStatus.FAILED);
+            }
+        }
+        repository.save(upload);
+        if (upload.getStatus() == UploadStatus.PENDING) {
+            long delay = uploadProperties.getRetryDelay().toMillis() << (upload.getAttempts() - 1);
+            workers.schedule(() -> store(uploadId), delay, TimeUnit.MILLISECONDS);
+        } else {
+            delete(spooled);
+            pending.decrementAndGet();
+        }
+    }
+
+    private PhotoUpload newUpload(FileType fileType, String fileName) {
+        PhotoUpload upload = new PhotoUpload();
+        upload.setId(UUID.randomUUID());
+        upload.setFileType(fileType);
+        upload.setFileName(fileName);
+        return upload;
+    }
+
+    /**
+     * Instance id kept in spool directory, it is generated on the first start with this spool directory
+     */
+    private String spooledInstanceId() throws IOException {
+        Path file = uploadProperties.getSpoolDirectory().resolve(INSTANCE_ID_FILE);
+        if (!Files.exists(file)) {
+            Files.writeString(file, UUID.randomUUID().toString());
+        }
+        return Files.readString(file).strip();
+    }
+
+    private Path spooled(UUID uploadId) {
+        return uploadProperties.getSpoolDirectory().resolve(uploadId.toString());
+    }
+
+    /**
+     * Spooled file with original file name, which is sent to file storage as multipart file name
+     */
+    private Resource resource(Path spooled, String fileName) {
+        return new FileSystemResource(spooled) {
+            @Override
+            public String getFilename() {
+                return fileName == null ? super.getFilename() : fileName;
+            }
+        };
+    }
+
+    private void delete(Path spooled) {
+        try {
+            Files.deleteIfExists(spooled);
+        } catch (IOException e) {
+            log.warn("Error deleting spooled photo {}", spooled, e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package tech.konso.toolsmanagement.system.commons.configs;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import tech.konso.toolsmanagement.system.commons.configs.properties.PagingProperties;
+import tech.konso.toolsmanagement.system.commons.configs.properties.ReferenceCacheProperties;
+
+import java.util.List;
+
+/**
+ * In-process caches. Every cache is bounded and records statistics,
+ * which are exported to prometheus as cache_* metrics.
+ * <p>Caching advice runs outside of transactions, so entries are evicted after
+ * transaction of the save method is committed and can't be reloaded with old values.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+@EnableConfigurationProperties({PagingProperties.class, ReferenceCacheProperties.class})
+public class CacheConfig {
+
+    public static final String PAGING_COUNTS = "paging-counts";
+    public static final String TOOLS_FACETS = "tools-facets";
+    public static final String TOOLS_BRAND = "tools-brand";
+    public static final String TOOLS_CATEGORY = "tools-category";
+    public static final String TOOLS_LABEL = "tools-label";
+    public static final String PERSONS_LABEL = "persons-label";
+    public static final String PERSONS_ROLE = "persons-role";
+
+    private static final List<String> REFERENCE_CACHES = List.of(TOOLS_BRAND, TOOLS_CATEGORY, TOOLS_LABEL, PERSONS_LABEL, PERSONS_ROLE);
+
+    @Bean
+    public CacheManager cacheManager(PagingProperties pagingProperties, ReferenceCacheProperties referenceCacheProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(PAGING_COUNTS, Caffeine.newBuilder()
+                .maximumSize(pagingProperties.getCountCacheSize())
+                .expireAfterWrite(pagingProperties.getCountCacheTtl())
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(TOOLS_FACETS, Caffeine.newBuilder()
+                .maximumSize(pagingProperties.getFacetCacheSize())
+                .expireAfterWrite(pagingProperties.getFacetCacheTtl())
+                .recordStats()
+                .build());
+        REFERENCE_CACHES.forEach(name -> cacheManager.registerCustomCache(name, Caffeine.newBuilder()
+                .maximumSize(referenceCacheProperties.getSize())
+                .expireAfterWrite(referenceCacheProperties.getTtl())
+                .recordStats()
+                .build()));
+        return cacheManager;
+    }
+}
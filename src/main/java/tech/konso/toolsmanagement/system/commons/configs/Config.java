@@ -1,21 +1,58 @@
 package tech.konso.toolsmanagement.system.commons.configs;
 
+import io.netty.channel.ChannelOption;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import tech.konso.toolsmanagement.system.commons.configs.properties.FileStorageProperties;
 
 @Configuration
 @EnableConfigurationProperties({FileStorageProperties.class})
 public class Config {
+
+    /**
+     * Pool of connections to file storage. Calls above max connections wait for free connection in bounded queue,
+     * idle and expired connections are evicted in background. Pool metrics are published with
+     * reactor.netty.connection.provider prefix and name file-storage.
+     */
+    @Bean(destroyMethod = "dispose")
+    @Qualifier("integration-file-storage-api")
+    public ConnectionProvider getFileStorageConnectionProvider(FileStorageProperties properties) {
+        FileStorageProperties.Connections connections = properties.getConnections();
+        return ConnectionProvider.builder("file-storage")
+                .maxConnections(connections.getMaxConnections())
+                .pendingAcquireMaxCount(connections.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(connections.getPendingAcquireTimeout())
+                .maxIdleTime(connections.getMaxIdleTime())
+                .maxLifeTime(connections.getMaxLifeTime())
+                .evictInBackground(connections.getEvictionInterval())
+                .metrics(connections.isMetrics())
+                .build();
+    }
+
     @Bean
     @Qualifier("integration-file-storage-api")
-    public WebClient getFileStorageWebClient(WebClient.Builder webclientBuilder, FileStorageProperties properties) {
+    public WebClient getFileStorageWebClient(WebClient.Builder webclientBuilder, FileStorageProperties properties,
+                                             @Qualifier("integration-file-storage-api") ConnectionProvider connectionProvider) {
+        FileStorageProperties.Connections connections = properties.getConnections();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getResilience().getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResilience().getReadTimeout())
+                .keepAlive(connections.isKeepAlive())
+                .compress(connections.isCompression())
+                .protocol(connections.isHttp2()
+                        ? new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11});
         return webclientBuilder
                 .baseUrl(properties.getUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .exchangeStrategies(ExchangeStrategies.builder()
                         .codecs(configurer -> configurer
                                 .defaultCodecs()
@@ -0,0 +1,20 @@
+package tech.konso.toolsmanagement.system.commons.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Autocomplete indexes, see {@link tech.konso.toolsmanagement.system.commons.suggest.SuggestIndex}.
+ * <p>Indexes are updated by saves through services and are fully rebuilt from database on start
+ * and every system.suggest.rebuild-interval, which limits staleness of changes made past the services,
+ * e.g. tools archived together with category subtree.
+ */
+@Configuration
+@EnableScheduling
+public class SuggestConfig {
+
+    /**
+     * Property placeholder of interval between full rebuilds of indexes, in ISO-8601 format
+     */
+    public static final String REBUILD_INTERVAL = "${system.suggest.rebuild-interval:PT10M}";
+}
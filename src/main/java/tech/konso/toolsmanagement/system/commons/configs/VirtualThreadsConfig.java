@@ -0,0 +1,45 @@
+package tech.konso.toolsmanagement.system.commons.configs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual thread execution mode, enabled by system.threads.virtual.enabled property.
+ * <p>Every servlet request, async servlet processing (streaming responses) and async task runs on its own
+ * virtual thread, so requests blocked on file storage or database don't hold platform threads
+ * and don't starve other requests. Concurrency is limited by connection pools only.
+ * <p>Code, which runs on virtual threads, must not block inside synchronized blocks, as it pins
+ * carrier thread. Use {@link java.util.concurrent.locks.ReentrantLock} instead.
+ * Pinning can be checked with -Djdk.tracePinnedThreads=short.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "system.threads.virtual", name = "enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        log.info("Servlet requests run on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-virtual-", 0).factory()));
+    }
+
+    /**
+     * Replaces application task executor, which is used for async servlet processing and for @Async methods
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-virtual-", 0).factory()));
+    }
+}
@@ -2,10 +2,201 @@ package tech.konso.toolsmanagement.system.commons.configs.properties;
 
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
 
 @Data
 @ConfigurationProperties(prefix = "integration.file-storage-api")
 public class FileStorageProperties {
     private String url;
     private Integer webClientBufferMegabytes;
+    private Cache cache = new Cache();
+    private Upload upload = new Upload();
+    private Thumbnails thumbnails = new Thumbnails();
+    private Resilience resilience = new Resilience();
+    private Connections connections = new Connections();
+
+    /**
+     * Local disk cache of files from file storage. Files are immutable per uuid, so cached files are never stale
+     */
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        /**
+         * Directory for cached files, must not be shared with other instances
+         */
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "tools-management-api", "file-storage-cache");
+        /**
+         * Max total size of cached files, least recently used files are evicted above it
+         */
+        private DataSize maxSize = DataSize.ofGigabytes(1);
+    }
+
+    /**
+     * Asynchronous upload of files to file storage. Files are spooled to local disk and stored by background workers
+     */
+    @Data
+    public static class Upload {
+        /**
+         * Directory for spooled files, must not be shared with other instances
+         */
+        private Path spoolDirectory = Path.of(System.getProperty("java.io.tmpdir"), "tools-management-api", "file-storage-upload");
+        /**
+         * Id of instance, which spooled files are stored after restart. Uploads spooled by other instances are never
+         * resumed or failed by this one. By default, id is generated once and kept in spool directory
+         */
+        private String instanceId;
+        /**
+         * Number of background workers, which store spooled files
+         */
+        private int workers = 4;
+        /**
+         * Max number of spooled files, which are not stored yet, new uploads are rejected above it
+         */
+        private int maxPending = 100;
+        /**
+         * Max number of attempts to store file, upload fails after it
+         */
+        private int maxAttempts = 5;
+        /**
+         * Delay before the second attempt, doubled for every next attempt
+         */
+        private Duration retryDelay = Duration.ofSeconds(2);
+    }
+
+    /**
+     * Resized photos, which are generated once and served from local disk
+     */
+    @Data
+    public static class Thumbnails {
+        /**
+         * Directory for resized photos, must not be shared with other instances or with cache of files
+         */
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "tools-management-api", "file-storage-thumbnails");
+        /**
+         * Max total size of resized photos, least recently used photos are evicted above it
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(256);
+        /**
+         * Number of workers, which resize photos
+         */
+        private int workers = 2;
+        /**
+         * Max number of photos waiting for resize, new resizes are rejected above it
+         */
+        private int queueCapacity = 16;
+        /**
+         * Max number of photos, which are fetched in parallel for one archive of photos
+         */
+        private int fetchConcurrency = 8;
+    }
+
+    /**
+     * Timeouts, bulkhead and circuit breaker of calls to file storage, so slow file storage can't hold all request threads
+     */
+    @Data
+    public static class Resilience {
+        /**
+         * Timeout of connection to file storage
+         */
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        /**
+         * Timeout of file upload, including sending of file
+         */
+        private Duration uploadTimeout = Duration.ofSeconds(30);
+        /**
+         * Timeout of download until response headers are received
+         */
+        private Duration responseTimeout = Duration.ofSeconds(5);
+        /**
+         * Max time between chunks of downloaded file
+         */
+        private Duration readTimeout = Duration.ofSeconds(10);
+        /**
+         * Max number of concurrent calls to file storage, which wait for response
+         */
+        private int maxConcurrentCalls = 50;
+        /**
+         * Max time to wait for free call above max concurrent calls, call is rejected after it
+         */
+        private Duration maxWait = Duration.ZERO;
+        /**
+         * Percent of failed calls in sliding window, which opens circuit breaker
+         */
+        private int failureRateThreshold = 50;
+        /**
+         * Number of the last calls, which failure rate is calculated for
+         */
+        private int slidingWindowSize = 20;
+        /**
+         * Min number of calls in sliding window before failure rate is calculated
+         */
+        private int minimumCalls = 10;
+        /**
+         * Time, while opened circuit breaker rejects calls before trial calls are permitted
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+        /**
+         * Number of trial calls, which must succeed to close circuit breaker
+         */
+        private int halfOpenCalls = 3;
+        /**
+         * Send the second download request, if the first one has no response after hedge delay
+         */
+        private boolean hedgeEnabled = false;
+        /**
+         * Delay before the second download request, should be about 95th percentile of download latency
+         */
+        private Duration hedgeDelay = Duration.ofMillis(300);
+    }
+
+    /**
+     * Pool of connections to file storage, connections are reused between calls instead of opened for every call
+     */
+    @Data
+    public static class Connections {
+        /**
+         * Max number of opened connections to file storage
+         */
+        private int maxConnections = 100;
+        /**
+         * Max number of calls, which wait for free connection, calls are rejected above it
+         */
+        private int pendingAcquireMaxCount = 200;
+        /**
+         * Max time to wait for free connection
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+        /**
+         * Time, after which idle connection is closed, should be less than idle timeout of file storage
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        /**
+         * Time, after which connection is closed, when it is released to pool, so connections are rebalanced
+         * between instances of file storage
+         */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        /**
+         * Interval of background eviction of idle and expired connections
+         */
+        private Duration evictionInterval = Duration.ofSeconds(30);
+        /**
+         * Keep connection opened after response
+         */
+        private boolean keepAlive = true;
+        /**
+         * Request compressed responses, photos are already compressed, so it only makes sense for other files
+         */
+        private boolean compression = false;
+        /**
+         * Use HTTP/2 over cleartext, if file storage supports it, otherwise HTTP/1.1
+         */
+        private boolean http2 = false;
+        /**
+         * Publish metrics of connection pool
+         */
+        private boolean metrics = true;
+    }
 }
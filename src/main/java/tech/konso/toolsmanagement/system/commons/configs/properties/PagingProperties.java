@@ -0,0 +1,35 @@
+package tech.konso.toolsmanagement.system.commons.configs.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "system.paging")
+public class PagingProperties {
+    /**
+     * How long exact and estimated totals are cached per filter, zero disables caching
+     */
+    private Duration countCacheTtl = Duration.ZERO;
+    /**
+     * Max number of cached totals
+     */
+    private Long countCacheSize = 1000L;
+    /**
+     * Totals up to this number are counted exactly in estimate mode, greater totals are planner estimates of the filtered query
+     */
+    private Integer estimateThreshold = 10000;
+    /**
+     * How long facet counts are cached per filter, zero disables caching
+     */
+    private Duration facetCacheTtl = Duration.ZERO;
+    /**
+     * Max number of cached facet counts
+     */
+    private Long facetCacheSize = 1000L;
+    /**
+     * How long export of list may stream, other async requests keep default timeout
+     */
+    private Duration exportTimeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,20 @@
+package tech.konso.toolsmanagement.system.commons.configs.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "system.reference-cache")
+public class ReferenceCacheProperties {
+    /**
+     * How long names of reference entities (brands, categories, labels, roles) are cached.
+     * Saves through services evict entries immediately, ttl only limits staleness of changes made past the api
+     */
+    private Duration ttl = Duration.ofMinutes(30);
+    /**
+     * Max number of cached names per reference entity
+     */
+    private Long size = 10000L;
+}
@@ -0,0 +1,52 @@
+package tech.konso.toolsmanagement.system.commons.export;
+
+import org.springframework.http.MediaType;
+import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+
+/**
+ * Format of streamed exports.
+ * <ul>
+ *     <li>ndjson - one json object per line;</li>
+ *     <li>csv - header line and one comma separated line per item.</li>
+ * </ul>
+ */
+public enum ExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(new MediaType("text", "csv"));
+
+    private final MediaType mediaType;
+
+    ExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Parses format ignoring case.
+     *
+     * @param value format name
+     * @return parsed format
+     * @throws BPException if format is not supported
+     */
+    public static ExportFormat of(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new BPException.BadRequest("Unsupported export format: " + value);
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * File name for export attachment.
+     *
+     * @param name file name without extension
+     * @return file name with extension of format
+     */
+    public String fileName(String name) {
+        return name + "." + name().toLowerCase();
+    }
+}
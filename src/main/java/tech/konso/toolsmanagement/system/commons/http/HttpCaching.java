@@ -0,0 +1,104 @@
+package tech.konso.toolsmanagement.system.commons.http;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Validators and cache control for conditional GET requests.
+ * Validators are checked before the response body is loaded, so not modified response costs only a validator query.
+ * <p>
+ * Example:
+ * <pre>
+ *     String eTag = HttpCaching.eTag(photoUuid);
+ *     if (HttpCaching.isNotModified(requestHeaders, eTag, -1)) {
+ *         return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(HttpCaching.REVALIDATE).build();
+ *     }
+ * </pre>
+ */
+public final class HttpCaching {
+
+    /**
+     * For entities and content by entity id, which may change, client must revalidate cached response on every use
+     */
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY = "*";
+
+    private HttpCaching() {
+    }
+
+    /**
+     * Strong entity tag of immutable content.
+     *
+     * @param uuid content key
+     * @return quoted entity tag
+     */
+    public static String eTag(UUID uuid) {
+        return "\"" + uuid + "\"";
+    }
+
+    /**
+     * Strong entity tag of immutable content variant, e.g. photo in given size.
+     *
+     * @param uuid    content key
+     * @param variant content variant
+     * @return quoted entity tag
+     */
+    public static String eTag(UUID uuid, String variant) {
+        return "\"" + uuid + "-" + variant + "\"";
+    }
+
+    /**
+     * Strong entity tag of entity version.
+     *
+     * @param id        entity id
+     * @param updatedAt last update date of entity and its references
+     * @return quoted entity tag
+     */
+    public static String eTag(Long id, LocalDateTime updatedAt) {
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return "\"" + id + "-" + Long.toHexString(micros) + "\"";
+    }
+
+    /**
+     * Last modified date for Last-Modified header. Dates are stored in database in time zone of application.
+     *
+     * @param updatedAt last update date
+     * @return epoch millis
+     */
+    public static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Checks If-None-Match header against entity tag, or If-Modified-Since header against last modified date,
+     * if there is no If-None-Match header.
+     *
+     * @param requestHeaders headers of GET request
+     * @param eTag           current entity tag
+     * @param lastModified   current last modified epoch millis, or -1 if unknown
+     * @return true if client has current representation and not modified response can be returned
+     */
+    public static boolean isNotModified(HttpHeaders requestHeaders, String eTag, long lastModified) {
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            return ifNoneMatch.stream().anyMatch(tag -> ANY.equals(tag) || opaque(tag).equals(opaque(eTag)));
+        }
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        return lastModified >= 0 && ifModifiedSince >= 0 && lastModified / 1000 * 1000 <= ifModifiedSince;
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so weak prefix is ignored
+     */
+    private static String opaque(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
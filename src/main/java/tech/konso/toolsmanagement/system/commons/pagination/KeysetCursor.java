@@ -0,0 +1,103 @@
+package tech.konso.toolsmanagement.system.commons.pagination;
+
+import org.springframework.data.domain.Slice;
+import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+import tech.konso.toolsmanagement.system.commons.specification.AbstractSpecification.SortField;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset (seek) pagination.
+ * Encodes sort field, sort direction and (value, id) tuple of the last row of the page.
+ * Next page is selected by predicate on this tuple instead of offset, so every page costs the same as the first one.
+ * <p>
+ * Example:
+ * <pre>
+ *     String nextCursor = KeysetCursor.next(slice, "name,asc");
+ *     KeysetCursor cursor = KeysetCursor.decode(nextCursor, SortField.of("name,asc"));
+ * </pre>
+ *
+ * @param field sort field in lower case
+ * @param asc   sort direction
+ * @param id    id of the last row
+ * @param value sort field value of the last row
+ */
+public record KeysetCursor(String field, boolean asc, Long id, String value) {
+
+    private static final String SEPARATOR = "|";
+    private static final int PARTS = 4;
+
+    /**
+     * Encodes cursor to url safe opaque token.
+     *
+     * @return encoded cursor
+     */
+    public String encode() {
+        String raw = String.join(SEPARATOR, field, asc ? "asc" : "desc", String.valueOf(id), value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses sort value of the cursor as date time for createdat and updatedat fields.
+     *
+     * @return sort value as date time
+     * @throws BPException if value is not a date time
+     */
+    public LocalDateTime dateTimeValue() {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BPException.BadRequest("Invalid cursor value: " + value);
+        }
+    }
+
+    /**
+     * Decodes cursor from token and checks, that it was built for the requested sort.
+     *
+     * @param token     encoded cursor
+     * @param sortField requested sort
+     * @return decoded cursor
+     * @throws BPException if token is malformed or was built for another sort
+     */
+    public static KeysetCursor decode(String token, SortField sortField) {
+        KeysetCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, PARTS);
+            if (parts.length != PARTS) {
+                throw new IllegalArgumentException("Unexpected cursor format");
+            }
+            cursor = new KeysetCursor(parts[0], "asc".equals(parts[1]), Long.valueOf(parts[2]), parts[3]);
+        } catch (IllegalArgumentException e) {
+            throw new BPException.BadRequest("Invalid cursor: " + token);
+        }
+        if (!cursor.field().equals(sortField.field()) || cursor.asc() != sortField.asc()) {
+            throw new BPException.BadRequest("Cursor doesn't match sort: " + sortField.field() + (sortField.asc() ? ",asc" : ",desc"));
+        }
+        return cursor;
+    }
+
+    /**
+     * Builds cursor for the page following the slice.
+     *
+     * @param slice page of items sorted by sort filter
+     * @param sort  sort filter, same as for sort specifications
+     * @return encoded cursor or null, if there is no next page
+     */
+    public static String next(Slice<? extends KeysetItem> slice, String sort) {
+        if (!slice.hasNext() || !slice.hasContent()) {
+            return null;
+        }
+        KeysetItem last = slice.getContent().get(slice.getNumberOfElements() - 1);
+        SortField sortField = SortField.of(sort);
+        String value = switch (sortField.field()) {
+            case "name" -> last.name();
+            case "updatedat" -> last.updatedAt().toString();
+            default -> last.createdAt().toString();
+        };
+        return new KeysetCursor(sortField.field(), sortField.asc(), last.id(), value).encode();
+    }
+}
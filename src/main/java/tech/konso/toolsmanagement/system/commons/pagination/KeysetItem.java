@@ -0,0 +1,18 @@
+package tech.konso.toolsmanagement.system.commons.pagination;
+
+import java.time.LocalDateTime;
+
+/**
+ * Item of list, which can be paged by keyset cursor.
+ * Provides values of all fields supported by sort specifications.
+ */
+public interface KeysetItem {
+
+    Long id();
+
+    String name();
+
+    LocalDateTime createdAt();
+
+    LocalDateTime updatedAt();
+}
@@ -0,0 +1,29 @@
+package tech.konso.toolsmanagement.system.commons.pagination;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Selection of entity columns, which are read into plain objects instead of managed entities.
+ * Projected rows are not put into persistence context, so they aren't dirty checked and need no snapshots.
+ * <p>
+ * Example:
+ * <pre>
+ *     Projection&lt;Stock, StockFilterInfo> projection = (root, cb) -> cb.construct(StockFilterInfo.class,
+ *             root.get(Stock_.id), root.get(Stock_.name));
+ * </pre>
+ *
+ * @param <T> entity type
+ * @param <R> row type
+ */
+@FunctionalInterface
+public interface Projection<T, R> {
+
+    /**
+     * @param root root of entity query
+     * @param cb   criteria builder of query
+     * @return selection of row
+     */
+    Selection<R> select(Root<T> root, CriteriaBuilder cb);
+}
@@ -0,0 +1,49 @@
+package tech.konso.toolsmanagement.system.commons.pagination;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+
+/**
+ * How total number of items is calculated for list pages.
+ * <ul>
+ *     <li>exact - count query, result may be cached for a short time per filter;</li>
+ *     <li>estimate - exact count for small results, rows expected by postgres planner for the filtered query for large ones;</li>
+ *     <li>none - no count query, page only knows if there is a next page.</li>
+ * </ul>
+ */
+public enum TotalsMode {
+    EXACT, ESTIMATE, NONE;
+
+    /**
+     * Parses mode ignoring case.
+     *
+     * @param value mode name
+     * @return parsed mode
+     * @throws BPException if mode is not supported
+     */
+    public static TotalsMode of(String value) {
+        for (TotalsMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new BPException.BadRequest("Unsupported totals mode: " + value);
+    }
+
+    /**
+     * Total number of items of the page, null for slices loaded without totals.
+     *
+     * @param slice loaded page
+     * @return total number of items or null
+     */
+    public static Long totalItems(Slice<?> slice) {
+        return slice instanceof Page<?> page ? page.getTotalElements() : null;
+    }
+
+    @JsonValue
+    public String value() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,463 @@
+package tech.konso.toolsmanagement.system.commons.pagination;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tech.konso.toolsmanagement.system.commons.configs.CacheConfig;
+import tech.konso.toolsmanagement.system.commons.configs.properties.PagingProperties;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Paging engine for entities, which list queries fetch collections.
+ * <p>When a paged query fetches collection with join, database can't apply limit and offset to it,
+ * so hibernate loads the whole result set into memory and pages it there (HHH90003004).
+ * To avoid it, engine loads page in two phases:
+ * <ul>
+ *     <li>selects only ids of the requested page, applying specification, sort and limit in SQL;</li>
+ *     <li>hydrates entities of these ids with entity graph and restores the order of the first phase.</li>
+ * </ul>
+ * <p>Id is always added as the last sort order, so the pages are stable when sort values are equal.
+ * <p>If there are no attributes to fetch, entities are selected in one phase.
+ * <p>Slices are loaded without count query: engine selects one extra row to know if there is a next slice.
+ * Combined with keyset specification it gives pages, which cost doesn't depend on their depth.
+ * <p>List pages, which don't need managed entities, are selected with {@link Projection} in one phase:
+ * only projected columns are read and rows are not put into persistence context.
+ * <p>Totals of pages are calculated according to {@link TotalsMode}. Exact and estimated totals are cached
+ * for a short time by count key, which must identify the filters of specification.
+ * <p>Example:
+ * <pre>
+ *     Page&lt;Tool> tools = engine.findAll(Tool.class, spec, PageRequest.of(0, 20), "labels", "brand", "category");
+ * </pre>
+ */
+@Component
+public class TwoPhasePagingEngine {
+
+    private static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PagingProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Builds count key from filter values. Sort and cursor must not be included, they don't change totals.
+     * <p>
+     * Example:
+     * <pre>
+     *     String countKey = TwoPhasePagingEngine.countKey(isArchived, name);
+     * </pre>
+     *
+     * @param filters values of filters applied by specification
+     * @return count key
+     */
+    public static String countKey(Object... filters) {
+        return Arrays.deepToString(filters);
+    }
+
+    /**
+     * Finds page of entities by specification with totals calculated according to mode.
+     *
+     * @param clazz      entity class
+     * @param spec       specification for filtering and sorting, may be null
+     * @param pageable   requested page, must be paged
+     * @param totals     how totals are calculated
+     * @param countKey   key of cached totals, built by {@link #countKey(Object...)}, null disables caching
+     * @param fetchPaths attributes of entity to fetch with page content
+     * @return {@link Page} for exact and estimated totals, {@link Slice} without totals for none mode
+     */
+    @Transactional(readOnly = true)
+    public <T> Slice<T> findAll(Class<T> clazz, @Nullable Specification<T> spec, Pageable pageable,
+                                TotalsMode totals, @Nullable String countKey, String... fetchPaths) {
+        return switch (totals) {
+            case NONE -> findSlice(clazz, spec, pageable, fetchPaths);
+            case EXACT -> {
+                List<T> content = load(clazz, spec, pageable.getOffset(), pageable.getPageSize(), fetchPaths);
+                yield PageableExecutionUtils.getPage(content, pageable,
+                        () -> cached(totals, clazz, countKey, () -> count(clazz, spec)));
+            }
+            case ESTIMATE -> {
+                List<T> content = load(clazz, spec, pageable.getOffset(), pageable.getPageSize(), fetchPaths);
+                yield PageableExecutionUtils.getPage(content, pageable,
+                        () -> cached(totals, clazz, countKey, () -> estimate(clazz, spec)));
+            }
+        };
+    }
+
+    /**
+     * Finds page of entities by specification.
+     * Count query is skipped, when total can be calculated from the page content.
+     *
+     * @param clazz      entity class
+     * @param spec       specification for filtering and sorting, may be null
+     * @param pageable   requested page, unpaged for all entities
+     * @param fetchPaths attributes of entity to fetch with page content
+     * @return page of entities in the order of specification
+     */
+    @Transactional(readOnly = true)
+    public <T> Page<T> findAll(Class<T> clazz, @Nullable Specification<T> spec, Pageable pageable, String... fetchPaths) {
+        List<T> content = load(clazz, spec, offset(pageable), limit(pageable), fetchPaths);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(clazz, spec));
+    }
+
+    /**
+     * Finds slice of entities by specification without counting total number of entities.
+     *
+     * @param clazz      entity class
+     * @param spec       specification for filtering and sorting, may be null
+     * @param pageable   requested slice, must be paged
+     * @param fetchPaths attributes of entity to fetch with slice content
+     * @return slice of entities in the order of specification
+     */
+    @Transactional(readOnly = true)
+    public <T> Slice<T> findSlice(Class<T> clazz, @Nullable Specification<T> spec, Pageable pageable, String... fetchPaths) {
+        int size = pageable.getPageSize();
+        List<T> content = load(clazz, spec, pageable.getOffset(), size + 1, fetchPaths);
+        boolean hasNext = content.size() > size;
+        return new SliceImpl<>(hasNext ? content.subList(0, size) : content, pageable, hasNext);
+    }
+
+    /**
+     * Finds page of projected rows by specification with totals calculated according to mode.
+     *
+     * @param clazz      entity class
+     * @param spec       specification for filtering and sorting, may be null
+     * @param pageable   requested page, must be paged
+     * @param totals     how totals are calculated
+     * @param countKey   key of cached totals, built by {@link #countKey(Object...)}, null disables caching
+     * @param projection selection of row
+     * @return {@link Page} for exact and estimated totals, {@link Slice} without totals for none mode
+     */
+    @Transactional(readOnly = true)
+    public <T, R> Slice<R> findAll(Class<T> clazz, @Nullable Specification<T> spec, Pageable pageable,
+                                   TotalsMode totals, @Nullable String countKey, Projection<T, R> projection) {
+        return switch (totals) {
+            case NONE -> findSlice(clazz, spec, pageable, projection);
+            case EXACT -> {
+                List<R> content = select(clazz, spec, pageable.getOffset(), pageable.getPageSize(), projection);
+                yield PageableExecutionUtils.getPage(content, pageable,
+                        () -> cached(totals, clazz, countKey, () -> count(clazz, spec)));
+            }
+            case ESTIMATE -> {
+                List<R> content = select(clazz, spec, pageable.getOffset(), pageable.getPageSize(), projection);
+                yield PageableExecutionUtils.getPage(content, pageable,
+                        () -> cached(totals, clazz, countKey, () -> estimate(clazz, spec)));
+            }
+        };
+    }
+
+    /**
+     * Finds page of projected rows by specification.
+     * Count query is skipped, when total can be calculated from the page content.
+     *
+     * @param clazz      entity class
+     * @param spec       specification for filtering and sorting, may be null
+     * @param pageable   requested page, unpaged for all rows
+     * @param projection selection of row
+     * @return page of rows in the order of specification
+     */
+    @Transactional(readOnly = true)
+    public <T, R> Page<R> findAll(Class<T> clazz, @Nullable Specification<T> spec, Pageable pageable,
+                                  Projection<T, R> projection) {
+        List<R> content = select(clazz, spec, offset(pageable), limit(pageable), projection);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(clazz, spec));
+    }
+
+    /**
+     * Finds slice of projected rows by specification without counting total number of entities.
+     *
+     * @param clazz      entity class
+     * @param spec       specification for filtering and sorting, may be null
+     * @param pageable   requested slice, must be paged
+     * @param projection selection of row
+     * @return slice of rows in the order of specification
+     */
+    @Transactional(readOnly = true)
+    public <T, R> Slice<R> findSlice(Class<T> clazz, @Nullable Specification<T> spec, Pageable pageable,
+                                     Projection<T, R> projection) {
+        int size = pageable.getPageSize();
+        List<R> content = select(clazz, spec, pageable.getOffset(), size + 1, projection);
+        boolean hasNext = content.size() > size;
+        return new SliceImpl<>(hasNext ? content.subList(0, size) : content, pageable, hasNext);
+    }
+
+    /**
+     * Streams all entities matching specification in the order of specification.
+     * Rows are read by server side cursor with given fetch size, so only one fetch is held in memory by jdbc driver.
+     * Must be called inside transaction, stream must be closed after use. Entities stay in persistence context,
+     * so caller must clear it periodically to keep memory constant.
+     * <p>
+     * Example:
+     * <pre>
+     *     try (Stream&lt;Tool> tools = engine.stream(Tool.class, spec, 500)) {
+     *         tools.forEach(writer::write);
+     *     }
+     * </pre>
+     *
+     * @param clazz     entity class
+     * @param spec      specification for filtering and sorting, may be null
+     * @param fetchSize number of rows fetched from database by one round trip
+     * @return stream of entities
+     */
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public <T> Stream<T> stream(Class<T> clazz, @Nullable Specification<T> spec, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(clazz);
+        Root<T> root = query.from(clazz);
+        query.select(root);
+        applySpec(spec, root, query, cb);
+        query.orderBy(orders(clazz, root, query));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /**
+     * Streams projected rows of all entities matching specification in the order of specification.
+     * Rows are read by server side cursor with given fetch size and are not put into persistence context,
+     * so memory doesn't depend on number of rows. Must be called inside transaction, stream must be closed after use.
+     *
+     * @param clazz      entity class
+     * @param spec       specification for filtering and sorting, may be null
+     * @param fetchSize  number of rows fetched from database by one round trip
+     * @param projection selection of row
+     * @return stream of rows
+     */
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public <T, R> Stream<R> stream(Class<T> clazz, @Nullable Specification<T> spec, int fetchSize,
+                                   Projection<T, R> projection) {
+        return query(clazz, spec, projection)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    /**
+     * Counts entities matching specification. Orders of specification are ignored.
+     *
+     * @param clazz entity class
+     * @param spec  specification for filtering, may be null
+     * @return number of entities
+     */
+    @Transactional(readOnly = true)
+    public <T> long count(Class<T> clazz, @Nullable Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(clazz);
+        applySpec(spec, root, query, cb);
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        query.orderBy(Collections.emptyList());
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Offset of page, unpaged request has no offset and throws on {@link Pageable#getOffset()}
+     */
+    private static long offset(Pageable pageable) {
+        return pageable.isPaged() ? pageable.getOffset() : 0;
+    }
+
+    /**
+     * Limit of page, unpaged request selects all rows
+     */
+    @Nullable
+    private static Integer limit(Pageable pageable) {
+        return pageable.isPaged() ? pageable.getPageSize() : null;
+    }
+
+    private <T> List<T> load(Class<T> clazz, @Nullable Specification<T> spec, long offset, @Nullable Integer limit,
+                             String... fetchPaths) {
+        if (fetchPaths.length == 0) {
+            return select(clazz, spec, offset, limit, (root, cb) -> root);
+        }
+        List<Object> ids = select(clazz, spec, offset, limit, (root, cb) -> root.get(idName(clazz)));
+        return fetch(clazz, ids, fetchPaths);
+    }
+
+    /**
+     * Estimates number of entities matching specification.
+     * Counts up to {@link PagingProperties#getEstimateThreshold()} matching ids, which is cheap.
+     * When there are more, uses number of rows, which postgres planner expects for the filtered query, instead of full count.
+     *
+     * @param clazz entity class
+     * @param spec  specification for filtering, may be null
+     * @return estimated number of entities
+     */
+    @Transactional(readOnly = true)
+    public <T> long estimate(Class<T> clazz, @Nullable Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = cb.createQuery(Object.class);
+        Root<T> root = query.from(clazz);
+        query.select(root.get(idName(clazz)));
+        applySpec(spec, root, query, cb);
+        query.orderBy(Collections.emptyList());
+        int threshold = properties.getEstimateThreshold();
+        int counted = entityManager.createQuery(query).setMaxResults(threshold + 1).getResultList().size();
+        if (counted <= threshold) {
+            return counted;
+        }
+        long planRows = plan(clazz, spec, false, 0, null).path(0).path("Plan").path("Plan Rows").asLong();
+        return Math.max(counted, planRows);
+    }
+
+    /**
+     * Explains query of the first phase of page: ids selected by specification in its order with offset and limit.
+     * Statement generated by hibernate is explained with bound parameters in a separate session,
+     * which shares connection and transaction of the current one and prefixes its statements with {@code EXPLAIN (FORMAT JSON)}.
+     * Projected pages are selected by the same conditions, order and limit, so their plans don't differ in scans.
+     * <p>
+     * Example:
+     * <pre>
+     *     JsonNode plan = engine.explain(Tool.class, spec, 0, 21);
+     * </pre>
+     *
+     * @param clazz  entity class
+     * @param spec   specification for filtering and sorting, may be null
+     * @param offset offset of page
+     * @param limit  size of page, null for all entities
+     * @return plan in postgres json format
+     */
+    @Transactional(readOnly = true)
+    public <T> JsonNode explain(Class<T> clazz, @Nullable Specification<T> spec, long offset, @Nullable Integer limit) {
+        return plan(clazz, spec, true, offset, limit);
+    }
+
+    private <T> JsonNode plan(Class<T> clazz, @Nullable Specification<T> spec, boolean ordered, long offset,
+                              @Nullable Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = cb.createQuery(String.class);
+        Root<T> root = query.from(clazz);
+        // plan is returned as the only column of explained select
+        query.select(root.get(idName(clazz)).as(String.class));
+        applySpec(spec, root, query, cb);
+        query.orderBy(ordered ? orders(clazz, root, query) : Collections.emptyList());
+        String plan;
+        try (Session explaining = entityManager.unwrap(Session.class).sessionWithOptions()
+                .connection()
+                .statementInspector(sql -> "EXPLAIN (FORMAT JSON) " + sql)
+                .openSession()) {
+            TypedQuery<String> typedQuery = explaining.createQuery(query);
+            if (limit != null) {
+                typedQuery.setFirstResult((int) offset);
+                typedQuery.setMaxResults(limit);
+            }
+            plan = typedQuery.getSingleResult();
+        }
+        try {
+            return objectMapper.readTree(plan);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed query plan: " + plan, e);
+        }
+    }
+
+    private long cached(TotalsMode totals, Class<?> clazz, @Nullable String countKey, Supplier<Long> counter) {
+        Cache cache = cacheManager.getCache(CacheConfig.PAGING_COUNTS);
+        if (countKey == null || cache == null || properties.getCountCacheTtl().isZero()) {
+            return counter.get();
+        }
+        Long total = cache.get(totals.name() + ":" + clazz.getSimpleName() + ":" + countKey, counter::get);
+        return total == null ? 0 : total;
+    }
+
+    private <T, R> List<R> select(Class<T> clazz, @Nullable Specification<T> spec, long offset, @Nullable Integer limit,
+                                  Projection<T, ? extends R> projection) {
+        TypedQuery<R> query = query(clazz, spec, projection);
+        if (limit != null) {
+            query.setFirstResult((int) offset);
+            query.setMaxResults(limit);
+        }
+        return query.getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T, R> TypedQuery<R> query(Class<T> clazz, @Nullable Specification<T> spec, Projection<T, ? extends R> projection) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = cb.createQuery(Object.class);
+        Root<T> root = query.from(clazz);
+        query.select((Selection<Object>) projection.select(root, cb));
+        applySpec(spec, root, query, cb);
+        query.orderBy(orders(clazz, root, query));
+        return (TypedQuery<R>) entityManager.createQuery(query);
+    }
+
+    private <T> List<T> fetch(Class<T> clazz, List<Object> ids, String... fetchPaths) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(clazz);
+        Root<T> root = query.from(clazz);
+        query.select(root).where(root.get(idName(clazz)).in(ids));
+
+        EntityGraph<T> graph = entityManager.createEntityGraph(clazz);
+        graph.addAttributeNodes(fetchPaths);
+
+        PersistenceUnitUtil util = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        Map<Object, T> entities = entityManager.createQuery(query)
+                .setHint(FETCH_GRAPH_HINT, graph)
+                .getResultList()
+                .stream()
+                .collect(Collectors.toMap(util::getIdentifier, Function.identity(), (first, second) -> first));
+        return ids.stream()
+                .map(entities::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private <T> List<Order> orders(Class<T> clazz, Root<T> root, CriteriaQuery<?> query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        List<Order> orders = new ArrayList<>(query.getOrderList());
+        boolean asc = orders.isEmpty() || orders.get(orders.size() - 1).isAscending();
+        Path<Object> id = root.get(idName(clazz));
+        orders.add(asc ? cb.asc(id) : cb.desc(id));
+        return orders;
+    }
+
+    private <T> void applySpec(@Nullable Specification<T> spec, Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (spec == null) {
+            return;
+        }
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private <T> String idName(Class<T> clazz) {
+        EntityType<T> entityType = entityManager.getMetamodel().entity(clazz);
+        return entityType.getId(entityType.getIdType().getJavaType()).getName();
+    }
+}
@@ -1,11 +1,18 @@
 package tech.konso.toolsmanagement.system.commons.specification;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Set;
+
 public abstract class AbstractSpecification {
 
     public static final String FILTER_SEPARATOR = ",";
     public static final int LIKE_NAME_MIN_LENGTH = 3;
+    public static final Set<String> SORT_FIELDS = Set.of("name", "createdat", "updatedat");
+    public static final String DEFAULT_SORT_FIELD = "createdat";
 
     public static <T> SpecBuilder<T> specBuilder(Class<T> clazz) {
         return new SpecBuilder<>();
@@ -34,5 +41,55 @@ public abstract class AbstractSpecification {
             return specification;
         }
     }
-}
 
+    /**
+     * Predicate for keyset (seek) pagination. Selects rows, that follow the row with specified sort value and id
+     * in the order of (field, id), where field and id sorted in the same direction.
+     * <p>
+     * Example for desc order:
+     * <pre>
+     *     created_at &lt; :value OR (created_at = :value AND id &lt; :id)
+     * </pre>
+     *
+     * @param cb     criteria builder
+     * @param field  sorted field
+     * @param value  sort value of the last row of the previous page
+     * @param id     id path of the entity
+     * @param lastId id of the last row of the previous page
+     * @param asc    sort direction
+     * @return created predicate
+     */
+    public static <Y extends Comparable<? super Y>> Predicate seekPredicate(CriteriaBuilder cb, Expression<? extends Y> field, Y value,
+                                                                          Expression<Long> id, Long lastId, boolean asc) {
+        return asc
+                ? cb.or(cb.greaterThan(field, value), cb.and(cb.equal(field, value), cb.greaterThan(id, lastId)))
+                : cb.or(cb.lessThan(field, value), cb.and(cb.equal(field, value), cb.lessThan(id, lastId)));
+    }
+
+    /**
+     * Sort field and direction parsed from sort filter.
+     * Uses the same rules as sort specifications: fields are name, createdat, updatedat,
+     * order is separated by {@link AbstractSpecification#FILTER_SEPARATOR}, asc by default.
+     * Empty and unsupported filters are sorted by create date in desc order.
+     *
+     * @param field sort field in lower case
+     * @param asc   sort direction
+     */
+    public record SortField(String field, boolean asc) {
+
+        public static SortField of(String sort) {
+            if (sort == null) {
+                return new SortField(DEFAULT_SORT_FIELD, false);
+            }
+            String field = sort;
+            boolean asc = true;
+            if (sort.contains(FILTER_SEPARATOR)) {
+                String[] split = sort.split(FILTER_SEPARATOR);
+                field = split.length > 0 ? split[0] : "";
+                asc = split.length < 2 || !"desc".equalsIgnoreCase(split[1]);
+            }
+            field = field.toLowerCase();
+            return SORT_FIELDS.contains(field) ? new SortField(field, asc) : new SortField(DEFAULT_SORT_FIELD, false);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package tech.konso.toolsmanagement.system.commons.suggest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index of entity texts for autocomplete, e.g. names of tools.
+ * <p>Entries are kept in parallel arrays sorted by lower case text, so suggestions for prefix are found
+ * by binary search and read sequentially without allocating anything but the result.
+ * Arrays are immutable: every update copies them under lock and publishes new snapshot,
+ * readers never wait for writers. Updates are cheap enough for saves of single entities,
+ * the whole index is built at once from database by {@link #rebuild(Supplier)}.
+ * <p>Entity may have several entries, e.g. tool name and inventory number. Entries are replaced and removed by entity id.
+ * <p>Number of entries and estimated memory of index are published as gauges suggest.index.entries,
+ * suggest.index.size and suggest.index.entry.size tagged by index name, search time as timer suggest.index.search.
+ * <p>
+ * Example:
+ * <pre>
+ *     SuggestIndex index = new SuggestIndex("tools", meterRegistry);
+ *     index.put(7L, List.of("Makita MTK24", "0014-HANDTOOL"));
+ *     List&lt;Suggestion> suggestions = index.suggest("mak", 10);
+ * </pre>
+ */
+public class SuggestIndex {
+
+    /**
+     * Text of entity to be suggested.
+     *
+     * @param id   entity id
+     * @param text suggested text, blank texts are not indexed
+     */
+    public record Entry(long id, String text) {
+    }
+
+    /**
+     * Estimated size of array slots of entry: key and text references with compressed oops and id
+     */
+    private static final long ENTRY_SLOTS_BYTES = 4 + 4 + 8;
+
+    /**
+     * Estimated size of string without content: string object and header of its byte array
+     */
+    private static final long STRING_OVERHEAD_BYTES = 24 + 16;
+
+    /**
+     * Entry with its lower case key, entries of index are ordered by key and id
+     */
+    private record Keyed(String key, String text, long id) {
+        static final Comparator<Keyed> ORDER = Comparator.comparing(Keyed::key).thenComparingLong(Keyed::id);
+
+        static Keyed of(long id, String text) {
+            return new Keyed(key(text), text, id);
+        }
+    }
+
+    private record Snapshot(String[] keys, String[] texts, long[] ids, long bytes) {
+        static final Snapshot EMPTY = new Snapshot(new String[0], new String[0], new long[0], 0);
+
+        int size() {
+            return ids.length;
+        }
+    }
+
+    /**
+     * Replacement of entries of entities, ids are sorted and distinct
+     */
+    private record Update(long[] ids, Keyed[] added) {
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    /**
+     * Updates made while index is rebuilt, they are applied to the rebuilt index
+     */
+    private List<Update> pending;
+
+    private final Timer searches;
+
+    /**
+     * @param name          name of index, metrics of index are tagged by it
+     * @param meterRegistry registry for metrics of index
+     */
+    public SuggestIndex(String name, MeterRegistry meterRegistry) {
+        this.searches = Timer.builder("suggest.index.search").tag("index", name).register(meterRegistry);
+        Gauge.builder("suggest.index.entries", this, SuggestIndex::size).tag("index", name).register(meterRegistry);
+        Gauge.builder("suggest.index.size", this, SuggestIndex::estimatedBytes).tag("index", name).baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("suggest.index.entry.size", this, SuggestIndex::estimatedBytesPerEntry).tag("index", name).baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Finds entries, which text starts with prefix ignoring case, in order of text.
+     *
+     * @param prefix beginning of text
+     * @param limit  max number of suggestions
+     * @return found suggestions, empty for blank prefix
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        return searches.record(() -> {
+            Snapshot current = snapshot;
+            String key = key(prefix);
+            List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, 16));
+            for (int i = lowerBound(current.keys(), key); i < current.size() && suggestions.size() < limit; i++) {
+                if (!current.keys()[i].startsWith(key)) {
+                    break;
+                }
+                suggestions.add(new Suggestion(current.ids()[i], current.texts()[i]));
+            }
+            return suggestions;
+        });
+    }
+
+    /**
+     * Replaces entries of entity with texts, null and blank texts are skipped.
+     *
+     * @param id    entity id
+     * @param texts new texts of entity
+     */
+    public void put(long id, Collection<String> texts) {
+        putAll(Map.of(id, texts));
+    }
+
+    /**
+     * Replaces entries of entities with texts by one copy of index, null and blank texts are skipped.
+     *
+     * @param texts new texts by entity id
+     */
+    public void putAll(Map<Long, ? extends Collection<String>> texts) {
+        if (texts.isEmpty()) {
+            return;
+        }
+        Update update = new Update(
+                texts.keySet().stream().mapToLong(Long::longValue).sorted().toArray(),
+                texts.entrySet().stream()
+                        .flatMap(entry -> entry.getValue().stream()
+                                .filter(text -> text != null && !text.isBlank())
+                                .map(text -> Keyed.of(entry.getKey(), text)))
+                        .sorted(Keyed.ORDER)
+                        .toArray(Keyed[]::new));
+        lock.lock();
+        try {
+            snapshot = apply(snapshot, update);
+            if (pending != null) {
+                pending.add(update);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes entries of entity.
+     *
+     * @param id entity id
+     */
+    public void remove(long id) {
+        put(id, List.of());
+    }
+
+    /**
+     * Replaces entries of entity with texts after commit of current transaction,
+     * so rolled back changes are not indexed. Without transaction replaces entries immediately.
+     *
+     * @param id    entity id
+     * @param texts new texts of entity
+     */
+    public void putAfterCommit(long id, Collection<String> texts) {
+        afterCommit(() -> put(id, texts));
+    }
+
+    /**
+     * Replaces entries of entities with texts after commit of current transaction.
+     * Without transaction replaces entries immediately.
+     *
+     * @param texts new texts by entity id
+     */
+    public void putAllAfterCommit(Map<Long, ? extends Collection<String>> texts) {
+        afterCommit(() -> putAll(texts));
+    }
+
+    /**
+     * Removes entries of entity after commit of current transaction.
+     * Without transaction removes entries immediately.
+     *
+     * @param id entity id
+     */
+    public void removeAfterCommit(long id) {
+        afterCommit(() -> remove(id));
+    }
+
+    /**
+     * Replaces all entries of index with loaded entries. Entries are loaded and sorted without lock,
+     * updates made meanwhile are applied to the new index before it is published.
+     *
+     * @param loader opens stream of all entries, stream is closed after loading
+     */
+    public void rebuild(Supplier<Stream<Entry>> loader) {
+        rebuildLock.lock();
+        try {
+            lock.lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+            Snapshot rebuilt = null;
+            try (Stream<Entry> entries = loader.get()) {
+                rebuilt = snapshot(entries.filter(entry -> entry.text() != null && !entry.text().isBlank())
+                        .map(entry -> Keyed.of(entry.id(), entry.text()))
+                        .sorted(Keyed.ORDER)
+                        .toArray(Keyed[]::new));
+            } finally {
+                lock.lock();
+                try {
+                    if (rebuilt != null) {
+                        for (Update update : pending) {
+                            rebuilt = apply(rebuilt, update);
+                        }
+                        snapshot = rebuilt;
+                    }
+                    pending = null;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * @return number of entries in index
+     */
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * @return estimated memory of entries in bytes: array slots, texts and lower case keys, which differ from texts
+     */
+    public long estimatedBytes() {
+        return snapshot.bytes();
+    }
+
+    /**
+     * @return estimated memory per entry in bytes, 0 for empty index
+     */
+    public double estimatedBytesPerEntry() {
+        Snapshot current = snapshot;
+        return current.size() == 0 ? 0 : (double) current.bytes() / current.size();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Copies snapshot without entries of updated entities and merges new entries into it in order.
+     */
+    private static Snapshot apply(Snapshot current, Update update) {
+        Keyed[] added = update.added();
+        int size = current.size();
+        boolean[] removed = new boolean[size];
+        int removedCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (Arrays.binarySearch(update.ids(), current.ids()[i]) >= 0) {
+                removed[i] = true;
+                removedCount++;
+            }
+        }
+        if (removedCount == 0 && added.length == 0) {
+            return current;
+        }
+        int newSize = size - removedCount + added.length;
+        String[] keys = new String[newSize];
+        String[] texts = new String[newSize];
+        long[] ids = new long[newSize];
+        long bytes = current.bytes();
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < size || j < added.length) {
+            if (i < size && removed[i]) {
+                bytes -= entryBytes(current.keys()[i], current.texts()[i]);
+                i++;
+                continue;
+            }
+            if (j < added.length && (i == size || compare(added[j].key(), added[j].id(), current.keys()[i], current.ids()[i]) < 0)) {
+                keys[k] = added[j].key();
+                texts[k] = added[j].text();
+                ids[k] = added[j].id();
+                bytes += entryBytes(keys[k], texts[k]);
+                j++;
+            } else {
+                keys[k] = current.keys()[i];
+                texts[k] = current.texts()[i];
+                ids[k] = current.ids()[i];
+                i++;
+            }
+            k++;
+        }
+        return new Snapshot(keys, texts, ids, bytes);
+    }
+
+    private static Snapshot snapshot(Keyed[] sorted) {
+        String[] keys = new String[sorted.length];
+        String[] texts = new String[sorted.length];
+        long[] ids = new long[sorted.length];
+        long bytes = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = sorted[i].key();
+            texts[i] = sorted[i].text();
+            ids[i] = sorted[i].id();
+            bytes += entryBytes(keys[i], texts[i]);
+        }
+        return new Snapshot(keys, texts, ids, bytes);
+    }
+
+    private static int compare(String key, long id, String otherKey, long otherId) {
+        int result = key.compareTo(otherKey);
+        return result != 0 ? result : Long.compare(id, otherId);
+    }
+
+    /**
+     * @return index of the first key, which is greater or equal to prefix
+     */
+    private static int lowerBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Lower case key of text. Text itself is used as key, when it is already in lower case, so it is stored once.
+     */
+    private static String key(String text) {
+        String key = text.strip().toLowerCase(Locale.ROOT);
+        return key.equals(text) ? text : key;
+    }
+
+    private static long entryBytes(String key, String text) {
+        long bytes = ENTRY_SLOTS_BYTES + stringBytes(text);
+        return key == text ? bytes : bytes + stringBytes(key);
+    }
+
+    /**
+     * Estimated size of string, one byte per char for latin texts and two bytes for others, aligned by 8 bytes
+     */
+    private static long stringBytes(String text) {
+        boolean latin = text.chars().allMatch(ch -> ch < 256);
+        long content = latin ? text.length() : 2L * text.length();
+        return STRING_OVERHEAD_BYTES + ((content + 7) & ~7);
+    }
+}
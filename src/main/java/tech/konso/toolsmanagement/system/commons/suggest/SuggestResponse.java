@@ -0,0 +1,15 @@
+package tech.konso.toolsmanagement.system.commons.suggest;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO class for response to return suggestions for autocomplete.
+ *
+ * @param suggestions suggested texts in alphabetical order. List size limited by requested size
+ */
+@Schema(description = "Response for return suggestions for autocomplete")
+public record SuggestResponse(@Schema(description = "suggested texts in alphabetical order, list size limited by requested size")
+                              List<Suggestion> suggestions) {
+}
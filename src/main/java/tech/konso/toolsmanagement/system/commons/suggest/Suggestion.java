@@ -0,0 +1,16 @@
+package tech.konso.toolsmanagement.system.commons.suggest;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Text suggested by {@link SuggestIndex} for autocomplete.
+ *
+ * @param id   id of entity, which text is suggested
+ * @param text suggested text
+ */
+@Schema(description = "Text suggested for autocomplete")
+public record Suggestion(@Schema(description = "id of entity, which text is suggested", example = "7")
+                         Long id,
+                         @Schema(description = "suggested text", example = "Makita MTK24")
+                         String text) {
+}
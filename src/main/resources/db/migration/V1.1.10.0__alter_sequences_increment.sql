@@ -0,0 +1,17 @@
+ALTER SEQUENCE tools_brand_brand_id_seq INCREMENT BY 50;
+ALTER SEQUENCE tools_category_category_id_seq INCREMENT BY 50;
+ALTER SEQUENCE tools_label_label_id_seq INCREMENT BY 50;
+ALTER SEQUENCE tools_comment_comment_id_seq INCREMENT BY 50;
+ALTER SEQUENCE persons_label_label_id_seq INCREMENT BY 50;
+ALTER SEQUENCE persons_role_role_id_seq INCREMENT BY 50;
+ALTER SEQUENCE persons_person_person_id_seq INCREMENT BY 50;
+ALTER SEQUENCE stocks_stock_stock_id_seq INCREMENT BY 50;
+
+COMMENT ON SEQUENCE tools_brand_brand_id_seq IS 'Brand ids, every value reserves a pool of 50 ids for batch inserts';
+COMMENT ON SEQUENCE tools_category_category_id_seq IS 'Category ids, every value reserves a pool of 50 ids for batch inserts';
+COMMENT ON SEQUENCE tools_label_label_id_seq IS 'Tool label ids, every value reserves a pool of 50 ids for batch inserts';
+COMMENT ON SEQUENCE tools_comment_comment_id_seq IS 'Comment ids, every value reserves a pool of 50 ids for batch inserts';
+COMMENT ON SEQUENCE persons_label_label_id_seq IS 'Person label ids, every value reserves a pool of 50 ids for batch inserts';
+COMMENT ON SEQUENCE persons_role_role_id_seq IS 'Role ids, every value reserves a pool of 50 ids for batch inserts';
+COMMENT ON SEQUENCE persons_person_person_id_seq IS 'Person ids, every value reserves a pool of 50 ids for batch inserts';
+COMMENT ON SEQUENCE stocks_stock_stock_id_seq IS 'Stock ids, every value reserves a pool of 50 ids for batch inserts';
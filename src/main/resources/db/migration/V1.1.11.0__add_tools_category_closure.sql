@@ -0,0 +1,67 @@
+CREATE TABLE tools_category_closure (
+    ancestor_id     BIGINT      NOT NULL,
+    descendant_id   BIGINT      NOT NULL,
+    depth           INTEGER     NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    FOREIGN KEY (ancestor_id) REFERENCES tools_category (category_id) ON DELETE CASCADE,
+    FOREIGN KEY (descendant_id) REFERENCES tools_category (category_id) ON DELETE CASCADE
+);
+
+CREATE INDEX tools_category_closure_descendant_id_idx ON tools_category_closure (descendant_id, ancestor_id);
+
+COMMENT ON TABLE  tools_category_closure                IS 'Module Tool - Closure of category tree, every category is linked with itself and with all its ancestors';
+COMMENT ON COLUMN tools_category_closure.ancestor_id    IS 'Foreign key - Ancestor category id';
+COMMENT ON COLUMN tools_category_closure.descendant_id  IS 'Foreign key - Descendant category id';
+COMMENT ON COLUMN tools_category_closure.depth          IS 'Distance from ancestor to descendant, 0 for link of category with itself';
+
+WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+    SELECT category_id, category_id, 0 FROM tools_category
+    UNION ALL
+    SELECT p.ancestor_id, c.category_id, p.depth + 1
+    FROM paths p
+    JOIN tools_category c ON c.parent_category_id = p.descendant_id
+)
+INSERT INTO tools_category_closure (ancestor_id, descendant_id, depth)
+SELECT ancestor_id, descendant_id, depth FROM paths;
+
+CREATE FUNCTION tools_category_closure_insert() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO tools_category_closure (ancestor_id, descendant_id, depth)
+    SELECT ancestor_id, NEW.category_id, depth + 1
+    FROM tools_category_closure
+    WHERE descendant_id = NEW.parent_category_id
+    UNION ALL
+    SELECT NEW.category_id, NEW.category_id, 0;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION tools_category_closure_move() RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM tools_category_closure link
+    USING tools_category_closure subtree, tools_category_closure ancestors
+    WHERE subtree.ancestor_id = NEW.category_id
+      AND ancestors.descendant_id = NEW.category_id
+      AND ancestors.depth > 0
+      AND link.ancestor_id = ancestors.ancestor_id
+      AND link.descendant_id = subtree.descendant_id;
+
+    INSERT INTO tools_category_closure (ancestor_id, descendant_id, depth)
+    SELECT ancestors.ancestor_id, subtree.descendant_id, ancestors.depth + subtree.depth + 1
+    FROM tools_category_closure ancestors
+    CROSS JOIN tools_category_closure subtree
+    WHERE ancestors.descendant_id = NEW.parent_category_id
+      AND subtree.ancestor_id = NEW.category_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER tools_category_closure_insert_trg
+    AFTER INSERT ON tools_category
+    FOR EACH ROW EXECUTE FUNCTION tools_category_closure_insert();
+
+CREATE TRIGGER tools_category_closure_move_trg
+    AFTER UPDATE OF parent_category_id ON tools_category
+    FOR EACH ROW
+    WHEN (OLD.parent_category_id IS DISTINCT FROM NEW.parent_category_id)
+    EXECUTE FUNCTION tools_category_closure_move();
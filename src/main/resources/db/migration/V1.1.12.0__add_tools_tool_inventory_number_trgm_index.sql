@@ -0,0 +1 @@
+CREATE INDEX tools_tool_inventory_number_gist_trgm_idx ON tools_tool USING gist (inventory_number gist_trgm_ops);
@@ -0,0 +1,6 @@
+ALTER TABLE tools_comment ADD COLUMN content_tsv TSVECTOR GENERATED ALWAYS AS (to_tsvector('russian', content)) STORED;
+
+CREATE INDEX tools_comment_content_tsv_idx ON tools_comment USING gin (content_tsv);
+CREATE INDEX tools_comment_tool_id_created_at_idx ON tools_comment (tool_id, created_at, comment_id);
+
+COMMENT ON COLUMN tools_comment.content_tsv   IS 'Full text search vector of content, russian configuration also stems english words';
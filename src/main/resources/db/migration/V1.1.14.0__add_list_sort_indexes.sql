@@ -0,0 +1,38 @@
+CREATE INDEX tools_tool_created_at_idx ON tools_tool (created_at DESC, tool_id DESC) WHERE is_archived = FALSE;
+CREATE INDEX tools_tool_updated_at_idx ON tools_tool (updated_at DESC, tool_id DESC) WHERE is_archived = FALSE;
+CREATE INDEX tools_tool_name_idx ON tools_tool (name, tool_id) WHERE is_archived = FALSE;
+CREATE INDEX tools_tool_brand_id_idx ON tools_tool (brand_id);
+CREATE INDEX tools_tool_category_id_idx ON tools_tool (category_id);
+CREATE INDEX tools_tool_label_label_id_idx ON tools_tool_label (label_id, tool_id);
+
+CREATE INDEX tools_brand_created_at_idx ON tools_brand (created_at DESC, brand_id DESC) WHERE is_archived = FALSE;
+CREATE INDEX tools_brand_updated_at_idx ON tools_brand (updated_at DESC, brand_id DESC) WHERE is_archived = FALSE;
+CREATE INDEX tools_brand_name_idx ON tools_brand (name, brand_id) WHERE is_archived = FALSE;
+
+CREATE INDEX tools_label_created_at_idx ON tools_label (created_at DESC, label_id DESC) WHERE is_archived = FALSE;
+CREATE INDEX tools_label_updated_at_idx ON tools_label (updated_at DESC, label_id DESC) WHERE is_archived = FALSE;
+CREATE INDEX tools_label_name_idx ON tools_label (name, label_id) WHERE is_archived = FALSE;
+
+CREATE INDEX tools_category_created_at_idx ON tools_category (created_at DESC, category_id DESC) WHERE is_archived = FALSE AND parent_category_id IS NULL;
+CREATE INDEX tools_category_updated_at_idx ON tools_category (updated_at DESC, category_id DESC) WHERE is_archived = FALSE AND parent_category_id IS NULL;
+CREATE INDEX tools_category_name_idx ON tools_category (name, category_id) WHERE is_archived = FALSE AND parent_category_id IS NULL;
+
+CREATE INDEX tools_comment_tool_id_updated_at_idx ON tools_comment (tool_id, updated_at, comment_id);
+
+CREATE INDEX persons_person_created_at_idx ON persons_person (created_at DESC, person_id DESC) WHERE is_archived = FALSE;
+CREATE INDEX persons_person_updated_at_idx ON persons_person (updated_at DESC, person_id DESC) WHERE is_archived = FALSE;
+CREATE INDEX persons_person_name_idx ON persons_person (name, person_id) WHERE is_archived = FALSE;
+CREATE INDEX persons_person_label_label_id_idx ON persons_person_label (label_id, person_id);
+CREATE INDEX persons_person_role_role_id_idx ON persons_person_role (role_id, person_id);
+
+CREATE INDEX persons_label_created_at_idx ON persons_label (created_at DESC, label_id DESC) WHERE is_archived = FALSE;
+CREATE INDEX persons_label_updated_at_idx ON persons_label (updated_at DESC, label_id DESC) WHERE is_archived = FALSE;
+CREATE INDEX persons_label_name_idx ON persons_label (name, label_id) WHERE is_archived = FALSE;
+
+CREATE INDEX persons_role_created_at_idx ON persons_role (created_at DESC, role_id DESC) WHERE is_archived = FALSE;
+CREATE INDEX persons_role_updated_at_idx ON persons_role (updated_at DESC, role_id DESC) WHERE is_archived = FALSE;
+CREATE INDEX persons_role_name_idx ON persons_role (name, role_id) WHERE is_archived = FALSE;
+
+CREATE INDEX stocks_stock_created_at_idx ON stocks_stock (created_at DESC, stock_id DESC) WHERE is_archived = FALSE;
+CREATE INDEX stocks_stock_updated_at_idx ON stocks_stock (updated_at DESC, stock_id DESC) WHERE is_archived = FALSE;
+CREATE INDEX stocks_stock_name_idx ON stocks_stock (name, stock_id) WHERE is_archived = FALSE;
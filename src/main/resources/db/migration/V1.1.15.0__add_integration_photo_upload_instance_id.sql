@@ -0,0 +1,6 @@
+ALTER TABLE integration_photo_upload ADD COLUMN instance_id VARCHAR DEFAULT NULL;
+
+DROP INDEX integration_photo_upload_pending_idx;
+CREATE INDEX integration_photo_upload_pending_idx ON integration_photo_upload (instance_id, created_at) WHERE status = 'PENDING';
+
+COMMENT ON COLUMN integration_photo_upload.instance_id  IS 'Id of instance, which spooled photo on its local disk, only this instance resumes upload';
@@ -0,0 +1,7 @@
+ALTER TABLE tools_label ADD COLUMN uuid UUID NOT NULL UNIQUE DEFAULT gen_random_uuid();
+ALTER TABLE persons_label ADD COLUMN uuid UUID NOT NULL UNIQUE DEFAULT gen_random_uuid();
+ALTER TABLE persons_role ADD COLUMN uuid UUID NOT NULL UNIQUE DEFAULT gen_random_uuid();
+
+COMMENT ON COLUMN tools_label.uuid   IS 'Business key';
+COMMENT ON COLUMN persons_label.uuid IS 'Business key';
+COMMENT ON COLUMN persons_role.uuid  IS 'Business key';
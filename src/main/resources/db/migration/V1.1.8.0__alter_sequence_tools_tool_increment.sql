@@ -0,0 +1,3 @@
+ALTER SEQUENCE tools_tool_tool_id_seq INCREMENT BY 50;
+
+COMMENT ON SEQUENCE tools_tool_tool_id_seq IS 'Tool ids, every value reserves a pool of 50 ids for batch inserts';
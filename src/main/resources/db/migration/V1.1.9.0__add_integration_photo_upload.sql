@@ -0,0 +1,33 @@
+CREATE TABLE integration_photo_upload (
+    upload_id   UUID       PRIMARY KEY,
+    file_type   VARCHAR    NOT NULL,
+    file_name   VARCHAR    DEFAULT NULL,
+    status      VARCHAR    NOT NULL,
+    file_uuid   UUID       DEFAULT NULL UNIQUE,
+    attempts    INTEGER    NOT NULL DEFAULT 0,
+    error       VARCHAR    DEFAULT NULL,
+    created_at  TIMESTAMP  NOT NULL DEFAULT NOW(),
+    updated_at  TIMESTAMP  NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX integration_photo_upload_pending_idx ON integration_photo_upload (created_at) WHERE status = 'PENDING';
+
+COMMENT ON TABLE  integration_photo_upload              IS 'Module Integration - Photo upload to file storage';
+COMMENT ON COLUMN integration_photo_upload.upload_id    IS 'Primary key, returned to client before photo is stored';
+COMMENT ON COLUMN integration_photo_upload.file_type    IS 'File type for choosing bucket in file storage';
+COMMENT ON COLUMN integration_photo_upload.file_name    IS 'Original file name';
+COMMENT ON COLUMN integration_photo_upload.status       IS 'Upload status: PENDING, STORED or FAILED';
+COMMENT ON COLUMN integration_photo_upload.file_uuid    IS 'Photo uuid in file storage, set when photo is stored';
+COMMENT ON COLUMN integration_photo_upload.attempts     IS 'Number of attempts to store photo';
+COMMENT ON COLUMN integration_photo_upload.error        IS 'Error of the last failed attempt';
+COMMENT ON COLUMN integration_photo_upload.created_at   IS 'Creation record date';
+COMMENT ON COLUMN integration_photo_upload.updated_at   IS 'Update record date';
+
+-- photos uploaded before upload tracking are already stored
+INSERT INTO integration_photo_upload (upload_id, file_type, status, file_uuid, attempts)
+SELECT gen_random_uuid(), 'PHOTO_TOOL', 'STORED', photo_uuid, 1 FROM tools_tool WHERE photo_uuid IS NOT NULL
+ON CONFLICT (file_uuid) DO NOTHING;
+
+INSERT INTO integration_photo_upload (upload_id, file_type, status, file_uuid, attempts)
+SELECT gen_random_uuid(), 'PHOTO_PERSON', 'STORED', photo_uuid, 1 FROM persons_person WHERE photo_uuid IS NOT NULL
+ON CONFLICT (file_uuid) DO NOTHING;
@@ -0,0 +1,111 @@
+package tech.konso.toolsmanagement;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tech.konso.toolsmanagement.system.commons.pagination.KeysetCursor;
+import tech.konso.toolsmanagement.system.commons.pagination.KeysetItem;
+import tech.konso.toolsmanagement.system.commons.pagination.TwoPhasePagingEngine;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Base of query plan tests of list queries sent by controllers, one test class per module.
+ * Tests seed tables with thousands of rows, 10% of them archived, and analyze them,
+ * then explain every query shape of the list: filters of specifications, sort fields and keyset cursor,
+ * and check that plan doesn't contain sequential scan.
+ * Lists are built by the same specifications as controllers build, cursors are taken from real first pages.
+ * Statements are generated by {@link TwoPhasePagingEngine#explain(Class, Specification, long, Integer)}
+ * and explained with bound parameters, only the first phase of paging is checked,
+ * because the second phase loads entities by primary key. Dictionaries, which are loaded by repositories,
+ * are explained by the engine too: their query differs only by id as the last sort order.
+ * Counts of totals are not checked: counting most of the table reads the whole table anyway.
+ */
+@SpringBootTest
+@ExtendWith(PostgreSQLContainerExtension.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public abstract class AbstractListQueryPlanTest {
+
+    protected static final int PAGE_SIZE = 20;
+
+    private static final List<String> SORTS = List.of("createdat,desc", "createdat,asc", "updatedat,desc", "name,asc", "name,desc");
+
+    private static final List<String> SEEDED_TABLES = List.of("tools_brand", "tools_category", "tools_label",
+            "tools_tool", "tools_tool_label", "tools_comment", "persons_label", "persons_role", "persons_person", "stocks_stock");
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TwoPhasePagingEngine engine;
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM tools_comment");
+        jdbcTemplate.update("DELETE FROM tools_tool_label");
+        jdbcTemplate.update("DELETE FROM tools_tool");
+        jdbcTemplate.update("DELETE FROM tools_label");
+        jdbcTemplate.update("DELETE FROM tools_category");
+        jdbcTemplate.update("DELETE FROM tools_brand");
+        jdbcTemplate.update("DELETE FROM persons_person");
+        jdbcTemplate.update("DELETE FROM persons_label");
+        jdbcTemplate.update("DELETE FROM persons_role");
+        jdbcTemplate.update("DELETE FROM stocks_stock");
+        // statistics of empty tables are restored for estimated totals of other tests
+        analyze();
+    }
+
+    protected void analyze() {
+        SEEDED_TABLES.forEach(table -> jdbcTemplate.execute("ANALYZE " + table));
+    }
+
+    /**
+     * Inserts named rows into dictionary table, every tenth row is archived, create and update dates are different.
+     */
+    protected void seedNamed(String table, String prefix, int rows) {
+        jdbcTemplate.update("INSERT INTO " + table + " (name, is_archived, created_at, updated_at) " +
+                "SELECT '" + prefix + "' || i, i % 10 = 0, now() - i * interval '1 minute', now() - (i % 97) * interval '1 minute' " +
+                "FROM generate_series(1, " + rows + ") i");
+    }
+
+    /**
+     * Checks that plan of the first phase of the first page doesn't contain sequential scan, plan is printed on failure.
+     * Page is selected with limit of slice, which is one more than page size.
+     */
+    protected <T> void assertNoSeqScan(Class<T> clazz, Specification<T> spec, String list) {
+        JsonNode plan = engine.explain(clazz, spec, 0, PAGE_SIZE + 1);
+        assertFalse(plan.findValuesAsText("Node Type").contains("Seq Scan"),
+                () -> "Sequential scan in plan of " + clazz.getSimpleName() + " list " + list + "\n" + plan.toPrettyString());
+    }
+
+    /**
+     * Checks list with every sort field.
+     */
+    protected <T> void assertSortsNotScanned(Class<T> clazz, Function<String, Specification<T>> listSpec) {
+        SORTS.forEach(sort -> assertNoSeqScan(clazz, listSpec.apply(sort), "sorted by " + sort));
+    }
+
+    /**
+     * Checks the next page with every sort field, cursor of the next page is taken from the first page.
+     */
+    protected <T> void assertCursorsNotScanned(Class<T> clazz, Function<String, Specification<T>> listSpec,
+                                               BiFunction<String, String, Specification<T>> afterSpec,
+                                               Function<Specification<T>, Slice<? extends KeysetItem>> firstPage) {
+        SORTS.forEach(sort -> {
+            String cursor = KeysetCursor.next(firstPage.apply(listSpec.apply(sort)), sort);
+            assertNotNull(cursor);
+            assertNoSeqScan(clazz, listSpec.apply(sort).and(afterSpec.apply(sort, cursor)), "sorted by " + sort + " after cursor");
+        });
+    }
+}
@@ -0,0 +1,177 @@
+package tech.konso.toolsmanagement;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.*;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of insert cost per row for bulk creation of tools and persons with identity and pooled-lo ids.
+ * Benchmark sends the same statements, which hibernate sends for each id generation:
+ * <ul>
+ *     <li>identity - every row is inserted by its own statement, which returns generated id,
+ *     so jdbc batching is disabled;</li>
+ *     <li>pooled-lo - one sequence call reserves {@value #ALLOCATION_SIZE} ids, rows are inserted with known ids
+ *     by jdbc batches of {@value #ALLOCATION_SIZE}, which are rewritten to multi-row inserts by driver.</li>
+ * </ul>
+ * Database is started in docker container and migrated by flyway, tables are truncated after every iteration.
+ * <p>Benchmark is not run by tests. Run it from IDE with {@link #main(String[])}, or after test-compile with:
+ * <pre>
+ *     java -cp target/test-classes:target/classes:&lt;test classpath> tech.konso.toolsmanagement.IdGenerationBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(IdGenerationBenchmark.ROWS)
+public class IdGenerationBenchmark {
+
+    static final int ROWS = 500;
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String INSERT_TOOL_IDENTITY =
+            "INSERT INTO tools_tool (uuid, name, ownership_type) VALUES (?, ?, 'OWN') RETURNING tool_id";
+    private static final String INSERT_TOOL = "INSERT INTO tools_tool (tool_id, uuid, name, ownership_type) VALUES (?, ?, ?, 'OWN')";
+    private static final String INSERT_PERSON_IDENTITY =
+            "INSERT INTO persons_person (uuid, surname, name, job_title) VALUES (?, ?, ?, 'Foreman') RETURNING person_id";
+    private static final String INSERT_PERSON =
+            "INSERT INTO persons_person (person_id, uuid, surname, name, job_title) VALUES (?, ?, ?, ?, 'Foreman')";
+
+    private PostgreSQLContainer<?> container;
+
+    private Connection connection;
+
+    @Setup
+    public void setUp() throws SQLException {
+        container = new PostgreSQLContainer<>("postgres:15.3-alpine");
+        container.start();
+        Flyway.configure()
+                .dataSource(container.getJdbcUrl(), container.getUsername(), container.getPassword())
+                .load()
+                .migrate();
+        Properties properties = new Properties();
+        properties.setProperty("user", container.getUsername());
+        properties.setProperty("password", container.getPassword());
+        properties.setProperty("reWriteBatchedInserts", "true");
+        connection = DriverManager.getConnection(container.getJdbcUrl(), properties);
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+        container.stop();
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE tools_tool, persons_person CASCADE");
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    public long insert_tools_identity() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_TOOL_IDENTITY)) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setObject(1, UUID.randomUUID());
+                insert.setString(2, "tool_" + i);
+                try (ResultSet rs = insert.executeQuery()) {
+                    rs.next();
+                    lastId = rs.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    public long insert_tools_pooled_lo() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_TOOL)) {
+            for (int i = 0; i < ROWS; i += ALLOCATION_SIZE) {
+                long lo = nextval("tools_tool_tool_id_seq");
+                for (int j = 0; j < ALLOCATION_SIZE; j++) {
+                    lastId = lo + j;
+                    insert.setLong(1, lastId);
+                    insert.setObject(2, UUID.randomUUID());
+                    insert.setString(3, "tool_" + (i + j));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    public long insert_persons_identity() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_PERSON_IDENTITY)) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setObject(1, UUID.randomUUID());
+                insert.setString(2, "surname_" + i);
+                insert.setString(3, "name_" + i);
+                try (ResultSet rs = insert.executeQuery()) {
+                    rs.next();
+                    lastId = rs.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    public long insert_persons_pooled_lo() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_PERSON)) {
+            for (int i = 0; i < ROWS; i += ALLOCATION_SIZE) {
+                long lo = nextval("persons_person_person_id_seq");
+                for (int j = 0; j < ALLOCATION_SIZE; j++) {
+                    lastId = lo + j;
+                    insert.setLong(1, lastId);
+                    insert.setObject(2, UUID.randomUUID());
+                    insert.setString(3, "surname_" + (i + j));
+                    insert.setString(4, "name_" + (i + j));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    private long nextval(String sequence) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement("SELECT nextval(?)")) {
+            select.setString(1, sequence);
+            try (ResultSet rs = select.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IdGenerationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
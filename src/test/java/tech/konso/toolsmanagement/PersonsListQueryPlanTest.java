@@ -0,0 +1,52 @@
+package tech.konso.toolsmanagement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import tech.konso.toolsmanagement.modules.business.persons.label.persistence.dao.Label;
+import tech.konso.toolsmanagement.modules.business.persons.label.persistence.specification.LabelSpecification;
+import tech.konso.toolsmanagement.modules.business.persons.person.persistence.dao.Person;
+import tech.konso.toolsmanagement.modules.business.persons.person.persistence.specification.PersonSpecification;
+import tech.konso.toolsmanagement.modules.business.persons.person.service.PersonService;
+import tech.konso.toolsmanagement.modules.business.persons.role.persistence.dao.Role;
+import tech.konso.toolsmanagement.modules.business.persons.role.persistence.specification.RoleSpecification;
+
+import java.util.function.Function;
+
+/**
+ * Query plan tests of lists of persons module: persons, labels and roles.
+ */
+public class PersonsListQueryPlanTest extends AbstractListQueryPlanTest {
+
+    @Autowired
+    private PersonService personService;
+
+    @BeforeEach
+    public void setUp() {
+        seedNamed("persons_label", "label_", 5000);
+        seedNamed("persons_role", "role_", 5000);
+        jdbcTemplate.update("INSERT INTO persons_person (uuid, surname, name, job_title, is_archived, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), 'surname_' || i, 'name_' || i, 'Foreman', i % 10 = 0, " +
+                "now() - i * interval '1 minute', now() - (i % 997) * interval '1 minute' " +
+                "FROM generate_series(1, 20000) i");
+        analyze();
+    }
+
+    /**
+     * Lists of persons, person labels and roles should not scan sequentially with any sort and cursor.
+     * Test seeds persons, labels and roles and explains lists of not archived rows with every sort field
+     * and with keyset cursor.
+     * Then test checks that no plan contains sequential scan.
+     */
+    @Test
+    public void persons_list_should_not_scan_sequentially_test() {
+        Function<String, Specification<Person>> listSpec = sort -> PersonSpecification.isArchivedSpec(false)
+                .and(PersonSpecification.sortSpec(sort));
+
+        assertSortsNotScanned(Person.class, listSpec);
+        assertCursorsNotScanned(Person.class, listSpec, PersonSpecification::afterSpec, spec -> personService.findSlice(0, PAGE_SIZE, spec));
+        assertSortsNotScanned(Label.class, sort -> LabelSpecification.isArchivedSpec(false).and(LabelSpecification.sortSpec(sort)));
+        assertSortsNotScanned(Role.class, sort -> RoleSpecification.isArchivedSpec(false).and(RoleSpecification.sortSpec(sort)));
+    }
+}
@@ -0,0 +1,43 @@
+package tech.konso.toolsmanagement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.dao.Stock;
+import tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.specification.StockSpecification;
+import tech.konso.toolsmanagement.modules.business.stocks.stock.service.StockService;
+
+import java.util.function.Function;
+
+/**
+ * Query plan tests of list of stocks.
+ */
+public class StocksListQueryPlanTest extends AbstractListQueryPlanTest {
+
+    @Autowired
+    private StockService stockService;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("INSERT INTO stocks_stock (uuid, name, address, is_archived, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), 'stock_' || i, 'address_' || i, i % 10 = 0, " +
+                "now() - i * interval '1 minute', now() - (i % 997) * interval '1 minute' " +
+                "FROM generate_series(1, 20000) i");
+        analyze();
+    }
+
+    /**
+     * List of stocks should not scan stocks sequentially with any sort and cursor.
+     * Test seeds stocks and explains the list of not archived stocks with every sort field and with keyset cursor.
+     * Then test checks that no plan contains sequential scan.
+     */
+    @Test
+    public void stocks_list_should_not_scan_sequentially_test() {
+        Function<String, Specification<Stock>> listSpec = sort -> StockSpecification.isArchivedSpec(false)
+                .and(StockSpecification.sortSpec(sort));
+
+        assertSortsNotScanned(Stock.class, listSpec);
+        assertCursorsNotScanned(Stock.class, listSpec, StockSpecification::afterSpec, spec -> stockService.findSlice(0, PAGE_SIZE, spec));
+    }
+}
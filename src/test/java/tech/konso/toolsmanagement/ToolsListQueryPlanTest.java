@@ -0,0 +1,117 @@
+package tech.konso.toolsmanagement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import tech.konso.toolsmanagement.modules.business.tools.brand.persistence.dao.Brand;
+import tech.konso.toolsmanagement.modules.business.tools.brand.persistence.specification.BrandSpecification;
+import tech.konso.toolsmanagement.modules.business.tools.category.persistence.dao.Category;
+import tech.konso.toolsmanagement.modules.business.tools.category.persistence.specification.CategorySpecification;
+import tech.konso.toolsmanagement.modules.business.tools.comment.persistence.dao.Comment;
+import tech.konso.toolsmanagement.modules.business.tools.comment.persistence.specification.CommentSpecification;
+import tech.konso.toolsmanagement.modules.business.tools.label.persistence.dao.Label;
+import tech.konso.toolsmanagement.modules.business.tools.label.persistence.specification.LabelSpecification;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.Tool;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.specification.ToolFilter;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.specification.ToolSpecification;
+import tech.konso.toolsmanagement.modules.business.tools.tool.service.ToolService;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Query plan tests of lists of tools module: tools, brands, labels, categories and comments.
+ */
+public class ToolsListQueryPlanTest extends AbstractListQueryPlanTest {
+
+    @Autowired
+    private ToolService toolService;
+
+    @BeforeEach
+    public void setUp() {
+        seedNamed("tools_brand", "brand_", 5000);
+        seedNamed("tools_label", "label_", 5000);
+        seedNamed("tools_category", "category_", 2500);
+        jdbcTemplate.update("INSERT INTO tools_category (name, parent_category_id, created_at, updated_at) " +
+                "SELECT 'sub_' || c.name, c.category_id, c.created_at, c.updated_at FROM tools_category c");
+        jdbcTemplate.update("INSERT INTO tools_tool (name, uuid, ownership_type, is_archived, brand_id, category_id, created_at, updated_at) " +
+                "SELECT 'tool_' || i, gen_random_uuid(), 'OWN', i % 10 = 0, b.brand_id, c.category_id, " +
+                "now() - i * interval '1 minute', now() - (i % 997) * interval '1 minute' " +
+                "FROM generate_series(1, 20000) i " +
+                "JOIN (SELECT brand_id, row_number() OVER (ORDER BY brand_id) AS n FROM tools_brand) b ON b.n = i % 5000 + 1 " +
+                "JOIN (SELECT category_id, row_number() OVER (ORDER BY category_id) AS n FROM tools_category) c ON c.n = i % 5000 + 1");
+        jdbcTemplate.update("INSERT INTO tools_tool_label (tool_id, label_id) " +
+                "SELECT t.tool_id, l.label_id " +
+                "FROM (SELECT tool_id, row_number() OVER (ORDER BY tool_id) AS n FROM tools_tool) t " +
+                "JOIN (SELECT label_id, row_number() OVER (ORDER BY label_id) AS n FROM tools_label) l ON l.n = t.n % 5000 + 1");
+        jdbcTemplate.update("INSERT INTO tools_comment (tool_id, content, person_uuid, created_at, updated_at) " +
+                "SELECT t.tool_id, 'comment ' || i, gen_random_uuid(), now() - i * interval '1 minute', now() - i * interval '1 minute' " +
+                "FROM tools_tool t, generate_series(1, 2) i");
+        analyze();
+    }
+
+    /**
+     * List of tools should not scan tools sequentially with any sort and cursor.
+     * Test seeds tools and explains the list of not archived tools with every sort field and with keyset cursor.
+     * Then test checks that no plan contains sequential scan.
+     */
+    @Test
+    public void tools_list_should_not_scan_sequentially_test() {
+        Function<String, Specification<Tool>> listSpec = sort -> ToolSpecification.filterSpec(ToolFilter.builder().isArchived(false).build())
+                .and(ToolSpecification.sortSpec(sort));
+
+        assertSortsNotScanned(Tool.class, listSpec);
+        assertCursorsNotScanned(Tool.class, listSpec, ToolSpecification::afterSpec, spec -> toolService.findSlice(0, PAGE_SIZE, spec));
+    }
+
+    /**
+     * List of tools filtered by brands, labels, category subtree and name should not scan tools sequentially.
+     * Test seeds tools with brands, labels and categories and explains the list of tools with every filter
+     * sorted by default.
+     * Then test checks that no plan contains sequential scan.
+     */
+    @Test
+    public void filtered_tools_list_should_not_scan_sequentially_test() {
+        List<Long> brandIds = jdbcTemplate.queryForList("SELECT brand_id FROM tools_brand ORDER BY brand_id LIMIT 2", Long.class);
+        Long labelId = jdbcTemplate.queryForObject("SELECT min(label_id) FROM tools_label", Long.class);
+        Long categoryId = jdbcTemplate.queryForObject("SELECT min(category_id) FROM tools_category WHERE parent_category_id IS NULL", Long.class);
+        List<ToolFilter> filters = List.of(
+                ToolFilter.builder().isArchived(false).brandIds(brandIds).build(),
+                ToolFilter.builder().isArchived(false).labelIds(List.of(labelId)).build(),
+                ToolFilter.builder().isArchived(false).categoryId(categoryId).build(),
+                ToolFilter.builder().isArchived(false).name("ol_1234").build());
+
+        filters.forEach(filter -> assertNoSeqScan(Tool.class, ToolSpecification.filterSpec(filter)
+                .and(ToolSpecification.sortSpec(null)), "filtered by " + filter));
+    }
+
+    /**
+     * Lists of brands, labels and root categories should not scan sequentially.
+     * Test seeds brands, labels and categories and explains lists of not archived rows with every sort field.
+     * Then test checks that no plan contains sequential scan.
+     */
+    @Test
+    public void dictionaries_list_should_not_scan_sequentially_test() {
+        assertSortsNotScanned(Brand.class, sort -> BrandSpecification.isArchivedSpec(false)
+                .and(BrandSpecification.sortSpec(sort)));
+        assertSortsNotScanned(Label.class, sort -> LabelSpecification.isArchivedSpec(false)
+                .and(LabelSpecification.sortSpec(sort)));
+        assertSortsNotScanned(Category.class, sort -> CategorySpecification.isArchivedSpec(false)
+                .and(CategorySpecification.sortSpec(sort))
+                .and(CategorySpecification.isParentSpec(true)));
+    }
+
+    /**
+     * List of tool comments should not scan comments sequentially.
+     * Test seeds comments of tools and explains the list of comments of one tool sorted by create and update dates.
+     * Then test checks that no plan contains sequential scan.
+     */
+    @Test
+    public void comments_list_should_not_scan_sequentially_test() {
+        Long toolId = jdbcTemplate.queryForObject("SELECT min(tool_id) FROM tools_tool", Long.class);
+
+        List.of("createdat,desc", "updatedat,asc").forEach(sort -> assertNoSeqScan(Comment.class,
+                CommentSpecification.toolSpec(toolId).and(CommentSpecification.sortSpec(sort)), "sorted by " + sort));
+    }
+}
@@ -7,12 +7,16 @@ import org.junit.jupiter.api.Test;
 import org.mockito.BDDMockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
 import tech.konso.toolsmanagement.modules.business.persons.commons.AbstractControllerTest;
 import tech.konso.toolsmanagement.modules.business.persons.person.controller.dto.PersonFilterInfo;
 import tech.konso.toolsmanagement.modules.business.persons.person.controller.dto.PersonFilterResponse;
@@ -22,20 +26,35 @@ import tech.konso.toolsmanagement.modules.business.persons.person.persistence.da
 import tech.konso.toolsmanagement.modules.business.persons.person.service.PersonService;
 import tech.konso.toolsmanagement.modules.integration.facade.FileStorageFacade;
 import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.modules.integration.facade.PhotoSize;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.FileStream;
 import tech.konso.toolsmanagement.modules.integration.facade.dto.UploadResponse;
+import tech.konso.toolsmanagement.modules.integration.upload.dto.PhotoUploadInfo;
+import tech.konso.toolsmanagement.modules.integration.upload.persistence.dao.enums.UploadStatus;
 import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -88,6 +107,7 @@ public class PersonControllerTest extends AbstractControllerTest {
         jdbcTemplate.update("DELETE FROM persons_person");
         jdbcTemplate.update("DELETE FROM persons_label");
         jdbcTemplate.update("DELETE FROM persons_role");
+        jdbcTemplate.update("DELETE FROM integration_photo_upload");
 
     }
 
@@ -110,10 +130,17 @@ public class PersonControllerTest extends AbstractControllerTest {
         return Files.readAllBytes(path);
     }
 
+    private FileStream getPhotoStream(byte[] photo) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.IMAGE_JPEG);
+        headers.setContentLength(photo.length);
+        return FileStream.of(HttpStatus.OK, headers, Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(photo)));
+    }
+
     @Nested
     class FindTests {
         /**
-         * {@link PersonController#find(Long)} should return {@link Person} by id from database.
+         * {@link PersonController#find(Long, HttpHeaders)} should return {@link Person} by id from database.
          * Test checks status code 200 and equality personId (received from jdbcTemplate request)
          * with id of person object received from {@link PersonService#findById(Long)} and name.
          */
@@ -132,7 +159,7 @@ public class PersonControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link PersonController#find(Long)} should return not found if {@link Person} with id not exist in database.
+         * {@link PersonController#find(Long, HttpHeaders)} should return not found if {@link Person} with id not exist in database.
          * Test try to find person whit id = -1 (negative number guaranties, that no such id exists in database)
          * and check if controller return not found with detailed error message in header.
          */
@@ -145,12 +172,55 @@ public class PersonControllerTest extends AbstractControllerTest {
                     .andExpect(status().isNotFound())
                     .andExpect(header().stringValues("detail", "Person not found id: " + personId));
         }
+
+        /**
+         * {@link PersonController#find(Long, HttpHeaders)} should return not modified for current entity tag.
+         * Test gets person, then gets it again with returned ETag in If-None-Match header and checks status code
+         * not modified with empty body.
+         */
+        @Test
+        public void find_should_return_not_modified_for_current_etag_test() throws Exception {
+            long personId = jdbcTemplate.queryForObject("SELECT person_id FROM persons_person WHERE is_archived IS FALSE LIMIT 1", Long.class);
+
+            String eTag = mockMvc.perform(get(urlEndpoint() + "/" + personId))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get(urlEndpoint() + "/" + personId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andDo(print())
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                    .andExpect(content().string(""));
+        }
+
+        /**
+         * {@link PersonController#find(Long, HttpHeaders)} should return person with new entity tag after person is updated.
+         * Test gets person, updates its update date, gets it with old ETag in If-None-Match header
+         * and checks status code 200 and changed ETag.
+         */
+        @Test
+        public void find_should_return_entity_for_outdated_etag_test() throws Exception {
+            long personId = jdbcTemplate.queryForObject("SELECT person_id FROM persons_person WHERE is_archived IS FALSE LIMIT 1", Long.class);
+            String eTag = mockMvc.perform(get(urlEndpoint() + "/" + personId))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            jdbcTemplate.update("UPDATE persons_person SET updated_at = updated_at + INTERVAL '1 second' WHERE person_id = ?", personId);
+
+            String newETag = mockMvc.perform(get(urlEndpoint() + "/" + personId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            assertNotEquals(eTag, newETag);
+        }
     }
 
     @Nested
     class FindAllTests {
         /**
-         * {@link PersonController#findAll(int, int, String, Boolean, String)}
+         * {@link PersonController#findAll(int, int, String, Boolean, String, String, String)}
          * should return bad request with incorrect page number. Test try to search all persons whit page = 0
          * and check if controller return bad request with detailed error message in header.
          */
@@ -165,7 +235,7 @@ public class PersonControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link PersonController#findAll(int, int, String, Boolean, String)}
+         * {@link PersonController#findAll(int, int, String, Boolean, String, String, String)}
          * should return bad request with incorrect size number. Test try to search all persons whit size = 99999
          * and check if controller return bad request with detailed error message in header.
          */
@@ -180,7 +250,7 @@ public class PersonControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link PersonController#findAll(int, int, String, Boolean, String)}  without filters should return all not archived persons.
+         * {@link PersonController#findAll(int, int, String, Boolean, String, String, String)}  without filters should return all not archived persons.
          * Test counts all not archived persons from the database.
          * Then test make request to find all persons and checks if it returns the same number, as plane jdbc request.
          */
@@ -200,7 +270,7 @@ public class PersonControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link PersonController#findAll(int, int, String, Boolean, String)}  with archived filter,
+         * {@link PersonController#findAll(int, int, String, Boolean, String, String, String)}  with archived filter,
          * should return all archived persons.
          * Test counts all archived persons from the database.
          * Then test make request to find all persons and checks if it returns the same number, as plane jdbc request.
@@ -221,7 +291,7 @@ public class PersonControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link PersonController#findAll(int, int, String, Boolean, String)}  with not archived filter,
+         * {@link PersonController#findAll(int, int, String, Boolean, String, String, String)}  with not archived filter,
          * should return all not archived persons.
          * Test counts all not archived persons from the database.
          * Then test make request to find all persons and checks if it returns the same number, as plane jdbc request.
@@ -242,7 +312,7 @@ public class PersonControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link PersonController#findAll(int, int, String, Boolean, String)}  with filter by full name,
+         * {@link PersonController#findAll(int, int, String, Boolean, String, String, String)}  with filter by full name,
          * should return person with this name.
          * Test counts all person with concrete name.
          * Then test make request to find all persons and checks if it returns the same number, as plane jdbc request,
@@ -265,7 +335,7 @@ public class PersonControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link PersonController#findAll(int, int, String, Boolean, String)}  with filter by part of name,
+         * {@link PersonController#findAll(int, int, String, Boolean, String, String, String)}  with filter by part of name,
          * should return person with this name.
          * Test counts all person with like filter by name.
          * Then test make request to find all persons and checks if it returns the same number, as plane jdbc request.
@@ -289,7 +359,7 @@ public class PersonControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link PersonController#findAll(int, int, String, Boolean, String)}  with filter sorting by name asc,
+         * {@link PersonController#findAll(int, int, String, Boolean, String, String, String)}  with filter sorting by name asc,
          * should return sorted persons by names asc.
          * Test returns person names from database(using jdbcTemplate) ordered by name asc.
          * Then test make request to find all persons and checks if it returns the persons in the same order, as plane jdbc request.
@@ -314,7 +384,7 @@ public class PersonControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link PersonController#findAll(int, int, String, Boolean, String)}  with filter sorting by name desc,
+         * {@link PersonController#findAll(int, int, String, Boolean, String, String, String)}  with filter sorting by name desc,
          * should return sorted persons by name desc.
          * Test returns person names from database(using jdbcTemplate) ordered by name desc.
          * Then test make request to find all persons and checks if it returns the persons in the same order, as plane jdbc request.
@@ -339,7 +409,7 @@ public class PersonControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link PersonController#findAll(int, int, String, Boolean, String)}  with filter sorting by create date asc,
+         * {@link PersonController#findAll(int, int, String, Boolean, String, String, String)}  with filter sorting by create date asc,
          * should return sorted persons by create date asc.
          * Test returns person names from database(using jdbcTemplate) ordered by created date asc.
          * Then test make request to find all persons and checks if it returns the persons in the same order, as plane jdbc request.
@@ -364,7 +434,7 @@ public class PersonControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link PersonController#findAll(int, int, String, Boolean, String)}  with filter sorting by create date desc,
+         * {@link PersonController#findAll(int, int, String, Boolean, String, String, String)}  with filter sorting by create date desc,
          * should return sorted persons by create date desc.
          * Test returns person names from database(using jdbcTemplate) ordered by created date desc.
          * Then test make request to find all persons and checks if it returns the persons in the same order, as plane jdbc request.
@@ -388,7 +458,7 @@ public class PersonControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link PersonController#findAll(int, int, String, Boolean, String)}  without filter by default
+         * {@link PersonController#findAll(int, int, String, Boolean, String, String, String)}  without filter by default
          * should return sorted persons by create date desc.
          * Test returns person names from database(using jdbcTemplate) ordered by created date desc.
          * Then test make request to find all persons and checks if it returns the persons in the same order, as plane jdbc request.
@@ -411,6 +481,55 @@ public class PersonControllerTest extends AbstractControllerTest {
                             })
                     ));
         }
+
+        /**
+         * {@link PersonController#findAll(int, int, String, Boolean, String, String, String)} with after cursor,
+         * should return next pages of persons in the order of sort filter.
+         * Test returns person names from database(using jdbcTemplate) ordered by name asc.
+         * Then test requests the first page of size 2 and follows nextCursor of every response until it is null.
+         * Then test checks if collected persons are in the same order, as plane jdbc request,
+         * and that total items are not counted for keyset pages.
+         */
+        @Test
+        public void findAll_with_after_cursor_should_return_next_pages_test() throws Exception {
+            List<String> personNames = jdbcTemplate.queryForList("SELECT name FROM persons_person WHERE is_archived IS FALSE ORDER BY name ASC, person_id ASC", String.class);
+            List<String> personNamesResponse = new ArrayList<>();
+
+            String content = mockMvc.perform(get(urlEndpoint() + "?page=1&size=2&sort=name,asc"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            PersonFilterResponse rs = objectMapper.readValue(content, PersonFilterResponse.class);
+            personNamesResponse.addAll(rs.persons().stream().map(PersonFilterInfo::name).toList());
+            while (rs.nextCursor() != null) {
+                content = mockMvc.perform(get(urlEndpoint() + "?size=2&sort=name,asc&after=" + rs.nextCursor()))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                rs = objectMapper.readValue(content, PersonFilterResponse.class);
+                assertNull(rs.totalItems());
+                personNamesResponse.addAll(rs.persons().stream().map(PersonFilterInfo::name).toList());
+            }
+
+            assertIterableEquals(personNames, personNamesResponse);
+        }
+
+        /**
+         * {@link PersonController#findAll(int, int, String, Boolean, String, String, String)}
+         * should return bad request with cursor built for another sort.
+         * Test receives nextCursor for sorting by name asc and try to use it for sorting by name desc,
+         * then checks if controller return bad request.
+         */
+        @Test
+        public void findAll_with_cursor_of_another_sort_should_return_bad_request_test() throws Exception {
+            String content = mockMvc.perform(get(urlEndpoint() + "?page=1&size=2&sort=name,asc"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            String cursor = objectMapper.readValue(content, PersonFilterResponse.class).nextCursor();
+
+            mockMvc.perform(get(urlEndpoint() + "?size=2&sort=name,desc&after=" + cursor))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().stringValues("detail", "Cursor doesn't match sort: name,desc"));
+        }
     }
 
     @Nested
@@ -1130,34 +1249,128 @@ public class PersonControllerTest extends AbstractControllerTest {
     @Nested
     class FindPhoto {
         /**
-         * {@link PersonController#findPhoto(Long)} should return photo from storage service.
+         * {@link PersonController#findPhoto(Long, String, String, HttpHeaders)} should return photo from storage service.
          * Test try to get photo by person id and then check status code 200, content type and
          * check if bytes of photo from storage service equals bytes from file system
          */
         @Test
         public void find_photo_should_return_photo_uuid_test() throws Exception {
             long personId = jdbcTemplate.queryForObject("SELECT person_id FROM persons_person WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
-            InputStream is = new ByteArrayInputStream(getPhoto(PATH_TO_JPEG_FILE));
-            InputStreamResource photo = new InputStreamResource(is);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_PERSON))).willReturn(photo);
+            FileStream photo = getPhotoStream(getPhoto(PATH_TO_JPEG_FILE));
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_PERSON), any())).willReturn(photo);
 
-            mockMvc.perform(get(urlEndpoint() + "/" + personId + "/photo"))
+            MvcResult result = mockMvc.perform(get(urlEndpoint() + "/" + personId + "/photo"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
                     .andDo(print())
                     .andExpect(status().isOk())
                     .andExpect(content().contentTypeCompatibleWith(MediaType.IMAGE_JPEG_VALUE))
+                    .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, getPhoto(PATH_TO_JPEG_FILE).length))
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
                     .andExpect(content().bytes(getPhoto(PATH_TO_JPEG_FILE)));
         }
 
         /**
-         * {@link PersonController#findPhoto(Long)} should return not found when photo uuid not found in DB.
+         * {@link PersonController#findPhoto(Long, String, String, HttpHeaders)} should return not modified for photo uuid in If-None-Match
+         * without request to storage service.
+         * Test try to get photo by person id with its photo uuid as ETag and checks status code not modified
+         * and that storage service is not called.
+         */
+        @Test
+        public void find_photo_should_return_not_modified_for_photo_uuid_etag_test() throws Exception {
+            long personId = jdbcTemplate.queryForObject("SELECT person_id FROM persons_person WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
+            UUID photoUuid = jdbcTemplate.queryForObject("SELECT photo_uuid FROM persons_person WHERE person_id = ?", UUID.class, personId);
+
+            mockMvc.perform(get(urlEndpoint() + "/" + personId + "/photo").header(HttpHeaders.IF_NONE_MATCH, "\"" + photoUuid + "\""))
+                    .andDo(print())
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + photoUuid + "\""));
+
+            BDDMockito.then(fileStorageFacade).shouldHaveNoInteractions();
+        }
+
+        /**
+         * {@link PersonController#findPhoto(Long, String, String, HttpHeaders)} should pass range header to storage service and return partial content.
+         * Test try to get first ten bytes of photo by person id and then check status code partial content,
+         * content range header and returned bytes.
+         */
+        @Test
+        public void find_photo_should_return_partial_content_for_range_test() throws Exception {
+            long personId = jdbcTemplate.queryForObject("SELECT person_id FROM persons_person WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
+            byte[] range = Arrays.copyOfRange(getPhoto(PATH_TO_JPEG_FILE), 0, 10);
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.IMAGE_JPEG);
+            headers.setContentLength(range.length);
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes 0-9/" + getPhoto(PATH_TO_JPEG_FILE).length);
+            FileStream photo = FileStream.of(HttpStatus.PARTIAL_CONTENT, headers, Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(range)));
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_PERSON), eq("bytes=0-9"))).willReturn(photo);
+
+            MvcResult result = mockMvc.perform(get(urlEndpoint() + "/" + personId + "/photo")
+                            .header(HttpHeaders.RANGE, "bytes=0-9"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andDo(print())
+                    .andExpect(status().isPartialContent())
+                    .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-9/" + getPhoto(PATH_TO_JPEG_FILE).length))
+                    .andExpect(content().bytes(range));
+        }
+
+        /**
+         * {@link PersonController#findPhoto(Long, String, String, HttpHeaders)} should return resized photo.
+         * Test try to get thumbnail of photo by person id and then check status code 200, content type, ETag of thumbnail
+         * and that returned photo fits thumbnail size.
+         */
+        @Test
+        public void find_photo_should_return_thumbnail_test() throws Exception {
+            long personId = jdbcTemplate.queryForObject("SELECT person_id FROM persons_person WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
+            UUID photoUuid = jdbcTemplate.queryForObject("SELECT photo_uuid FROM persons_person WHERE person_id = ?", UUID.class, personId);
+            FileStream photo = getPhotoStream(getPhoto(PATH_TO_JPEG_FILE));
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_PERSON), any())).willReturn(photo);
+
+            MvcResult result = mockMvc.perform(get(urlEndpoint() + "/" + personId + "/photo").param("size", "thumb"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            MvcResult thumbnail = mockMvc.perform(asyncDispatch(result))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.IMAGE_JPEG_VALUE))
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + photoUuid + "-thumb\""))
+                    .andReturn();
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail.getResponse().getContentAsByteArray()));
+            assertEquals(PhotoSize.THUMB.getMaxDimension(), Math.max(image.getWidth(), image.getHeight()));
+        }
+
+        /**
+         * {@link PersonController#findPhoto(Long, String, String, HttpHeaders)} should return bad request for unsupported size.
+         * Test try to get photo by person id in unknown size and then check status code bad request with detailed error message in header.
+         */
+        @Test
+        public void find_photo_should_return_bad_request_for_unsupported_size_test() throws Exception {
+            long personId = jdbcTemplate.queryForObject("SELECT person_id FROM persons_person WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
+
+            mockMvc.perform(get(urlEndpoint() + "/" + personId + "/photo").param("size", "huge"))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().stringValues("detail", "Unsupported photo size: huge"));
+
+            BDDMockito.then(fileStorageFacade).shouldHaveNoInteractions();
+        }
+
+        /**
+         * {@link PersonController#findPhoto(Long, String, String, HttpHeaders)} should return not found when photo uuid not found in DB.
          * Test try to get photo by person id and then check status code not found with detailed error message in header.
          */
         @Test
         public void find_photo_should_return_not_found_if_photo_uuid_not_found_test() throws Exception {
             long personId = jdbcTemplate.queryForObject("SELECT person_id FROM persons_person WHERE photo_uuid IS NULL LIMIT 1", Long.class);
-            InputStream is = new ByteArrayInputStream(getPhoto(PATH_TO_JPEG_FILE));
-            InputStreamResource photo = new InputStreamResource(is);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_PERSON))).willReturn(photo);
+            FileStream photo = getPhotoStream(getPhoto(PATH_TO_JPEG_FILE));
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_PERSON), any())).willReturn(photo);
 
             mockMvc.perform(get(urlEndpoint() + "/" + personId + "/photo"))
                     .andDo(print())
@@ -1166,13 +1379,13 @@ public class PersonControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link PersonController#findPhoto(Long)} should return not found when photo not found in file storage.
+         * {@link PersonController#findPhoto(Long, String, String, HttpHeaders)} should return not found when photo not found in file storage.
          * Test try to get photo by person id and then check status code not found with detailed error message in header.
          */
         @Test
         public void find_photo_should_return_not_found_if_photo_not_found_in_storage_test() throws Exception {
             long personId = jdbcTemplate.queryForObject("SELECT person_id FROM persons_person WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_PERSON)))
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_PERSON), any()))
                     .willThrow(new BPException.NotFound("not found"));
 
             mockMvc.perform(get(urlEndpoint() + "/" + personId + "/photo"))
@@ -1182,13 +1395,13 @@ public class PersonControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link PersonController#findPhoto(Long)} should return bad request when file storage return bad request.
+         * {@link PersonController#findPhoto(Long, String, String, HttpHeaders)} should return bad request when file storage return bad request.
          * Test try to get photo by person id and then check status code bad request with detailed error message in header.
          */
         @Test
         public void find_photo_should_return_bad_request_if_file_storage_return_bad_request_test() throws Exception {
             long personId = jdbcTemplate.queryForObject("SELECT person_id FROM persons_person WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_PERSON)))
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_PERSON), any()))
                     .willThrow(new BPException.BadRequest("error"));
 
             mockMvc.perform(get(urlEndpoint() + "/" + personId + "/photo"))
@@ -1198,13 +1411,13 @@ public class PersonControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link PersonController#findPhoto(Long)} should return service unavailable if error acquire.
+         * {@link PersonController#findPhoto(Long, String, String, HttpHeaders)} should return service unavailable if error acquire.
          * Test try to get photo by person id and then check status code service unavailable with detailed error message in header.
          */
         @Test
         public void find_photo_should_return_service_unavailable_if_error_acquire_test() throws Exception {
             long personId = jdbcTemplate.queryForObject("SELECT person_id FROM persons_person WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_PERSON)))
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_PERSON), any()))
                     .willThrow(new BPException.ServiceUnavailable("error"));
 
             mockMvc.perform(get(urlEndpoint() + "/" + personId + "/photo"))
@@ -1215,6 +1428,81 @@ public class PersonControllerTest extends AbstractControllerTest {
 
     }
 
+    @Nested
+    class FindPhotos {
+        /**
+         * {@link PersonController#findPhotoUuids(List)} should return photo uuids of persons in the order of ids.
+         * Test try to get photo uuids of two persons with photo and one person without photo and then check,
+         * that person without photo is skipped.
+         */
+        @Test
+        public void find_photo_uuids_should_return_photo_uuids_test() throws Exception {
+            jdbcTemplate.update("UPDATE persons_person SET photo_uuid = ? WHERE person_id = (SELECT MAX(person_id) FROM persons_person WHERE photo_uuid IS NULL)", UUID.randomUUID());
+            List<Long> ids = jdbcTemplate.queryForList("SELECT person_id FROM persons_person WHERE photo_uuid IS NOT NULL ORDER BY person_id DESC LIMIT 2", Long.class);
+            long withoutPhoto = jdbcTemplate.queryForObject("SELECT person_id FROM persons_person WHERE photo_uuid IS NULL LIMIT 1", Long.class);
+            UUID first = jdbcTemplate.queryForObject("SELECT photo_uuid FROM persons_person WHERE person_id = ?", UUID.class, ids.get(0));
+            UUID second = jdbcTemplate.queryForObject("SELECT photo_uuid FROM persons_person WHERE person_id = ?", UUID.class, ids.get(1));
+
+            mockMvc.perform(get(urlEndpoint() + "/photos").param("ids", ids.get(0) + "," + withoutPhoto + "," + ids.get(1)))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$[0].id").value(ids.get(0)))
+                    .andExpect(jsonPath("$[0].photoUuid").value(first.toString()))
+                    .andExpect(jsonPath("$[1].id").value(ids.get(1)))
+                    .andExpect(jsonPath("$[1].photoUuid").value(second.toString()));
+
+            BDDMockito.then(fileStorageFacade).shouldHaveNoInteractions();
+        }
+
+        /**
+         * {@link PersonController#findPhotoUuids(List)} should return bad request for more than 100 ids.
+         * Test try to get photo uuids of 101 persons and then check status code bad request with detailed error message in header.
+         */
+        @Test
+        public void find_photo_uuids_should_return_bad_request_for_too_many_ids_test() throws Exception {
+            String ids = LongStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+            mockMvc.perform(get(urlEndpoint() + "/photos").param("ids", ids))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().stringValues("detail", "findPhotoUuids.ids: size must be between 0 and 100"));
+        }
+
+        /**
+         * {@link PersonController#findPhotoArchive(List, String)} should return zip archive with photos named by person ids.
+         * Test try to get archive of full size photos of two persons and then check status code 200, content type
+         * and entries of archive.
+         */
+        @Test
+        public void find_photo_archive_should_return_zip_with_photos_test() throws Exception {
+            jdbcTemplate.update("UPDATE persons_person SET photo_uuid = ? WHERE person_id = (SELECT MAX(person_id) FROM persons_person WHERE photo_uuid IS NULL)", UUID.randomUUID());
+            List<Long> ids = jdbcTemplate.queryForList("SELECT person_id FROM persons_person WHERE photo_uuid IS NOT NULL ORDER BY person_id LIMIT 2", Long.class);
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_PERSON), any()))
+                    .willAnswer(invocation -> getPhotoStream(getPhoto(PATH_TO_JPEG_FILE)));
+
+            MvcResult result = mockMvc.perform(get(urlEndpoint() + "/photos/archive")
+                            .param("ids", ids.get(0) + "," + ids.get(1))
+                            .param("size", "full"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            MvcResult archive = mockMvc.perform(asyncDispatch(result))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/zip"))
+                    .andReturn();
+            List<String> entries = new ArrayList<>();
+            try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive.getResponse().getContentAsByteArray()))) {
+                for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                    entries.add(entry.getName());
+                    assertArrayEquals(getPhoto(PATH_TO_JPEG_FILE), zip.readAllBytes());
+                }
+            }
+            assertIterableEquals(List.of(ids.get(0) + ".jpeg", ids.get(1) + ".jpeg"), entries);
+        }
+    }
+
     @Nested
     class UploadPhoto {
         /**
@@ -1266,5 +1554,71 @@ public class PersonControllerTest extends AbstractControllerTest {
                     .andExpect(status().isServiceUnavailable())
                     .andExpect(header().stringValues("detail", "error"));
         }
+
+        /**
+         * {@link PersonController#uploadPhotoAsync(MultipartFile)} should return upload id before photo is stored.
+         * Test uploads photo and checks status code 202, location of upload state and pending status,
+         * then waits until background worker stores photo and checks photo uuid from storage service.
+         */
+        @Test
+        public void upload_photo_async_should_return_upload_id_and_store_photo_test() throws Exception {
+            UUID photoUuid = UUID.randomUUID();
+            BDDMockito.given(fileStorageFacade.upload(any(), eq(FileType.PHOTO_PERSON))).willReturn(new UploadResponse(photoUuid, null));
+
+            MvcResult result = mockMvc.perform(MockMvcRequestBuilders.multipart(urlEndpoint() + "/photo/async")
+                            .file("attachment", getPhoto(PATH_TO_JPEG_FILE)))
+                    .andDo(print())
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string(HttpHeaders.LOCATION, containsString("/photo/uploads/")))
+                    .andExpect(jsonPath("$.status").value(UploadStatus.PENDING.name()))
+                    .andReturn();
+
+            UUID uploadId = objectMapper.readValue(result.getResponse().getContentAsString(), PhotoUploadInfo.class).uploadId();
+            String status = null;
+            for (int i = 0; i < 50 && !UploadStatus.STORED.name().equals(status); i++) {
+                Thread.sleep(100);
+                status = jdbcTemplate.queryForObject("SELECT status FROM integration_photo_upload WHERE upload_id = ?", String.class, uploadId);
+            }
+            mockMvc.perform(get(urlEndpoint() + "/photo/uploads/" + uploadId))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(dtoMatcher(
+                            PhotoUploadInfo.class,
+                            dto -> dto.status() == UploadStatus.STORED && photoUuid.equals(dto.photoUuid())
+                    )));
+        }
+
+        /**
+         * {@link PersonController#findPhotoUpload(UUID)} should return failed upload with error.
+         * Test records failed upload and checks status code 200, status and error.
+         */
+        @Test
+        public void find_photo_upload_should_return_failed_upload_test() throws Exception {
+            UUID uploadId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status, attempts, error) VALUES (?, 'PHOTO_PERSON', 'FAILED', 5, 'error')", uploadId);
+
+            mockMvc.perform(get(urlEndpoint() + "/photo/uploads/" + uploadId))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(dtoMatcher(
+                            PhotoUploadInfo.class,
+                            dto -> dto.status() == UploadStatus.FAILED && dto.photoUuid() == null && "error".equals(dto.error())
+                    )));
+        }
+
+        /**
+         * {@link PersonController#findPhotoUpload(UUID)} should return not found for upload of another file type.
+         * Test records upload of another file type and checks status code 404.
+         */
+        @Test
+        public void find_photo_upload_should_return_not_found_for_another_file_type_test() throws Exception {
+            UUID uploadId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status) VALUES (?, 'PHOTO_TOOL', 'PENDING')", uploadId);
+
+            mockMvc.perform(get(urlEndpoint() + "/photo/uploads/" + uploadId))
+                    .andDo(print())
+                    .andExpect(status().isNotFound())
+                    .andExpect(header().stringValues("detail", "Photo upload not found id: " + uploadId));
+        }
     }
-}
\ No newline at end of file
+}
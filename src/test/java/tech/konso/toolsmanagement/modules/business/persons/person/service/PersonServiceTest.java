@@ -10,10 +10,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.mock.web.MockMultipartFile;
+import reactor.core.publisher.Flux;
 import tech.konso.toolsmanagement.PostgreSQLContainerExtension;
 import tech.konso.toolsmanagement.modules.business.persons.label.persistence.dao.Label;
 import tech.konso.toolsmanagement.modules.business.persons.person.controller.dto.*;
@@ -21,15 +24,16 @@ import tech.konso.toolsmanagement.modules.business.persons.person.persistence.da
 import tech.konso.toolsmanagement.modules.business.persons.role.persistence.dao.Role;
 import tech.konso.toolsmanagement.modules.integration.facade.FileStorageFacade;
 import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.FileStream;
 import tech.konso.toolsmanagement.modules.integration.facade.dto.UploadResponse;
 import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+import tech.konso.toolsmanagement.system.commons.suggest.Suggestion;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -82,6 +86,7 @@ public class PersonServiceTest {
         jdbcTemplate.update("DELETE FROM persons_person");
         jdbcTemplate.update("DELETE FROM persons_label");
         jdbcTemplate.update("DELETE FROM persons_role");
+        jdbcTemplate.update("DELETE FROM integration_photo_upload");
 
     }
 
@@ -104,6 +109,13 @@ public class PersonServiceTest {
         return Files.readAllBytes(path);
     }
 
+    private FileStream getPhotoStream(byte[] photo) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.IMAGE_JPEG);
+        headers.setContentLength(photo.length);
+        return FileStream.of(HttpStatus.OK, headers, Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(photo)));
+    }
+
     private MockMultipartFile getMockMultipartFile() throws IOException {
         return new MockMultipartFile(
                 "file",
@@ -296,6 +308,8 @@ public class PersonServiceTest {
         @Test
         public void save_should_save_person_photo_uuid_test() {
             UUID photoUuid = UUID.fromString("935921a7-692e-4ee4-a089-2695b68e9801");
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status, file_uuid) VALUES (?, 'PHOTO_PERSON', 'STORED', ?)",
+                    UUID.randomUUID(), photoUuid);
             PersonRequest rq = getDefaultPersonRequest()
                     .photoUuid(photoUuid)
                     .build();
@@ -305,6 +319,22 @@ public class PersonServiceTest {
             assertEquals(rq.photoUuid(), savedPerson.getPhotoUuid());
         }
 
+        /**
+         * {@link PersonService#save(PersonRequest)}} should throw {@link BPException} if photo is not stored in file storage.
+         * Test creates dto object {@link PersonRequest} with photo uuid, which has no stored upload,
+         * and checks, that person is not saved.
+         */
+        @Test
+        public void save_should_throw_exception_if_photo_is_not_stored_test() {
+            UUID photoUuid = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status) VALUES (?, 'PHOTO_PERSON', 'PENDING')", photoUuid);
+            PersonRequest rq = getDefaultPersonRequest()
+                    .photoUuid(photoUuid)
+                    .build();
+
+            assertThrows(BPException.class, () -> service.save(rq));
+        }
+
         /**
          * {@link PersonService#save(PersonRequest)}} should save {@link Person} object with labels.
          * Test creates dto object {@link PersonRequest} and then using {@link PersonService#save(PersonRequest)}
@@ -447,7 +477,7 @@ public class PersonServiceTest {
     @Nested
     class UploadPhotoTests {
         /**
-         * {@link PersonService#findPhoto(Long)} should return {@link UploadPhotoResponse} with photo uuid.
+         * {@link PersonService#findPhoto(Long, String)} should return {@link UploadPhotoResponse} with photo uuid.
          * Test upload mock multipart file and check if uuid from service response equals mock photo uuid
          */
         @Test
@@ -462,7 +492,7 @@ public class PersonServiceTest {
         }
 
         /**
-         * {@link PersonService#findPhoto(Long)} should return {@link BPException} if storage service return not null error field.
+         * {@link PersonService#findPhoto(Long, String)} should return {@link BPException} if storage service return not null error field.
          * Test upload mock multipart file and check if service throw {@link BPException} on not null error field
          */
         @Test
@@ -474,51 +504,105 @@ public class PersonServiceTest {
         }
     }
 
+    @Nested
+    class SuggestTests {
+        /**
+         * {@link PersonService#suggest(String, int)} should suggest not archived persons by prefix of surname after index rebuild.
+         * Test rebuilds index from persons created with jdbcTemplate and searches them by prefix of surname.
+         * Then test checks that full names of all not archived persons are suggested and archived surname_6 is not.
+         */
+        @Test
+        public void suggest_should_find_not_archived_persons_by_surname_prefix_test() {
+            service.rebuildSuggestIndex();
+
+            List<Suggestion> suggestions = service.suggest("Surname_", 10);
+
+            assertEquals(List.of("surname_1 name_1", "surname_2 name_2", "surname_3 name_3", "surname_4 name_4", "surname_5 name_5"),
+                    suggestions.stream().map(Suggestion::text).toList());
+        }
+
+        /**
+         * {@link PersonService#suggest(String, int)} should suggest saved person by full name without index rebuild
+         * and should not suggest it after archiving.
+         * Test saves new person with patronymic with {@link PersonService#save(PersonRequest)}, then archives it.
+         * Then test checks suggestions after every save.
+         */
+        @Test
+        public void suggest_should_reflect_saved_and_archived_persons_test() {
+            service.rebuildSuggestIndex();
+
+            Person person = service.save(getDefaultPersonRequest().surname("Ivanov").name("Ivan").patronymic("Petrovich").build());
+
+            List<Suggestion> suggestions = service.suggest("ivanov iv", 10);
+            assertEquals(List.of("Ivanov Ivan Petrovich"), suggestions.stream().map(Suggestion::text).toList());
+            assertEquals(person.getId(), suggestions.get(0).id());
+
+            service.save(getDefaultPersonRequest().id(person.getId()).surname("Ivanov").name("Ivan").isArchived(true).build());
+
+            assertTrue(service.suggest("ivanov", 10).isEmpty());
+        }
+    }
+
     @Nested
     class FindPhotoTests {
         /**
-         * {@link PersonService#findPhoto(Long)} should return photo from storage service.
-         * Test try to get photo by person id and then check InputStreamResource from file storage and file system equals
-         * then check if hash codes of InputStreamResource from file storage and file system equals
+         * {@link PersonService#findPhoto(Long, String)} should return photo from storage service.
+         * Test try to get photo by person id and then check if returned photo stream is the stream from file storage
          */
         @Test
         public void find_photo_should_return_photo_uuid_test() throws Exception {
             long personId = jdbcTemplate.queryForObject("SELECT person_id FROM persons_person WHERE photo_uuid = '935921a7-692e-4ee4-a089-2695b68e9801'", Long.class);
-            InputStream is = new ByteArrayInputStream(getPhoto(PATH_TO_JPEG_FILE));
-            InputStreamResource photo = new InputStreamResource(is);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_PERSON))).willReturn(photo);
+            FileStream photo = getPhotoStream(getPhoto(PATH_TO_JPEG_FILE));
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_PERSON), any())).willReturn(photo);
 
-            InputStreamResource returnedResource = service.findPhoto(personId);
+            FileStream returnedPhoto = service.findPhoto(personId, null);
 
-            assertEquals(returnedResource, photo);
-            assertEquals(returnedResource.hashCode(), photo.hashCode());
+            assertEquals(photo, returnedPhoto);
         }
 
         /**
-         * {@link PersonService#findPhoto(Long)} should return {@link BPException} if photo uuid is null.
+         * {@link PersonService#findPhoto(Long, String)} should return {@link BPException} if photo uuid is null.
          * Test try to get not existing photo by person id and then check if {@link BPException} throws
          */
         @Test
         public void find_photo_should_bpexception_if_person_photo_uuid_is_null_test() throws Exception {
             long personId = jdbcTemplate.queryForObject("SELECT person_id FROM persons_person WHERE photo_uuid IS NULL LIMIT 1", Long.class);
-            InputStream is = new ByteArrayInputStream(getPhoto(PATH_TO_JPEG_FILE));
-            InputStreamResource photo = new InputStreamResource(is);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_PERSON))).willReturn(photo);
+            FileStream photo = getPhotoStream(getPhoto(PATH_TO_JPEG_FILE));
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_PERSON), any())).willReturn(photo);
 
-            assertThrows(BPException.class, () -> service.findPhoto(personId));
+            assertThrows(BPException.class, () -> service.findPhoto(personId, null));
         }
 
         /**
-         * {@link PersonService#findPhoto(Long)} should return {@link BPException} if person not found.
+         * {@link PersonService#findPhoto(Long, String)} should return {@link BPException} if person not found.
          * Test try to get photo of not existing person and then check if {@link BPException} throws
          */
         @Test
         public void find_photo_should_bpexception_if_person_not_found_test() throws Exception {
-            InputStream is = new ByteArrayInputStream(getPhoto(PATH_TO_JPEG_FILE));
-            InputStreamResource photo = new InputStreamResource(is);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_PERSON))).willReturn(photo);
+            FileStream photo = getPhotoStream(getPhoto(PATH_TO_JPEG_FILE));
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_PERSON), any())).willReturn(photo);
+
+            assertThrows(BPException.class, () -> service.findPhoto(-1L, null));
+        }
 
-            assertThrows(BPException.class, () -> service.findPhoto(-1L));
+        /**
+         * {@link PersonService#findPhotoUuids(java.util.Collection)} should return photo uuids in the order of ids.
+         * Test try to get photo uuids of persons with photo, person without photo, not existing person and duplicated id
+         * and then check, that only persons with photo are returned once.
+         */
+        @Test
+        public void find_photo_uuids_should_skip_persons_without_photo_test() {
+            jdbcTemplate.update("UPDATE persons_person SET photo_uuid = ? WHERE person_id = (SELECT MAX(person_id) FROM persons_person WHERE photo_uuid IS NULL)", UUID.randomUUID());
+            List<Long> ids = jdbcTemplate.queryForList("SELECT person_id FROM persons_person WHERE photo_uuid IS NOT NULL ORDER BY person_id LIMIT 2", Long.class);
+            long withoutPhoto = jdbcTemplate.queryForObject("SELECT person_id FROM persons_person WHERE photo_uuid IS NULL LIMIT 1", Long.class);
+
+            List<PersonPhotoInfo> photos = service.findPhotoUuids(List.of(ids.get(1), withoutPhoto, -1L, ids.get(0), ids.get(1)));
+
+            assertEquals(List.of(ids.get(1), ids.get(0)), photos.stream().map(PersonPhotoInfo::id).toList());
+            for (PersonPhotoInfo photo : photos) {
+                UUID photoUuid = jdbcTemplate.queryForObject("SELECT photo_uuid FROM persons_person WHERE person_id = ?", UUID.class, photo.id());
+                assertEquals(photoUuid, photo.photoUuid());
+            }
         }
     }
 }
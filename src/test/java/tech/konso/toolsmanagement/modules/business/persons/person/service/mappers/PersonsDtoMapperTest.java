@@ -10,9 +10,11 @@ import tech.konso.toolsmanagement.modules.business.persons.person.controller.dto
 import tech.konso.toolsmanagement.modules.business.persons.person.controller.dto.PersonInfo;
 import tech.konso.toolsmanagement.modules.business.persons.person.controller.dto.RoleShort;
 import tech.konso.toolsmanagement.modules.business.persons.person.persistence.dao.Person;
+import tech.konso.toolsmanagement.modules.business.persons.person.persistence.repository.PersonRepository.ListRow;
 import tech.konso.toolsmanagement.modules.business.persons.role.persistence.dao.Role;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -264,6 +266,39 @@ public class PersonsDtoMapperTest {
             assertIterableEquals(Stream.of(roleName1, roleName2).sorted().collect(Collectors.toSet()),
                     personFilterInfo.roles().stream().sorted().collect(Collectors.toSet()));
         }
+
+        /**
+         * {@link PersonsDtoMapper#mapToPersonFilterInfo(ListRow, Set, Set)} should map all fields of {@link ListRow}
+         * with roles and labels names.
+         * Test creates row with non-null fields and try to map it to {@link PersonFilterInfo} object.
+         * Then checks by equality fields before mapping and after.
+         */
+        @Test
+        public void map_to_person_filter_info_should_map_list_row() {
+            UUID uuid = UUID.fromString("f3d50cfe-4efa-4b70-ac6d-75c37ad8f6c8");
+            UUID companyUuid = UUID.fromString("3d965e4e-cf28-45e1-91c7-1225566e6811");
+            LocalDateTime createdAt = LocalDateTime.of(2023, 8, 13, 18, 5);
+            LocalDateTime updatedAt = createdAt.plusDays(1);
+            ListRow row = new ListRow(1L, uuid, "7-904-357-2233", companyUuid, "Smith", "Alex", "Petrovich",
+                    "Foreman", false, true, createdAt, updatedAt);
+
+            PersonFilterInfo personFilterInfo = mapper.mapToPersonFilterInfo(row, Set.of("Admin"), Set.of("Attention"));
+
+            assertEquals(1L, personFilterInfo.id());
+            assertEquals(uuid, personFilterInfo.uuid());
+            assertEquals("7-904-357-2233", personFilterInfo.phoneNumber());
+            assertEquals(companyUuid, personFilterInfo.companyUuid());
+            assertEquals("Smith", personFilterInfo.surname());
+            assertEquals("Alex", personFilterInfo.name());
+            assertEquals("Petrovich", personFilterInfo.patronymic());
+            assertEquals("Foreman", personFilterInfo.jobTitle());
+            assertEquals(false, personFilterInfo.isArchived());
+            assertEquals(true, personFilterInfo.isUnregistered());
+            assertEquals(createdAt, personFilterInfo.createdAt());
+            assertEquals(updatedAt, personFilterInfo.updatedAt());
+            assertEquals(Set.of("Admin"), personFilterInfo.roles());
+            assertEquals(Set.of("Attention"), personFilterInfo.labels());
+        }
     }
 
     @Nested
@@ -15,11 +15,13 @@ import tech.konso.toolsmanagement.modules.business.stocks.stock.controller.dto.S
 import tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.dao.Stock;
 import tech.konso.toolsmanagement.modules.business.stocks.stock.service.StockService;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -113,7 +115,7 @@ public class StockControllerTest extends AbstractControllerTest {
     @Nested
     class FindAllTests {
         /**
-         * {@link StockController#findAll(int, int, String, Boolean, String)}
+         * {@link StockController#findAll(int, int, String, Boolean, String, String, String)}
          * should return bad request with incorrect page number. Test try to search all stocks whit page = 0
          * and check if controller return bad request with detailed error message in header.
          */
@@ -128,7 +130,7 @@ public class StockControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link StockController#findAll(int, int, String, Boolean, String)}
+         * {@link StockController#findAll(int, int, String, Boolean, String, String, String)}
          * should return bad request with incorrect size number. Test try to search all stocks whit size = 99999
          * and check if controller return bad request with detailed error message in header.
          */
@@ -143,7 +145,7 @@ public class StockControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link StockController#findAll(int, int, String, Boolean, String)}  without filters should return all not archived stocks.
+         * {@link StockController#findAll(int, int, String, Boolean, String, String, String)}  without filters should return all not archived stocks.
          * Test counts all not archived stocks from the database.
          * Then test make request to find all stocks and checks if it returns the same number, as plane jdbc request.
          */
@@ -163,7 +165,7 @@ public class StockControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link StockController#findAll(int, int, String, Boolean, String)}  with archived filter,
+         * {@link StockController#findAll(int, int, String, Boolean, String, String, String)}  with archived filter,
          * should return all archived stocks.
          * Test counts all archived stocks from the database.
          * Then test make request to find all stocks and checks if it returns the same number, as plane jdbc request.
@@ -184,7 +186,7 @@ public class StockControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link StockController#findAll(int, int, String, Boolean, String)}  with not archived filter,
+         * {@link StockController#findAll(int, int, String, Boolean, String, String, String)}  with not archived filter,
          * should return all not archived stocks.
          * Test counts all not archived stocks from the database.
          * Then test make request to find all stocks and checks if it returns the same number, as plane jdbc request.
@@ -205,7 +207,7 @@ public class StockControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link StockController#findAll(int, int, String, Boolean, String)}  with filter by full name,
+         * {@link StockController#findAll(int, int, String, Boolean, String, String, String)}  with filter by full name,
          * should return stock with this name.
          * Test counts all stock with concrete name.
          * Then test make request to find all stocks and checks if it returns the same number, as plane jdbc request,
@@ -228,7 +230,7 @@ public class StockControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link StockController#findAll(int, int, String, Boolean, String)}  with filter by part of name,
+         * {@link StockController#findAll(int, int, String, Boolean, String, String, String)}  with filter by part of name,
          * should return stock with this name.
          * Test counts all stock with like filter by name.
          * Then test make request to find all stocks and checks if it returns the same number, as plane jdbc request.
@@ -252,7 +254,7 @@ public class StockControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link StockController#findAll(int, int, String, Boolean, String)}  with filter sorting by name asc,
+         * {@link StockController#findAll(int, int, String, Boolean, String, String, String)}  with filter sorting by name asc,
          * should return sorted stocks by names asc.
          * Test returns stock names from database(using jdbcTemplate) ordered by name asc.
          * Then test make request to find all stocks and checks if it returns the stocks in the same order, as plane jdbc request.
@@ -277,7 +279,7 @@ public class StockControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link StockController#findAll(int, int, String, Boolean, String)}  with filter sorting by name desc,
+         * {@link StockController#findAll(int, int, String, Boolean, String, String, String)}  with filter sorting by name desc,
          * should return sorted stocks by name desc.
          * Test returns stock names from database(using jdbcTemplate) ordered by name desc.
          * Then test make request to find all stocks and checks if it returns the stocks in the same order, as plane jdbc request.
@@ -302,7 +304,7 @@ public class StockControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link StockController#findAll(int, int, String, Boolean, String)}  with filter sorting by create date asc,
+         * {@link StockController#findAll(int, int, String, Boolean, String, String, String)}  with filter sorting by create date asc,
          * should return sorted stocks by create date asc.
          * Test returns stock names from database(using jdbcTemplate) ordered by created date asc.
          * Then test make request to find all stocks and checks if it returns the stocks in the same order, as plane jdbc request.
@@ -327,7 +329,7 @@ public class StockControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link StockController#findAll(int, int, String, Boolean, String)}  with filter sorting by create date desc,
+         * {@link StockController#findAll(int, int, String, Boolean, String, String, String)}  with filter sorting by create date desc,
          * should return sorted stocks by create date desc.
          * Test returns stock names from database(using jdbcTemplate) ordered by created date desc.
          * Then test make request to find all stocks and checks if it returns the stocks in the same order, as plane jdbc request.
@@ -351,7 +353,7 @@ public class StockControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link StockController#findAll(int, int, String, Boolean, String)}  without filter by default
+         * {@link StockController#findAll(int, int, String, Boolean, String, String, String)}  without filter by default
          * should return sorted stocks by create date desc.
          * Test returns stock names from database(using jdbcTemplate) ordered by created date desc.
          * Then test make request to find all stocks and checks if it returns the stocks in the same order, as plane jdbc request.
@@ -374,6 +376,55 @@ public class StockControllerTest extends AbstractControllerTest {
                             })
                     ));
         }
+
+        /**
+         * {@link StockController#findAll(int, int, String, Boolean, String, String, String)} with after cursor,
+         * should return next pages of stocks in the order of sort filter.
+         * Test returns stock names from database(using jdbcTemplate) ordered by name asc.
+         * Then test requests the first page of size 2 and follows nextCursor of every response until it is null.
+         * Then test checks if collected stocks are in the same order, as plane jdbc request,
+         * and that total items are not counted for keyset pages.
+         */
+        @Test
+        public void findAll_with_after_cursor_should_return_next_pages_test() throws Exception {
+            List<String> stockNames = jdbcTemplate.queryForList("SELECT name FROM stocks_stock WHERE is_archived IS FALSE ORDER BY name ASC, stock_id ASC", String.class);
+            List<String> stockNamesResponse = new ArrayList<>();
+
+            String content = mockMvc.perform(get(urlEndpoint() + "?page=1&size=2&sort=name,asc"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            StockFilterResponse rs = objectMapper.readValue(content, StockFilterResponse.class);
+            stockNamesResponse.addAll(rs.stocks().stream().map(StockFilterInfo::name).toList());
+            while (rs.nextCursor() != null) {
+                content = mockMvc.perform(get(urlEndpoint() + "?size=2&sort=name,asc&after=" + rs.nextCursor()))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                rs = objectMapper.readValue(content, StockFilterResponse.class);
+                assertNull(rs.totalItems());
+                stockNamesResponse.addAll(rs.stocks().stream().map(StockFilterInfo::name).toList());
+            }
+
+            assertIterableEquals(stockNames, stockNamesResponse);
+        }
+
+        /**
+         * {@link StockController#findAll(int, int, String, Boolean, String, String, String)}
+         * should return bad request with cursor built for another sort.
+         * Test receives nextCursor for sorting by name asc and try to use it for sorting by name desc,
+         * then checks if controller return bad request.
+         */
+        @Test
+        public void findAll_with_cursor_of_another_sort_should_return_bad_request_test() throws Exception {
+            String content = mockMvc.perform(get(urlEndpoint() + "?page=1&size=2&sort=name,asc"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            String cursor = objectMapper.readValue(content, StockFilterResponse.class).nextCursor();
+
+            mockMvc.perform(get(urlEndpoint() + "?size=2&sort=name,desc&after=" + cursor))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().stringValues("detail", "Cursor doesn't match sort: name,desc"));
+        }
     }
 
     @Nested
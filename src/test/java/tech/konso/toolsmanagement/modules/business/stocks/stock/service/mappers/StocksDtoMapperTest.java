@@ -7,6 +7,7 @@ import org.junit.jupiter.api.TestInstance;
 import tech.konso.toolsmanagement.modules.business.stocks.stock.controller.dto.StockFilterInfo;
 import tech.konso.toolsmanagement.modules.business.stocks.stock.controller.dto.StockInfo;
 import tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.dao.Stock;
+import tech.konso.toolsmanagement.modules.business.stocks.stock.persistence.repository.StockRepository.ListRow;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -181,6 +182,34 @@ public class StocksDtoMapperTest {
 
             assertEquals(updatedAt, stockFilterInfo.updatedAt());
         }
+
+        /**
+         * {@link StocksDtoMapper#mapToStockFilterInfo(ListRow)} should map all fields of {@link ListRow}.
+         * Test creates row with non-null fields and try to map it to {@link StockFilterInfo} object.
+         * Then checks by equality fields before mapping and after.
+         */
+        @Test
+        public void map_to_stock_filter_info_should_map_list_row() {
+            UUID uuid = UUID.fromString("f3d50cfe-4efa-4b70-ac6d-75c37ad8f6c8");
+            UUID companyUuid = UUID.fromString("3d965e4e-cf28-45e1-91c7-1225566e6811");
+            LocalDateTime createdAt = LocalDateTime.of(2023, 8, 13, 18, 5);
+            LocalDateTime updatedAt = createdAt.plusDays(1);
+            ListRow row = new ListRow(1L, uuid, "Food stock", "Moscow, Petroka 56", companyUuid, companyUuid,
+                    uuid, false, createdAt, updatedAt);
+
+            StockFilterInfo stockFilterInfo = mapper.mapToStockFilterInfo(row);
+
+            assertEquals(1L, stockFilterInfo.id());
+            assertEquals(uuid, stockFilterInfo.uuid());
+            assertEquals("Food stock", stockFilterInfo.name());
+            assertEquals("Moscow, Petroka 56", stockFilterInfo.address());
+            assertEquals(companyUuid, stockFilterInfo.companyUuid());
+            assertEquals(companyUuid, stockFilterInfo.responsibleCompanyUuid());
+            assertEquals(uuid, stockFilterInfo.responsiblePersonUuid());
+            assertEquals(false, stockFilterInfo.isArchived());
+            assertEquals(createdAt, stockFilterInfo.createdAt());
+            assertEquals(updatedAt, stockFilterInfo.updatedAt());
+        }
     }
 
     @Nested
@@ -17,6 +17,7 @@ import tech.konso.toolsmanagement.modules.business.tools.brand.controller.dto.Br
 import tech.konso.toolsmanagement.modules.business.tools.brand.controller.dto.BrandRequest;
 import tech.konso.toolsmanagement.modules.business.tools.brand.persistence.dao.Brand;
 import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+import tech.konso.toolsmanagement.system.commons.suggest.Suggestion;
 
 import java.util.List;
 
@@ -98,6 +99,56 @@ public class BrandServiceTest {
         }
     }
 
+    @Nested
+    class FindNameByIdTests {
+        /**
+         * {@link BrandService#findNameById(Long)} should return name of {@link Brand} by id.
+         * Test finds existing brand id in database with jdbcTemplate
+         * and checks if {@link BrandService#findNameById(Long)} returns its name.
+         */
+        @Test
+        public void findNameById_should_return_brand_name_test() {
+            long brandId = jdbcTemplate.queryForObject("SELECT brand_id FROM tools_brand WHERE name = 'brand_1' AND is_archived IS FALSE", Long.class);
+
+            String name = service.findNameById(brandId);
+
+            assertEquals("brand_1", name);
+        }
+
+        /**
+         * {@link BrandService#findNameById(Long)} should return new name of {@link Brand} after it was saved.
+         * Test puts brand name to cache with {@link BrandService#findNameById(Long)},
+         * then updates brand name using {@link BrandService#save(BrandRequest)}
+         * and checks if {@link BrandService#findNameById(Long)} returns new name instead of cached one.
+         */
+        @Test
+        public void findNameById_should_return_new_name_after_save_test() {
+            long brandId = jdbcTemplate.queryForObject("SELECT brand_id FROM tools_brand WHERE name = 'brand_1' AND is_archived IS FALSE", Long.class);
+            service.findNameById(brandId);
+            BrandRequest rq = getDefaultBrandRequest()
+                    .id(brandId)
+                    .name("new_brand")
+                    .build();
+
+            service.save(rq);
+
+            assertEquals("new_brand", service.findNameById(brandId));
+        }
+
+        /**
+         * {@link BrandService#findNameById(Long)} should throw {@link BPException} exception
+         * if {@link Brand} with id not exist in database.
+         * Test try to find name of brand whit id = -1 (negative number guaranties, that no such id exists in database)
+         * and check if {@link BPException} is thrown.
+         */
+        @Test
+        public void findNameById_should_throw_exception_on_not_fount_brand_test() {
+            long brandId = -1;
+
+            assertThrows(BPException.class, () -> service.findNameById(brandId));
+        }
+    }
+
     @Nested
     class SaveTests {
         /**
@@ -438,4 +489,41 @@ public class BrandServiceTest {
             assertEquals(1, foundedBrands.getContent().size());
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class SuggestTests {
+        /**
+         * {@link BrandService#suggest(String, int)} should suggest not archived brands by prefix of name after index rebuild.
+         * Test rebuilds index from brands created with jdbcTemplate and searches them by prefix.
+         * Then test checks that all not archived brands are suggested in order of name and archived brand_6 is not.
+         */
+        @Test
+        public void suggest_should_find_not_archived_brands_by_name_prefix_test() {
+            service.rebuildSuggestIndex();
+
+            List<Suggestion> suggestions = service.suggest("BRAND", 10);
+
+            assertEquals(List.of("brand_1", "brand_2", "brand_3", "brand_4", "brand_5"),
+                    suggestions.stream().map(Suggestion::text).toList());
+        }
+
+        /**
+         * {@link BrandService#suggest(String, int)} should suggest saved brand without index rebuild
+         * and should not suggest it after archiving.
+         * Test saves new brand with {@link BrandService#save(BrandRequest)}, then archives it.
+         * Then test checks suggestions after every save.
+         */
+        @Test
+        public void suggest_should_reflect_saved_and_archived_brands_test() {
+            service.rebuildSuggestIndex();
+
+            Brand brand = service.save(getDefaultBrandRequest().build());
+
+            assertEquals(List.of(brand.getId()), service.suggest("mak", 10).stream().map(Suggestion::id).toList());
+
+            service.save(getDefaultBrandRequest().id(brand.getId()).isArchived(true).build());
+
+            assertTrue(service.suggest("mak", 10).isEmpty());
+        }
+    }
+}
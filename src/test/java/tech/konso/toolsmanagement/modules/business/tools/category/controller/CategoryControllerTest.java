@@ -129,10 +129,69 @@ public class CategoryControllerTest extends AbstractControllerTest {
         }
     }
 
+    @Nested
+    class FindTreeTests {
+        /**
+         * {@link CategoryController#findTree()} should return all categories as tree.
+         * Test creates sub category of category_1 with jdbcTemplate and checks status code 200,
+         * number of root categories and sub category of category_1.
+         */
+        @Test
+        public void findTree_should_return_category_tree_test() throws Exception {
+            long categoryId = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_1' AND is_archived IS FALSE", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_category (name, parent_category_id) VALUES ('sub_category_1', '" + categoryId + "')");
+
+            mockMvc.perform(get(urlEndpoint() + "/tree"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.length()").value(6))
+                    .andExpect(jsonPath("$[0].id").value(categoryId))
+                    .andExpect(jsonPath("$[0].subcategories[0].name").value("sub_category_1"));
+        }
+    }
+
+    @Nested
+    class ArchiveTests {
+        /**
+         * {@link CategoryController#archive(Long, Boolean, Boolean)} should archive category with its sub categories.
+         * Test creates sub category of category_1 with jdbcTemplate and checks status code 200,
+         * number of changed categories and archived flag of sub category.
+         */
+        @Test
+        public void archive_should_archive_subtree_test() throws Exception {
+            long categoryId = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_1' AND is_archived IS FALSE", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_category (name, parent_category_id) VALUES ('sub_category_1', '" + categoryId + "')");
+
+            mockMvc.perform(put(urlEndpoint() + "/" + categoryId + "/archive"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.categories").value(2))
+                    .andExpect(jsonPath("$.tools").value(0));
+
+            Boolean isArchived = jdbcTemplate.queryForObject("SELECT is_archived FROM tools_category WHERE name = 'sub_category_1'", Boolean.class);
+            assertEquals(true, isArchived);
+        }
+
+        /**
+         * {@link CategoryController#archive(Long, Boolean, Boolean)} should return not found if {@link Category}
+         * with id not exist in database.
+         */
+        @Test
+        public void archive_should_return_not_found_test() throws Exception {
+            long categoryId = -1L;
+
+            mockMvc.perform(put(urlEndpoint() + "/" + categoryId + "/archive"))
+                    .andDo(print())
+                    .andExpect(status().isNotFound())
+                    .andExpect(header().stringValues("detail", "Category not found id: " + categoryId));
+        }
+    }
+
     @Nested
     class FindAllTests {
         /**
-         * {@link CategoryController#findAll(int, int, String, Boolean, String)}
+         * {@link CategoryController#findAll(int, int, String, Boolean, String, String)}
          * should return bad request with incorrect page number. Test try to search all categories whit page = 0
          * and check if controller return bad request with detailed error message in header.
          */
@@ -147,7 +206,7 @@ public class CategoryControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CategoryController#findAll(int, int, String, Boolean, String)}
+         * {@link CategoryController#findAll(int, int, String, Boolean, String, String)}
          * should return bad request with incorrect size number. Test try to search all categories whit size = 99999
          * and check if controller return bad request with detailed error message in header.
          */
@@ -162,7 +221,7 @@ public class CategoryControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CategoryController#findAll(int, int, String, Boolean, String)}  without filters should return all not archived categories.
+         * {@link CategoryController#findAll(int, int, String, Boolean, String, String)}  without filters should return all not archived categories.
          * Test counts all not archived categories from the database.
          * Then test make request to find all categories and checks if it returns the same number, as plane jdbc request.
          */
@@ -182,7 +241,7 @@ public class CategoryControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CategoryController#findAll(int, int, String, Boolean, String)}  with archived filter,
+         * {@link CategoryController#findAll(int, int, String, Boolean, String, String)}  with archived filter,
          * should return all archived categories.
          * Test counts all archived categories from the database.
          * Then test make request to find all categories and checks if it returns the same number, as plane jdbc request.
@@ -203,7 +262,7 @@ public class CategoryControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CategoryController#findAll(int, int, String, Boolean, String)}  with not archived filter,
+         * {@link CategoryController#findAll(int, int, String, Boolean, String, String)}  with not archived filter,
          * should return all not archived categories.
          * Test counts all not archived categories from the database.
          * Then test make request to find all categories and checks if it returns the same number, as plane jdbc request.
@@ -224,7 +283,7 @@ public class CategoryControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CategoryController#findAll(int, int, String, Boolean, String)}  with filter by full name,
+         * {@link CategoryController#findAll(int, int, String, Boolean, String, String)}  with filter by full name,
          * should return category with this name.
          * Test counts all category with concrete name.
          * Then test make request to find all categories and checks if it returns the same number, as plane jdbc request,
@@ -247,7 +306,7 @@ public class CategoryControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CategoryController#findAll(int, int, String, Boolean, String)}  with filter by part of name,
+         * {@link CategoryController#findAll(int, int, String, Boolean, String, String)}  with filter by part of name,
          * should return category with this name.
          * Test counts all category with like filter by name.
          * Then test make request to find all categories and checks if it returns the same number, as plane jdbc request.
@@ -271,7 +330,7 @@ public class CategoryControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CategoryController#findAll(int, int, String, Boolean, String)}  with filter sorting by name asc,
+         * {@link CategoryController#findAll(int, int, String, Boolean, String, String)}  with filter sorting by name asc,
          * should return sorted categories by names asc.
          * Test returns category names from database(using jdbcTemplate) ordered by name asc.
          * Then test make request to find all categories and checks if it returns the categories in the same order, as plane jdbc request.
@@ -296,7 +355,7 @@ public class CategoryControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CategoryController#findAll(int, int, String, Boolean, String)}  with filter sorting by name desc,
+         * {@link CategoryController#findAll(int, int, String, Boolean, String, String)}  with filter sorting by name desc,
          * should return sorted categories by name desc.
          * Test returns category names from database(using jdbcTemplate) ordered by name desc.
          * Then test make request to find all categories and checks if it returns the categories in the same order, as plane jdbc request.
@@ -321,7 +380,7 @@ public class CategoryControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CategoryController#findAll(int, int, String, Boolean, String)}  with filter sorting by create date asc,
+         * {@link CategoryController#findAll(int, int, String, Boolean, String, String)}  with filter sorting by create date asc,
          * should return sorted categories by create date asc.
          * Test returns category names from database(using jdbcTemplate) ordered by created date asc.
          * Then test make request to find all categories and checks if it returns the categories in the same order, as plane jdbc request.
@@ -346,7 +405,7 @@ public class CategoryControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CategoryController#findAll(int, int, String, Boolean, String)}  with filter sorting by create date desc,
+         * {@link CategoryController#findAll(int, int, String, Boolean, String, String)}  with filter sorting by create date desc,
          * should return sorted categories by create date desc.
          * Test returns category names from database(using jdbcTemplate) ordered by created date desc.
          * Then test make request to find all categories and checks if it returns the categories in the same order, as plane jdbc request.
@@ -370,7 +429,7 @@ public class CategoryControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CategoryController#findAll(int, int, String, Boolean, String)}  without filter by default
+         * {@link CategoryController#findAll(int, int, String, Boolean, String, String)}  without filter by default
          * should return sorted categories by create date desc.
          * Test returns category names from database(using jdbcTemplate) ordered by created date desc.
          * Then test make request to find all categories and checks if it returns the categories in the same order, as plane jdbc request.
@@ -13,10 +13,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.jdbc.core.JdbcTemplate;
 import tech.konso.toolsmanagement.PostgreSQLContainerExtension;
+import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryArchiveResponse;
 import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryFilterResponse;
 import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryInfo;
 import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryRequest;
+import tech.konso.toolsmanagement.modules.business.tools.category.controller.dto.CategoryTree;
 import tech.konso.toolsmanagement.modules.business.tools.category.persistence.dao.Category;
+import tech.konso.toolsmanagement.modules.business.tools.tool.service.ToolService;
 import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
 
 import java.util.List;
@@ -47,6 +50,9 @@ public class CategoryServiceTest {
     @Autowired
     private CategoryService service;
 
+    @Autowired
+    private ToolService toolService;
+
     @BeforeEach
     public void setUp() {
         jdbcTemplate.update("INSERT INTO tools_category (name) VALUES ('category_1')");
@@ -60,6 +66,7 @@ public class CategoryServiceTest {
 
     @AfterEach
     public void tearDown() {
+        jdbcTemplate.update("DELETE FROM tools_tool");
         jdbcTemplate.update("DELETE FROM tools_category");
     }
 
@@ -178,7 +185,6 @@ public class CategoryServiceTest {
 
             CategoryRequest rq = getDefaultCategoryRequest()
                     .id(categoryIdParent)
-                    .parentCategoryId(categoryIdChild)
                     .isArchived(true)
                     .build();
 
@@ -256,6 +262,200 @@ public class CategoryServiceTest {
         }
     }
 
+    @Nested
+    class TreeTests {
+        /**
+         * {@link CategoryService#save(CategoryRequest)} should not move {@link Category} to its own subtree.
+         * Test creates sub category and sub sub category of existing category with jdbcTemplate and try
+         * to update parent of category with sub sub category id using {@link CategoryService#save(CategoryRequest)}.
+         * Then checks if {@link BPException} is thrown and parent category not updated.
+         */
+        @Test
+        public void update_should_not_move_category_to_its_subtree_test() {
+            long categoryId = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_1'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_category (name, parent_category_id) VALUES ('category_1_1', " + categoryId + ")");
+            long childId = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_1_1'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_category (name, parent_category_id) VALUES ('category_1_1_1', " + childId + ")");
+            long grandChildId = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_1_1_1'", Long.class);
+            CategoryRequest rq = getDefaultCategoryRequest()
+                    .id(categoryId)
+                    .parentCategoryId(grandChildId)
+                    .build();
+
+            assertThrows(BPException.BadRequest.class, () -> service.save(rq));
+
+            Long parentCategoryId = jdbcTemplate.queryForObject("SELECT parent_category_id FROM tools_category WHERE category_id = " + categoryId, Long.class);
+            assertNull(parentCategoryId);
+        }
+
+        /**
+         * {@link CategoryService#save(CategoryRequest)} should move links of whole subtree in closure of category tree.
+         * Test creates sub category of category_1 with sub sub category with jdbcTemplate, then moves sub category
+         * to category_2 using {@link CategoryService#save(CategoryRequest)}.
+         * Then checks ancestors of sub sub category in closure table.
+         */
+        @Test
+        public void update_should_move_subtree_in_closure_test() {
+            long oldParentId = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_1'", Long.class);
+            long newParentId = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_2'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_category (name, parent_category_id) VALUES ('category_1_1', " + oldParentId + ")");
+            long childId = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_1_1'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_category (name, parent_category_id) VALUES ('category_1_1_1', " + childId + ")");
+            long grandChildId = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_1_1_1'", Long.class);
+            CategoryRequest rq = getDefaultCategoryRequest()
+                    .id(childId)
+                    .name("category_1_1")
+                    .parentCategoryId(newParentId)
+                    .build();
+
+            service.save(rq);
+
+            List<Long> ancestors = jdbcTemplate.queryForList("SELECT ancestor_id FROM tools_category_closure WHERE descendant_id = "
+                    + grandChildId + " ORDER BY depth", Long.class);
+            assertEquals(List.of(grandChildId, childId, newParentId), ancestors);
+        }
+
+        /**
+         * {@link CategoryService#findTree()} should return all categories as tree.
+         * Test saves sub category and sub sub category of category_1 using {@link CategoryService#save(CategoryRequest)}.
+         * Then checks number of root categories and path from category_1 to sub sub category.
+         */
+        @Test
+        public void findTree_should_return_category_tree_test() {
+            long categoryId = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_1'", Long.class);
+            Category child = service.save(getDefaultCategoryRequest().name("category_1_1").parentCategoryId(categoryId).build());
+            service.save(getDefaultCategoryRequest().name("category_1_1_1").parentCategoryId(child.getId()).build());
+
+            List<CategoryTree> roots = service.findTree();
+
+            assertEquals(6, roots.size());
+            CategoryTree root = roots.get(0);
+            assertEquals("category_1", root.name());
+            assertEquals("category_1_1", root.subcategories().get(0).name());
+            assertEquals("category_1_1_1", root.subcategories().get(0).subcategories().get(0).name());
+        }
+    }
+
+    @Nested
+    class ArchiveTests {
+        /**
+         * Create category_1 -> category_1_1 -> category_1_1_1 subtree with jdbcTemplate and link tool to every category
+         *
+         * @return id of category_1
+         */
+        private long createSubtree() {
+            long categoryId = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_1'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_category (name, parent_category_id) VALUES ('category_1_1', " + categoryId + ")");
+            long childId = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_1_1'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_category (name, parent_category_id) VALUES ('category_1_1_1', " + childId + ")");
+            jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid, category_id) " +
+                    "SELECT 'tool_' || name, 'OWN', gen_random_uuid(), category_id FROM tools_category WHERE name LIKE 'category_1%'");
+            jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid, category_id) " +
+                    "SELECT 'tool_' || name, 'OWN', gen_random_uuid(), category_id FROM tools_category WHERE name = 'category_2'");
+            return categoryId;
+        }
+
+        /**
+         * {@link CategoryService#archive(Long, boolean, boolean)} should archive category with all its descendants.
+         * Test creates subtree of three levels and archives its root without tools.
+         * Then checks number of changed categories and that all subtree categories are archived, but tools are not.
+         */
+        @Test
+        public void archive_should_archive_all_descendant_categories_test() {
+            long categoryId = createSubtree();
+
+            CategoryArchiveResponse rs = service.archive(categoryId, true, false);
+
+            assertEquals(3, rs.categories());
+            assertEquals(0, rs.tools());
+            Long notArchived = jdbcTemplate.queryForObject("SELECT count(*) FROM tools_category WHERE name LIKE 'category_1%' AND is_archived IS FALSE", Long.class);
+            assertEquals(0, notArchived);
+            Long archivedTools = jdbcTemplate.queryForObject("SELECT count(*) FROM tools_tool WHERE is_archived IS TRUE", Long.class);
+            assertEquals(0, archivedTools);
+        }
+
+        /**
+         * {@link CategoryService#archive(Long, boolean, boolean)} should archive tools of subtree categories.
+         * Test creates subtree of three levels and archives its root with tools.
+         * Then checks number of changed tools and that tool of category out of subtree is not archived.
+         */
+        @Test
+        public void archive_should_archive_tools_of_subtree_test() {
+            long categoryId = createSubtree();
+
+            CategoryArchiveResponse rs = service.archive(categoryId, true, true);
+
+            assertEquals(3, rs.tools());
+            Boolean isArchived = jdbcTemplate.queryForObject("SELECT is_archived FROM tools_tool WHERE name = 'tool_category_2'", Boolean.class);
+            assertFalse(isArchived);
+        }
+
+        /**
+         * {@link CategoryService#archive(Long, boolean, boolean)} should remove archived tools of subtree from tool suggestions.
+         * Test creates subtree of three levels, rebuilds tool suggestions and archives its root with tools.
+         * Then checks that tools of subtree are not suggested, but tool of category out of subtree is.
+         */
+        @Test
+        public void archive_should_remove_archived_tools_from_suggestions_test() {
+            long categoryId = createSubtree();
+            toolService.rebuildSuggestIndex();
+            assertEquals(3, toolService.suggest("tool_category_1", 10).size());
+
+            service.archive(categoryId, true, true);
+
+            assertTrue(toolService.suggest("tool_category_1", 10).isEmpty());
+            assertEquals(1, toolService.suggest("tool_category_2", 10).size());
+        }
+
+        /**
+         * {@link CategoryService#archive(Long, boolean, boolean)} should unarchive only archived categories of subtree.
+         * Test creates subtree of three levels, archives one sub category with jdbcTemplate and unarchives root.
+         * Then checks that only one category is changed.
+         */
+        @Test
+        public void archive_should_unarchive_subtree_test() {
+            long categoryId = createSubtree();
+            jdbcTemplate.update("UPDATE tools_category SET is_archived = TRUE WHERE name = 'category_1_1_1'");
+
+            CategoryArchiveResponse rs = service.archive(categoryId, false, false);
+
+            assertEquals(1, rs.categories());
+            Boolean isArchived = jdbcTemplate.queryForObject("SELECT is_archived FROM tools_category WHERE name = 'category_1_1_1'", Boolean.class);
+            assertFalse(isArchived);
+        }
+
+        /**
+         * {@link CategoryService#archive(Long, boolean, boolean)} should throw {@link BPException.NotFound}
+         * if {@link Category} with id not exist in database.
+         */
+        @Test
+        public void archive_should_throw_exception_on_not_found_category_test() {
+            assertThrows(BPException.NotFound.class, () -> service.archive(-1L, true, false));
+        }
+
+        /**
+         * {@link CategoryService#save(CategoryRequest)} should archive all descendant categories, when category becomes archived.
+         * Test creates subtree of three levels and archives its root using {@link CategoryService#save(CategoryRequest)}.
+         * Then checks that sub sub category is archived.
+         */
+        @Test
+        public void save_should_archive_all_descendant_categories_test() {
+            long categoryId = createSubtree();
+            CategoryRequest rq = getDefaultCategoryRequest()
+                    .id(categoryId)
+                    .name("category_1")
+                    .isArchived(true)
+                    .build();
+
+            Category category = service.save(rq);
+
+            assertTrue(category.getIsArchived());
+            assertEquals("category_1", category.getName());
+            Boolean isArchived = jdbcTemplate.queryForObject("SELECT is_archived FROM tools_category WHERE name = 'category_1_1_1'", Boolean.class);
+            assertTrue(isArchived);
+        }
+    }
+
     @Nested
     class SaveTest {
         /**
@@ -14,9 +14,11 @@ import tech.konso.toolsmanagement.modules.business.tools.comment.controller.dto.
 import tech.konso.toolsmanagement.modules.business.tools.comment.persistence.dao.Comment;
 import tech.konso.toolsmanagement.modules.business.tools.commons.AbstractControllerTest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -79,7 +81,7 @@ public class CommentControllerTest extends AbstractControllerTest {
     @Nested
     class FindAllTests {
         /**
-         * {@link CommentController#findAll(int, int, long, String)}
+         * {@link CommentController#findAll(int, int, long, String, String)}
          * should return bad request with incorrect page number. Test try to search all tools whit page = 0
          * and check if controller return bad request with detailed error message in header.
          */
@@ -94,7 +96,7 @@ public class CommentControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CommentController#findAll(int, int, long, String)}
+         * {@link CommentController#findAll(int, int, long, String, String)}
          * should return bad request with incorrect size number. Test try to search all tools whit size = 99999
          * and check if controller return bad request with detailed error message in header.
          */
@@ -109,7 +111,7 @@ public class CommentControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CommentController#findAll(int, int, long, String)}
+         * {@link CommentController#findAll(int, int, long, String, String)}
          * should return bad request with incorrect size number. Test try to search all tools whit size = 99999
          * and check if controller return bad request with detailed error message in header.
          */
@@ -124,7 +126,7 @@ public class CommentControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CommentController#findAll(int, int, long, String)} with filter should return comments for tool with
+         * {@link CommentController#findAll(int, int, long, String, String)} with filter should return comments for tool with
          * desc order by create date.
          * Test returns comments from database(using jdbcTemplate) ordered by created date desc.
          * Then test make request to find all tool comments and checks if it returns the tool comments in the same order, as plane jdbc request.
@@ -150,7 +152,7 @@ public class CommentControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CommentController#findAll(int, int, long, String)} without filters should return comments for tool with
+         * {@link CommentController#findAll(int, int, long, String, String)} without filters should return comments for tool with
          * desc order by create date.
          * Test returns comments from database(using jdbcTemplate) ordered by created date desc.
          * Then test make request to find all tool comments and checks if it returns the tool comments in the same order, as plane jdbc request.
@@ -176,7 +178,7 @@ public class CommentControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link CommentController#findAll(int, int, long, String)} with filter should return comments for tool with
+         * {@link CommentController#findAll(int, int, long, String, String)} with filter should return comments for tool with
          * asc order by create date.
          * Test returns comments from database(using jdbcTemplate) ordered by created date asc.
          * Then test make request to find all tool comments and checks if it returns the tool comments in the same order, as plane jdbc request.
@@ -483,4 +485,60 @@ public class CommentControllerTest extends AbstractControllerTest {
                     .andExpect(header().stringValues("detail", "Person UUID must not be null"));
         }
     }
+
+    @Nested
+    class SearchTests {
+        /**
+         * {@link CommentController#search(String, int, Long, UUID, LocalDateTime, LocalDateTime)} should return comments
+         * matched search string with snippets.
+         * Test creates comment with jdbcTemplate and makes request with word of its content.
+         * Then test checks that only this comment is found with its tool id and highlighted word in snippet.
+         */
+        @Test
+        public void search_should_return_matched_comments_with_snippets_test() throws Exception {
+            Long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE name = 'tool_1'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_comment (tool_id, content, person_uuid) VALUES ('" + toolId + "', 'Battery of the drill was replaced', '935921a7-692e-4ee4-a089-2695b68e9802')");
+            String tail = "/search?q=batteries&size=20&toolId=" + toolId + "&createdFrom=2023-01-01T00:00:00";
+
+            mockMvc.perform(get(urlEndpoint() + tail))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.comments.length()").value(1))
+                    .andExpect(jsonPath("$.comments[0].comment.content").value("Battery of the drill was replaced"))
+                    .andExpect(jsonPath("$.comments[0].toolId").value(toolId))
+                    .andExpect(jsonPath("$.comments[0].snippet").value(containsString("<b>Battery</b>")));
+        }
+
+        /**
+         * {@link CommentController#search(String, int, Long, UUID, LocalDateTime, LocalDateTime)} should return bad request
+         * with blank search string.
+         * Test makes request with blank search string
+         * and checks if controller return bad request with detailed error message in header.
+         */
+        @Test
+        public void search_with_blank_query_should_return_bad_request_test() throws Exception {
+            String tail = "/search?q= &size=20";
+
+            mockMvc.perform(get(urlEndpoint() + tail))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().stringValues("detail", "search.q: must not be blank"));
+        }
+
+        /**
+         * {@link CommentController#search(String, int, Long, UUID, LocalDateTime, LocalDateTime)} should return bad request
+         * with incorrect size number. Test makes request with size = 99999
+         * and checks if controller return bad request with detailed error message in header.
+         */
+        @Test
+        public void search_with_incorrect_size_should_return_bad_request_test() throws Exception {
+            String tail = "/search?q=battery&size=99999";
+
+            mockMvc.perform(get(urlEndpoint() + tail))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().stringValues("detail", "search.size: must be less than or equal to 50"));
+        }
+    }
 }
@@ -14,9 +14,11 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import tech.konso.toolsmanagement.PostgreSQLContainerExtension;
 import tech.konso.toolsmanagement.modules.business.tools.comment.controller.dto.CommentFilterInfo;
 import tech.konso.toolsmanagement.modules.business.tools.comment.controller.dto.CommentRequest;
+import tech.konso.toolsmanagement.modules.business.tools.comment.controller.dto.CommentSearchInfo;
 import tech.konso.toolsmanagement.modules.business.tools.comment.persistence.dao.Comment;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.Tool;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -364,5 +366,129 @@ public class CommentServiceTest {
         }
     }
 
-}
+    @Nested
+    class SearchTests {
+
+        private Long insertComment(String toolName, String content, String personUuid, String createdAt) {
+            Long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE name = '" + toolName + "'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_comment (tool_id, content, person_uuid, created_at) VALUES (?, ?, ?::uuid, ?::timestamp)",
+                    toolId, content, personUuid, createdAt);
+            return toolId;
+        }
+
+        private List<String> contents(List<CommentSearchInfo> found) {
+            return found.stream().map(info -> info.comment().content()).toList();
+        }
+
+        /**
+         * {@link CommentService#search(String, Long, UUID, LocalDateTime, LocalDateTime, int)} should find comments
+         * by word forms of search string and highlight matched words in snippet.
+         * Test creates two comments with different forms of the same word with jdbcTemplate and searches them by word.
+         * Then test checks that both comments are found with positive rank and snippets with highlighted words.
+         */
+        @Test
+        public void search_should_find_comments_by_word_forms_with_snippets_test() {
+            Long toolId = insertComment("tool_1", "Battery of the drill was replaced", "935921a7-692e-4ee4-a089-2695b68e9802", "2023-08-01 10:00:00");
+            insertComment("tool_1", "Drills are sharpened", "935921a7-692e-4ee4-a089-2695b68e9802", "2023-08-02 10:00:00");
+
+            List<CommentSearchInfo> found = service.search("drill", null, null, null, null, 20);
+
+            assertEquals(List.of("Drills are sharpened", "Battery of the drill was replaced"), contents(found));
+            assertTrue(found.stream().allMatch(info -> info.rank() > 0));
+            assertTrue(found.stream().allMatch(info -> toolId.equals(info.toolId())));
+            assertTrue(found.get(0).snippet().contains("<b>Drills</b>"));
+            assertTrue(found.get(1).snippet().contains("<b>drill</b>"));
+        }
+
+        /**
+         * {@link CommentService#search(String, Long, UUID, LocalDateTime, LocalDateTime, int)} should escape html
+         * of comment content in snippet.
+         * Test creates comment with script tag and html special characters with jdbcTemplate and searches it by word.
+         * Then test checks that special characters are escaped and snippet has no tags except highlight of matched word.
+         */
+        @Test
+        public void search_should_escape_html_in_snippet_test() {
+            insertComment("tool_1", "Drill 1 < 2 & <script>alert('x')</script>", "935921a7-692e-4ee4-a089-2695b68e9802", "2023-08-01 10:00:00");
+
+            List<CommentSearchInfo> found = service.search("drill", null, null, null, null, 20);
+
+            assertEquals(1, found.size());
+            String snippet = found.get(0).snippet();
+            assertTrue(snippet.contains("<b>Drill</b>"));
+            assertTrue(snippet.contains("&lt;"));
+            assertTrue(snippet.contains("&amp;"));
+            String text = snippet.replace("<b>", "").replace("</b>", "");
+            assertFalse(text.contains("<") || text.contains(">"));
+        }
+
+        /**
+         * {@link CommentService#search(String, Long, UUID, LocalDateTime, LocalDateTime, int)} should order comments
+         * by relevance and limit them by size.
+         * Test creates comment, which mentions searched word twice, and comment, which mentions it once.
+         * Then test checks that the first comment is found first and only one comment is found with size 1.
+         */
+        @Test
+        public void search_should_order_by_rank_and_limit_by_size_test() {
+            insertComment("tool_1", "Grinder was checked", "935921a7-692e-4ee4-a089-2695b68e9802", "2023-08-02 10:00:00");
+            insertComment("tool_1", "Grinder disk is broken, grinder needs repair", "935921a7-692e-4ee4-a089-2695b68e9802", "2023-08-01 10:00:00");
 
+            List<CommentSearchInfo> found = service.search("grinder", null, null, null, null, 20);
+            List<CommentSearchInfo> limited = service.search("grinder", null, null, null, null, 1);
+
+            assertEquals(List.of("Grinder disk is broken, grinder needs repair", "Grinder was checked"), contents(found));
+            assertTrue(found.get(0).rank() > found.get(1).rank());
+            assertEquals(List.of("Grinder disk is broken, grinder needs repair"), contents(limited));
+        }
+
+        /**
+         * {@link CommentService#search(String, Long, UUID, LocalDateTime, LocalDateTime, int)} should filter comments
+         * by tool, author and create date range.
+         * Test creates comments with the same word for two tools, two authors and different create dates.
+         * Then test searches them with every filter and checks that only comments matched filter are found.
+         */
+        @Test
+        public void search_should_filter_by_tool_person_and_create_date_test() {
+            jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid) VALUES ('tool_2', 'OWN', '935921a7-692e-4ee4-a089-8885b68e9802')");
+            Long toolId = insertComment("tool_1", "battery 1", "935921a7-692e-4ee4-a089-2695b68e9802", "2023-08-01 10:00:00");
+            insertComment("tool_1", "battery 2", "935921a7-692e-4ee4-a089-2695b68e9805", "2023-08-15 10:00:00");
+            insertComment("tool_2", "battery 3", "935921a7-692e-4ee4-a089-2695b68e9802", "2023-09-01 10:00:00");
+
+            List<CommentSearchInfo> byTool = service.search("battery", toolId, null, null, null, 20);
+            List<CommentSearchInfo> byPerson = service.search("battery", null,
+                    UUID.fromString("935921a7-692e-4ee4-a089-2695b68e9805"), null, null, 20);
+            List<CommentSearchInfo> byDates = service.search("battery", null, null,
+                    LocalDateTime.parse("2023-08-01T10:00:00"), LocalDateTime.parse("2023-09-01T10:00:00"), 20);
+
+            assertEquals(List.of("battery 2", "battery 1"), contents(byTool));
+            assertEquals(List.of("battery 2"), contents(byPerson));
+            assertEquals(List.of("battery 2", "battery 1"), contents(byDates));
+        }
+
+        /**
+         * {@link CommentService#search(String, Long, UUID, LocalDateTime, LocalDateTime, int)} should support
+         * excluded words and phrases of web search syntax.
+         */
+        @Test
+        public void search_should_support_web_search_syntax_test() {
+            insertComment("tool_1", "Battery of the drill was replaced", "935921a7-692e-4ee4-a089-2695b68e9802", "2023-08-01 10:00:00");
+            insertComment("tool_1", "Drill battery is charged", "935921a7-692e-4ee4-a089-2695b68e9802", "2023-08-02 10:00:00");
+
+            List<CommentSearchInfo> excluded = service.search("drill -replaced", null, null, null, null, 20);
+            List<CommentSearchInfo> phrase = service.search("\"drill battery\"", null, null, null, null, 20);
+
+            assertEquals(List.of("Drill battery is charged"), contents(excluded));
+            assertEquals(List.of("Drill battery is charged"), contents(phrase));
+        }
+
+        /**
+         * {@link CommentService#search(String, Long, UUID, LocalDateTime, LocalDateTime, int)} should return empty list,
+         * when no comments match search string.
+         */
+        @Test
+        public void search_should_return_empty_list_if_nothing_found_test() {
+            List<CommentSearchInfo> found = service.search("perforator", null, null, null, null, 20);
+
+            assertTrue(found.isEmpty());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package tech.konso.toolsmanagement.modules.business.tools.tool.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -7,13 +8,19 @@ import org.junit.jupiter.api.Test;
 import org.mockito.BDDMockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
 import tech.konso.toolsmanagement.modules.business.tools.commons.AbstractControllerTest;
+import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.ToolBatchRequest;
+import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.ToolBatchResponse;
 import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.ToolFilterInfo;
 import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.ToolFilterResponse;
 import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.ToolRequest;
@@ -23,20 +30,39 @@ import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.en
 import tech.konso.toolsmanagement.modules.business.tools.tool.service.ToolService;
 import tech.konso.toolsmanagement.modules.integration.facade.FileStorageFacade;
 import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.modules.integration.facade.PhotoSize;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.FileStream;
 import tech.konso.toolsmanagement.modules.integration.facade.dto.UploadResponse;
+import tech.konso.toolsmanagement.modules.integration.upload.dto.PhotoUploadInfo;
+import tech.konso.toolsmanagement.modules.integration.upload.persistence.dao.enums.UploadStatus;
 import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -86,6 +112,7 @@ public class ToolControllerTest extends AbstractControllerTest {
         jdbcTemplate.update("DELETE FROM tools_label");
         jdbcTemplate.update("DELETE FROM tools_category");
         jdbcTemplate.update("DELETE FROM tools_brand");
+        jdbcTemplate.update("DELETE FROM integration_photo_upload");
 
     }
 
@@ -111,10 +138,17 @@ public class ToolControllerTest extends AbstractControllerTest {
         return Files.readAllBytes(path);
     }
 
+    private FileStream getPhotoStream(byte[] photo) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.IMAGE_JPEG);
+        headers.setContentLength(photo.length);
+        return FileStream.of(HttpStatus.OK, headers, Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(photo)));
+    }
+
     @Nested
     class FindTests {
         /**
-         * {@link ToolController#find(Long)} should return {@link Tool} by id from database.
+         * {@link ToolController#find(Long, HttpHeaders)} should return {@link Tool} by id from database.
          * Test checks status code 200 and equality toolId (received from jdbcTemplate request)
          * with id of tool object received from {@link ToolService#findById(Long)} and name.
          */
@@ -133,7 +167,7 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link ToolController#find(Long)} should return not found if {@link Tool} with id not exist in database.
+         * {@link ToolController#find(Long, HttpHeaders)} should return not found if {@link Tool} with id not exist in database.
          * Test try to find tool whit id = -1 (negative number guaranties, that no such id exists in database)
          * and check if controller return not found with detailed error message in header.
          */
@@ -146,12 +180,55 @@ public class ToolControllerTest extends AbstractControllerTest {
                     .andExpect(status().isNotFound())
                     .andExpect(header().stringValues("detail", "Tool not found id: " + toolId));
         }
+
+        /**
+         * {@link ToolController#find(Long, HttpHeaders)} should return not modified for current entity tag.
+         * Test gets tool, then gets it again with returned ETag in If-None-Match header and checks status code
+         * not modified with empty body.
+         */
+        @Test
+        public void find_should_return_not_modified_for_current_etag_test() throws Exception {
+            long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE name = 'tool_1' AND is_archived IS FALSE", Long.class);
+
+            String eTag = mockMvc.perform(get(urlEndpoint() + "/" + toolId))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get(urlEndpoint() + "/" + toolId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andDo(print())
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                    .andExpect(content().string(""));
+        }
+
+        /**
+         * {@link ToolController#find(Long, HttpHeaders)} should return tool with new entity tag after tool is updated.
+         * Test gets tool, updates its update date, gets it with old ETag in If-None-Match header
+         * and checks status code 200 and changed ETag.
+         */
+        @Test
+        public void find_should_return_entity_for_outdated_etag_test() throws Exception {
+            long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE name = 'tool_1' AND is_archived IS FALSE", Long.class);
+            String eTag = mockMvc.perform(get(urlEndpoint() + "/" + toolId))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            jdbcTemplate.update("UPDATE tools_tool SET updated_at = updated_at + INTERVAL '1 second' WHERE tool_id = ?", toolId);
+
+            String newETag = mockMvc.perform(get(urlEndpoint() + "/" + toolId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            assertNotEquals(eTag, newETag);
+        }
     }
 
     @Nested
     class FindAllTests {
         /**
-         * {@link ToolController#findAll(int, int, String, Boolean, String)}
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}
          * should return bad request with incorrect page number. Test try to search all tools whit page = 0
          * and check if controller return bad request with detailed error message in header.
          */
@@ -166,7 +243,7 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link ToolController#findAll(int, int, String, Boolean, String)}
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}
          * should return bad request with incorrect size number. Test try to search all tools whit size = 99999
          * and check if controller return bad request with detailed error message in header.
          */
@@ -181,7 +258,7 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link ToolController#findAll(int, int, String, Boolean, String)}  without filters should return all not archived tools.
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}  without filters should return all not archived tools.
          * Test counts all not archived tools from the database.
          * Then test make request to find all tools and checks if it returns the same number, as plane jdbc request.
          */
@@ -201,7 +278,7 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link ToolController#findAll(int, int, String, Boolean, String)}  with archived filter,
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}  with archived filter,
          * should return all archived tools.
          * Test counts all archived tools from the database.
          * Then test make request to find all tools and checks if it returns the same number, as plane jdbc request.
@@ -222,7 +299,7 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link ToolController#findAll(int, int, String, Boolean, String)}  with not archived filter,
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}  with not archived filter,
          * should return all not archived tools.
          * Test counts all not archived tools from the database.
          * Then test make request to find all tools and checks if it returns the same number, as plane jdbc request.
@@ -243,7 +320,7 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link ToolController#findAll(int, int, String, Boolean, String)}  with filter by full name,
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}  with filter by full name,
          * should return tool with this name.
          * Test counts all tool with concrete name.
          * Then test make request to find all tools and checks if it returns the same number, as plane jdbc request,
@@ -266,7 +343,7 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link ToolController#findAll(int, int, String, Boolean, String)}  with filter by part of name,
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}  with filter by part of name,
          * should return tool with this name.
          * Test counts all tool with like filter by name.
          * Then test make request to find all tools and checks if it returns the same number, as plane jdbc request.
@@ -290,7 +367,7 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link ToolController#findAll(int, int, String, Boolean, String)}  with filter sorting by name asc,
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}  with filter sorting by name asc,
          * should return sorted tools by names asc.
          * Test returns tool names from database(using jdbcTemplate) ordered by name asc.
          * Then test make request to find all tools and checks if it returns the tools in the same order, as plane jdbc request.
@@ -315,7 +392,7 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link ToolController#findAll(int, int, String, Boolean, String)}  with filter sorting by name desc,
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}  with filter sorting by name desc,
          * should return sorted tools by name desc.
          * Test returns tool names from database(using jdbcTemplate) ordered by name desc.
          * Then test make request to find all tools and checks if it returns the tools in the same order, as plane jdbc request.
@@ -340,7 +417,7 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link ToolController#findAll(int, int, String, Boolean, String)}  with filter sorting by create date asc,
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}  with filter sorting by create date asc,
          * should return sorted tools by create date asc.
          * Test returns tool names from database(using jdbcTemplate) ordered by created date asc.
          * Then test make request to find all tools and checks if it returns the tools in the same order, as plane jdbc request.
@@ -365,7 +442,7 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link ToolController#findAll(int, int, String, Boolean, String)}  with filter sorting by create date desc,
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}  with filter sorting by create date desc,
          * should return sorted tools by create date desc.
          * Test returns tool names from database(using jdbcTemplate) ordered by created date desc.
          * Then test make request to find all tools and checks if it returns the tools in the same order, as plane jdbc request.
@@ -389,7 +466,7 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link ToolController#findAll(int, int, String, Boolean, String)}  without filter by default
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}  without filter by default
          * should return sorted tools by create date desc.
          * Test returns tool names from database(using jdbcTemplate) ordered by created date desc.
          * Then test make request to find all tools and checks if it returns the tools in the same order, as plane jdbc request.
@@ -412,6 +489,354 @@ public class ToolControllerTest extends AbstractControllerTest {
                             })
                     ));
         }
+
+        /**
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)} with after cursor,
+         * should return next pages of tools in the order of sort filter.
+         * Test returns tool names from database(using jdbcTemplate) ordered by name asc.
+         * Then test requests the first page of size 2 and follows nextCursor of every response until it is null.
+         * Then test checks if collected tools are in the same order, as plane jdbc request,
+         * and that total items are not counted for keyset pages.
+         */
+        @Test
+        public void findAll_with_after_cursor_should_return_next_pages_test() throws Exception {
+            List<String> toolNames = jdbcTemplate.queryForList("SELECT name FROM tools_tool WHERE is_archived IS FALSE ORDER BY name ASC", String.class);
+            List<String> toolNamesResponse = new ArrayList<>();
+
+            String content = mockMvc.perform(get(urlEndpoint() + "?page=1&size=2&sort=name,asc"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            ToolFilterResponse rs = objectMapper.readValue(content, ToolFilterResponse.class);
+            toolNamesResponse.addAll(rs.tools().stream().map(ToolFilterInfo::name).toList());
+            while (rs.nextCursor() != null) {
+                content = mockMvc.perform(get(urlEndpoint() + "?size=2&sort=name,asc&after=" + rs.nextCursor()))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                rs = objectMapper.readValue(content, ToolFilterResponse.class);
+                assertNull(rs.totalItems());
+                toolNamesResponse.addAll(rs.tools().stream().map(ToolFilterInfo::name).toList());
+            }
+
+            assertIterableEquals(toolNames, toolNamesResponse);
+        }
+
+        /**
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}
+         * should return bad request with malformed after cursor.
+         * Test try to search tools with random string as cursor
+         * and check if controller return bad request with detailed error message in header.
+         */
+        @Test
+        public void findAll_with_malformed_cursor_should_return_bad_request_test() throws Exception {
+            String tail = "?size=2&after=malformed";
+
+            mockMvc.perform(get(urlEndpoint() + tail))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().stringValues("detail", "Invalid cursor: malformed"));
+        }
+
+        /**
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}
+         * should return bad request with cursor built for another sort.
+         * Test receives nextCursor for sorting by name asc and try to use it for sorting by name desc,
+         * then checks if controller return bad request.
+         */
+        @Test
+        public void findAll_with_cursor_of_another_sort_should_return_bad_request_test() throws Exception {
+            String content = mockMvc.perform(get(urlEndpoint() + "?page=1&size=2&sort=name,asc"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            String cursor = objectMapper.readValue(content, ToolFilterResponse.class).nextCursor();
+
+            mockMvc.perform(get(urlEndpoint() + "?size=2&sort=name,desc&after=" + cursor))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().stringValues("detail", "Cursor doesn't match sort: name,desc"));
+        }
+
+        /**
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)} with none totals mode,
+         * should return tools without total items.
+         * Test returns number of not archived tools from database(using jdbcTemplate).
+         * Then test requests the first page smaller than this number without totals
+         * and checks if total items is null and response has next page flag.
+         */
+        @Test
+        public void findAll_with_none_totals_should_return_tools_without_total_items_test() throws Exception {
+            Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM tools_tool WHERE is_archived IS FALSE", Long.class);
+
+            mockMvc.perform(get(urlEndpoint() + "?page=1&size=1&totals=none"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(content().string(dtoMatcher(
+                            ToolFilterResponse.class,
+                            dto -> {
+                                assertEquals(1, dto.tools().size());
+                                assertNull(dto.totalItems());
+                                assertEquals(count > 1, dto.hasNext());
+                                assertEquals(TotalsMode.NONE, dto.totals());
+                                return true;
+                            })
+                    ));
+        }
+
+        /**
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}
+         * should return bad request with unsupported totals mode.
+         * Test try to search tools with unknown totals mode
+         * and check if controller return bad request with detailed error message in header.
+         */
+        @Test
+        public void findAll_with_unsupported_totals_should_return_bad_request_test() throws Exception {
+            mockMvc.perform(get(urlEndpoint() + "?page=1&size=2&totals=unknown"))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().stringValues("detail", "Unsupported totals mode: unknown"));
+        }
+
+        /**
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}
+         * should return tools of requested brands only.
+         * Test creates two brands with jdbcTemplate and links tools to them.
+         * Then test requests tools with both brand ids in one parameter and checks that only tools of these brands
+         * are returned and total items equals number of them.
+         */
+        @Test
+        public void findAll_should_return_tools_by_brand_ids_test() throws Exception {
+            jdbcTemplate.update("INSERT INTO tools_brand (name) VALUES ('brand_1')");
+            jdbcTemplate.update("INSERT INTO tools_brand (name) VALUES ('brand_2')");
+            long brandId1 = jdbcTemplate.queryForObject("SELECT brand_id FROM tools_brand WHERE name = 'brand_1'", Long.class);
+            long brandId2 = jdbcTemplate.queryForObject("SELECT brand_id FROM tools_brand WHERE name = 'brand_2'", Long.class);
+            jdbcTemplate.update("UPDATE tools_tool SET brand_id = " + brandId1 + " WHERE name = 'tool_1'");
+            jdbcTemplate.update("UPDATE tools_tool SET brand_id = " + brandId2 + " WHERE name = 'tool_2'");
+
+            mockMvc.perform(get(urlEndpoint() + "?page=1&size=10&sort=name,asc&brandIds=" + brandId2 + "," + brandId1))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.tools.length()").value(2))
+                    .andExpect(jsonPath("$.tools[0].name").value("tool_1"))
+                    .andExpect(jsonPath("$.tools[1].name").value("tool_2"))
+                    .andExpect(jsonPath("$.totalItems").value(2))
+                    .andExpect(jsonPath("$.facets").doesNotExist());
+        }
+
+        /**
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}
+         * should return tools selected by price and rent till filters.
+         * Test sets price and rent till date of tools with jdbcTemplate.
+         * Then test requests tools with price and rent till ranges and checks that only tool within both ranges is returned.
+         */
+        @Test
+        public void findAll_should_return_tools_by_price_and_rent_till_test() throws Exception {
+            jdbcTemplate.update("UPDATE tools_tool SET price = 100, rent_till = '2023-10-10' WHERE name = 'tool_1'");
+            jdbcTemplate.update("UPDATE tools_tool SET price = 200, rent_till = '2023-10-10' WHERE name = 'tool_2'");
+            jdbcTemplate.update("UPDATE tools_tool SET price = 100, rent_till = '2023-10-20' WHERE name = 'tool_3'");
+
+            mockMvc.perform(get(urlEndpoint() + "?page=1&size=10&priceFrom=50&priceTo=150&rentTillFrom=2023-10-01&rentTillTo=2023-10-10"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.tools.length()").value(1))
+                    .andExpect(jsonPath("$.tools[0].name").value("tool_1"))
+                    .andExpect(jsonPath("$.totalItems").value(1));
+        }
+
+        /**
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}
+         * should return facets of found tools on request.
+         * Test creates brand with jdbcTemplate, links two tools to it and marks one of them as kit.
+         * Then test requests tools of brand with facets and checks counts of brand, ownership type and kit flag.
+         */
+        @Test
+        public void findAll_with_facets_should_return_facet_counts_test() throws Exception {
+            jdbcTemplate.update("INSERT INTO tools_brand (name) VALUES ('brand_1')");
+            long brandId = jdbcTemplate.queryForObject("SELECT brand_id FROM tools_brand WHERE name = 'brand_1'", Long.class);
+            jdbcTemplate.update("UPDATE tools_tool SET brand_id = " + brandId + " WHERE name IN ('tool_1', 'tool_2')");
+            jdbcTemplate.update("UPDATE tools_tool SET is_kit = true WHERE name = 'tool_1'");
+
+            mockMvc.perform(get(urlEndpoint() + "?page=1&size=10&brandIds=" + brandId + "&facets=true"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.tools.length()").value(2))
+                    .andExpect(jsonPath("$.facets.brands.length()").value(1))
+                    .andExpect(jsonPath("$.facets.brands[0].value").value(String.valueOf(brandId)))
+                    .andExpect(jsonPath("$.facets.brands[0].count").value(2))
+                    .andExpect(jsonPath("$.facets.ownershipTypes[0].value").value("OWN"))
+                    .andExpect(jsonPath("$.facets.ownershipTypes[0].count").value(2))
+                    .andExpect(jsonPath("$.facets.isKit.length()").value(2))
+                    .andExpect(jsonPath("$.facets.labels[0].value").doesNotExist())
+                    .andExpect(jsonPath("$.facets.labels[0].count").value(2));
+        }
+
+        /**
+         * {@link ToolController#findAll(int, int, String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, String, boolean)}
+         * should return bad request with negative price.
+         * Test try to search tools with negative min price
+         * and check if controller return bad request with detailed error message in header.
+         */
+        @Test
+        public void findAll_with_negative_price_should_return_bad_request_test() throws Exception {
+            mockMvc.perform(get(urlEndpoint() + "?page=1&size=10&priceFrom=-1"))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().stringValues("detail", "findAll.priceFrom: must be greater than or equal to 0"));
+        }
+    }
+
+    @Nested
+    class SearchTests {
+        /**
+         * {@link ToolController#search(String, int, double, Boolean)} should return tools similar to search string,
+         * the most similar first.
+         * Test creates two tools with similar names and makes request with search string equal to name of one of them.
+         * Then test checks that this tool is the first with score 1 and the other tool is the second.
+         */
+        @Test
+        public void search_should_return_similar_tools_ordered_by_score_test() throws Exception {
+            jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid) VALUES ('Makita drill', 'OWN', '935921a7-692e-4ee4-a089-2695b68e9807')");
+            jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid) VALUES ('Makito saw', 'OWN', '935921a7-692e-4ee4-a089-2695b68e9808')");
+            String tail = "/search?q=makita&size=20&threshold=0.5";
+
+            mockMvc.perform(get(urlEndpoint() + tail))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.tools.length()").value(2))
+                    .andExpect(jsonPath("$.tools[0].tool.name").value("Makita drill"))
+                    .andExpect(jsonPath("$.tools[0].score").value(1.0))
+                    .andExpect(jsonPath("$.tools[1].tool.name").value("Makito saw"));
+        }
+
+        /**
+         * {@link ToolController#search(String, int, double, Boolean)} should return bad request with short search string.
+         * Test makes request with search string of two chars
+         * and checks if controller return bad request with detailed error message in header.
+         */
+        @Test
+        public void search_with_short_query_should_return_bad_request_test() throws Exception {
+            String tail = "/search?q=ma&size=20";
+
+            mockMvc.perform(get(urlEndpoint() + tail))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().stringValues("detail", "search.q: size must be between 3 and 2147483647"));
+        }
+
+        /**
+         * {@link ToolController#search(String, int, double, Boolean)} should return bad request with threshold greater than 1.
+         * Test makes request with threshold = 2
+         * and checks if controller return bad request with detailed error message in header.
+         */
+        @Test
+        public void search_with_incorrect_threshold_should_return_bad_request_test() throws Exception {
+            String tail = "/search?q=makita&size=20&threshold=2";
+
+            mockMvc.perform(get(urlEndpoint() + tail))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().stringValues("detail", "search.threshold: must be less than or equal to 1"));
+        }
+    }
+
+    @Nested
+    class ExportTests {
+        /**
+         * {@link ToolController#export(String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, HttpServletResponse)} in csv format
+         * should stream header and all not archived tools in the order of sort filter.
+         * Test returns tool names from database(using jdbcTemplate) ordered by name asc.
+         * Then test make request to export tools, waits for the end of streaming
+         * and checks if csv lines contain tool names in the same order, as plane jdbc request.
+         */
+        @Test
+        public void export_should_stream_tools_as_csv_test() throws Exception {
+            List<String> toolNames = jdbcTemplate.queryForList("SELECT name FROM tools_tool WHERE is_archived IS FALSE ORDER BY name ASC", String.class);
+
+            MvcResult result = mockMvc.perform(get(urlEndpoint() + "/export?format=csv&sort=name,asc"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String content = mockMvc.perform(asyncDispatch(result))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                    .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tools.csv\""))
+                    .andReturn().getResponse().getContentAsString();
+
+            List<String> lines = content.lines().toList();
+            assertEquals(toolNames.size() + 1, lines.size());
+            assertTrue(lines.get(0).startsWith("id,uuid,name,"));
+            List<String> toolNamesResponse = lines.stream().skip(1).map(line -> line.split(",")[2]).toList();
+            assertIterableEquals(toolNames, toolNamesResponse);
+        }
+
+        /**
+         * {@link ToolController#export(String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, HttpServletResponse)} in ndjson format
+         * should stream every archived tool as json object on separate line.
+         * Test returns names of archived tools from database(using jdbcTemplate).
+         * Then test make request to export archived tools and parses every line as {@link ToolFilterInfo}.
+         */
+        @Test
+        public void export_should_stream_archived_tools_as_ndjson_test() throws Exception {
+            List<String> toolNames = jdbcTemplate.queryForList("SELECT name FROM tools_tool WHERE is_archived IS TRUE ORDER BY name ASC", String.class);
+
+            MvcResult result = mockMvc.perform(get(urlEndpoint() + "/export?isArchived=true&sort=name,asc"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String content = mockMvc.perform(asyncDispatch(result))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            List<String> toolNamesResponse = new ArrayList<>();
+            for (String line : content.lines().toList()) {
+                toolNamesResponse.add(objectMapper.readValue(line, ToolFilterInfo.class).name());
+            }
+            assertIterableEquals(toolNames, toolNamesResponse);
+        }
+
+        /**
+         * {@link ToolController#export(String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, HttpServletResponse)}
+         * should stream only tools selected by the same filters as list of tools.
+         * Test creates brand with jdbcTemplate, links two tools to it and sets their prices.
+         * Then test make request to export tools of brand within price range and checks that only matched tool is exported.
+         */
+        @Test
+        public void export_should_stream_tools_by_filters_test() throws Exception {
+            jdbcTemplate.update("INSERT INTO tools_brand (name) VALUES ('brand_1')");
+            long brandId = jdbcTemplate.queryForObject("SELECT brand_id FROM tools_brand WHERE name = 'brand_1'", Long.class);
+            jdbcTemplate.update("UPDATE tools_tool SET brand_id = " + brandId + ", price = 100 WHERE name = 'tool_1'");
+            jdbcTemplate.update("UPDATE tools_tool SET brand_id = " + brandId + ", price = 200 WHERE name = 'tool_2'");
+            jdbcTemplate.update("UPDATE tools_tool SET price = 100 WHERE name = 'tool_3'");
+
+            MvcResult result = mockMvc.perform(get(urlEndpoint() + "/export?brandIds=" + brandId + "&priceFrom=50&priceTo=150"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String content = mockMvc.perform(asyncDispatch(result))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            List<String> toolNamesResponse = new ArrayList<>();
+            for (String line : content.lines().toList()) {
+                toolNamesResponse.add(objectMapper.readValue(line, ToolFilterInfo.class).name());
+            }
+            assertIterableEquals(List.of("tool_1"), toolNamesResponse);
+        }
+
+        /**
+         * {@link ToolController#export(String, Boolean, Long, List, List, OwnershipType, Boolean, Boolean, UUID, UUID, BigDecimal, BigDecimal, LocalDate, LocalDate, String, String, HttpServletResponse)}
+         * should return bad request with unsupported export format.
+         * Test try to export tools in xml format
+         * and check if controller return bad request with detailed error message in header.
+         */
+        @Test
+        public void export_with_unsupported_format_should_return_bad_request_test() throws Exception {
+            mockMvc.perform(get(urlEndpoint() + "/export?format=xml"))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().stringValues("detail", "Unsupported export format: xml"));
+        }
     }
 
     @Nested
@@ -752,37 +1177,221 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
     }
 
+    @Nested
+    class SaveAllTests {
+        /**
+         * {@link ToolController#saveAll(ToolBatchRequest)} should save all {@link Tool} objects
+         * and return their ids in the order of requests.
+         * Test sends batch of two tool requests and checks status equals created.
+         * Then checks by jdbcTemplate, that tool at every returned id has name of request at the same index.
+         */
+        @Test
+        public void saveAll_should_save_new_tools_test() throws Exception {
+            ToolBatchRequest rq = new ToolBatchRequest(List.of(
+                    getDefaultToolRequest().name("batch_tool_1").build(),
+                    getDefaultToolRequest().name("batch_tool_2").build()));
+
+            String content = mockMvc.perform(post(urlEndpoint() + "/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(rq)))
+                    .andDo(print())
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+
+            List<Long> ids = objectMapper.readValue(content, ToolBatchResponse.class).ids();
+            assertEquals(2, ids.size());
+            assertEquals("batch_tool_1", jdbcTemplate.queryForObject("SELECT name FROM tools_tool WHERE tool_id = " + ids.get(0), String.class));
+            assertEquals("batch_tool_2", jdbcTemplate.queryForObject("SELECT name FROM tools_tool WHERE tool_id = " + ids.get(1), String.class));
+        }
+
+        /**
+         * {@link ToolController#saveAll(ToolBatchRequest)} should not save any tool, if one of requests is invalid.
+         * Test sends batch with valid tool request and tool request with blank name,
+         * then checks if controller returns bad request and tool of the valid request is not saved.
+         */
+        @Test
+        public void saveAll_should_not_save_if_one_of_tools_invalid_test() throws Exception {
+            ToolBatchRequest rq = new ToolBatchRequest(List.of(
+                    getDefaultToolRequest().name("batch_tool_1").build(),
+                    getDefaultToolRequest().name(" ").build()));
+
+            mockMvc.perform(post(urlEndpoint() + "/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(rq)))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest());
+
+            Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM tools_tool WHERE name = 'batch_tool_1'", Long.class);
+            assertEquals(0L, count);
+        }
+
+        /**
+         * {@link ToolController#saveAll(ToolBatchRequest)} should return bad request for empty batch.
+         * Test sends batch without tool requests and checks if controller returns bad request.
+         */
+        @Test
+        public void saveAll_should_return_bad_request_for_empty_batch_test() throws Exception {
+            ToolBatchRequest rq = new ToolBatchRequest(List.of());
+
+            mockMvc.perform(post(urlEndpoint() + "/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(rq)))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     class FindPhoto {
         /**
-         * {@link ToolController#findPhoto(Long)} should return photo from storage service.
+         * {@link ToolController#findPhoto(Long, String, String, HttpHeaders)} should return photo from storage service.
          * Test try to get photo by tool id and then check status code 200, content type and
          * check if bytes of photo from storage service equals bytes from file system
          */
         @Test
         public void find_photo_should_return_photo_uuid_test() throws Exception {
             long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
-            InputStream is = new ByteArrayInputStream(getPhoto(PATH_TO_JPEG_FILE));
-            InputStreamResource photo = new InputStreamResource(is);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_TOOL))).willReturn(photo);
+            FileStream photo = getPhotoStream(getPhoto(PATH_TO_JPEG_FILE));
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_TOOL), any())).willReturn(photo);
 
-            mockMvc.perform(get(urlEndpoint() + "/" + toolId + "/photo"))
+            MvcResult result = mockMvc.perform(get(urlEndpoint() + "/" + toolId + "/photo"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
                     .andDo(print())
                     .andExpect(status().isOk())
                     .andExpect(content().contentTypeCompatibleWith(MediaType.IMAGE_JPEG_VALUE))
+                    .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, getPhoto(PATH_TO_JPEG_FILE).length))
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                    .andExpect(content().bytes(getPhoto(PATH_TO_JPEG_FILE)));
+        }
+
+        /**
+         * {@link ToolController#findPhoto(Long, String, String, HttpHeaders)} should return not modified for photo uuid in If-None-Match
+         * without request to storage service.
+         * Test try to get photo by tool id with its photo uuid as ETag and checks status code not modified
+         * and that storage service is not called.
+         */
+        @Test
+        public void find_photo_should_return_not_modified_for_photo_uuid_etag_test() throws Exception {
+            long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
+            UUID photoUuid = jdbcTemplate.queryForObject("SELECT photo_uuid FROM tools_tool WHERE tool_id = ?", UUID.class, toolId);
+
+            mockMvc.perform(get(urlEndpoint() + "/" + toolId + "/photo").header(HttpHeaders.IF_NONE_MATCH, "\"" + photoUuid + "\""))
+                    .andDo(print())
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + photoUuid + "\""));
+
+            BDDMockito.then(fileStorageFacade).shouldHaveNoInteractions();
+        }
+
+        /**
+         * {@link ToolController#findPhoto(Long, String, String, HttpHeaders)} should return new photo for ETag of replaced photo.
+         * Test changes photo uuid of tool with jdbcTemplate and try to get photo by tool id with old photo uuid as ETag.
+         * Then test checks status code 200, ETag of the new photo uuid and cache control, which requires revalidation.
+         */
+        @Test
+        public void find_photo_should_return_new_photo_for_etag_of_replaced_photo_test() throws Exception {
+            long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
+            UUID oldPhotoUuid = jdbcTemplate.queryForObject("SELECT photo_uuid FROM tools_tool WHERE tool_id = ?", UUID.class, toolId);
+            UUID newPhotoUuid = UUID.fromString("3e87966b-9566-437d-8d54-2052fbb7af60");
+            jdbcTemplate.update("UPDATE tools_tool SET photo_uuid = ? WHERE tool_id = ?", newPhotoUuid, toolId);
+            FileStream photo = getPhotoStream(getPhoto(PATH_TO_JPEG_FILE));
+            BDDMockito.given(fileStorageFacade.stream(eq(newPhotoUuid), eq(FileType.PHOTO_TOOL), any())).willReturn(photo);
+
+            MvcResult result = mockMvc.perform(get(urlEndpoint() + "/" + toolId + "/photo").header(HttpHeaders.IF_NONE_MATCH, "\"" + oldPhotoUuid + "\""))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + newPhotoUuid + "\""))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
                     .andExpect(content().bytes(getPhoto(PATH_TO_JPEG_FILE)));
         }
 
         /**
-         * {@link ToolController#findPhoto(Long)} should return not found when photo uuid not found in DB.
+         * {@link ToolController#findPhoto(Long, String, String, HttpHeaders)} should pass range header to storage service and return partial content.
+         * Test try to get first ten bytes of photo by tool id and then check status code partial content,
+         * content range header and returned bytes.
+         */
+        @Test
+        public void find_photo_should_return_partial_content_for_range_test() throws Exception {
+            long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
+            byte[] range = Arrays.copyOfRange(getPhoto(PATH_TO_JPEG_FILE), 0, 10);
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.IMAGE_JPEG);
+            headers.setContentLength(range.length);
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes 0-9/" + getPhoto(PATH_TO_JPEG_FILE).length);
+            FileStream photo = FileStream.of(HttpStatus.PARTIAL_CONTENT, headers, Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(range)));
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_TOOL), eq("bytes=0-9"))).willReturn(photo);
+
+            MvcResult result = mockMvc.perform(get(urlEndpoint() + "/" + toolId + "/photo")
+                            .header(HttpHeaders.RANGE, "bytes=0-9"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andDo(print())
+                    .andExpect(status().isPartialContent())
+                    .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-9/" + getPhoto(PATH_TO_JPEG_FILE).length))
+                    .andExpect(content().bytes(range));
+        }
+
+        /**
+         * {@link ToolController#findPhoto(Long, String, String, HttpHeaders)} should return resized photo.
+         * Test try to get thumbnail of photo by tool id and then check status code 200, content type, ETag of thumbnail
+         * and that returned photo fits thumbnail size.
+         */
+        @Test
+        public void find_photo_should_return_thumbnail_test() throws Exception {
+            long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
+            UUID photoUuid = jdbcTemplate.queryForObject("SELECT photo_uuid FROM tools_tool WHERE tool_id = ?", UUID.class, toolId);
+            FileStream photo = getPhotoStream(getPhoto(PATH_TO_JPEG_FILE));
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_TOOL), any())).willReturn(photo);
+
+            MvcResult result = mockMvc.perform(get(urlEndpoint() + "/" + toolId + "/photo").param("size", "thumb"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            MvcResult thumbnail = mockMvc.perform(asyncDispatch(result))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.IMAGE_JPEG_VALUE))
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + photoUuid + "-thumb\""))
+                    .andReturn();
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail.getResponse().getContentAsByteArray()));
+            assertEquals(PhotoSize.THUMB.getMaxDimension(), Math.max(image.getWidth(), image.getHeight()));
+        }
+
+        /**
+         * {@link ToolController#findPhoto(Long, String, String, HttpHeaders)} should return bad request for unsupported size.
+         * Test try to get photo by tool id in unknown size and then check status code bad request with detailed error message in header.
+         */
+        @Test
+        public void find_photo_should_return_bad_request_for_unsupported_size_test() throws Exception {
+            long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
+
+            mockMvc.perform(get(urlEndpoint() + "/" + toolId + "/photo").param("size", "huge"))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().stringValues("detail", "Unsupported photo size: huge"));
+
+            BDDMockito.then(fileStorageFacade).shouldHaveNoInteractions();
+        }
+
+        /**
+         * {@link ToolController#findPhoto(Long, String, String, HttpHeaders)} should return not found when photo uuid not found in DB.
          * Test try to get photo by tool id and then check status code not found with detailed error message in header.
          */
         @Test
         public void find_photo_should_return_not_found_if_photo_uuid_not_found_test() throws Exception {
             long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NULL LIMIT 1", Long.class);
-            InputStream is = new ByteArrayInputStream(getPhoto(PATH_TO_JPEG_FILE));
-            InputStreamResource photo = new InputStreamResource(is);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_TOOL))).willReturn(photo);
+            FileStream photo = getPhotoStream(getPhoto(PATH_TO_JPEG_FILE));
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_TOOL), any())).willReturn(photo);
 
             mockMvc.perform(get(urlEndpoint() + "/" + toolId + "/photo"))
                     .andDo(print())
@@ -792,13 +1401,13 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link ToolController#findPhoto(Long)} should return not found when photo not found in file storage.
+         * {@link ToolController#findPhoto(Long, String, String, HttpHeaders)} should return not found when photo not found in file storage.
          * Test try to get photo by tool id and then check status code not found with detailed error message in header.
          */
         @Test
         public void find_photo_should_return_not_found_if_photo_not_found_in_storage_test() throws Exception {
             long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_TOOL)))
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_TOOL), any()))
                     .willThrow(new BPException.NotFound("not found"));
 
             mockMvc.perform(get(urlEndpoint() + "/" + toolId + "/photo"))
@@ -809,13 +1418,13 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link ToolController#findPhoto(Long)} should return bad request when file storage return bad request.
+         * {@link ToolController#findPhoto(Long, String, String, HttpHeaders)} should return bad request when file storage return bad request.
          * Test try to get photo by tool id and then check status code bad request with detailed error message in header.
          */
         @Test
         public void find_photo_should_return_bad_request_if_file_storage_return_bad_request_test() throws Exception {
             long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_TOOL)))
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_TOOL), any()))
                     .willThrow(new BPException.BadRequest("error"));
 
             mockMvc.perform(get(urlEndpoint() + "/" + toolId + "/photo"))
@@ -826,13 +1435,13 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
 
         /**
-         * {@link ToolController#findPhoto(Long)} should return service unavailable if error acquire.
+         * {@link ToolController#findPhoto(Long, String, String, HttpHeaders)} should return service unavailable if error acquire.
          * Test try to get photo by tool id and then check status code service unavailable with detailed error message in header.
          */
         @Test
         public void find_photo_should_return_service_unavailable_if_error_acquire_test() throws Exception {
             long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NOT NULL LIMIT 1", Long.class);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_TOOL)))
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_TOOL), any()))
                     .willThrow(new BPException.ServiceUnavailable("error"));
 
             mockMvc.perform(get(urlEndpoint() + "/" + toolId + "/photo"))
@@ -843,6 +1452,81 @@ public class ToolControllerTest extends AbstractControllerTest {
         }
     }
 
+    @Nested
+    class FindPhotos {
+        /**
+         * {@link ToolController#findPhotoUuids(List)} should return photo uuids of tools in the order of ids.
+         * Test try to get photo uuids of two tools with photo and one tool without photo and then check,
+         * that tool without photo is skipped.
+         */
+        @Test
+        public void find_photo_uuids_should_return_photo_uuids_test() throws Exception {
+            jdbcTemplate.update("UPDATE tools_tool SET photo_uuid = ? WHERE tool_id = (SELECT MAX(tool_id) FROM tools_tool WHERE photo_uuid IS NULL)", UUID.randomUUID());
+            List<Long> ids = jdbcTemplate.queryForList("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NOT NULL ORDER BY tool_id DESC LIMIT 2", Long.class);
+            long withoutPhoto = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NULL LIMIT 1", Long.class);
+            UUID first = jdbcTemplate.queryForObject("SELECT photo_uuid FROM tools_tool WHERE tool_id = ?", UUID.class, ids.get(0));
+            UUID second = jdbcTemplate.queryForObject("SELECT photo_uuid FROM tools_tool WHERE tool_id = ?", UUID.class, ids.get(1));
+
+            mockMvc.perform(get(urlEndpoint() + "/photos").param("ids", ids.get(0) + "," + withoutPhoto + "," + ids.get(1)))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$[0].id").value(ids.get(0)))
+                    .andExpect(jsonPath("$[0].photoUuid").value(first.toString()))
+                    .andExpect(jsonPath("$[1].id").value(ids.get(1)))
+                    .andExpect(jsonPath("$[1].photoUuid").value(second.toString()));
+
+            BDDMockito.then(fileStorageFacade).shouldHaveNoInteractions();
+        }
+
+        /**
+         * {@link ToolController#findPhotoUuids(List)} should return bad request for more than 100 ids.
+         * Test try to get photo uuids of 101 tools and then check status code bad request with detailed error message in header.
+         */
+        @Test
+        public void find_photo_uuids_should_return_bad_request_for_too_many_ids_test() throws Exception {
+            String ids = LongStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+            mockMvc.perform(get(urlEndpoint() + "/photos").param("ids", ids))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().stringValues("detail", "findPhotoUuids.ids: size must be between 0 and 100"));
+        }
+
+        /**
+         * {@link ToolController#findPhotoArchive(List, String)} should return zip archive with photos named by tool ids.
+         * Test try to get archive of full size photos of two tools and then check status code 200, content type
+         * and entries of archive.
+         */
+        @Test
+        public void find_photo_archive_should_return_zip_with_photos_test() throws Exception {
+            jdbcTemplate.update("UPDATE tools_tool SET photo_uuid = ? WHERE tool_id = (SELECT MAX(tool_id) FROM tools_tool WHERE photo_uuid IS NULL)", UUID.randomUUID());
+            List<Long> ids = jdbcTemplate.queryForList("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NOT NULL ORDER BY tool_id LIMIT 2", Long.class);
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_TOOL), any()))
+                    .willAnswer(invocation -> getPhotoStream(getPhoto(PATH_TO_JPEG_FILE)));
+
+            MvcResult result = mockMvc.perform(get(urlEndpoint() + "/photos/archive")
+                            .param("ids", ids.get(0) + "," + ids.get(1))
+                            .param("size", "full"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            MvcResult archive = mockMvc.perform(asyncDispatch(result))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/zip"))
+                    .andReturn();
+            List<String> entries = new ArrayList<>();
+            try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive.getResponse().getContentAsByteArray()))) {
+                for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                    entries.add(entry.getName());
+                    assertArrayEquals(getPhoto(PATH_TO_JPEG_FILE), zip.readAllBytes());
+                }
+            }
+            assertIterableEquals(List.of(ids.get(0) + ".jpeg", ids.get(1) + ".jpeg"), entries);
+        }
+    }
+
     @Nested
     class UploadPhoto {
         /**
@@ -894,5 +1578,71 @@ public class ToolControllerTest extends AbstractControllerTest {
                     .andExpect(status().isServiceUnavailable())
                     .andExpect(header().stringValues("detail", "error"));
         }
+
+        /**
+         * {@link ToolController#uploadPhotoAsync(MultipartFile)} should return upload id before photo is stored.
+         * Test uploads photo and checks status code 202, location of upload state and pending status,
+         * then waits until background worker stores photo and checks photo uuid from storage service.
+         */
+        @Test
+        public void upload_photo_async_should_return_upload_id_and_store_photo_test() throws Exception {
+            UUID photoUuid = UUID.randomUUID();
+            BDDMockito.given(fileStorageFacade.upload(any(), eq(FileType.PHOTO_TOOL))).willReturn(new UploadResponse(photoUuid, null));
+
+            MvcResult result = mockMvc.perform(MockMvcRequestBuilders.multipart(urlEndpoint() + "/photo/async")
+                            .file("attachment", getPhoto(PATH_TO_JPEG_FILE)))
+                    .andDo(print())
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string(HttpHeaders.LOCATION, containsString("/photo/uploads/")))
+                    .andExpect(jsonPath("$.status").value(UploadStatus.PENDING.name()))
+                    .andReturn();
+
+            UUID uploadId = objectMapper.readValue(result.getResponse().getContentAsString(), PhotoUploadInfo.class).uploadId();
+            String status = null;
+            for (int i = 0; i < 50 && !UploadStatus.STORED.name().equals(status); i++) {
+                Thread.sleep(100);
+                status = jdbcTemplate.queryForObject("SELECT status FROM integration_photo_upload WHERE upload_id = ?", String.class, uploadId);
+            }
+            mockMvc.perform(get(urlEndpoint() + "/photo/uploads/" + uploadId))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(dtoMatcher(
+                            PhotoUploadInfo.class,
+                            dto -> dto.status() == UploadStatus.STORED && photoUuid.equals(dto.photoUuid())
+                    )));
+        }
+
+        /**
+         * {@link ToolController#findPhotoUpload(UUID)} should return failed upload with error.
+         * Test records failed upload and checks status code 200, status and error.
+         */
+        @Test
+        public void find_photo_upload_should_return_failed_upload_test() throws Exception {
+            UUID uploadId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status, attempts, error) VALUES (?, 'PHOTO_TOOL', 'FAILED', 5, 'error')", uploadId);
+
+            mockMvc.perform(get(urlEndpoint() + "/photo/uploads/" + uploadId))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(dtoMatcher(
+                            PhotoUploadInfo.class,
+                            dto -> dto.status() == UploadStatus.FAILED && dto.photoUuid() == null && "error".equals(dto.error())
+                    )));
+        }
+
+        /**
+         * {@link ToolController#findPhotoUpload(UUID)} should return not found for upload of another file type.
+         * Test records upload of another file type and checks status code 404.
+         */
+        @Test
+        public void find_photo_upload_should_return_not_found_for_another_file_type_test() throws Exception {
+            UUID uploadId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status) VALUES (?, 'PHOTO_PERSON', 'PENDING')", uploadId);
+
+            mockMvc.perform(get(urlEndpoint() + "/photo/uploads/" + uploadId))
+                    .andDo(print())
+                    .andExpect(status().isNotFound())
+                    .andExpect(header().stringValues("detail", "Photo upload not found id: " + uploadId));
+        }
     }
 }
@@ -0,0 +1,147 @@
+package tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of tool search by name on table of {@value #TOOLS} tools.
+ * Benchmark sends the same statements, which are sent by tool list and tool search:
+ * <ul>
+ *     <li>lower like - previous name filter {@code lower(name) LIKE '%x%'}, which can't use trigram index
+ *     and scans the whole table;</li>
+ *     <li>ilike - name filter {@code name ILIKE '%x%'}, which uses trigram index of tool name;</li>
+ *     <li>trigram search - {@link ToolRepository#search(String, boolean, int)}, which matches name, inventory number,
+ *     brand and category name by word similarity using trigram indexes and orders tools by relevance.</li>
+ * </ul>
+ * Database is started in docker container, migrated by flyway and seeded once with {@value #TOOLS} tools,
+ * {@value #BRANDS} brands and {@value #CATEGORIES} categories.
+ * <p>Benchmark is not run by tests. Run it from IDE with {@link #main(String[])}, or after test-compile with:
+ * <pre>
+ *     java -cp target/test-classes:target/classes:&lt;test classpath> \
+ *         tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository.ToolSearchBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToolSearchBenchmark {
+
+    private static final int TOOLS = 1_000_000;
+
+    private static final int BRANDS = 200;
+
+    private static final int CATEGORIES = 100;
+
+    private static final int LIMIT = 20;
+
+    private static final String LOWER_LIKE = "SELECT tool_id FROM tools_tool WHERE is_archived = FALSE AND lower(name) LIKE ? " +
+            "ORDER BY created_at DESC LIMIT " + LIMIT;
+
+    private static final String ILIKE = "SELECT tool_id FROM tools_tool WHERE is_archived = FALSE AND name ILIKE ? " +
+            "ORDER BY created_at DESC LIMIT " + LIMIT;
+
+    private static final String TRIGRAM_SEARCH = "SELECT t.tool_id AS id, GREATEST(word_similarity(?, t.name), " +
+            "word_similarity(?, COALESCE(t.inventory_number, '')), " +
+            "word_similarity(?, COALESCE(b.name, '')), " +
+            "word_similarity(?, COALESCE(c.name, ''))) AS score " +
+            "FROM tools_tool t " +
+            "LEFT JOIN tools_brand b ON b.brand_id = t.brand_id " +
+            "LEFT JOIN tools_category c ON c.category_id = t.category_id " +
+            "WHERE t.is_archived = FALSE " +
+            "AND (? <% t.name " +
+            "OR ? <% t.inventory_number " +
+            "OR t.brand_id IN (SELECT brand_id FROM tools_brand WHERE ? <% name) " +
+            "OR t.category_id IN (SELECT category_id FROM tools_category WHERE ? <% name)) " +
+            "ORDER BY score DESC, t.tool_id LIMIT " + LIMIT;
+
+    @Param({"drill", "perforatr", "0042-HAND"})
+    private String query;
+
+    private PostgreSQLContainer<?> container;
+
+    private Connection connection;
+
+    @Setup
+    public void setUp() throws SQLException {
+        container = new PostgreSQLContainer<>("postgres:15.3-alpine");
+        container.start();
+        Flyway.configure()
+                .dataSource(container.getJdbcUrl(), container.getUsername(), container.getPassword())
+                .load()
+                .migrate();
+        connection = DriverManager.getConnection(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO tools_brand (name) SELECT 'brand_' || i FROM generate_series(1, " + BRANDS + ") i");
+            statement.execute("INSERT INTO tools_category (name) SELECT 'category_' || i FROM generate_series(1, " + CATEGORIES + ") i");
+            statement.execute("INSERT INTO tools_tool (uuid, name, inventory_number, ownership_type, brand_id, category_id) " +
+                    "SELECT gen_random_uuid(), " +
+                    "(ARRAY['Makita', 'Bosch', 'Hilti', 'DeWalt', 'Metabo'])[1 + i % 5] || ' ' || " +
+                    "(ARRAY['drill', 'perforator', 'grinder', 'saw', 'screwdriver', 'hammer'])[1 + i % 6] || ' ' || md5(i::text), " +
+                    "lpad((i % 10000)::text, 4, '0') || '-' || (ARRAY['HAND', 'POWER', 'MEASURE'])[1 + i % 3], " +
+                    "'OWN', " +
+                    "(SELECT min(brand_id) FROM tools_brand) + i % " + BRANDS + ", " +
+                    "(SELECT min(category_id) FROM tools_category) + i % " + CATEGORIES + " " +
+                    "FROM generate_series(1, " + TOOLS + ") i");
+            statement.execute("VACUUM ANALYZE");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+        container.stop();
+    }
+
+    @Benchmark
+    public long lower_like() throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(LOWER_LIKE)) {
+            select.setString(1, '%' + query.toLowerCase() + '%');
+            return last(select);
+        }
+    }
+
+    @Benchmark
+    public long ilike() throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(ILIKE)) {
+            select.setString(1, '%' + query + '%');
+            return last(select);
+        }
+    }
+
+    @Benchmark
+    public long trigram_search() throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(TRIGRAM_SEARCH)) {
+            for (int i = 1; i <= 8; i++) {
+                select.setString(i, query);
+            }
+            return last(select);
+        }
+    }
+
+    private long last(PreparedStatement select) throws SQLException {
+        long lastId = 0;
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                lastId = rs.getLong(1);
+            }
+        }
+        return lastId;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ToolSearchBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -7,13 +7,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.mock.web.MockMultipartFile;
+import reactor.core.publisher.Flux;
 import tech.konso.toolsmanagement.PostgreSQLContainerExtension;
 import tech.konso.toolsmanagement.modules.business.persons.person.service.PersonService;
 import tech.konso.toolsmanagement.modules.business.tools.brand.persistence.dao.Brand;
@@ -22,24 +25,28 @@ import tech.konso.toolsmanagement.modules.business.tools.label.persistence.dao.L
 import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.*;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.Tool;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.enums.OwnershipType;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.specification.ToolFilter;
 import tech.konso.toolsmanagement.modules.integration.facade.FileStorageFacade;
 import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.FileStream;
 import tech.konso.toolsmanagement.modules.integration.facade.dto.UploadResponse;
 import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+import tech.konso.toolsmanagement.system.commons.pagination.TotalsMode;
+import tech.konso.toolsmanagement.system.commons.suggest.Suggestion;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Month;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -92,6 +99,7 @@ public class ToolServiceTest {
         jdbcTemplate.update("DELETE FROM tools_label");
         jdbcTemplate.update("DELETE FROM tools_category");
         jdbcTemplate.update("DELETE FROM tools_brand");
+        jdbcTemplate.update("DELETE FROM integration_photo_upload");
 
     }
 
@@ -113,6 +121,13 @@ public class ToolServiceTest {
         return Files.readAllBytes(path);
     }
 
+    private FileStream getPhotoStream(byte[] photo) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.IMAGE_JPEG);
+        headers.setContentLength(photo.length);
+        return FileStream.of(HttpStatus.OK, headers, Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(photo)));
+    }
+
     private MockMultipartFile getMockMultipartFile() throws IOException {
         return new MockMultipartFile(
                 "file",
@@ -349,6 +364,64 @@ public class ToolServiceTest {
             assertEquals(rq.kitUuid(), savedTool.getKitUuid());
         }
 
+        /**
+         * {@link ToolService#save(ToolRequest)}} should save {@link Tool} object with stored photo uuid.
+         * Test records stored photo upload, creates dto object {@link ToolRequest} with its photo uuid
+         * and then checks, that saved tool references the photo.
+         */
+        @Test
+        public void save_should_save_stored_photo_uuid_test() {
+            UUID photoUuid = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status, file_uuid) VALUES (?, 'PHOTO_TOOL', 'STORED', ?)",
+                    UUID.randomUUID(), photoUuid);
+            ToolRequest rq = getDefaultToolRequest()
+                    .photoUuid(photoUuid)
+                    .build();
+
+            Tool savedTool = service.save(rq);
+
+            assertEquals(photoUuid, savedTool.getPhotoUuid());
+        }
+
+        /**
+         * {@link ToolService#save(ToolRequest)}} should throw {@link BPException} if photo is not stored in file storage.
+         * Test records stored photo of person and creates dto object {@link ToolRequest} with its uuid
+         * and with random uuid, then checks, that tools are not saved.
+         */
+        @Test
+        public void save_should_throw_exception_if_photo_is_not_stored_test() {
+            UUID personPhotoUuid = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status, file_uuid) VALUES (?, 'PHOTO_PERSON', 'STORED', ?)",
+                    UUID.randomUUID(), personPhotoUuid);
+
+            assertThrows(BPException.class, () -> service.save(getDefaultToolRequest().photoUuid(personPhotoUuid).build()));
+            assertThrows(BPException.class, () -> service.save(getDefaultToolRequest().photoUuid(UUID.randomUUID()).build()));
+
+            Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM tools_tool WHERE name = 'new_tool'", Long.class);
+            assertEquals(0L, count);
+        }
+
+        /**
+         * {@link ToolService#save(ToolRequest)}} should update {@link Tool} object, which photo is not changed.
+         * Test updates tool, which photo has no recorded upload, with the same photo uuid
+         * and checks, that tool is updated and photo is kept.
+         */
+        @Test
+        public void save_should_update_tool_with_not_changed_photo_test() {
+            Long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE name = 'tool_1'", Long.class);
+            UUID photoUuid = UUID.fromString("935921a7-692e-4ee4-a089-2695b68e9801");
+            ToolRequest rq = getDefaultToolRequest()
+                    .id(toolId)
+                    .name("updated_tool")
+                    .photoUuid(photoUuid)
+                    .build();
+
+            service.save(rq);
+
+            UUID savedPhotoUuid = jdbcTemplate.queryForObject("SELECT photo_uuid FROM tools_tool WHERE name = 'updated_tool'", UUID.class);
+            assertEquals(photoUuid, savedPhotoUuid);
+        }
+
         /**
          * {@link ToolService#save(ToolRequest)}} should save {@link Tool} object with brand.
          * Test creates dto object {@link ToolRequest} and then using {@link ToolService#save(ToolRequest)}
@@ -480,6 +553,89 @@ public class ToolServiceTest {
         }
     }
 
+    @Nested
+    class SaveAllTests {
+        /**
+         * {@link ToolService#saveAll(List)} should save all {@link Tool} objects with labels
+         * and return their ids in the order of requests.
+         * Test creates more tool requests than one jdbc batch holds, every request with label,
+         * and saves them using {@link ToolService#saveAll(List)}.
+         * Then checks by jdbcTemplate, that tool at every returned id has name of request at the same index
+         * and that every tool is linked with label.
+         */
+        @Test
+        public void saveAll_should_save_tools_in_order_of_requests_test() {
+            jdbcTemplate.update("INSERT INTO tools_label (name) VALUES ('label_1')");
+            Long labelId = jdbcTemplate.queryForObject("SELECT label_id FROM tools_label WHERE name = 'label_1'", Long.class);
+            List<ToolRequest> rqs = IntStream.range(0, 120)
+                    .mapToObj(i -> getDefaultToolRequest()
+                            .name("batch_tool_" + i)
+                            .labels(Set.of(labelId))
+                            .build())
+                    .toList();
+
+            List<Long> ids = service.saveAll(rqs);
+
+            assertEquals(rqs.size(), ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                String name = jdbcTemplate.queryForObject("SELECT name FROM tools_tool WHERE tool_id = " + ids.get(i), String.class);
+                assertEquals(rqs.get(i).name(), name);
+            }
+            Long countLabels = jdbcTemplate.queryForObject("SELECT count(*) FROM tools_tool_label tl JOIN tools_tool t ON t.tool_id = tl.tool_id " +
+                    "WHERE t.name LIKE 'batch_tool_%' AND tl.label_id = " + labelId, Long.class);
+            assertEquals(120L, countLabels);
+        }
+
+        /**
+         * {@link ToolService#saveAll(List)} should not save any {@link Tool} object, if one of requests is invalid.
+         * Test creates batch of two tool requests, the second one refers to not existing label
+         * (negative number guaranties, that no such id exists in database).
+         * Then checks if {@link BPException} is thrown and tool of the first request is not saved.
+         */
+        @Test
+        public void saveAll_should_not_save_any_tool_if_label_not_exists_test() {
+            List<ToolRequest> rqs = List.of(
+                    getDefaultToolRequest().name("batch_tool_1").build(),
+                    getDefaultToolRequest().name("batch_tool_2").labels(Set.of(-1L)).build());
+
+            assertThrows(BPException.class, () -> service.saveAll(rqs));
+
+            Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM tools_tool WHERE name LIKE 'batch_tool_%'", Long.class);
+            assertEquals(0L, count);
+        }
+
+        /**
+         * {@link ToolService#saveAll(List)} should not save any {@link Tool} object, if one of requests refers to not stored photo.
+         * Test creates batch of two tool requests, the second one refers to photo with pending upload.
+         * Then checks if {@link BPException} is thrown and tool of the first request is not saved.
+         */
+        @Test
+        public void saveAll_should_not_save_any_tool_if_photo_is_not_stored_test() {
+            UUID photoUuid = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status) VALUES (?, 'PHOTO_TOOL', 'PENDING')", photoUuid);
+            List<ToolRequest> rqs = List.of(
+                    getDefaultToolRequest().name("batch_tool_1").build(),
+                    getDefaultToolRequest().name("batch_tool_2").photoUuid(photoUuid).build());
+
+            assertThrows(BPException.class, () -> service.saveAll(rqs));
+
+            Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM tools_tool WHERE name LIKE 'batch_tool_%'", Long.class);
+            assertEquals(0L, count);
+        }
+
+        /**
+         * {@link ToolService#saveAll(List)} should throw {@link BPException}, if one of requests has id.
+         * Test creates batch with request to update existing tool and checks if {@link BPException} is thrown.
+         */
+        @Test
+        public void saveAll_should_throw_exception_if_request_has_id_test() {
+            Long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE name = 'tool_1'", Long.class);
+            List<ToolRequest> rqs = List.of(getDefaultToolRequest().id(toolId).build());
+
+            assertThrows(BPException.class, () -> service.saveAll(rqs));
+        }
+    }
+
     @Nested
     class FindByIdTests {
         /**
@@ -588,6 +744,50 @@ public class ToolServiceTest {
         }
     }
 
+    @Nested
+    class FindLastModifiedTests {
+        /**
+         * {@link ToolService#findLastModified(Long)} should return update date of tool, if references are older.
+         * Test sets update date of tool and checks returned date.
+         */
+        @Test
+        public void findLastModified_should_return_tool_updated_at_test() {
+            long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE name = 'tool_1' AND is_archived IS FALSE", Long.class);
+            LocalDateTime updatedAt = LocalDateTime.of(2023, 10, 1, 12, 0);
+            jdbcTemplate.update("UPDATE tools_tool SET updated_at = ? WHERE tool_id = ?", updatedAt, toolId);
+
+            assertEquals(updatedAt, service.findLastModified(toolId));
+        }
+
+        /**
+         * {@link ToolService#findLastModified(Long)} should return update date of label, if label is updated after tool.
+         * Test prepare data. Insert label, associate it with tool by join table tools_tool_label
+         * and set label update date after tool update date. Then checks returned date.
+         */
+        @Test
+        public void findLastModified_should_return_label_updated_at_test() {
+            long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE name = 'tool_1' AND is_archived IS FALSE", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_label (name) VALUES ('label_1')");
+            Long labelId = jdbcTemplate.queryForObject("SELECT label_id FROM tools_label WHERE name = 'label_1'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_tool_label (tool_id, label_id) VALUES (" + toolId + ", " + labelId + ")");
+            LocalDateTime toolUpdatedAt = LocalDateTime.of(2023, 10, 1, 12, 0);
+            LocalDateTime labelUpdatedAt = toolUpdatedAt.plusDays(1);
+            jdbcTemplate.update("UPDATE tools_tool SET updated_at = ? WHERE tool_id = ?", toolUpdatedAt, toolId);
+            jdbcTemplate.update("UPDATE tools_label SET updated_at = ? WHERE label_id = ?", labelUpdatedAt, labelId);
+
+            assertEquals(labelUpdatedAt, service.findLastModified(toolId));
+        }
+
+        /**
+         * {@link ToolService#findLastModified(Long)} should throw {@link BPException} exception
+         * if {@link Tool} with id not exist in database.
+         */
+        @Test
+        public void findLastModified_should_throw_exception_on_not_found_tool_test() {
+            assertThrows(BPException.class, () -> service.findLastModified(-1L));
+        }
+    }
+
     @Nested
     class UpdateTests {
         /**
@@ -1210,6 +1410,32 @@ public class ToolServiceTest {
             assertEquals(countNotArchived, foundedTools.getTotalElements());
         }
 
+        /**
+         * {@link ToolService#findAll(int, int, Specification)} should return {@link Tool} objects of category subtree.
+         * Test creates category with sub category and sub sub category and one more category with jdbcTemplate,
+         * and links tools to every category.
+         * Then test build category subtree specification for root category and try to find tools with {@link ToolService#findAll(int, int, Specification)}
+         * Then test checks if tools of root category and of all its descendants are found and tool of other category is not.
+         */
+        @Test
+        public void findAll_should_find_by_category_subtree_tools_test() {
+            jdbcTemplate.update("INSERT INTO tools_category (name) VALUES ('category_1')");
+            long rootId = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_1'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_category (name, parent_category_id) VALUES ('category_1_1', " + rootId + ")");
+            long childId = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_1_1'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_category (name, parent_category_id) VALUES ('category_1_1_1', " + childId + ")");
+            jdbcTemplate.update("INSERT INTO tools_category (name) VALUES ('category_2')");
+            jdbcTemplate.update("UPDATE tools_tool SET category_id = " + rootId + " WHERE name = 'tool_1'");
+            jdbcTemplate.update("UPDATE tools_tool SET category_id = " + childId + " WHERE name = 'tool_2'");
+            jdbcTemplate.update("UPDATE tools_tool SET category_id = (SELECT category_id FROM tools_category WHERE name = 'category_1_1_1') WHERE name = 'tool_3'");
+            jdbcTemplate.update("UPDATE tools_tool SET category_id = (SELECT category_id FROM tools_category WHERE name = 'category_2') WHERE name = 'tool_4'");
+            Specification<Tool> spec = specBuilder(categorySubtreeSpec(rootId).and(sortSpec("name,asc"))).build();
+
+            Page<ToolFilterInfo> foundedTools = service.findAll(0, 100, spec);
+
+            assertEquals(List.of("tool_1", "tool_2", "tool_3"), foundedTools.getContent().stream().map(ToolFilterInfo::name).toList());
+        }
+
         /**
          * {@link ToolService#findAll(int, int, Specification)} should sort {@link Tool} objects by name in asc order.
          * Test receives all tool names from the database in asc order
@@ -1351,12 +1577,383 @@ public class ToolServiceTest {
             assertEquals(6, foundedTools.getTotalElements());
             assertEquals(1, foundedTools.getContent().size());
         }
+
+        /**
+         * {@link ToolService#findAll(int, int, Specification)} should return page of tools with all their labels.
+         * Test prepare data. Insert two labels and associate them with tool_1 by join table tools_tool_label.
+         * Then test with page size 1 and sort by name in asc order returns {@link ToolFilterResponse}
+         * from {@link ToolService#findAll(int, int, Specification)}
+         * Then test checks that page contains only tool_1 with both labels and total items are not affected by labels join.
+         */
+        @Test
+        public void findAll_with_page_size_one_should_return_tool_with_all_labels_test() {
+            long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE name = 'tool_1'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_label (name) VALUES ('label_1')");
+            jdbcTemplate.update("INSERT INTO tools_label (name) VALUES ('label_2')");
+            jdbcTemplate.update("INSERT INTO tools_tool_label (tool_id, label_id) SELECT " + toolId + ", label_id FROM tools_label");
+            Specification<Tool> spec = specBuilder(sortSpec("name,asc")).build();
+
+            Page<ToolFilterInfo> foundedTools = service.findAll(0, 1, spec);
+
+            assertEquals(6, foundedTools.getTotalElements());
+            assertEquals(1, foundedTools.getContent().size());
+            ToolFilterInfo tool = foundedTools.getContent().get(0);
+            assertEquals(toolId, tool.id());
+            assertEquals(Set.of("label_1", "label_2"), tool.labels());
+        }
+
+        /**
+         * {@link ToolService#findAll(int, int, Specification)} should return {@link Tool} objects selected by all filters.
+         * Test creates two brands and label with jdbcTemplate, links tools to brands and label and sets price,
+         * rent till date, consumable and kit flags of tools.
+         * Then test build filter specification for every filter and try to find tools with {@link ToolService#findAll(int, int, Specification)}
+         * Then test checks if only tools matching filter are found.
+         */
+        @Test
+        public void findAll_should_find_by_filter_tools_test() {
+            jdbcTemplate.update("INSERT INTO tools_brand (name) VALUES ('brand_1')");
+            jdbcTemplate.update("INSERT INTO tools_brand (name) VALUES ('brand_2')");
+            long brandId1 = jdbcTemplate.queryForObject("SELECT brand_id FROM tools_brand WHERE name = 'brand_1'", Long.class);
+            long brandId2 = jdbcTemplate.queryForObject("SELECT brand_id FROM tools_brand WHERE name = 'brand_2'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_label (name) VALUES ('label_1')");
+            long labelId = jdbcTemplate.queryForObject("SELECT label_id FROM tools_label WHERE name = 'label_1'", Long.class);
+            jdbcTemplate.update("UPDATE tools_tool SET brand_id = " + brandId1 + ", price = 100, is_kit = true WHERE name IN ('tool_1', 'tool_2')");
+            jdbcTemplate.update("UPDATE tools_tool SET brand_id = " + brandId2 + ", price = 200, rent_till = '2023-10-10' WHERE name = 'tool_3'");
+            jdbcTemplate.update("UPDATE tools_tool SET is_consumable = true, rent_till = '2023-10-20' WHERE name = 'tool_4'");
+            jdbcTemplate.update("INSERT INTO tools_tool_label (tool_id, label_id) SELECT tool_id, " + labelId + " FROM tools_tool WHERE name IN ('tool_2', 'tool_4')");
+
+            assertEquals(List.of("tool_1", "tool_2", "tool_3"), findNames(ToolFilter.builder().brandIds(List.of(brandId2, brandId1))));
+            assertEquals(List.of("tool_2", "tool_4"), findNames(ToolFilter.builder().labelIds(List.of(labelId))));
+            assertEquals(List.of("tool_2"), findNames(ToolFilter.builder().brandIds(List.of(brandId1)).labelIds(List.of(labelId))));
+            assertEquals(List.of("tool_4"), findNames(ToolFilter.builder().isConsumable(true)));
+            assertEquals(List.of("tool_1", "tool_2"), findNames(ToolFilter.builder().isKit(true)));
+            assertEquals(List.of("tool_3"), findNames(ToolFilter.builder().priceFrom(new BigDecimal("150.00"))));
+            assertEquals(List.of("tool_1", "tool_2"), findNames(ToolFilter.builder().priceTo(new BigDecimal("100"))));
+            assertEquals(List.of("tool_3", "tool_4"), findNames(ToolFilter.builder().rentTillFrom(LocalDate.of(2023, Month.OCTOBER, 10))));
+            assertEquals(List.of("tool_3"), findNames(ToolFilter.builder().rentTillTo(LocalDate.of(2023, Month.OCTOBER, 10))));
+            assertEquals(List.of("tool_1", "tool_2", "tool_3", "tool_4", "tool_5"), findNames(ToolFilter.builder().ownershipType(OwnershipType.OWN)));
+        }
+
+        /**
+         * {@link ToolService#findAll(int, int, Specification, TotalsMode, String)} with estimate totals mode
+         * should estimate number of tools matching filter, not number of all tools.
+         * Test inserts more tools matching name filter than estimate threshold and three times more not matching tools
+         * with jdbcTemplate and analyzes table.
+         * Then test finds tools by name with estimated totals and checks that total is greater than threshold
+         * and much less than number of all tools.
+         */
+        @Test
+        public void findAll_with_estimate_totals_should_estimate_filtered_tools_test() {
+            try {
+                jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid) SELECT 'drill_' || i, 'OWN', gen_random_uuid() FROM generate_series(1, 12000) i");
+                jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid) SELECT 'saw_' || i, 'OWN', gen_random_uuid() FROM generate_series(1, 36000) i");
+                jdbcTemplate.execute("ANALYZE tools_tool");
+                Specification<Tool> spec = specBuilder(isArchivedSpec(false).and(likeSpec("drill"))).build();
+
+                Long total = TotalsMode.totalItems(service.findAll(0, 10, spec, TotalsMode.ESTIMATE, null));
+
+                assertNotNull(total);
+                assertTrue(total > 10000 && total < 24000, "estimated total: " + total);
+            } finally {
+                jdbcTemplate.update("DELETE FROM tools_tool");
+                jdbcTemplate.execute("ANALYZE tools_tool");
+            }
+        }
+
+        private List<String> findNames(ToolFilter.ToolFilterBuilder filter) {
+            Specification<Tool> spec = specBuilder(filterSpec(filter.build()).and(sortSpec("name,asc"))).build();
+            return service.findAll(0, 100, spec).getContent().stream().map(ToolFilterInfo::name).toList();
+        }
+    }
+
+    @Nested
+    class FindFacetsTests {
+        /**
+         * {@link ToolService#findFacets(ToolFilter)} should count not archived tools by every facet.
+         * Test creates brand, category and two labels with jdbcTemplate and links tools to them.
+         * Then test finds facets without filters and checks counts of every facet value,
+         * tool with two labels is counted once in every facet.
+         */
+        @Test
+        public void findFacets_should_count_tools_by_every_facet_test() {
+            jdbcTemplate.update("INSERT INTO tools_brand (name) VALUES ('brand_1')");
+            long brandId = jdbcTemplate.queryForObject("SELECT brand_id FROM tools_brand WHERE name = 'brand_1'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_category (name) VALUES ('category_1')");
+            long categoryId = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_1'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_label (name) VALUES ('label_1')");
+            jdbcTemplate.update("INSERT INTO tools_label (name) VALUES ('label_2')");
+            long labelId1 = jdbcTemplate.queryForObject("SELECT label_id FROM tools_label WHERE name = 'label_1'", Long.class);
+            long labelId2 = jdbcTemplate.queryForObject("SELECT label_id FROM tools_label WHERE name = 'label_2'", Long.class);
+            jdbcTemplate.update("UPDATE tools_tool SET brand_id = " + brandId + " WHERE name IN ('tool_1', 'tool_2', 'tool_6')");
+            jdbcTemplate.update("UPDATE tools_tool SET category_id = " + categoryId + ", is_kit = true WHERE name = 'tool_1'");
+            jdbcTemplate.update("INSERT INTO tools_tool_label (tool_id, label_id) SELECT tool_id, label_id FROM tools_tool, tools_label WHERE tools_tool.name = 'tool_1'");
+            jdbcTemplate.update("INSERT INTO tools_tool_label (tool_id, label_id) SELECT tool_id, " + labelId2 + " FROM tools_tool WHERE name = 'tool_2'");
+
+            ToolFacets facets = service.findFacets(ToolFilter.builder().isArchived(false).build());
+
+            assertEquals(List.of(new FacetValue(null, 3L), new FacetValue(String.valueOf(brandId), 2L)), facets.brands());
+            assertEquals(List.of(new FacetValue(null, 4L), new FacetValue(String.valueOf(categoryId), 1L)), facets.categories());
+            assertEquals(List.of(new FacetValue(null, 3L), new FacetValue(String.valueOf(labelId2), 2L), new FacetValue(String.valueOf(labelId1), 1L)), facets.labels());
+            assertEquals(List.of(new FacetValue(OwnershipType.OWN.name(), 5L)), facets.ownershipTypes());
+            assertEquals(List.of(new FacetValue("false", 5L)), facets.isConsumable());
+            assertEquals(List.of(new FacetValue("false", 4L), new FacetValue("true", 1L)), facets.isKit());
+        }
+
+        /**
+         * {@link ToolService#findFacets(ToolFilter)} should count only tools selected by filter.
+         * Test creates two brands with jdbcTemplate and links tools to them.
+         * Then test finds facets and tools with the same brand filter
+         * and checks that sum of counts of every facet equals number of found tools.
+         */
+        @Test
+        public void findFacets_should_count_tools_selected_by_filter_test() {
+            jdbcTemplate.update("INSERT INTO tools_brand (name) VALUES ('brand_1')");
+            jdbcTemplate.update("INSERT INTO tools_brand (name) VALUES ('brand_2')");
+            long brandId1 = jdbcTemplate.queryForObject("SELECT brand_id FROM tools_brand WHERE name = 'brand_1'", Long.class);
+            long brandId2 = jdbcTemplate.queryForObject("SELECT brand_id FROM tools_brand WHERE name = 'brand_2'", Long.class);
+            jdbcTemplate.update("UPDATE tools_tool SET brand_id = " + brandId1 + " WHERE name IN ('tool_1', 'tool_2')");
+            jdbcTemplate.update("UPDATE tools_tool SET brand_id = " + brandId2 + ", is_consumable = true WHERE name = 'tool_3'");
+            ToolFilter filter = ToolFilter.builder().isArchived(false).brandIds(List.of(brandId1, brandId2)).build();
+
+            ToolFacets facets = service.findFacets(filter);
+            long total = service.findAll(0, 100, specBuilder(filterSpec(filter)).build()).getTotalElements();
+
+            assertEquals(3, total);
+            assertEquals(List.of(new FacetValue(String.valueOf(brandId1), 2L), new FacetValue(String.valueOf(brandId2), 1L)), facets.brands());
+            assertEquals(List.of(new FacetValue("false", 2L), new FacetValue("true", 1L)), facets.isConsumable());
+            Stream.of(facets.brands(), facets.categories(), facets.labels(), facets.ownershipTypes(), facets.isConsumable(), facets.isKit())
+                    .forEach(values -> assertEquals(total, values.stream().mapToLong(FacetValue::count).sum()));
+        }
+
+        /**
+         * {@link ToolService#findFacets(ToolFilter)} should count the same tools, which are found by specification
+         * of the same combined filter.
+         * Test creates category with subcategory, two brands and two labels with jdbcTemplate, links every tool
+         * with one label and sets tools, which miss the filter by only one condition.
+         * Then test finds facets and tools with filter by all conditions
+         * and checks that sum of counts of every facet equals number of found tools.
+         */
+        @Test
+        public void findFacets_should_count_tools_found_by_combined_filter_test() {
+            jdbcTemplate.update("INSERT INTO tools_category (name) VALUES ('category_1')");
+            long categoryId1 = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_1'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_category (name, parent_category_id) VALUES ('category_2', " + categoryId1 + ")");
+            long categoryId2 = jdbcTemplate.queryForObject("SELECT category_id FROM tools_category WHERE name = 'category_2'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_brand (name) VALUES ('brand_1')");
+            jdbcTemplate.update("INSERT INTO tools_brand (name) VALUES ('brand_2')");
+            long brandId1 = jdbcTemplate.queryForObject("SELECT brand_id FROM tools_brand WHERE name = 'brand_1'", Long.class);
+            long brandId2 = jdbcTemplate.queryForObject("SELECT brand_id FROM tools_brand WHERE name = 'brand_2'", Long.class);
+            jdbcTemplate.update("INSERT INTO tools_label (name) VALUES ('label_1')");
+            jdbcTemplate.update("INSERT INTO tools_label (name) VALUES ('label_2')");
+            long labelId1 = jdbcTemplate.queryForObject("SELECT label_id FROM tools_label WHERE name = 'label_1'", Long.class);
+            long labelId2 = jdbcTemplate.queryForObject("SELECT label_id FROM tools_label WHERE name = 'label_2'", Long.class);
+            jdbcTemplate.update("UPDATE tools_tool SET ownership_type = 'RENT', price = 100, rent_till = '2023-10-10', " +
+                    "brand_id = " + brandId1 + ", category_id = " + categoryId2);
+            jdbcTemplate.update("UPDATE tools_tool SET brand_id = " + brandId2 + ", category_id = " + categoryId1 + ", is_kit = true WHERE name = 'tool_2'");
+            jdbcTemplate.update("UPDATE tools_tool SET price = 150, rent_till = '2023-10-31', is_consumable = true WHERE name = 'tool_3'");
+            jdbcTemplate.update("UPDATE tools_tool SET price = 200 WHERE name = 'tool_4'");
+            jdbcTemplate.update("UPDATE tools_tool SET rent_till = '2023-11-01' WHERE name = 'tool_5'");
+            jdbcTemplate.update("INSERT INTO tools_tool_label (tool_id, label_id) SELECT tool_id, " + labelId1 + " FROM tools_tool WHERE name IN ('tool_1', 'tool_3', 'tool_4', 'tool_6')");
+            jdbcTemplate.update("INSERT INTO tools_tool_label (tool_id, label_id) SELECT tool_id, " + labelId2 + " FROM tools_tool WHERE name IN ('tool_2', 'tool_5')");
+            ToolFilter filter = ToolFilter.builder()
+                    .isArchived(false)
+                    .name("tool")
+                    .categoryId(categoryId1)
+                    .brandIds(List.of(brandId1, brandId2))
+                    .labelIds(List.of(labelId1, labelId2))
+                    .ownershipType(OwnershipType.RENT)
+                    .priceFrom(new BigDecimal("50"))
+                    .priceTo(new BigDecimal("150"))
+                    .rentTillFrom(LocalDate.of(2023, Month.OCTOBER, 1))
+                    .rentTillTo(LocalDate.of(2023, Month.OCTOBER, 31))
+                    .build();
+
+            ToolFacets facets = service.findFacets(filter);
+            long total = service.findAll(0, 100, specBuilder(filterSpec(filter)).build()).getTotalElements();
+
+            assertEquals(3, total);
+            assertEquals(List.of(new FacetValue(String.valueOf(brandId1), 2L), new FacetValue(String.valueOf(brandId2), 1L)), facets.brands());
+            assertEquals(List.of(new FacetValue(String.valueOf(labelId1), 2L), new FacetValue(String.valueOf(labelId2), 1L)), facets.labels());
+            Stream.of(facets.brands(), facets.categories(), facets.labels(), facets.ownershipTypes(), facets.isConsumable(), facets.isKit())
+                    .forEach(values -> assertEquals(total, values.stream().mapToLong(FacetValue::count).sum()));
+        }
+
+        /**
+         * {@link ToolService#findFacets(ToolFilter)} should return empty facets if no tool is selected by filter.
+         * Test finds facets with filter by not existing brand and checks that every facet is empty.
+         */
+        @Test
+        public void findFacets_should_return_empty_facets_if_no_tools_found_test() {
+            ToolFacets facets = service.findFacets(ToolFilter.builder().isArchived(false).brandIds(List.of(-1L)).build());
+
+            assertTrue(facets.brands().isEmpty());
+            assertTrue(facets.categories().isEmpty());
+            assertTrue(facets.labels().isEmpty());
+            assertTrue(facets.ownershipTypes().isEmpty());
+            assertTrue(facets.isConsumable().isEmpty());
+            assertTrue(facets.isKit().isEmpty());
+        }
+    }
+
+    @Nested
+    class SearchTests {
+        /**
+         * {@link ToolService#search(String, double, boolean, int)} should find tools by similar name with typo.
+         * Test creates tool with jdbcTemplate and searches it by name with typo.
+         * Then test checks that only this tool is found with score less than 1.
+         */
+        @Test
+        public void search_should_find_by_name_with_typo_test() {
+            jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid) VALUES ('Makita MTK24', 'OWN', '935921a7-692e-4ee4-a089-2695b68e9807')");
+
+            List<ToolSearchInfo> found = service.search("makito", 0.5, false, 20);
+
+            assertEquals(1, found.size());
+            assertEquals("Makita MTK24", found.get(0).tool().name());
+            assertTrue(found.get(0).score() < 1);
+        }
+
+        /**
+         * {@link ToolService#search(String, double, boolean, int)} should find tools by inventory number, brand and category name.
+         * Test creates brand and category with jdbcTemplate and three tools: with inventory number, with brand and with category.
+         * Then test searches tools by every field and checks that the tool of field is found.
+         */
+        @Test
+        public void search_should_find_by_inventory_number_brand_and_category_test() {
+            jdbcTemplate.update("INSERT INTO tools_brand (name) VALUES ('Bosch')");
+            jdbcTemplate.update("INSERT INTO tools_category (name) VALUES ('Grinders')");
+            jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid, inventory_number) VALUES ('tool_7', 'OWN', '935921a7-692e-4ee4-a089-2695b68e9807', '0014-HANDTOOL')");
+            jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid, brand_id) " +
+                    "SELECT 'tool_8', 'OWN', '935921a7-692e-4ee4-a089-2695b68e9808', brand_id FROM tools_brand WHERE name = 'Bosch'");
+            jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid, category_id) " +
+                    "SELECT 'tool_9', 'OWN', '935921a7-692e-4ee4-a089-2695b68e9809', category_id FROM tools_category WHERE name = 'Grinders'");
+
+            List<ToolSearchInfo> byInventoryNumber = service.search("handtool", 0.6, false, 20);
+            List<ToolSearchInfo> byBrand = service.search("bosch", 0.6, false, 20);
+            List<ToolSearchInfo> byCategory = service.search("grinder", 0.6, false, 20);
+
+            assertEquals(List.of("tool_7"), byInventoryNumber.stream().map(info -> info.tool().name()).toList());
+            assertEquals(List.of("tool_8"), byBrand.stream().map(info -> info.tool().name()).toList());
+            assertEquals("Bosch", byBrand.get(0).tool().brand());
+            assertEquals(List.of("tool_9"), byCategory.stream().map(info -> info.tool().name()).toList());
+            assertEquals("Grinders", byCategory.get(0).tool().category());
+        }
+
+        /**
+         * {@link ToolService#search(String, double, boolean, int)} should order found tools by score and limit them by size.
+         * Test creates three tools with similar names with jdbcTemplate and searches them with size 2.
+         * Then test checks that two the most similar tools are found in the order of score.
+         */
+        @Test
+        public void search_should_order_by_score_and_limit_by_size_test() {
+            jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid) VALUES ('Makito saw', 'OWN', '935921a7-692e-4ee4-a089-2695b68e9807')");
+            jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid) VALUES ('Makita drill', 'OWN', '935921a7-692e-4ee4-a089-2695b68e9808')");
+            jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid) VALUES ('Makitta grinder', 'OWN', '935921a7-692e-4ee4-a089-2695b68e9809')");
+
+            List<ToolSearchInfo> found = service.search("makita", 0.3, false, 2);
+
+            assertEquals(2, found.size());
+            assertEquals("Makita drill", found.get(0).tool().name());
+            assertEquals(1.0, found.get(0).score());
+            assertTrue(found.get(0).score() >= found.get(1).score());
+        }
+
+        /**
+         * {@link ToolService#search(String, double, boolean, int)} should not find tools less similar than threshold.
+         * Test creates tool with jdbcTemplate and searches it by name with typo with threshold 1.
+         * Then test checks that tool is not found.
+         */
+        @Test
+        public void search_should_not_find_tools_below_threshold_test() {
+            jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid) VALUES ('Makita MTK24', 'OWN', '935921a7-692e-4ee4-a089-2695b68e9807')");
+
+            List<ToolSearchInfo> found = service.search("makito", 1, false, 20);
+
+            assertTrue(found.isEmpty());
+        }
+
+        /**
+         * {@link ToolService#search(String, double, boolean, int)} should find only tools with requested archived flag.
+         * Test searches archived tool_6 as not archived and as archived.
+         * Then test checks that it is found only as archived.
+         */
+        @Test
+        public void search_should_find_by_archived_flag_test() {
+            List<ToolSearchInfo> notArchived = service.search("tool_6", 1, false, 20);
+            List<ToolSearchInfo> archived = service.search("tool_6", 1, true, 20);
+
+            assertTrue(notArchived.isEmpty());
+            assertEquals(List.of("tool_6"), archived.stream().map(info -> info.tool().name()).toList());
+        }
+    }
+
+    @Nested
+    class SuggestTests {
+        /**
+         * {@link ToolService#suggest(String, int)} should suggest not archived tools by prefix of name after index rebuild.
+         * Test rebuilds index from tools created with jdbcTemplate and searches them by prefix.
+         * Then test checks that all not archived tools are suggested in order of name and archived tool_6 is not.
+         */
+        @Test
+        public void suggest_should_find_not_archived_tools_by_name_prefix_test() {
+            service.rebuildSuggestIndex();
+
+            List<Suggestion> suggestions = service.suggest("TOOL_", 10);
+
+            assertEquals(List.of("tool_1", "tool_2", "tool_3", "tool_4", "tool_5"),
+                    suggestions.stream().map(Suggestion::text).toList());
+        }
+
+        /**
+         * {@link ToolService#suggest(String, int)} should suggest tools by prefix of inventory number.
+         * Test creates tool with inventory number with jdbcTemplate, rebuilds index and searches tool by prefix of inventory number.
+         */
+        @Test
+        public void suggest_should_find_tools_by_inventory_number_prefix_test() {
+            jdbcTemplate.update("INSERT INTO tools_tool (name, ownership_type, uuid, inventory_number) VALUES ('tool_7', 'OWN', '935921a7-692e-4ee4-a089-2695b68e9807', '0014-HANDTOOL')");
+            service.rebuildSuggestIndex();
+
+            List<Suggestion> suggestions = service.suggest("0014", 10);
+
+            assertEquals(List.of("0014-HANDTOOL"), suggestions.stream().map(Suggestion::text).toList());
+        }
+
+        /**
+         * {@link ToolService#suggest(String, int)} should suggest saved tool without index rebuild
+         * and should not suggest it after archiving.
+         * Test saves new tool with {@link ToolService#save(ToolRequest)}, then archives it.
+         * Then test checks suggestions after every save.
+         */
+        @Test
+        public void suggest_should_reflect_saved_and_archived_tools_test() {
+            service.rebuildSuggestIndex();
+
+            Tool tool = service.save(getDefaultToolRequest().name("Makita MTK24").build());
+
+            assertEquals(List.of(tool.getId()), service.suggest("makita", 10).stream().map(Suggestion::id).toList());
+
+            service.save(getDefaultToolRequest().id(tool.getId()).name("Makita MTK24").isArchived(true).build());
+
+            assertTrue(service.suggest("makita", 10).isEmpty());
+        }
+
+        /**
+         * {@link ToolService#suggest(String, int)} should return not more suggestions than size.
+         */
+        @Test
+        public void suggest_should_limit_suggestions_by_size_test() {
+            service.rebuildSuggestIndex();
+
+            List<Suggestion> suggestions = service.suggest("tool", 2);
+
+            assertEquals(List.of("tool_1", "tool_2"), suggestions.stream().map(Suggestion::text).toList());
+        }
     }
 
     @Nested
     class UploadPhotoTests {
         /**
-         * {@link ToolService#findPhoto(Long)} should return {@link UploadPhotoResponse} with photo uuid.
+         * {@link ToolService#findPhoto(Long, String)} should return {@link UploadPhotoResponse} with photo uuid.
          * Test upload mock multipart file and check if uuid from service response equals mock photo uuid
          */
         @Test
@@ -1386,48 +1983,63 @@ public class ToolServiceTest {
     @Nested
     class FindPhotoTests {
         /**
-         * {@link ToolService#findPhoto(Long)} should return photo from storage service.
-         * Test try to get photo by tool id and then check InputStreamResource from file storage and file system equals
-         * then check if hash codes of InputStreamResource from file storage and file system equals
+         * {@link ToolService#findPhoto(Long, String)} should return photo from storage service.
+         * Test try to get photo by tool id and then check if returned photo stream is the stream from file storage
          */
         @Test
         public void find_photo_should_return_photo_uuid_test() throws Exception {
             long personId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE photo_uuid = '935921a7-692e-4ee4-a089-2695b68e9801'", Long.class);
-            InputStream is = new ByteArrayInputStream(getPhoto(PATH_TO_JPEG_FILE));
-            InputStreamResource photo = new InputStreamResource(is);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_TOOL))).willReturn(photo);
+            FileStream photo = getPhotoStream(getPhoto(PATH_TO_JPEG_FILE));
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_TOOL), any())).willReturn(photo);
 
-            InputStreamResource returnedResource = service.findPhoto(personId);
+            FileStream returnedPhoto = service.findPhoto(personId, null);
 
-            assertEquals(returnedResource, photo);
-            assertEquals(returnedResource.hashCode(), photo.hashCode());
+            assertEquals(photo, returnedPhoto);
         }
 
         /**
-         * {@link ToolService#findPhoto(Long)} should return {@link BPException} if photo uuid is null.
+         * {@link ToolService#findPhoto(Long, String)} should return {@link BPException} if photo uuid is null.
          * Test try to get not existing photo by tool id and then check if {@link BPException} throws
          */
         @Test
         public void find_photo_should_bpexception_if_tool_photo_uuid_is_null_test() throws Exception {
             long personId = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NULL LIMIT 1", Long.class);
-            InputStream is = new ByteArrayInputStream(getPhoto(PATH_TO_JPEG_FILE));
-            InputStreamResource photo = new InputStreamResource(is);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_TOOL))).willReturn(photo);
+            FileStream photo = getPhotoStream(getPhoto(PATH_TO_JPEG_FILE));
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_TOOL), any())).willReturn(photo);
 
-            assertThrows(BPException.class, () -> service.findPhoto(personId));
+            assertThrows(BPException.class, () -> service.findPhoto(personId, null));
         }
 
         /**
-         * {@link ToolService#findPhoto(Long)} should return {@link BPException} if tool not found.
+         * {@link ToolService#findPhoto(Long, String)} should return {@link BPException} if tool not found.
          * Test try to get photo of not existing tool and then check if {@link BPException} throws
          */
         @Test
         public void find_photo_should_bpexception_if_tool_not_found_test() throws Exception {
-            InputStream is = new ByteArrayInputStream(getPhoto(PATH_TO_JPEG_FILE));
-            InputStreamResource photo = new InputStreamResource(is);
-            BDDMockito.given(fileStorageFacade.download(any(UUID.class), eq(FileType.PHOTO_TOOL))).willReturn(photo);
+            FileStream photo = getPhotoStream(getPhoto(PATH_TO_JPEG_FILE));
+            BDDMockito.given(fileStorageFacade.stream(any(UUID.class), eq(FileType.PHOTO_TOOL), any())).willReturn(photo);
+
+            assertThrows(BPException.class, () -> service.findPhoto(-1L, null));
+        }
 
-            assertThrows(BPException.class, () -> service.findPhoto(-1L));
+        /**
+         * {@link ToolService#findPhotoUuids(java.util.Collection)} should return photo uuids in the order of ids.
+         * Test try to get photo uuids of tools with photo, tool without photo, not existing tool and duplicated id
+         * and then check, that only tools with photo are returned once.
+         */
+        @Test
+        public void find_photo_uuids_should_skip_tools_without_photo_test() {
+            jdbcTemplate.update("UPDATE tools_tool SET photo_uuid = ? WHERE tool_id = (SELECT MAX(tool_id) FROM tools_tool WHERE photo_uuid IS NULL)", UUID.randomUUID());
+            List<Long> ids = jdbcTemplate.queryForList("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NOT NULL ORDER BY tool_id LIMIT 2", Long.class);
+            long withoutPhoto = jdbcTemplate.queryForObject("SELECT tool_id FROM tools_tool WHERE photo_uuid IS NULL LIMIT 1", Long.class);
+
+            List<ToolPhotoInfo> photos = service.findPhotoUuids(List.of(ids.get(1), withoutPhoto, -1L, ids.get(0), ids.get(1)));
+
+            assertEquals(List.of(ids.get(1), ids.get(0)), photos.stream().map(ToolPhotoInfo::id).toList());
+            for (ToolPhotoInfo photo : photos) {
+                UUID photoUuid = jdbcTemplate.queryForObject("SELECT photo_uuid FROM tools_tool WHERE tool_id = ?", UUID.class, photo.id());
+                assertEquals(photoUuid, photo.photoUuid());
+            }
         }
     }
 }
\ No newline at end of file
@@ -12,10 +12,13 @@ import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.Too
 import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.ToolInfo;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.Tool;
 import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.enums.OwnershipType;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository.ToolRepository.ListRow;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Month;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -43,286 +46,258 @@ public class ToolsDtoMapperTest {
     }
 
     /**
-     * {@link ToolsDtoMapper#mapToToolInfo(Tool)} should map {@link Tool} uuid field.
-     * Test creates object {@link Tool} with non-null test field and try to map it to {@link ToolFilterInfo} object.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map {@link ListRow} uuid field.
+     * Test creates object {@link ListRow} with non-null test field and try to map it to {@link ToolFilterInfo} object.
      * Then checks by equality test field before mapping and after.
      */
     @Test
     public void map_to_tool_filter_info_should_map_uuid() {
         UUID uuid = UUID.fromString("f3d50cfe-4efa-4b70-ac6d-75c37ad8f6c8");
-        Tool tool = new Tool();
-        tool.setUuid(uuid);
+        ListRow row = new ListRow(null, uuid, null, null, null, null, null, null, null, null, null, null, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, null, Set.of());
 
         assertEquals(uuid, toolFilterInfo.uuid());
     }
 
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} name field.
-     * Test creates object {@link Tool} with non-null test field and try to map it to {@link ToolFilterInfo} object.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map {@link ListRow} name field.
+     * Test creates object {@link ListRow} with non-null test field and try to map it to {@link ToolFilterInfo} object.
      * Then checks by equality test field before mapping and after.
      */
     @Test
     public void map_to_tool_filter_info_should_map_name() {
         String toolNme = "new_tool";
-        Tool tool = new Tool();
-        tool.setName(toolNme);
+        ListRow row = new ListRow(null, null, toolNme, null, null, null, null, null, null, null, null, null, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, null, Set.of());
 
         assertEquals(toolNme, toolFilterInfo.name());
     }
 
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} IsConsumable field.
-     * Test creates object {@link Tool} with non-null test field and try to map it to {@link ToolFilterInfo} object.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map {@link ListRow} isConsumable field.
+     * Test creates object {@link ListRow} with non-null test field and try to map it to {@link ToolFilterInfo} object.
      * Then checks by equality test field before mapping and after.
      */
     @Test
     public void map_to_tool_filter_info_should_map_is_consumable() {
         Boolean isConsumable = true;
-        Tool tool = new Tool();
-        tool.setIsConsumable(isConsumable);
+        ListRow row = new ListRow(null, null, null, isConsumable, null, null, null, null, null, null, null, null, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, null, Set.of());
 
         assertEquals(isConsumable, toolFilterInfo.isConsumable());
     }
 
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} brand field.
-     * Test creates object {@link Tool} with non-null test field and try to map it to {@link ToolFilterInfo} object.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map brand name of {@link ListRow} brandId field.
+     * Test creates object {@link ListRow} with non-null test field and try to map it to {@link ToolFilterInfo} object.
      * Then checks by equality test field before mapping and after.
      */
     @Test
     public void map_to_tool_filter_info_should_map_brand() {
         String brandName = "new_brand";
-        Brand brand = new Brand();
-        brand.setName(brandName);
-        Tool tool = new Tool();
-        tool.setBrand(brand);
+        ListRow row = new ListRow(null, null, null, null, null, null, null, null, null, null, 1L, null, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, brandName, null, Set.of());
 
         assertEquals(brandName, toolFilterInfo.brand());
     }
 
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} null brand field.
-     * Test creates object {@link Tool} with null test field and try to map it to {@link ToolFilterInfo} object.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map {@link ListRow} null brandId field.
+     * Test creates object {@link ListRow} with null test field and try to map it to {@link ToolFilterInfo} object.
      * Then checks by equality test field before mapping and after.
      */
     @Test
     public void map_to_tool_filter_info_should_map_null_brand() {
-        Tool tool = new Tool();
-        tool.setBrand(null);
+        ListRow row = new ListRow(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, null, Set.of());
 
         assertNull(toolFilterInfo.brand());
     }
 
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} inventoryNumber field.
-     * Test creates object {@link Tool} with non-null test field and try to map it to {@link ToolFilterInfo} object.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map {@link ListRow} inventoryNumber field.
+     * Test creates object {@link ListRow} with non-null test field and try to map it to {@link ToolFilterInfo} object.
      * Then checks by equality test field before mapping and after.
      */
     @Test
     public void map_to_tool_filter_info_should_map_inventory_number() {
         String inventoryNumber = "inventory_number";
-        Tool tool = new Tool();
-        tool.setInventoryNumber(inventoryNumber);
+        ListRow row = new ListRow(null, null, null, null, inventoryNumber, null, null, null, null, null, null, null, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, null, Set.of());
 
         assertEquals(inventoryNumber, toolFilterInfo.inventoryNumber());
     }
 
     //TODO: enable and change test logic after adding persons module
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} responsibleUuid field to responsible name.
-     * Test creates object {@link Tool} with non-null test field and try to map it to {@link ToolFilterInfo} object.
-     * Then checks by equality test field it should contain responsible person name.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map responsible person name.
+     * Test creates object {@link ListRow} with non-null test field and try to map it to {@link ToolFilterInfo} object.
+     * Then checks by equality it should contain responsible person name.
      */
     @Test
     @Disabled
     public void map_to_tool_filter_info_should_map_responsible() {
-        UUID responsible = UUID.fromString("f3d50cfe-4efa-4b70-ac6d-75c37ad8f6c8");
-        Tool tool = new Tool();
-        tool.setResponsibleUuid(responsible);
+        ListRow row = new ListRow(1L, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, null, Set.of());
 
-        assertEquals(responsible.toString(), toolFilterInfo.responsible());
+        assertNotNull(toolFilterInfo.responsible());
     }
 
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} category field.
-     * Test creates object {@link Tool} with non-null test field and try to map it to {@link ToolFilterInfo} object.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map category name of {@link ListRow} categoryId field.
+     * Test creates object {@link ListRow} with non-null test field and try to map it to {@link ToolFilterInfo} object.
      * Then checks by equality test field before mapping and after.
      */
     @Test
     public void map_to_tool_filter_info_should_map_category() {
         String categoryName = "new_category";
-        Category category = new Category();
-        category.setName(categoryName);
-        Tool tool = new Tool();
-        tool.setCategory(category);
+        ListRow row = new ListRow(null, null, null, null, null, null, null, null, null, null, null, 1L, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, categoryName, Set.of());
 
         assertEquals(categoryName, toolFilterInfo.category());
     }
 
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} null category field.
-     * Test creates object {@link Tool} with null test field and try to map it to {@link ToolFilterInfo} object.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map {@link ListRow} null categoryId field.
+     * Test creates object {@link ListRow} with null test field and try to map it to {@link ToolFilterInfo} object.
      * Then checks by equality test field before mapping and after.
      */
     @Test
     public void map_to_tool_filter_info_should_map_null_category() {
-        Tool tool = new Tool();
-        tool.setCategory(null);
+        ListRow row = new ListRow(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, null, Set.of());
 
         assertNull(toolFilterInfo.category());
     }
 
     //TODO: enable and change test logic after adding projects module
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} projectUuid field to project name.
-     * Test creates object {@link Tool} with non-null test field and try to map it to {@link ToolFilterInfo} object.
-     * Then checks by equality test field it should contain project name.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map project name.
+     * Test creates object {@link ListRow} with non-null test field and try to map it to {@link ToolFilterInfo} object.
+     * Then checks by equality it should contain project name.
      */
     @Test
     @Disabled
     public void map_to_tool_filter_info_should_map_project() {
-        UUID responsible = UUID.fromString("f3d50cfe-4efa-4b70-ac6d-75c37ad8f6c8");
-        Tool tool = new Tool();
-        tool.setResponsibleUuid(responsible);
+        ListRow row = new ListRow(1L, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, null, Set.of());
 
-        assertEquals(responsible.toString(), toolFilterInfo.responsible());
+        assertNotNull(toolFilterInfo.project());
     }
 
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} price field.
-     * Test creates object {@link Tool} with non-null test field and try to map it to {@link ToolFilterInfo} object.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map {@link ListRow} price field.
+     * Test creates object {@link ListRow} with non-null test field and try to map it to {@link ToolFilterInfo} object.
      * Then checks by equality test field before mapping and after.
      */
     @Test
     public void map_to_tool_filter_info_should_map_price() {
         BigDecimal price = new BigDecimal("23400.00");
-        Tool tool = new Tool();
-        tool.setPrice(price);
+        ListRow row = new ListRow(null, null, null, null, null, price, null, null, null, null, null, null, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, null, Set.of());
 
         assertEquals(price, toolFilterInfo.price());
     }
 
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} ownershipType field.
-     * Test creates object {@link Tool} with non-null test field and try to map it to {@link ToolFilterInfo} object.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map {@link ListRow} ownershipType field.
+     * Test creates object {@link ListRow} with non-null test field and try to map it to {@link ToolFilterInfo} object.
      * Then checks by equality test field before mapping and after.
      */
     @Test
     public void map_to_tool_filter_info_should_map_ownership_type() {
         OwnershipType ownershipType = OwnershipType.RENT;
-        Tool tool = new Tool();
-        tool.setOwnershipType(ownershipType);
+        ListRow row = new ListRow(null, null, null, null, null, null, ownershipType, null, null, null, null, null, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, null, Set.of());
 
         assertEquals(ownershipType, toolFilterInfo.ownershipType());
     }
 
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} rentTill field.
-     * Test creates object {@link Tool} with non-null test field and try to map it to {@link ToolFilterInfo} object.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map {@link ListRow} rentTill field.
+     * Test creates object {@link ListRow} with non-null test field and try to map it to {@link ToolFilterInfo} object.
      * Then checks by equality test field before mapping and after.
      */
     @Test
     public void map_to_tool_filter_info_should_map_rent_till() {
         LocalDate rentTill = LocalDate.of(2023, Month.MAY, 10);
-        Tool tool = new Tool();
-        tool.setRentTill(rentTill);
+        ListRow row = new ListRow(null, null, null, null, null, null, null, rentTill, null, null, null, null, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, null, Set.of());
 
         assertEquals(rentTill, toolFilterInfo.rentTill());
     }
 
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} isKit field.
-     * Test creates object {@link Tool} with non-null test field and try to map it to {@link ToolFilterInfo} object.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map {@link ListRow} isKit field.
+     * Test creates object {@link ListRow} with non-null test field and try to map it to {@link ToolFilterInfo} object.
      * Then checks by equality test field before mapping and after.
      */
     @Test
     public void map_to_tool_filter_info_should_map_is_kit() {
         Boolean isKit = true;
-        Tool tool = new Tool();
-        tool.setIsKit(isKit);
+        ListRow row = new ListRow(null, null, null, null, null, null, null, null, isKit, null, null, null, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, null, Set.of());
 
         assertEquals(isKit, toolFilterInfo.isKit());
     }
 
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} kitUuid field.
-     * Test creates object {@link Tool} with non-null test field and try to map it to {@link ToolFilterInfo} object.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map {@link ListRow} kitUuid field.
+     * Test creates object {@link ListRow} with non-null test field and try to map it to {@link ToolFilterInfo} object.
      * Then checks by equality test field before mapping and after.
      */
     @Test
     public void map_to_tool_filter_info_should_map_kit_uuid() {
         UUID kitUuid = UUID.fromString("f3d50cfe-4efa-4b70-ac6d-75c37ad8f6c8");
-        Tool tool = new Tool();
-        tool.setKitUuid(kitUuid);
+        ListRow row = new ListRow(null, null, null, null, null, null, null, null, null, kitUuid, null, null, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, null, Set.of());
 
         assertEquals(kitUuid, toolFilterInfo.kitUuid());
     }
 
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} labels field to set of label names.
-     * Test creates object {@link Tool} with non-null test field and try to map it to {@link ToolFilterInfo} object.
-     * Then checks by equality test field it should contain label names.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map label names of {@link ListRow}.
+     * Test creates object {@link ListRow} with non-null test field and try to map it to {@link ToolFilterInfo} object.
+     * Then checks by equality it should contain label names.
      */
     @Test
     public void map_to_tool_filter_info_should_map_labels() {
         String labelName1 = "new_label_1";
         String labelName2 = "new_label_2";
-        Label label1 = new Label();
-        Label label2 = new Label();
-        label1.setName(labelName1);
-        label2.setName(labelName2);
-        Tool tool = new Tool();
-        tool.addLabel(label1);
-        tool.addLabel(label2);
+        ListRow row = new ListRow(1L, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, null, Set.of(labelName1, labelName2));
 
         assertIterableEquals(Stream.of(labelName1, labelName2).sorted().collect(Collectors.toSet()),
                 toolFilterInfo.labels().stream().sorted().collect(Collectors.toSet()));
     }
 
     /**
-     * {@link ToolsDtoMapper#mapToToolFilterInfo(Tool)} should map {@link Tool} isArchived field.
-     * Test creates object {@link Tool} with non-null test field and try to map it to {@link ToolFilterInfo} object.
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map {@link ListRow} isArchived field.
+     * Test creates object {@link ListRow} with non-null test field and try to map it to {@link ToolFilterInfo} object.
      * Then checks by equality test field before mapping and after.
      */
     @Test
     public void map_to_tool_filter_info_should_map_is_archived() {
         Boolean isArchived = true;
-        Tool tool = new Tool();
-        tool.setIsArchived(isArchived);
+        ListRow row = new ListRow(null, null, null, null, null, null, null, null, null, null, null, null, isArchived, null, null);
 
-        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(tool);
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, null, null, Set.of());
 
         assertEquals(isArchived, toolFilterInfo.isArchived());
     }
@@ -612,4 +587,39 @@ public class ToolsDtoMapperTest {
         assertEquals(isArchived, toolInfo.isArchived());
     }
 
+    /**
+     * {@link ToolsDtoMapper#mapToToolFilterInfo(ListRow, String, String, Set)} should map all fields of {@link ListRow}
+     * with brand, category and labels names.
+     * Test creates row with non-null fields and try to map it to {@link ToolFilterInfo} object.
+     * Then checks by equality fields before mapping and after.
+     */
+    @Test
+    public void map_to_tool_filter_info_should_map_list_row() {
+        UUID uuid = UUID.fromString("f3d50cfe-4efa-4b70-ac6d-75c37ad8f6c8");
+        UUID kitUuid = UUID.fromString("3996a6ee-c40e-4401-b8c8-2f96f49d0c22");
+        LocalDate rentTill = LocalDate.of(2024, Month.DECEMBER, 30);
+        LocalDateTime createdAt = LocalDateTime.of(2023, Month.AUGUST, 13, 18, 5);
+        LocalDateTime updatedAt = createdAt.plusDays(1);
+        ListRow row = new ListRow(1L, uuid, "new_tool", true, "inventory_number", new BigDecimal("23400.11"),
+                OwnershipType.RENT, rentTill, false, kitUuid, 2L, 3L, false, createdAt, updatedAt);
+
+        ToolFilterInfo toolFilterInfo = mapper.mapToToolFilterInfo(row, "new_brand", "new_category", Set.of("Attention"));
+
+        assertEquals(1L, toolFilterInfo.id());
+        assertEquals(uuid, toolFilterInfo.uuid());
+        assertEquals("new_tool", toolFilterInfo.name());
+        assertEquals(true, toolFilterInfo.isConsumable());
+        assertEquals("inventory_number", toolFilterInfo.inventoryNumber());
+        assertEquals(new BigDecimal("23400.11"), toolFilterInfo.price());
+        assertEquals(OwnershipType.RENT, toolFilterInfo.ownershipType());
+        assertEquals(rentTill, toolFilterInfo.rentTill());
+        assertEquals(false, toolFilterInfo.isKit());
+        assertEquals(kitUuid, toolFilterInfo.kitUuid());
+        assertEquals("new_brand", toolFilterInfo.brand());
+        assertEquals("new_category", toolFilterInfo.category());
+        assertEquals(Set.of("Attention"), toolFilterInfo.labels());
+        assertEquals(false, toolFilterInfo.isArchived());
+        assertEquals(createdAt, toolFilterInfo.createdAt());
+        assertEquals(updatedAt, toolFilterInfo.updatedAt());
+    }
 }
@@ -0,0 +1,117 @@
+package tech.konso.toolsmanagement.modules.business.tools.tool.service.mappers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.ToolFilterInfo;
+import tech.konso.toolsmanagement.system.commons.export.ExportFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for ToolsExportWriter. Test for header, escaping and line per tool.
+ * For every test, the given-when-then is used.
+ * The given part sets the stage for the actual test and captures all prerequisites for executing the functionality
+ * we want to test. The when part triggers the operation that we actually want to test. And in the then part, we
+ * assert that the result that when the trigger produced is actually what we expect.
+ * <p> Example:
+ * <p> given - a calculator showing the number 2
+ * <p> when - adding the number 3
+ * <p> then - it should show the number 5
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ToolsExportWriterTest {
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    public void init() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    }
+
+    private String export(ExportFormat format, ToolFilterInfo... tools) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ToolsExportWriter writer = new ToolsExportWriter(format, out, objectMapper);
+        writer.writeHeader();
+        for (ToolFilterInfo tool : tools) {
+            writer.write(tool);
+        }
+        writer.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@link ToolsExportWriter#write(ToolFilterInfo)} in csv format should write header and one line per tool.
+     * Test writes two tools and checks number of lines, header and tool names.
+     */
+    @Test
+    public void write_csv_should_write_header_and_line_per_tool() throws IOException {
+        List<String> lines = export(ExportFormat.CSV,
+                ToolFilterInfo.builder().id(1L).name("tool_1").build(),
+                ToolFilterInfo.builder().id(2L).name("tool_2").build()).lines().toList();
+
+        assertEquals(3, lines.size());
+        assertEquals("id,uuid,name,isConsumable,brand,inventoryNumber,category,price,ownershipType,rentTill,isKit,kitUuid,labels,isArchived,createdAt,updatedAt",
+                lines.get(0));
+        assertEquals("tool_1", lines.get(1).split(",")[2]);
+        assertEquals("tool_2", lines.get(2).split(",")[2]);
+    }
+
+    /**
+     * {@link ToolsExportWriter#write(ToolFilterInfo)} in csv format should quote values with separator and quotes.
+     * Test writes tool with comma and quote in name and checks if name is quoted and quote is doubled.
+     */
+    @Test
+    public void write_csv_should_escape_separator_and_quotes() throws IOException {
+        List<String> lines = export(ExportFormat.CSV,
+                ToolFilterInfo.builder().id(1L).name("drill \"big\", red").build()).lines().toList();
+
+        assertEquals("1,,\"drill \"\"big\"\", red\",,,,,,,,,,,,,", lines.get(1));
+    }
+
+    /**
+     * {@link ToolsExportWriter#write(ToolFilterInfo)} in csv format should prefix values, which start as formula, with apostrophe.
+     * Test writes tool with formula in name and brand and checks if they are written as text.
+     */
+    @Test
+    public void write_csv_should_prefix_formulas() throws IOException {
+        List<String> lines = export(ExportFormat.CSV,
+                ToolFilterInfo.builder().id(1L).name("=HYPERLINK(\"http://example.com\")").brand("@SUM(A1)").build()).lines().toList();
+
+        assertEquals("1,,\"'=HYPERLINK(\"\"http://example.com\"\")\",,'@SUM(A1),,,,,,,,,,,", lines.get(1));
+    }
+
+    /**
+     * {@link ToolsExportWriter#write(ToolFilterInfo)} in csv format should join sorted labels by semicolon.
+     * Test writes tool with two labels and checks labels column.
+     */
+    @Test
+    public void write_csv_should_join_sorted_labels() throws IOException {
+        List<String> lines = export(ExportFormat.CSV,
+                ToolFilterInfo.builder().id(1L).name("tool_1").labels(Set.of("label_2", "label_1")).build()).lines().toList();
+
+        assertEquals("label_1;label_2", lines.get(1).split(",")[12]);
+    }
+
+    /**
+     * {@link ToolsExportWriter#write(ToolFilterInfo)} in ndjson format should write json object per line without header.
+     * Test writes two tools and parses every line back to {@link ToolFilterInfo}.
+     */
+    @Test
+    public void write_ndjson_should_write_json_per_line() throws IOException {
+        List<String> lines = export(ExportFormat.NDJSON,
+                ToolFilterInfo.builder().id(1L).name("tool_1").build(),
+                ToolFilterInfo.builder().id(2L).name("tool_2").build()).lines().toList();
+
+        assertEquals(2, lines.size());
+        assertEquals("tool_1", objectMapper.readValue(lines.get(0), ToolFilterInfo.class).name());
+        assertEquals("tool_2", objectMapper.readValue(lines.get(1), ToolFilterInfo.class).name());
+    }
+}
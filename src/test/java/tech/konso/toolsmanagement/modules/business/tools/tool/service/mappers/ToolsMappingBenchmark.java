@@ -0,0 +1,98 @@
+package tech.konso.toolsmanagement.modules.business.tools.tool.service.mappers;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tech.konso.toolsmanagement.modules.business.tools.label.persistence.dao.Label;
+import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.ToolFilterInfo;
+import tech.konso.toolsmanagement.modules.business.tools.tool.controller.dto.ToolInfo;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.dao.Tool;
+import tech.konso.toolsmanagement.modules.business.tools.tool.persistence.repository.ToolRepository.ListRow;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Benchmark of tool mapping cost per tool as number of tool labels grows.
+ * Labels are kept in hash set, so with proper label hash code the cost grows linearly with label count.
+ * <p>Benchmark is not run by tests. Run it from IDE with {@link #main(String[])}, or after test-compile with:
+ * <pre>
+ *     java -cp target/test-classes:target/classes:&lt;test classpath> \
+ *         tech.konso.toolsmanagement.modules.business.tools.tool.service.mappers.ToolsMappingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToolsMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int labelCount;
+
+    private ToolsDtoMapper mapper;
+
+    private List<Label> labels;
+
+    private Tool tool;
+
+    private ListRow row;
+
+    private Set<String> labelNames;
+
+    @Setup
+    public void setUp() {
+        mapper = new ToolsDtoMapper();
+        labels = LongStream.rangeClosed(1, labelCount).mapToObj(id -> {
+            Label label = new Label();
+            label.setId(id);
+            label.setName("label_" + id);
+            return label;
+        }).toList();
+        tool = new Tool();
+        tool.setName("tool");
+        labels.forEach(tool::addLabel);
+        row = new ListRow(1L, UUID.randomUUID(), "tool", false, "inventory_number", BigDecimal.TEN, null, null, false,
+                null, 1L, 1L, false, LocalDateTime.now(), LocalDateTime.now());
+        labelNames = labels.stream().map(Label::getName).collect(Collectors.toSet());
+    }
+
+    /**
+     * Replaces labels of tool, as {@link ToolsEntityMapper} does on every tool update.
+     */
+    @Benchmark
+    public Tool replace_labels() {
+        tool.removeLabels();
+        labels.forEach(tool::addLabel);
+        return tool;
+    }
+
+    /**
+     * Maps tool row of list of tools with label names, as {@link tech.konso.toolsmanagement.modules.business.tools.tool.service.ToolService} does for every tool of page.
+     */
+    @Benchmark
+    public ToolFilterInfo map_to_tool_filter_info() {
+        return mapper.mapToToolFilterInfo(row, "brand", "category", labelNames);
+    }
+
+    @Benchmark
+    public ToolInfo map_to_tool_info() {
+        return mapper.mapToToolInfo(tool);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ToolsMappingBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,172 @@
+package tech.konso.toolsmanagement.modules.integration.facade.implementation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CircuitBreaker. Test for opening by failure rate, rejecting calls while open and trial calls while half open.
+ * For every test, the given-when-then is used.
+ * The given part sets the stage for the actual test and captures all prerequisites for executing the functionality
+ * we want to test. The when part triggers the operation that we actually want to test. And in the then part, we
+ * assert that the result that when the trigger produced is actually what we expect.
+ * <p> Example:
+ * <p> given - a calculator showing the number 2
+ * <p> when - adding the number 3
+ * <p> then - it should show the number 5
+ */
+public class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private CircuitBreaker circuitBreaker() {
+        return new CircuitBreaker(50, 4, 4, Duration.ofSeconds(10), 2, clock::get);
+    }
+
+    private long acquire(CircuitBreaker breaker) {
+        long permit = breaker.tryAcquirePermission();
+        assertNotEquals(CircuitBreaker.NOT_PERMITTED, permit);
+        return permit;
+    }
+
+    private void failCalls(CircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.onFailure(acquire(breaker));
+        }
+    }
+
+    private void succeedCalls(CircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.onSuccess(acquire(breaker));
+        }
+    }
+
+    /**
+     * {@link CircuitBreaker#onFailure(long)} should open breaker, when failure rate reaches threshold in sliding window.
+     * Test makes successful and failed calls and checks, that breaker is opened only after minimum calls
+     * and rejects calls while open.
+     */
+    @Test
+    public void on_failure_should_open_breaker_by_failure_rate() {
+        CircuitBreaker breaker = circuitBreaker();
+
+        failCalls(breaker, 1);
+        succeedCalls(breaker, 2);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        failCalls(breaker, 1);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.tryAcquirePermission());
+    }
+
+    /**
+     * {@link CircuitBreaker#onFailure(long)} should calculate failure rate of the last calls only.
+     * Test makes failed calls followed by successful calls, which push failures out of sliding window,
+     * and checks, that breaker stays closed.
+     */
+    @Test
+    public void on_failure_should_count_only_last_calls() {
+        CircuitBreaker breaker = circuitBreaker();
+
+        failCalls(breaker, 1);
+        succeedCalls(breaker, 3);
+        succeedCalls(breaker, 2);
+        failCalls(breaker, 1);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    /**
+     * {@link CircuitBreaker#tryAcquirePermission()} should permit trial calls after open duration.
+     * Test opens breaker, waits open duration and checks, that only half open calls are permitted
+     * and breaker is closed, when all of them succeed.
+     */
+    @Test
+    public void try_acquire_permission_should_close_breaker_after_successful_trial_calls() {
+        CircuitBreaker breaker = circuitBreaker();
+        failCalls(breaker, 4);
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        long first = acquire(breaker);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        long second = acquire(breaker);
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.tryAcquirePermission());
+        breaker.onSuccess(first);
+        breaker.onSuccess(second);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    /**
+     * {@link CircuitBreaker#onFailure(long)} should open half open breaker on failed trial call.
+     * Test opens breaker, waits open duration, fails trial call and checks, that breaker is open again.
+     */
+    @Test
+    public void on_failure_should_open_half_open_breaker() {
+        CircuitBreaker breaker = circuitBreaker();
+        failCalls(breaker, 4);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        failCalls(breaker, 1);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.tryAcquirePermission());
+    }
+
+    /**
+     * {@link CircuitBreaker#releasePermission(long)} should return trial call, which was not made.
+     * Test takes all trial calls, releases one of them and checks, that it can be taken again.
+     */
+    @Test
+    public void release_permission_should_return_trial_call() {
+        CircuitBreaker breaker = circuitBreaker();
+        failCalls(breaker, 4);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        acquire(breaker);
+        long permit = acquire(breaker);
+
+        breaker.releasePermission(permit);
+
+        acquire(breaker);
+    }
+
+    /**
+     * {@link CircuitBreaker#onSuccess(long)} should ignore result of call permitted before the last change of state.
+     * Test permits slow call while closed, opens breaker by other calls and waits open duration.
+     * Then finishes the slow call successfully and checks, that it is not counted as trial call.
+     */
+    @Test
+    public void on_success_should_ignore_call_permitted_in_previous_state() {
+        CircuitBreaker breaker = circuitBreaker();
+        long slow = acquire(breaker);
+        failCalls(breaker, 4);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        long trial = acquire(breaker);
+
+        breaker.onSuccess(slow);
+        breaker.onSuccess(trial);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+    }
+
+    /**
+     * {@link CircuitBreaker#onFailure(long)} should not open half open breaker by call permitted before the last change of state.
+     * Test permits slow call while closed, opens breaker by other calls and waits open duration.
+     * Then fails the slow call and checks, that breaker is still half open.
+     */
+    @Test
+    public void on_failure_should_ignore_call_permitted_in_previous_state() {
+        CircuitBreaker breaker = circuitBreaker();
+        long slow = acquire(breaker);
+        failCalls(breaker, 4);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        acquire(breaker);
+
+        breaker.onFailure(slow);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+    }
+}
@@ -0,0 +1,233 @@
+package tech.konso.toolsmanagement.modules.integration.facade.implementation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DiskFileCache. Test for hits, misses, LRU eviction and single load of concurrent misses.
+ * For every test, the given-when-then is used.
+ * The given part sets the stage for the actual test and captures all prerequisites for executing the functionality
+ * we want to test. The when part triggers the operation that we actually want to test. And in the then part, we
+ * assert that the result that when the trigger produced is actually what we expect.
+ * <p> Example:
+ * <p> given - a calculator showing the number 2
+ * <p> when - adding the number 3
+ * <p> then - it should show the number 5
+ */
+public class DiskFileCacheTest {
+
+    @TempDir
+    private Path directory;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private byte[] read(FileChannel channel) throws IOException {
+        try (channel) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            channel.read(buffer, 0);
+            return buffer.array();
+        }
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("file.storage.cache.requests").tag("result", result).counter().count();
+    }
+
+    /**
+     * {@link DiskFileCache#get(FileType, UUID, DiskFileCache.Loader)} should load file on miss and serve it from disk on hit.
+     * Test gets the same file twice and checks content, number of loads and hit/miss metrics.
+     */
+    @Test
+    public void get_should_load_file_once_and_serve_hits_from_disk() throws IOException {
+        DiskFileCache cache = new DiskFileCache(directory, 1024, meterRegistry);
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        DiskFileCache.Loader loader = out -> {
+            loads.incrementAndGet();
+            out.write("photo".getBytes());
+        };
+
+        byte[] miss = read(cache.get(FileType.PHOTO_TOOL, id, loader));
+        byte[] hit = read(cache.get(FileType.PHOTO_TOOL, id, loader));
+
+        assertArrayEquals("photo".getBytes(), miss);
+        assertArrayEquals("photo".getBytes(), hit);
+        assertEquals(1, loads.get());
+        assertEquals(1, requests("miss"));
+        assertEquals(1, requests("hit"));
+        assertEquals(5, cache.totalBytes());
+    }
+
+    /**
+     * {@link DiskFileCache#get(FileType, UUID, DiskFileCache.Loader)} should keep files of different types apart.
+     * Test gets files with the same uuid and different types and checks, that both are loaded.
+     */
+    @Test
+    public void get_should_key_files_by_type_and_uuid() throws IOException {
+        DiskFileCache cache = new DiskFileCache(directory, 1024, meterRegistry);
+        UUID id = UUID.randomUUID();
+
+        byte[] tool = read(cache.get(FileType.PHOTO_TOOL, id, out -> out.write("tool".getBytes())));
+        byte[] person = read(cache.get(FileType.PHOTO_PERSON, id, out -> out.write("person".getBytes())));
+
+        assertArrayEquals("tool".getBytes(), tool);
+        assertArrayEquals("person".getBytes(), person);
+        assertEquals(2, cache.entries());
+    }
+
+    /**
+     * {@link DiskFileCache#get(FileType, UUID, String, DiskFileCache.Loader)} should keep variants of file apart
+     * and restore them after restart.
+     * Test gets file and its variant, creates new cache on the same directory and checks, that both are served without load.
+     */
+    @Test
+    public void get_should_key_files_by_variant_and_restore_them() throws IOException {
+        DiskFileCache cache = new DiskFileCache("thumbnails", directory, 1024, meterRegistry);
+        UUID id = UUID.randomUUID();
+        read(cache.get(FileType.PHOTO_TOOL, id, out -> out.write("full".getBytes())));
+        read(cache.get(FileType.PHOTO_TOOL, id, "thumb", out -> out.write("thumb".getBytes())));
+
+        DiskFileCache restored = new DiskFileCache("restored", directory, 1024, new SimpleMeterRegistry());
+        DiskFileCache.Loader loader = out -> fail("Cached file is loaded again");
+        byte[] full = read(restored.get(FileType.PHOTO_TOOL, id, loader));
+        byte[] thumb = read(restored.get(FileType.PHOTO_TOOL, id, "thumb", loader));
+
+        assertArrayEquals("full".getBytes(), full);
+        assertArrayEquals("thumb".getBytes(), thumb);
+        assertEquals(2, restored.entries());
+    }
+
+    /**
+     * {@link DiskFileCache#get(FileType, UUID, DiskFileCache.Loader)} should evict least recently used files above max size.
+     * Test loads two files, touches the first one, loads the third one and checks, that the second one is evicted.
+     */
+    @Test
+    public void get_should_evict_least_recently_used_file() throws IOException {
+        DiskFileCache cache = new DiskFileCache(directory, 25, meterRegistry);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        DiskFileCache.Loader loader = out -> {
+            loads.incrementAndGet();
+            out.write(new byte[10]);
+        };
+
+        read(cache.get(FileType.PHOTO_TOOL, first, loader));
+        read(cache.get(FileType.PHOTO_TOOL, second, loader));
+        read(cache.get(FileType.PHOTO_TOOL, first, loader));
+        read(cache.get(FileType.PHOTO_TOOL, third, loader));
+
+        assertEquals(3, loads.get());
+        assertEquals(20, cache.totalBytes());
+        assertEquals(1, meterRegistry.get("file.storage.cache.evictions").counter().count());
+        assertFalse(Files.exists(directory.resolve("photo_tool").resolve(second.toString())));
+        read(cache.get(FileType.PHOTO_TOOL, first, loader));
+        assertEquals(3, loads.get());
+        read(cache.get(FileType.PHOTO_TOOL, second, loader));
+        assertEquals(4, loads.get());
+    }
+
+    /**
+     * {@link DiskFileCache#get(FileType, UUID, DiskFileCache.Loader)} should load file once for concurrent misses.
+     * Test starts concurrent gets of the same file with slow loader and checks number of loads and content.
+     */
+    @Test
+    public void get_should_load_file_once_for_concurrent_misses() throws Exception {
+        DiskFileCache cache = new DiskFileCache(directory, 1024, meterRegistry);
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DiskFileCache.Loader loader = out -> {
+            loads.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            out.write("photo".getBytes());
+        };
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<byte[]>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> read(cache.get(FileType.PHOTO_TOOL, id, loader))));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<byte[]> result : results) {
+                assertArrayEquals("photo".getBytes(), result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * {@link DiskFileCache#get(FileType, UUID, DiskFileCache.Loader)} should not cache file, if load fails.
+     * Test gets file with failing loader and checks, that error is thrown, temporary file is removed and file is loaded again.
+     */
+    @Test
+    public void get_should_not_cache_failed_load() throws IOException {
+        DiskFileCache cache = new DiskFileCache(directory, 1024, meterRegistry);
+        UUID id = UUID.randomUUID();
+
+        assertThrows(BPException.class, () -> cache.get(FileType.PHOTO_TOOL, id, out -> {
+            out.write("part".getBytes());
+            throw new BPException.NotFound("File not found " + id);
+        }));
+
+        assertEquals(0, cache.entries());
+        try (Stream<Path> tmp = Files.list(directory.resolve(".tmp"))) {
+            assertEquals(0, tmp.count());
+        }
+        assertArrayEquals("photo".getBytes(), read(cache.get(FileType.PHOTO_TOOL, id, out -> out.write("photo".getBytes()))));
+    }
+
+    /**
+     * {@link DiskFileCache} should rebuild index from directory on start.
+     * Test loads file, creates new cache on the same directory and checks, that file is served without load.
+     */
+    @Test
+    public void cache_should_rebuild_index_on_start() throws IOException {
+        UUID id = UUID.randomUUID();
+        read(new DiskFileCache(directory, 1024, meterRegistry).get(FileType.PHOTO_PERSON, id, out -> out.write("photo".getBytes())));
+
+        DiskFileCache cache = new DiskFileCache(directory, 1024, new SimpleMeterRegistry());
+
+        assertEquals(1, cache.entries());
+        assertEquals(5, cache.totalBytes());
+        assertArrayEquals("photo".getBytes(), read(cache.get(FileType.PHOTO_PERSON, id, out -> fail("File must be cached"))));
+    }
+}
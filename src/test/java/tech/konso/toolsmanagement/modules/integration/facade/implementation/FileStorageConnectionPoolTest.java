@@ -0,0 +1,186 @@
+package tech.konso.toolsmanagement.modules.integration.facade.implementation;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Metrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.FileStream;
+import tech.konso.toolsmanagement.system.commons.configs.Config;
+import tech.konso.toolsmanagement.system.commons.configs.properties.FileStorageProperties;
+import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for pooled http client of file storage, which is created by {@link Config}, against local stub of file storage.
+ * Test for reusing of connections, limits of pool and pool metrics.
+ * For every test, the given-when-then is used.
+ * The given part sets the stage for the actual test and captures all prerequisites for executing the functionality
+ * we want to test. The when part triggers the operation that we actually want to test. And in the then part, we
+ * assert that the result that when the trigger produced is actually what we expect.
+ * <p> Example:
+ * <p> given - a calculator showing the number 2
+ * <p> when - adding the number 3
+ * <p> then - it should show the number 5
+ */
+public class FileStorageConnectionPoolTest {
+
+    private static final byte[] PHOTO = "photo".getBytes();
+
+    private HttpServer storage;
+
+    private ExecutorService storageExecutor;
+
+    private ConnectionProvider connectionProvider;
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private volatile boolean slow;
+
+    private FileStorageProperties properties;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        storageExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        storage = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        storage.setExecutor(storageExecutor);
+        storage.createContext("/v1", exchange -> {
+            try (exchange) {
+                clientPorts.add(exchange.getRemoteAddress().getPort());
+                if (slow) {
+                    release.await();
+                }
+                sendPhoto(exchange);
+            } catch (InterruptedException e) {
+                exchange.sendResponseHeaders(500, -1);
+            }
+        });
+        storage.start();
+
+        properties = new FileStorageProperties();
+        properties.setUrl("http://localhost:" + storage.getAddress().getPort());
+        properties.setWebClientBufferMegabytes(1);
+        properties.getConnections().setMaxConnections(2);
+        properties.getConnections().setPendingAcquireMaxCount(1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        storage.stop(0);
+        storageExecutor.shutdownNow();
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+
+    private FileStorageFacadeImpl facade() {
+        Config config = new Config();
+        connectionProvider = config.getFileStorageConnectionProvider(properties);
+        WebClient client = config.getFileStorageWebClient(WebClient.builder(), properties, connectionProvider);
+        FileStorageFacadeImpl facade = new FileStorageFacadeImpl();
+        ReflectionTestUtils.setField(facade, "client", client);
+        ReflectionTestUtils.setField(facade, "properties", properties);
+        return facade;
+    }
+
+    private static void sendPhoto(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+        exchange.sendResponseHeaders(200, PHOTO.length);
+        exchange.getResponseBody().write(PHOTO);
+    }
+
+    private static byte[] read(FileStream photo) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        photo.writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * {@link Config#getFileStorageConnectionProvider(FileStorageProperties)} should reuse connection between calls.
+     * Test downloads file several times one by one and checks, that requests don't open new connection every time.
+     */
+    @Test
+    public void connection_provider_should_reuse_connection() throws Exception {
+        FileStorageFacadeImpl facade = facade();
+
+        for (int i = 0; i < 5; i++) {
+            assertArrayEquals(PHOTO, read(facade.stream(UUID.randomUUID(), FileType.PHOTO_TOOL, null)));
+        }
+
+        assertTrue(clientPorts.size() < 5);
+    }
+
+    /**
+     * {@link Config#getFileStorageConnectionProvider(FileStorageProperties)} should limit opened connections
+     * and calls, which wait for free connection.
+     * Test starts four downloads in slow storage: two of them hold connections, one waits for connection.
+     * Checks, that the last one is rejected before storage answers, only two connections are opened
+     * and pool metrics are published.
+     */
+    @Test
+    public void connection_provider_should_reject_calls_above_pending_acquire_limit() throws Exception {
+        slow = true;
+        FileStorageFacadeImpl facade = facade();
+        List<Future<FileStream>> calls = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 4; i++) {
+                calls.add(executor.submit(() -> facade.stream(UUID.randomUUID(), FileType.PHOTO_TOOL, null)));
+            }
+
+            Future<FileStream> rejected = awaitDone(calls);
+
+            ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+            assertInstanceOf(BPException.ServiceUnavailable.class, e.getCause());
+            awaitConnections(2);
+            Thread.sleep(100);
+            assertEquals(2, clientPorts.size());
+            assertNotNull(Metrics.globalRegistry.find("reactor.netty.connection.provider.pending.connections")
+                    .tag("name", "file-storage")
+                    .gauge());
+            release.countDown();
+            calls.remove(rejected);
+            for (Future<FileStream> call : calls) {
+                assertArrayEquals(PHOTO, read(call.get(5, TimeUnit.SECONDS)));
+            }
+        }
+    }
+
+    private Future<FileStream> awaitDone(List<Future<FileStream>> calls) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(3).toNanos();
+        while (System.nanoTime() < deadline) {
+            for (Future<FileStream> call : calls) {
+                if (call.isDone()) {
+                    return call;
+                }
+            }
+            Thread.sleep(10);
+        }
+        return fail("No call is finished before storage answers");
+    }
+
+    private void awaitConnections(int connections) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (clientPorts.size() < connections && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package tech.konso.toolsmanagement.modules.integration.facade.implementation;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.system.commons.configs.properties.FileStorageProperties;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test of file storage facade on platform and virtual threads.
+ * Slow local stand-in of file storage service answers every photo request in {@value #STORAGE_DELAY_MILLIS} ms.
+ * Photo requests and cheap json requests are submitted to executor like Tomcat does: to pool of 200 platform threads,
+ * or to virtual thread per request. On platform threads json requests wait, until photo requests release threads.
+ * <p>Test is not run by default. Run it with:
+ * <pre>
+ *     mvn test -Dtest=FileStorageFacadeLoadTest -Dload=true
+ * </pre>
+ * For every test, the given-when-then is used.
+ * The given part sets the stage for the actual test and captures all prerequisites for executing the functionality
+ * we want to test. The when part triggers the operation that we actually want to test. And in the then part, we
+ * assert that the result that when the trigger produced is actually what we expect.
+ * <p> Example:
+ * <p> given - a calculator showing the number 2
+ * <p> when - adding the number 3
+ * <p> then - it should show the number 5
+ */
+@EnabledIfSystemProperty(named = "load", matches = "true")
+public class FileStorageFacadeLoadTest {
+
+    private static final int STORAGE_DELAY_MILLIS = 500;
+    private static final int PHOTO_SIZE = 8 * 1024;
+    private static final int PHOTO_REQUESTS = 1000;
+    private static final int JSON_REQUESTS = 1000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    private HttpServer storage;
+
+    private ExecutorService storageExecutor;
+
+    private ConnectionProvider connectionProvider;
+
+    private FileStorageFacadeImpl facade;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        byte[] photo = new byte[PHOTO_SIZE];
+        storageExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        storage = HttpServer.create(new InetSocketAddress("localhost", 0), PHOTO_REQUESTS);
+        storage.setExecutor(storageExecutor);
+        storage.createContext("/v1", exchange -> {
+            try (exchange) {
+                Thread.sleep(STORAGE_DELAY_MILLIS);
+                exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+                exchange.sendResponseHeaders(200, photo.length);
+                exchange.getResponseBody().write(photo);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        storage.start();
+
+        connectionProvider = ConnectionProvider.builder("file-storage-load-test")
+                .maxConnections(PHOTO_REQUESTS)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + storage.getAddress().getPort())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+        facade = new FileStorageFacadeImpl();
+        ReflectionTestUtils.setField(facade, "client", client);
+        ReflectionTestUtils.setField(facade, "properties", new FileStorageProperties());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        storage.stop(0);
+        storageExecutor.shutdownNow();
+        connectionProvider.dispose();
+    }
+
+    /**
+     * Runs photo requests and then json requests on executor and waits for all of them.
+     *
+     * @return elapsed millis of photo requests and of json requests
+     */
+    private long[] run(ExecutorService executor) throws Exception {
+        long start = System.nanoTime();
+        List<Future<?>> photos = new ArrayList<>();
+        List<Future<?>> jsons = new ArrayList<>();
+        try (executor) {
+            for (int i = 0; i < PHOTO_REQUESTS; i++) {
+                photos.add(executor.submit(() -> {
+                    try {
+                        facade.stream(UUID.randomUUID(), FileType.PHOTO_TOOL, null).writeTo(OutputStream.nullOutputStream());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            }
+            for (int i = 0; i < JSON_REQUESTS; i++) {
+                jsons.add(executor.submit(() -> UUID.randomUUID().toString()));
+            }
+            for (Future<?> json : jsons) {
+                json.get(1, TimeUnit.MINUTES);
+            }
+            long json = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            for (Future<?> photo : photos) {
+                photo.get(1, TimeUnit.MINUTES);
+            }
+            long photo = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new long[]{photo, json};
+        }
+    }
+
+    /**
+     * {@link FileStorageFacadeImpl#stream(UUID, FileType, String)} should not starve other requests on virtual threads.
+     * Test runs the same load on platform thread pool and on virtual threads and checks, that virtual threads
+     * serve photo requests with higher throughput and json requests without waiting for photo requests.
+     */
+    @Test
+    public void stream_should_scale_on_virtual_threads() throws Exception {
+        run(Executors.newVirtualThreadPerTaskExecutor());
+
+        long[] platform = run(Executors.newFixedThreadPool(TOMCAT_MAX_THREADS));
+        long[] virtual = run(Executors.newVirtualThreadPerTaskExecutor());
+
+        String result = String.format("platform threads: %d photos/s, json requests done in %d ms; virtual threads: %d photos/s, json requests done in %d ms",
+                PHOTO_REQUESTS * 1000L / platform[0], platform[1], PHOTO_REQUESTS * 1000L / virtual[0], virtual[1]);
+        assertTrue(virtual[0] * 2 < platform[0], result);
+        assertTrue(virtual[1] < STORAGE_DELAY_MILLIS, result);
+        assertTrue(platform[1] >= STORAGE_DELAY_MILLIS, result);
+    }
+}
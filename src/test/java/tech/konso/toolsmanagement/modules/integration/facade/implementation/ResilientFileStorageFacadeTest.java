@@ -0,0 +1,256 @@
+package tech.konso.toolsmanagement.modules.integration.facade.implementation;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.FileStream;
+import tech.konso.toolsmanagement.system.commons.configs.properties.FileStorageProperties;
+import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ResilientFileStorageFacade against local stub of file storage service.
+ * Test for timeouts, circuit breaker, bulkhead and hedged reads.
+ * For every test, the given-when-then is used.
+ * The given part sets the stage for the actual test and captures all prerequisites for executing the functionality
+ * we want to test. The when part triggers the operation that we actually want to test. And in the then part, we
+ * assert that the result that when the trigger produced is actually what we expect.
+ * <p> Example:
+ * <p> given - a calculator showing the number 2
+ * <p> when - adding the number 3
+ * <p> then - it should show the number 5
+ */
+public class ResilientFileStorageFacadeTest {
+
+    private static final byte[] PHOTO = "photo".getBytes();
+
+    /**
+     * Answers request of stub file storage, the argument is number of request starting with 1
+     */
+    @FunctionalInterface
+    private interface StubHandler {
+        void handle(HttpExchange exchange, int request) throws Exception;
+    }
+
+    private HttpServer storage;
+
+    private ExecutorService storageExecutor;
+
+    private ConnectionProvider connectionProvider;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private volatile StubHandler handler;
+
+    private FileStorageProperties properties;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        storageExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        storage = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        storage.setExecutor(storageExecutor);
+        storage.createContext("/v1", exchange -> {
+            try (exchange) {
+                handler.handle(exchange, requests.incrementAndGet());
+            } catch (Exception e) {
+                exchange.sendResponseHeaders(500, -1);
+            }
+        });
+        storage.start();
+        connectionProvider = ConnectionProvider.create("file-storage-resilience-test", 50);
+        meterRegistry = new SimpleMeterRegistry();
+
+        properties = new FileStorageProperties();
+        FileStorageProperties.Resilience resilience = properties.getResilience();
+        resilience.setResponseTimeout(Duration.ofMillis(300));
+        resilience.setMaxConcurrentCalls(2);
+        resilience.setSlidingWindowSize(4);
+        resilience.setMinimumCalls(4);
+        resilience.setOpenDuration(Duration.ofMillis(300));
+        resilience.setHalfOpenCalls(1);
+        resilience.setHedgeDelay(Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        storage.stop(0);
+        storageExecutor.shutdownNow();
+        connectionProvider.dispose();
+    }
+
+    private ResilientFileStorageFacade facade() {
+        WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + storage.getAddress().getPort())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+        FileStorageFacadeImpl delegate = new FileStorageFacadeImpl();
+        ReflectionTestUtils.setField(delegate, "client", client);
+        ReflectionTestUtils.setField(delegate, "properties", properties);
+        ResilientFileStorageFacade facade = new ResilientFileStorageFacade();
+        ReflectionTestUtils.setField(facade, "delegate", delegate);
+        ReflectionTestUtils.setField(facade, "properties", properties);
+        ReflectionTestUtils.setField(facade, "meterRegistry", meterRegistry);
+        facade.init();
+        return facade;
+    }
+
+    private static void sendPhoto(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+        exchange.sendResponseHeaders(200, PHOTO.length);
+        exchange.getResponseBody().write(PHOTO);
+    }
+
+    private static byte[] read(FileStream photo) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        photo.writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * {@link ResilientFileStorageFacade#stream(UUID, FileType, String)} should fail after response timeout.
+     * Test answers download slower than response timeout and checks, that {@link BPException.ServiceUnavailable}
+     * is thrown before the answer.
+     */
+    @Test
+    public void stream_should_fail_after_response_timeout() {
+        handler = (exchange, request) -> {
+            Thread.sleep(2000);
+            sendPhoto(exchange);
+        };
+        ResilientFileStorageFacade facade = facade();
+
+        long start = System.nanoTime();
+        assertThrows(BPException.ServiceUnavailable.class, () -> facade.stream(UUID.randomUUID(), FileType.PHOTO_TOOL, null));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1500);
+    }
+
+    /**
+     * {@link ResilientFileStorageFacade#stream(UUID, FileType, String)} should fail fast, while circuit breaker is open,
+     * and close breaker, when file storage recovers.
+     * Test fails downloads until breaker is opened, checks, that next call is rejected without request to storage,
+     * then recovers storage, waits open duration and checks, that trial call closes breaker.
+     */
+    @Test
+    public void stream_should_fail_fast_while_circuit_breaker_is_open() throws Exception {
+        handler = (exchange, request) -> exchange.sendResponseHeaders(500, -1);
+        ResilientFileStorageFacade facade = facade();
+        for (int i = 0; i < 4; i++) {
+            assertThrows(BPException.ServiceUnavailable.class, () -> facade.stream(UUID.randomUUID(), FileType.PHOTO_TOOL, null));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, facade.circuitState());
+
+        BPException rejected = assertThrows(BPException.ServiceUnavailable.class,
+                () -> facade.stream(UUID.randomUUID(), FileType.PHOTO_TOOL, null));
+        assertEquals(4, requests.get());
+        assertTrue(rejected.getMessage().contains("circuit breaker is open"));
+        assertEquals(1, meterRegistry.get("file.storage.circuit.state").gauge().value());
+
+        handler = (exchange, request) -> sendPhoto(exchange);
+        Thread.sleep(350);
+
+        assertArrayEquals(PHOTO, read(facade.stream(UUID.randomUUID(), FileType.PHOTO_TOOL, null)));
+        assertEquals(CircuitBreaker.State.CLOSED, facade.circuitState());
+    }
+
+    /**
+     * {@link ResilientFileStorageFacade#stream(UUID, FileType, String)} should not count not found file as failure.
+     * Test answers downloads with not found and checks, that circuit breaker stays closed.
+     */
+    @Test
+    public void stream_should_not_open_circuit_breaker_on_not_found() {
+        handler = (exchange, request) -> exchange.sendResponseHeaders(404, -1);
+        ResilientFileStorageFacade facade = facade();
+
+        for (int i = 0; i < 6; i++) {
+            assertThrows(BPException.NotFound.class, () -> facade.stream(UUID.randomUUID(), FileType.PHOTO_TOOL, null));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, facade.circuitState());
+    }
+
+    /**
+     * {@link ResilientFileStorageFacade#stream(UUID, FileType, String)} should reject calls above max concurrent calls.
+     * Test holds two downloads in slow storage and checks, that the third one is rejected without request to storage.
+     */
+    @Test
+    public void stream_should_reject_calls_above_bulkhead() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        handler = (exchange, request) -> {
+            started.countDown();
+            release.await();
+            sendPhoto(exchange);
+        };
+        properties.getResilience().setResponseTimeout(Duration.ofSeconds(5));
+        ResilientFileStorageFacade facade = facade();
+        List<Future<FileStream>> calls = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 2; i++) {
+                calls.add(executor.submit(() -> facade.stream(UUID.randomUUID(), FileType.PHOTO_TOOL, null)));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            BPException rejected = assertThrows(BPException.ServiceUnavailable.class,
+                    () -> facade.stream(UUID.randomUUID(), FileType.PHOTO_TOOL, null));
+
+            assertTrue(rejected.getMessage().contains("too many concurrent calls"));
+            assertEquals(2, requests.get());
+            release.countDown();
+            for (Future<FileStream> call : calls) {
+                assertArrayEquals(PHOTO, read(call.get(5, TimeUnit.SECONDS)));
+            }
+        }
+    }
+
+    /**
+     * {@link ResilientFileStorageFacade#stream(UUID, FileType, String)} should send the second request,
+     * if the first one is slow, and return the first response.
+     * Test answers the first download after two seconds and checks, that photo is returned
+     * from the second request before the first one is answered and hedge is counted.
+     */
+    @Test
+    public void stream_should_return_hedged_response() throws Exception {
+        handler = (exchange, request) -> {
+            if (request == 1) {
+                Thread.sleep(2000);
+            }
+            sendPhoto(exchange);
+        };
+        properties.getResilience().setHedgeEnabled(true);
+        properties.getResilience().setResponseTimeout(Duration.ofSeconds(5));
+        ResilientFileStorageFacade facade = facade();
+
+        long start = System.nanoTime();
+        byte[] photo = read(facade.stream(UUID.randomUUID(), FileType.PHOTO_TOOL, null));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        assertArrayEquals(PHOTO, photo);
+        assertEquals(2, requests.get());
+        assertEquals(1, meterRegistry.get("file.storage.hedges").counter().count());
+        facade.shutdown();
+    }
+}
@@ -0,0 +1,102 @@
+package tech.konso.toolsmanagement.modules.integration.thumbnail.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Photo resizer tests.
+ * For every test, the given-when-then is used.
+ * The given part sets the stage for the actual test and captures all prerequisites for executing the functionality
+ * we want to test. The when part triggers the operation that we actually want to test. And in the then part, we
+ * assert that the result that when the trigger produced is actually what we expect.
+ * <p> Example:
+ * <p> given - a calculator showing the number 2
+ * <p> when - adding the number 3
+ * <p> then - it should show the number 5
+ */
+public class PhotoResizerTest {
+
+    private static final String PATH_TO_JPEG_FILE = "src/test/resources/photo/TEST_PHOTO.jpeg";
+
+    private BufferedImage read(byte[] photo) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(photo));
+    }
+
+    /**
+     * {@link PhotoResizer#resize(byte[], int)} should scale photo down to fit square and keep proportions.
+     * Test resizes photo and checks size of resized photo.
+     */
+    @Test
+    public void resize_should_fit_photo_and_keep_proportions_test() throws IOException {
+        byte[] photo = Files.readAllBytes(Path.of(PATH_TO_JPEG_FILE));
+        BufferedImage source = read(photo);
+
+        BufferedImage resized = read(PhotoResizer.resize(photo, 32));
+
+        assertEquals(32, Math.max(resized.getWidth(), resized.getHeight()));
+        double sourceRatio = (double) source.getWidth() / source.getHeight();
+        double resizedRatio = (double) resized.getWidth() / resized.getHeight();
+        assertEquals(sourceRatio, resizedRatio, 0.1 * sourceRatio);
+    }
+
+    /**
+     * {@link PhotoResizer#resize(byte[], int)} should scale large photo down by several steps.
+     * Test generates large png photo, resizes it and checks, that resized photo is jpeg of target size.
+     */
+    @Test
+    public void resize_should_scale_large_photo_to_jpeg_test() throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_ARGB), "png", png);
+
+        byte[] resized = PhotoResizer.resize(png.toByteArray(), 64);
+
+        BufferedImage image = read(resized);
+        assertEquals(64, image.getWidth());
+        assertEquals(32, image.getHeight());
+        assertEquals((byte) 0xFF, resized[0]);
+        assertEquals((byte) 0xD8, resized[1]);
+    }
+
+    /**
+     * {@link PhotoResizer#resize(byte[], int)} should not upscale photo, which already fits.
+     * Test resizes photo to size larger than photo and checks, that photo is returned as it is.
+     */
+    @Test
+    public void resize_should_return_photo_if_it_fits_test() throws IOException {
+        byte[] photo = Files.readAllBytes(Path.of(PATH_TO_JPEG_FILE));
+
+        assertArrayEquals(photo, PhotoResizer.resize(photo, 4096));
+    }
+
+    /**
+     * {@link PhotoResizer#resize(byte[], int)} should reject photo above max pixels without decoding it.
+     * Test generates black and white png photo with more pixels than {@link PhotoResizer#MAX_PIXELS},
+     * which is small encoded, and checks, that exception is thrown.
+     */
+    @Test
+    public void resize_should_throw_exception_for_too_large_photo_test() throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(8000, 8000, BufferedImage.TYPE_BYTE_BINARY), "png", png);
+
+        IOException e = assertThrows(IOException.class, () -> PhotoResizer.resize(png.toByteArray(), 64));
+        assertEquals("Photo is too large: 8000x8000", e.getMessage());
+    }
+
+    /**
+     * {@link PhotoResizer#resize(byte[], int)} should throw {@link IOException} for unsupported format.
+     * Test resizes random bytes and checks, that exception is thrown.
+     */
+    @Test
+    public void resize_should_throw_exception_for_unsupported_format_test() {
+        assertThrows(IOException.class, () -> PhotoResizer.resize(new byte[]{1, 2, 3}, 64));
+    }
+}
@@ -0,0 +1,312 @@
+package tech.konso.toolsmanagement.modules.integration.upload.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import tech.konso.toolsmanagement.PostgreSQLContainerExtension;
+import tech.konso.toolsmanagement.modules.integration.facade.FileStorageFacade;
+import tech.konso.toolsmanagement.modules.integration.facade.FileType;
+import tech.konso.toolsmanagement.modules.integration.facade.dto.UploadResponse;
+import tech.konso.toolsmanagement.modules.integration.upload.dto.PhotoUploadInfo;
+import tech.konso.toolsmanagement.modules.integration.upload.persistence.dao.enums.UploadStatus;
+import tech.konso.toolsmanagement.system.commons.configs.properties.FileStorageProperties;
+import tech.konso.toolsmanagement.system.commons.exceptions.BPException;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Photo upload service layer tests.
+ * For every test, the given-when-then is used.
+ * The given part sets the stage for the actual test and captures all prerequisites for executing the functionality
+ * we want to test. The when part triggers the operation that we actually want to test. And in the then part, we
+ * assert that the result that when the trigger produced is actually what we expect.
+ * <p> Example:
+ * <p> given - a calculator showing the number 2
+ * <p> when - adding the number 3
+ * <p> then - it should show the number 5
+ */
+@SpringBootTest
+@ExtendWith(PostgreSQLContainerExtension.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class PhotoUploadServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PhotoUploadService service;
+
+    @Autowired
+    private FileStorageProperties properties;
+
+    @MockBean
+    private FileStorageFacade fileStorageFacade;
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM integration_photo_upload");
+    }
+
+    private MockMultipartFile getMockMultipartFile() {
+        return new MockMultipartFile("attachment", "photo.jpeg", MediaType.IMAGE_JPEG_VALUE, new byte[]{1, 2, 3});
+    }
+
+    /**
+     * Waits until background workers finish upload and returns its state
+     */
+    private PhotoUploadInfo awaitFinished(UUID uploadId, FileType fileType) throws InterruptedException {
+        PhotoUploadInfo upload = service.find(uploadId, fileType);
+        for (int i = 0; i < 50 && upload.status() == UploadStatus.PENDING; i++) {
+            Thread.sleep(100);
+            upload = service.find(uploadId, fileType);
+        }
+        return upload;
+    }
+
+    @Nested
+    class UploadTests {
+        /**
+         * {@link PhotoUploadService#upload(org.springframework.web.multipart.MultipartFile, FileType)} should record stored photo.
+         * Test uploads photo and checks, that returned uuid is uuid from storage service and stored upload is recorded.
+         */
+        @Test
+        public void upload_should_record_stored_photo_test() {
+            UUID photoUuid = UUID.randomUUID();
+            BDDMockito.given(fileStorageFacade.upload(any(), eq(FileType.PHOTO_TOOL))).willReturn(new UploadResponse(photoUuid, null));
+
+            UUID uuid = service.upload(getMockMultipartFile(), FileType.PHOTO_TOOL);
+
+            assertEquals(photoUuid, uuid);
+            String status = jdbcTemplate.queryForObject("SELECT status FROM integration_photo_upload WHERE file_uuid = ?", String.class, photoUuid);
+            assertEquals(UploadStatus.STORED.name(), status);
+        }
+
+        /**
+         * {@link PhotoUploadService#upload(org.springframework.web.multipart.MultipartFile, FileType)} should not record
+         * photo, if storage service returns error.
+         * Test uploads photo and checks, that {@link BPException} is thrown and no upload is recorded.
+         */
+        @Test
+        public void upload_should_throw_exception_if_storage_service_returns_error_test() {
+            BDDMockito.given(fileStorageFacade.upload(any(), eq(FileType.PHOTO_TOOL))).willReturn(new UploadResponse(null, "error"));
+
+            assertThrows(BPException.class, () -> service.upload(getMockMultipartFile(), FileType.PHOTO_TOOL));
+
+            Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM integration_photo_upload", Long.class);
+            assertEquals(0L, count);
+        }
+    }
+
+    @Nested
+    class UploadAsyncTests {
+        /**
+         * {@link PhotoUploadService#uploadAsync(org.springframework.web.multipart.MultipartFile, FileType)} should store photo
+         * in background and retry failed attempt.
+         * Test uploads photo, storage service fails the first attempt and stores photo on the second one.
+         * Then checks upload state, number of attempts and that spooled photo is deleted.
+         */
+        @Test
+        public void upload_async_should_retry_and_store_photo_test() throws Exception {
+            UUID photoUuid = UUID.randomUUID();
+            BDDMockito.given(fileStorageFacade.upload(any(), eq(FileType.PHOTO_PERSON)))
+                    .willThrow(new BPException.ServiceUnavailable("error"))
+                    .willReturn(new UploadResponse(photoUuid, null));
+
+            UUID uploadId = service.uploadAsync(getMockMultipartFile(), FileType.PHOTO_PERSON);
+
+            PhotoUploadInfo upload = awaitFinished(uploadId, FileType.PHOTO_PERSON);
+            assertEquals(UploadStatus.STORED, upload.status());
+            assertEquals(photoUuid, upload.photoUuid());
+            assertNull(upload.error());
+            Integer attempts = jdbcTemplate.queryForObject("SELECT attempts FROM integration_photo_upload WHERE upload_id = ?", Integer.class, uploadId);
+            assertEquals(2, attempts);
+            assertFalse(Files.exists(properties.getUpload().getSpoolDirectory().resolve(uploadId.toString())));
+        }
+
+        /**
+         * {@link PhotoUploadService#uploadAsync(org.springframework.web.multipart.MultipartFile, FileType)} should fail
+         * upload after max attempts.
+         * Test uploads photo, storage service fails every attempt. Then checks, that upload is failed with error
+         * and photo can't be referenced.
+         */
+        @Test
+        public void upload_async_should_fail_after_max_attempts_test() throws Exception {
+            BDDMockito.given(fileStorageFacade.upload(any(), eq(FileType.PHOTO_TOOL)))
+                    .willThrow(new BPException.ServiceUnavailable("error"));
+
+            UUID uploadId = service.uploadAsync(getMockMultipartFile(), FileType.PHOTO_TOOL);
+
+            PhotoUploadInfo upload = awaitFinished(uploadId, FileType.PHOTO_TOOL);
+            assertEquals(UploadStatus.FAILED, upload.status());
+            assertNull(upload.photoUuid());
+            assertEquals("error", upload.error());
+            assertFalse(Files.exists(properties.getUpload().getSpoolDirectory().resolve(uploadId.toString())));
+        }
+    }
+
+    @Nested
+    class ResumeTests {
+        /**
+         * {@link PhotoUploadService#resume()} should store photo spooled by this instance before restart.
+         * Test records pending upload of this instance and spools its photo, then resumes uploads
+         * and checks, that upload is stored.
+         */
+        @Test
+        public void resume_should_store_photo_spooled_by_this_instance_test() throws Exception {
+            UUID uploadId = UUID.randomUUID();
+            UUID photoUuid = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status, instance_id) VALUES (?, 'PHOTO_TOOL', 'PENDING', ?)",
+                    uploadId, properties.getUpload().getInstanceId());
+            Files.write(properties.getUpload().getSpoolDirectory().resolve(uploadId.toString()), new byte[]{1, 2, 3});
+            BDDMockito.given(fileStorageFacade.upload(any(), eq(FileType.PHOTO_TOOL))).willReturn(new UploadResponse(photoUuid, null));
+
+            service.resume();
+
+            PhotoUploadInfo upload = awaitFinished(uploadId, FileType.PHOTO_TOOL);
+            assertEquals(UploadStatus.STORED, upload.status());
+            assertEquals(photoUuid, upload.photoUuid());
+        }
+
+        /**
+         * {@link PhotoUploadService#resume()} should fail upload of this instance, which spooled photo is lost.
+         * Test records pending upload of this instance without spooled photo, then resumes uploads
+         * and checks, that upload is failed.
+         */
+        @Test
+        public void resume_should_fail_upload_with_lost_photo_test() {
+            UUID uploadId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status, instance_id) VALUES (?, 'PHOTO_TOOL', 'PENDING', ?)",
+                    uploadId, properties.getUpload().getInstanceId());
+
+            service.resume();
+
+            PhotoUploadInfo upload = service.find(uploadId, FileType.PHOTO_TOOL);
+            assertEquals(UploadStatus.FAILED, upload.status());
+            assertEquals("Spooled photo is lost", upload.error());
+        }
+
+        /**
+         * {@link PhotoUploadService#resume()} should not change uploads spooled by other instances.
+         * Test records pending upload of another instance, which photo is not on local disk, then resumes uploads
+         * and checks, that upload is still pending and storage service is not called.
+         */
+        @Test
+        public void resume_should_not_change_uploads_of_other_instances_test() {
+            UUID uploadId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status, instance_id) VALUES (?, 'PHOTO_TOOL', 'PENDING', 'other-instance')",
+                    uploadId);
+
+            service.resume();
+
+            PhotoUploadInfo upload = service.find(uploadId, FileType.PHOTO_TOOL);
+            assertEquals(UploadStatus.PENDING, upload.status());
+            assertNull(upload.error());
+            BDDMockito.then(fileStorageFacade).shouldHaveNoInteractions();
+        }
+
+        /**
+         * {@link PhotoUploadService#resume()} should take and store upload spooled before instance id was recorded,
+         * when its photo is on local disk.
+         * Test records pending upload without instance id and spools its photo, then resumes uploads
+         * and checks, that upload is stored and recorded for this instance.
+         */
+        @Test
+        public void resume_should_store_photo_spooled_without_instance_id_test() throws Exception {
+            UUID uploadId = UUID.randomUUID();
+            UUID photoUuid = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status) VALUES (?, 'PHOTO_TOOL', 'PENDING')", uploadId);
+            Files.write(properties.getUpload().getSpoolDirectory().resolve(uploadId.toString()), new byte[]{1, 2, 3});
+            BDDMockito.given(fileStorageFacade.upload(any(), eq(FileType.PHOTO_TOOL))).willReturn(new UploadResponse(photoUuid, null));
+
+            service.resume();
+
+            PhotoUploadInfo upload = awaitFinished(uploadId, FileType.PHOTO_TOOL);
+            assertEquals(UploadStatus.STORED, upload.status());
+            String instanceId = jdbcTemplate.queryForObject("SELECT instance_id FROM integration_photo_upload WHERE upload_id = ?", String.class, uploadId);
+            assertEquals(properties.getUpload().getInstanceId(), instanceId);
+        }
+
+        /**
+         * {@link PhotoUploadService#resume()} should not change upload spooled before instance id was recorded,
+         * when its photo is not on local disk.
+         * Test records pending upload without instance id and spooled photo, then resumes uploads
+         * and checks, that upload is still pending and not taken by this instance.
+         */
+        @Test
+        public void resume_should_not_change_upload_without_instance_id_and_photo_test() {
+            UUID uploadId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status) VALUES (?, 'PHOTO_TOOL', 'PENDING')", uploadId);
+
+            service.resume();
+
+            PhotoUploadInfo upload = service.find(uploadId, FileType.PHOTO_TOOL);
+            assertEquals(UploadStatus.PENDING, upload.status());
+            String instanceId = jdbcTemplate.queryForObject("SELECT instance_id FROM integration_photo_upload WHERE upload_id = ?", String.class, uploadId);
+            assertNull(instanceId);
+        }
+
+        /**
+         * {@link PhotoUploadService#uploadAsync(org.springframework.web.multipart.MultipartFile, FileType)} should record
+         * instance, which spooled photo.
+         * Test uploads photo and checks instance id of upload.
+         */
+        @Test
+        public void upload_async_should_record_instance_id_test() throws Exception {
+            BDDMockito.given(fileStorageFacade.upload(any(), eq(FileType.PHOTO_TOOL))).willReturn(new UploadResponse(UUID.randomUUID(), null));
+
+            UUID uploadId = service.uploadAsync(getMockMultipartFile(), FileType.PHOTO_TOOL);
+
+            awaitFinished(uploadId, FileType.PHOTO_TOOL);
+            String instanceId = jdbcTemplate.queryForObject("SELECT instance_id FROM integration_photo_upload WHERE upload_id = ?", String.class, uploadId);
+            assertEquals(properties.getUpload().getInstanceId(), instanceId);
+        }
+    }
+
+    @Nested
+    class CheckStoredTests {
+        /**
+         * {@link PhotoUploadService#checkStored(java.util.Collection, FileType)} should pass for stored photos.
+         * Test records stored photo and checks, that no exception is thrown.
+         */
+        @Test
+        public void check_stored_should_pass_for_stored_photos_test() {
+            UUID photoUuid = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status, file_uuid) VALUES (?, 'PHOTO_TOOL', 'STORED', ?)",
+                    UUID.randomUUID(), photoUuid);
+
+            assertDoesNotThrow(() -> service.checkStored(Set.of(photoUuid), FileType.PHOTO_TOOL));
+            assertDoesNotThrow(() -> service.checkStored(List.of(), FileType.PHOTO_TOOL));
+        }
+
+        /**
+         * {@link PhotoUploadService#checkStored(java.util.Collection, FileType)} should throw {@link BPException}
+         * for not stored photo or photo of another file type.
+         * Test records stored photo of tool and checks photo of person with its uuid and photo with unknown uuid.
+         */
+        @Test
+        public void check_stored_should_throw_exception_for_not_stored_photo_test() {
+            UUID photoUuid = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO integration_photo_upload (upload_id, file_type, status, file_uuid) VALUES (?, 'PHOTO_TOOL', 'STORED', ?)",
+                    UUID.randomUUID(), photoUuid);
+
+            assertThrows(BPException.class, () -> service.checkStored(Set.of(photoUuid), FileType.PHOTO_PERSON));
+            assertThrows(BPException.class, () -> service.checkStored(Set.of(photoUuid, UUID.randomUUID()), FileType.PHOTO_TOOL));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package tech.konso.toolsmanagement.system.commons.suggest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SuggestIndex. Test for prefix search, incremental updates, rebuild and memory metrics.
+ * For every test, the given-when-then is used.
+ * The given part sets the stage for the actual test and captures all prerequisites for executing the functionality
+ * we want to test. The when part triggers the operation that we actually want to test. And in the then part, we
+ * assert that the result that when the trigger produced is actually what we expect.
+ * <p> Example:
+ * <p> given - a calculator showing the number 2
+ * <p> when - adding the number 3
+ * <p> then - it should show the number 5
+ */
+public class SuggestIndexTest {
+
+    private MeterRegistry meterRegistry;
+
+    private SuggestIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new SuggestIndex("test", meterRegistry);
+    }
+
+    private List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).toList();
+    }
+
+    /**
+     * {@link SuggestIndex#suggest(String, int)} should find texts, which start with prefix ignoring case, in alphabetical order.
+     * Test puts texts of three entities and searches them by lower case prefix.
+     * Then test checks that only matched texts are found in order and their ids.
+     */
+    @Test
+    public void suggest_should_find_by_prefix_ignoring_case_in_order() {
+        index.put(1L, List.of("Makita MTK24"));
+        index.put(2L, List.of("makita drill"));
+        index.put(3L, List.of("Bosch grinder"));
+
+        List<Suggestion> suggestions = index.suggest("MAK", 10);
+
+        assertEquals(List.of("makita drill", "Makita MTK24"), texts(suggestions));
+        assertEquals(List.of(2L, 1L), suggestions.stream().map(Suggestion::id).toList());
+    }
+
+    /**
+     * {@link SuggestIndex#suggest(String, int)} should return not more suggestions than limit
+     * and nothing for blank prefix.
+     * Test puts ten texts with the same prefix and searches them with limit 3 and with blank prefix.
+     */
+    @Test
+    public void suggest_should_limit_suggestions() {
+        for (long id = 0; id < 10; id++) {
+            index.put(id, List.of("tool_" + id));
+        }
+
+        assertEquals(List.of("tool_0", "tool_1", "tool_2"), texts(index.suggest("tool", 3)));
+        assertTrue(index.suggest(" ", 3).isEmpty());
+    }
+
+    /**
+     * {@link SuggestIndex#put(long, java.util.Collection)} should replace all texts of entity
+     * and {@link SuggestIndex#remove(long)} should remove them.
+     * Test puts two texts of entity, replaces them with one text and removes entity.
+     * Then test checks suggestions and number of entries after every change.
+     */
+    @Test
+    public void put_should_replace_and_remove_should_delete_texts_of_entity() {
+        index.put(1L, List.of("Makita MTK24", "0014-HANDTOOL"));
+        index.put(2L, List.of("Makita drill"));
+        assertEquals(3, index.size());
+
+        index.put(1L, List.of("Metabo saw"));
+
+        assertEquals(List.of("Makita drill"), texts(index.suggest("mak", 10)));
+        assertTrue(index.suggest("0014", 10).isEmpty());
+        assertEquals(List.of("Metabo saw"), texts(index.suggest("met", 10)));
+
+        index.remove(1L);
+
+        assertTrue(index.suggest("met", 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    /**
+     * {@link SuggestIndex#putAll(Map)} should replace texts of several entities at once, blank texts are skipped.
+     */
+    @Test
+    public void putAll_should_put_texts_of_all_entities() {
+        index.put(1L, List.of("old"));
+
+        index.putAll(Map.of(1L, List.of("tool_1"), 2L, List.of("tool_2", " ")));
+
+        assertEquals(List.of("tool_1", "tool_2"), texts(index.suggest("tool", 10)));
+        assertTrue(index.suggest("old", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    /**
+     * {@link SuggestIndex#rebuild(java.util.function.Supplier)} should replace all entries and keep updates
+     * made while entries are loaded.
+     * Test puts text, which is not loaded by rebuild, and puts another text from loader during rebuild.
+     * Then test checks, that loaded text and text put during rebuild are found and old text is not.
+     */
+    @Test
+    public void rebuild_should_replace_entries_and_keep_concurrent_updates() {
+        index.put(1L, List.of("stale"));
+
+        index.rebuild(() -> {
+            index.put(3L, List.of("tool_3"));
+            return Stream.of(new SuggestIndex.Entry(2L, "tool_2"));
+        });
+
+        assertEquals(List.of("tool_2", "tool_3"), texts(index.suggest("tool", 10)));
+        assertTrue(index.suggest("stale", 10).isEmpty());
+    }
+
+    /**
+     * {@link SuggestIndex} should publish number of entries and estimated memory per entry.
+     * Test puts two entries and checks gauges. Lower case text is stored once, so its entry is smaller.
+     */
+    @Test
+    public void metrics_should_report_entries_and_memory_per_entry() {
+        index.put(1L, List.of("makita"));
+        long lowerCaseBytes = index.estimatedBytes();
+        index.put(2L, List.of("Makita"));
+
+        assertEquals(2, meterRegistry.get("suggest.index.entries").tag("index", "test").gauge().value());
+        assertTrue(index.estimatedBytes() - lowerCaseBytes > lowerCaseBytes);
+        assertEquals(index.estimatedBytes() / 2.0,
+                meterRegistry.get("suggest.index.entry.size").tag("index", "test").gauge().value());
+    }
+}